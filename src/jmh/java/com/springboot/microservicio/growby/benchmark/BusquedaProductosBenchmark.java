@@ -0,0 +1,57 @@
+package com.springboot.microservicio.growby.benchmark;
+
+import com.springboot.microservicio.growby.cache.IndiceBusquedaProductos;
+import com.springboot.microservicio.growby.dto.ProductoBusquedaDTO;
+import com.springboot.microservicio.growby.model.Producto;
+import com.springboot.microservicio.growby.repository.ProductoRepository;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mide {@link IndiceBusquedaProductos#buscar(String, Producto.Estado, int)} sobre un catálogo de
+ * 50.000 productos con consultas de dos palabras cuya última está a medio escribir: una amplia, cuya
+ * primera palabra está en uno de cada ocho productos, y una selectiva, que coincide con unos pocos.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BusquedaProductosBenchmark {
+
+    private static final String[] NOMBRES = {"Camión", "Camiseta", "Cámara", "Muñeca", "Balón", "Pelota", "Tractor", "Lámpara"};
+    private static final String[] ADJETIVOS = {"rojo", "azul", "pequeño", "grande", "de madera", "de metal", "eléctrico"};
+
+    private IndiceBusquedaProductos indice;
+
+    @Setup
+    public void setUp() {
+        List<Producto> productos = new ArrayList<>();
+        for (long id = 1; id <= 50_000; id++) {
+            Producto producto = new Producto();
+            producto.setId(id);
+            producto.setNombre(NOMBRES[(int) (id % NOMBRES.length)] + " " + ADJETIVOS[(int) (id % ADJETIVOS.length)] + " " + id);
+            producto.setDescripcion("Artículo de catálogo número " + id);
+            producto.setEstado(id % 10 == 0 ? Producto.Estado.INACTIVO : Producto.Estado.ACTIVO);
+            productos.add(producto);
+        }
+        indice = new IndiceBusquedaProductos(Stubs.repositorio(ProductoRepository.class,
+                Map.of("findAll", args -> productos)));
+        indice.cargar();
+    }
+
+    @Benchmark
+    public List<ProductoBusquedaDTO> buscarAmplia() {
+        return indice.buscar("camion ele", Producto.Estado.ACTIVO, 10);
+    }
+
+    @Benchmark
+    public List<ProductoBusquedaDTO> buscarSelectiva() {
+        return indice.buscar("lampara 4321", Producto.Estado.ACTIVO, 10);
+    }
+}
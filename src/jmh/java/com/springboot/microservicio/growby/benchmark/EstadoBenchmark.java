@@ -0,0 +1,26 @@
+package com.springboot.microservicio.growby.benchmark;
+
+import com.springboot.microservicio.growby.model.Producto;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mide la conversión de texto a {@link Producto.Estado} usada al crear productos.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EstadoBenchmark {
+
+    @Param({"ACTIVO", "activo", "Inactivo"})
+    private String estado;
+
+    @Benchmark
+    public Producto.Estado fromString() {
+        return Producto.Estado.fromString(estado);
+    }
+}
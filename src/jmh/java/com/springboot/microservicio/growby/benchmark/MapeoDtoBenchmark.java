@@ -0,0 +1,86 @@
+package com.springboot.microservicio.growby.benchmark;
+
+import com.springboot.microservicio.growby.cache.IndiceBusquedaProductos;
+import com.springboot.microservicio.growby.cache.IndiceEmailClientes;
+import com.springboot.microservicio.growby.cache.ProductoCache;
+import com.springboot.microservicio.growby.contador.ContadorEntidades;
+import com.springboot.microservicio.growby.contador.VersionesColecciones;
+import com.springboot.microservicio.growby.dto.ClienteDTO;
+import com.springboot.microservicio.growby.dto.ProductoDTO;
+import com.springboot.microservicio.growby.model.Cliente;
+import com.springboot.microservicio.growby.model.Producto;
+import com.springboot.microservicio.growby.repository.ClienteRepository;
+import com.springboot.microservicio.growby.repository.OrdenRepository;
+import com.springboot.microservicio.growby.repository.ProductoRepository;
+import com.springboot.microservicio.growby.service.impl.ClienteServiceImpl;
+import com.springboot.microservicio.growby.service.impl.ProductoServiceImpl;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Mide el alta de clientes y productos con repositorios en memoria, es decir, la conversión
+ * de los DTO en entidades y las comprobaciones previas a guardarlas.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MapeoDtoBenchmark {
+
+    private ClienteServiceImpl clienteService;
+    private ProductoServiceImpl productoService;
+    private ClienteDTO clienteDTO;
+    private ProductoDTO productoDTO;
+
+    @Setup
+    public void setUp() {
+        AtomicLong ids = new AtomicLong();
+        ClienteRepository clienteRepository = Stubs.repositorio(ClienteRepository.class, Map.of(
+                "findAllEmails", args -> List.of(),
+                "findByEmail", args -> Optional.empty(),
+                "saveAndFlush", args -> {
+                    Cliente cliente = (Cliente) args[0];
+                    cliente.setId(ids.incrementAndGet());
+                    return cliente;
+                }));
+        ProductoRepository productoRepository = Stubs.repositorio(ProductoRepository.class, Map.of(
+                "save", args -> {
+                    Producto producto = (Producto) args[0];
+                    producto.setId(ids.incrementAndGet());
+                    return producto;
+                }));
+        OrdenRepository ordenRepository = Stubs.repositorio(OrdenRepository.class, Map.of());
+        ContadorEntidades contadorEntidades = new ContadorEntidades(clienteRepository, productoRepository, ordenRepository);
+
+        IndiceEmailClientes indiceEmailClientes = new IndiceEmailClientes(clienteRepository);
+        indiceEmailClientes.cargar();
+
+        clienteService = new ClienteServiceImpl(clienteRepository, contadorEntidades, indiceEmailClientes, null, null,
+                new VersionesColecciones(), Stubs.sinTransacciones());
+        productoService = new ProductoServiceImpl(productoRepository,
+                new ProductoCache(productoRepository, 1000, Duration.ofHours(1)), contadorEntidades, null,
+                new VersionesColecciones(), null, new IndiceBusquedaProductos(productoRepository),
+                Stubs.sinTransacciones());
+        clienteDTO = new ClienteDTO("Juan Pérez", "juan.perez@example.com", "555-1234");
+        productoDTO = new ProductoDTO("Producto A", "Descripción del Producto A", new BigDecimal("10.00"), "Activo", null);
+    }
+
+    @Benchmark
+    public Cliente saveCliente() {
+        return clienteService.save(clienteDTO);
+    }
+
+    @Benchmark
+    public Producto saveProducto() {
+        return productoService.save(productoDTO);
+    }
+}
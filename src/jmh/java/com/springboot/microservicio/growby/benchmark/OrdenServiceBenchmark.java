@@ -0,0 +1,86 @@
+package com.springboot.microservicio.growby.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.springboot.microservicio.growby.cache.ProductoCache;
+import com.springboot.microservicio.growby.contador.ContadorEntidades;
+import com.springboot.microservicio.growby.contador.VersionesColecciones;
+import com.springboot.microservicio.growby.dto.OrdenDTO;
+import com.springboot.microservicio.growby.model.Cliente;
+import com.springboot.microservicio.growby.model.Orden;
+import com.springboot.microservicio.growby.model.Producto;
+import com.springboot.microservicio.growby.repository.ClienteRepository;
+import com.springboot.microservicio.growby.repository.OrdenRepository;
+import com.springboot.microservicio.growby.repository.ProductoRepository;
+import com.springboot.microservicio.growby.repository.ResumenClienteRepository;
+import com.springboot.microservicio.growby.repository.VentaDiariaClienteRepository;
+import com.springboot.microservicio.growby.repository.VentaDiariaProductoRepository;
+import com.springboot.microservicio.growby.service.impl.AnaliticaServiceImpl;
+import com.springboot.microservicio.growby.service.impl.OrdenServiceImpl;
+import com.springboot.microservicio.growby.stock.ReservasStock;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Mide {@link OrdenServiceImpl#save(OrdenDTO)} con repositorios en memoria: búsqueda del producto
+ * y del cliente, cálculo del total con {@link BigDecimal}, construcción de la entidad y
+ * agrupación de la venta para los acumulados diarios y el resumen del cliente.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OrdenServiceBenchmark {
+
+    private OrdenServiceImpl ordenService;
+    private OrdenDTO ordenDTO;
+
+    @Setup
+    public void setUp() {
+        Producto producto = new Producto();
+        producto.setId(1L);
+        producto.setNombre("Producto A");
+        producto.setPrecio(new BigDecimal("15.50"));
+        producto.setEstado(Producto.Estado.ACTIVO);
+
+        Cliente cliente = new Cliente();
+        cliente.setId(1L);
+        cliente.setNombre("Juan Pérez");
+        cliente.setEmail("juan.perez@example.com");
+
+        AtomicLong ids = new AtomicLong();
+        ProductoRepository productoRepository = Stubs.repositorio(ProductoRepository.class,
+                Map.of("findById", args -> Optional.of(producto)));
+        ClienteRepository clienteRepository = Stubs.repositorio(ClienteRepository.class,
+                Map.of("findById", args -> Optional.of(cliente)));
+        OrdenRepository ordenRepository = Stubs.repositorio(OrdenRepository.class, Map.of("save", args -> {
+            Orden orden = (Orden) args[0];
+            orden.setId(ids.incrementAndGet());
+            return orden;
+        }));
+        AnaliticaServiceImpl analiticaService = new AnaliticaServiceImpl(
+                Stubs.repositorio(VentaDiariaProductoRepository.class, Map.of("acumular", args -> 1)),
+                Stubs.repositorio(VentaDiariaClienteRepository.class, Map.of("acumular", args -> 1)),
+                Stubs.repositorio(ResumenClienteRepository.class, Map.of("acumular", args -> 1)),
+                ordenRepository, null);
+
+        ordenService = new OrdenServiceImpl(ordenRepository, clienteRepository,
+                new ProductoCache(productoRepository, 1000, Duration.ofHours(1)),
+                new ContadorEntidades(clienteRepository, productoRepository, ordenRepository),
+                null, new ObjectMapper(), analiticaService, new VersionesColecciones(),
+                new ReservasStock(productoRepository, ordenRepository, null, 500), Stubs.sinTransacciones());
+        ordenDTO = new OrdenDTO(3, null, 1L, 1L);
+    }
+
+    @Benchmark
+    public Orden save() {
+        return ordenService.save(ordenDTO);
+    }
+}
@@ -0,0 +1,72 @@
+package com.springboot.microservicio.growby.benchmark;
+
+import com.springboot.microservicio.growby.SpringBootMicroservicioGrowbyApplication;
+import com.springboot.microservicio.growby.dto.ClienteDTO;
+import com.springboot.microservicio.growby.dto.OrdenDTO;
+import com.springboot.microservicio.growby.dto.PaginaCursorDTO;
+import com.springboot.microservicio.growby.dto.ProductoDTO;
+import com.springboot.microservicio.growby.model.Orden;
+import com.springboot.microservicio.growby.service.ClienteService;
+import com.springboot.microservicio.growby.service.OrdenService;
+import com.springboot.microservicio.growby.service.ProductoService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mide el alta y el listado de órdenes a través de la aplicación completa sobre una base de datos H2
+ * embebida, incluyendo Spring Data, Hibernate y JDBC.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OrdenServiceH2Benchmark {
+
+    private ConfigurableApplicationContext contexto;
+    private OrdenService ordenService;
+    private OrdenDTO ordenDTO;
+
+    @Setup(Level.Trial)
+    public void arrancar() {
+        contexto = new SpringApplicationBuilder(SpringBootMicroservicioGrowbyApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "spring.datasource.url=jdbc:h2:mem:benchmark;DB_CLOSE_ON_EXIT=FALSE",
+                        "spring.jpa.show-sql=false",
+                        "spring.main.banner-mode=off",
+                        "logging.level.root=WARN")
+                .run();
+        ordenService = contexto.getBean(OrdenService.class);
+
+        Long clienteId = contexto.getBean(ClienteService.class)
+                .save(new ClienteDTO("Juan Pérez", "juan.perez@example.com", "555-1234")).getId();
+        Long productoId = contexto.getBean(ProductoService.class)
+                .save(new ProductoDTO("Producto A", "Descripción del Producto A", new BigDecimal("10.00"), "ACTIVO", null)).getId();
+        ordenDTO = new OrdenDTO(2, null, clienteId, productoId);
+        for (int i = 0; i < 100; i++) {
+            ordenService.save(ordenDTO);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void detener() {
+        contexto.close();
+    }
+
+    @Benchmark
+    public Orden save() {
+        return ordenService.save(ordenDTO);
+    }
+
+    @Benchmark
+    public PaginaCursorDTO<Orden> findAllPaginado() {
+        return ordenService.findAll(null, 50);
+    }
+}
@@ -0,0 +1,46 @@
+package com.springboot.microservicio.growby.benchmark;
+
+import com.springboot.microservicio.growby.model.Producto;
+import com.springboot.microservicio.growby.repository.OrdenRepository;
+import com.springboot.microservicio.growby.repository.ProductoRepository;
+import com.springboot.microservicio.growby.stock.ReservasStock;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mide {@link ReservasStock#reservar(Producto, int)} con todos los hilos reservando unidades del mismo
+ * producto, el caso de un producto muy vendido. Cada reserva se libera a continuación para que el
+ * stock no se agote durante la medición.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(Threads.MAX)
+public class ReservasStockBenchmark {
+
+    private ReservasStock reservasStock;
+    private Producto producto;
+
+    @Setup
+    public void setUp() {
+        producto = new Producto();
+        producto.setId(1L);
+        producto.setStock(1_000_000);
+        ProductoRepository productoRepository = Stubs.repositorio(ProductoRepository.class,
+                Map.of("findStockDisponible", args -> Optional.of(1_000_000L)));
+        reservasStock = new ReservasStock(productoRepository, Stubs.repositorio(OrdenRepository.class, Map.of()), null, 500);
+    }
+
+    @Benchmark
+    public boolean reservarYLiberar() {
+        boolean reservada = reservasStock.reservar(producto, 1);
+        reservasStock.liberar(producto.getId(), 1);
+        return reservada;
+    }
+}
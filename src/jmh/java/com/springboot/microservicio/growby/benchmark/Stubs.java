@@ -0,0 +1,62 @@
+package com.springboot.microservicio.growby.benchmark;
+
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.lang.reflect.Proxy;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Repositorios de prueba que responden en memoria, para medir la capa de servicio sin base de datos.
+ */
+final class Stubs {
+
+    private Stubs() {
+    }
+
+    /**
+     * Crea una implementación de un repositorio que solo responde a los métodos indicados.
+     *
+     * @param tipo    La interfaz del repositorio.
+     * @param metodos Respuesta de cada método, indexada por nombre, a partir de sus argumentos.
+     * @return El repositorio de prueba.
+     */
+    static <T> T repositorio(Class<T> tipo, Map<String, Function<Object[], Object>> metodos) {
+        return tipo.cast(Proxy.newProxyInstance(tipo.getClassLoader(), new Class<?>[]{tipo}, (proxy, method, args) -> {
+            if (method.getDeclaringClass() == Object.class) {
+                return method.invoke(metodos, args);
+            }
+            Function<Object[], Object> respuesta = metodos.get(method.getName());
+            if (respuesta == null) {
+                throw new UnsupportedOperationException(tipo.getSimpleName() + "." + method.getName());
+            }
+            return respuesta.apply(args);
+        }));
+    }
+
+    /**
+     * Crea un gestor de transacciones que no hace nada, para los servicios que delimitan sus escrituras
+     * con un {@code TransactionTemplate}.
+     *
+     * @return El gestor de transacciones de prueba.
+     */
+    static PlatformTransactionManager sinTransacciones() {
+        return new PlatformTransactionManager() {
+            @Override
+            public TransactionStatus getTransaction(TransactionDefinition definition) {
+                return new SimpleTransactionStatus();
+            }
+
+            @Override
+            public void commit(TransactionStatus status) {
+            }
+
+            @Override
+            public void rollback(TransactionStatus status) {
+            }
+        };
+    }
+}
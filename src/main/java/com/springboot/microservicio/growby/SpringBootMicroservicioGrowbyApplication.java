@@ -2,8 +2,15 @@ package com.springboot.microservicio.growby;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcAutoConfiguration;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcTransactionManagerAutoConfiguration;
 
-@SpringBootApplication
+/**
+ * Se excluye la configuración automática de R2DBC: una {@code ConnectionFactory} en el contexto
+ * desactivaría el {@code DataSource} de JPA. La API reactiva de lectura crea su propio pool
+ * de conexiones R2DBC (véase {@code ServidorReactivo}).
+ */
+@SpringBootApplication(exclude = {R2dbcAutoConfiguration.class, R2dbcTransactionManagerAutoConfiguration.class})
 public class SpringBootMicroservicioGrowbyApplication {
 
 	public static void main(String[] args) {
@@ -0,0 +1,100 @@
+package com.springboot.microservicio.growby.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import com.springboot.microservicio.growby.dto.EstadisticasCacheDTO;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Regiones de la caché de segundo nivel de Hibernate, guardadas en un {@link CacheManager} de JCache
+ * propio implementado con Caffeine. Hibernate solo usa las regiones creadas aquí: si una entidad o una
+ * consulta pide una región que no existe, la fábrica de sesiones no arranca.
+ * <p>
+ * Cada región se desaloja por tamaño máximo y por tiempo de vida desde su escritura, y acumula sus
+ * estadísticas en Caffeine.
+ */
+public class CacheSegundoNivel implements AutoCloseable {
+
+    private static final AtomicInteger GESTORES = new AtomicInteger();
+
+    private final CacheManager cacheManager;
+    private final List<String> regiones = new ArrayList<>();
+
+    public CacheSegundoNivel() {
+        // Un gestor por instancia: las pruebas arrancan varios contextos de Spring en la misma JVM y
+        // Hibernate cierra el suyo al cerrar la fábrica de sesiones.
+        this.cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+                .getCacheManager(URI.create("growby-segundo-nivel-" + GESTORES.incrementAndGet()),
+                        CacheSegundoNivel.class.getClassLoader());
+    }
+
+    /**
+     * Crea una región con tamaño máximo y tiempo de vida.
+     *
+     * @param region       El nombre de la región.
+     * @param tamanoMaximo El número máximo de entradas.
+     * @param ttl          El tiempo de vida de cada entrada desde su escritura.
+     */
+    public void crearRegion(String region, long tamanoMaximo, Duration ttl) {
+        CaffeineConfiguration<Object, Object> configuracion = new CaffeineConfiguration<>();
+        configuracion.setMaximumSize(OptionalLong.of(tamanoMaximo));
+        configuracion.setExpireAfterWrite(OptionalLong.of(ttl.toNanos()));
+        configuracion.setNativeStatisticsEnabled(true);
+        cacheManager.createCache(region, configuracion);
+        regiones.add(region);
+    }
+
+    /**
+     * Crea una región sin límite de tamaño ni de tiempo, como la de marcas de tiempo de las tablas
+     * que usa la caché de consultas: si perdiera una entrada antes que las consultas que dependen
+     * de ella, podría devolver resultados obsoletos.
+     *
+     * @param region El nombre de la región.
+     */
+    public void crearRegionSinDesalojo(String region) {
+        cacheManager.createCache(region, new CaffeineConfiguration<>());
+    }
+
+    /**
+     * El gestor de JCache que contiene las regiones, para la configuración de Hibernate.
+     *
+     * @return El gestor de JCache.
+     */
+    public CacheManager getCacheManager() {
+        return cacheManager;
+    }
+
+    /**
+     * Obtiene las estadísticas de las regiones creadas con {@link #crearRegion}, acumuladas desde el
+     * arranque.
+     *
+     * @return Las estadísticas de cada región, indexadas por nombre.
+     */
+    public Map<String, EstadisticasCacheDTO> estadisticas() {
+        Map<String, EstadisticasCacheDTO> estadisticas = new LinkedHashMap<>();
+        for (String region : regiones) {
+            Cache<?, ?> cache = cacheManager.getCache(region).unwrap(Cache.class);
+            CacheStats stats = cache.stats();
+            estadisticas.put(region, new EstadisticasCacheDTO(stats.hitCount(), stats.missCount(),
+                    stats.evictionCount(), stats.hitRate(), cache.estimatedSize()));
+        }
+        return estadisticas;
+    }
+
+    @Override
+    public void close() {
+        cacheManager.close();
+    }
+}
@@ -0,0 +1,346 @@
+package com.springboot.microservicio.growby.cache;
+
+import com.springboot.microservicio.growby.dto.ProductoBusquedaDTO;
+import com.springboot.microservicio.growby.model.Producto;
+import com.springboot.microservicio.growby.repository.ProductoRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.regex.Pattern;
+
+/**
+ * Índice invertido en memoria del nombre y la descripción de los productos, usado para la búsqueda
+ * de texto mientras se escribe sin consultar la base de datos.
+ * <p>
+ * Los textos se dividen en términos en minúsculas y sin acentos ni diéresis, de modo que "camion"
+ * encuentra "Camión", y se descartan las palabras vacías más comunes del español. Cada término de
+ * la consulta se busca como prefijo, con lo que la última palabra puede estar a medio escribir, y un
+ * producto solo se devuelve si contiene todos los términos. Los resultados se ordenan por puntuación:
+ * un término en el nombre pesa más que en la descripción, y una palabra completa más que un prefijo.
+ * <p>
+ * Las escrituras se serializan y las lecturas no se bloquean: una búsqueda simultánea a la
+ * actualización de un producto puede verlo con sus términos anteriores o con los nuevos. El índice
+ * se carga cuando la aplicación está lista, y hasta entonces las búsquedas no devuelven resultados;
+ * después se actualiza con las altas, modificaciones y bajas de esta instancia. Los cambios hechos
+ * desde otra instancia no se ven hasta el siguiente arranque.
+ */
+@Component
+public class IndiceBusquedaProductos implements MeterBinder {
+
+    static final int PESO_NOMBRE = 3;
+    static final int PESO_DESCRIPCION = 1;
+
+    private static final Pattern DIACRITICOS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARADORES = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final Set<String> PALABRAS_VACIAS = Set.of("a", "al", "con", "de", "del", "e", "el", "en",
+            "la", "las", "lo", "los", "o", "para", "por", "sin", "u", "un", "una", "unas", "unos", "y");
+
+    private final ProductoRepository productoRepository;
+    private final Map<Long, Documento> documentos = new ConcurrentHashMap<>();
+    private final ConcurrentSkipListMap<String, Map<Long, Documento>> terminos = new ConcurrentSkipListMap<>();
+
+    public IndiceBusquedaProductos(ProductoRepository productoRepository) {
+        this.productoRepository = productoRepository;
+    }
+
+    /**
+     * Carga en el índice todos los productos existentes en la base de datos. Los productos que ya
+     * se indexaron al guardarse mientras se cargaba el índice conservan sus datos más recientes.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void cargar() {
+        for (Producto producto : productoRepository.findAll()) {
+            synchronized (this) {
+                if (!documentos.containsKey(producto.getId())) {
+                    indexar(producto);
+                }
+            }
+        }
+    }
+
+    /**
+     * Añade un producto al índice o sustituye sus términos si ya estaba indexado.
+     *
+     * @param producto El producto guardado.
+     */
+    public synchronized void indexar(Producto producto) {
+        if (producto.getId() == null) {
+            return;
+        }
+        Documento nuevo = new Documento(producto);
+        // Los términos nuevos se añaden antes de quitar los que ya no están, para que el producto
+        // no desaparezca de las búsquedas de los términos que conserva.
+        for (String termino : nuevo.terminos) {
+            terminos.computeIfAbsent(termino, t -> new ConcurrentHashMap<>()).put(nuevo.id, nuevo);
+        }
+        Documento anterior = documentos.put(nuevo.id, nuevo);
+        if (anterior != null) {
+            for (String termino : anterior.terminos) {
+                if (Arrays.binarySearch(nuevo.terminos, termino) < 0) {
+                    quitar(termino, nuevo.id);
+                }
+            }
+        }
+    }
+
+    /**
+     * Quita un producto eliminado del índice.
+     *
+     * @param id El identificador del producto.
+     */
+    public synchronized void eliminar(Long id) {
+        Documento anterior = documentos.remove(id);
+        if (anterior != null) {
+            for (String termino : anterior.terminos) {
+                quitar(termino, id);
+            }
+        }
+    }
+
+    /**
+     * Busca productos por los términos de su nombre y descripción.
+     *
+     * @param consulta El texto buscado; cada palabra se trata como prefijo.
+     * @param estado   El estado de los productos a devolver, o {@code null} para cualquiera.
+     * @param limite   Número máximo de productos a devolver.
+     * @return Los productos que contienen todos los términos, de mayor a menor puntuación.
+     */
+    public List<ProductoBusquedaDTO> buscar(String consulta, Producto.Estado estado, int limite) {
+        List<String> terminosConsulta = terminosConsulta(consulta);
+        if (terminosConsulta.isEmpty() || limite <= 0) {
+            return List.of();
+        }
+        // Los candidatos salen del término de la consulta con menos productos; el resto de términos
+        // se comprueba con los de cada candidato, sin recorrer sus listas de productos.
+        String prefijoGuia = null;
+        List<Map.Entry<String, Map<Long, Documento>>> guia = null;
+        int menor = Integer.MAX_VALUE;
+        for (String termino : terminosConsulta) {
+            List<Map.Entry<String, Map<Long, Documento>>> entradas = new ArrayList<>(rango(termino).entrySet());
+            int productos = 0;
+            for (Map.Entry<String, Map<Long, Documento>> entrada : entradas) {
+                productos += entrada.getValue().size();
+            }
+            if (productos < menor) {
+                prefijoGuia = termino;
+                guia = entradas;
+                menor = productos;
+            }
+        }
+        PriorityQueue<Candidato> mejores = new PriorityQueue<>(limite + 1, Comparator.reverseOrder());
+        for (Map.Entry<String, Map<Long, Documento>> entrada : guia) {
+            for (Documento documento : entrada.getValue().values()) {
+                if (estado != null && documento.estado != estado) {
+                    continue;
+                }
+                // Un producto con varios términos que empiezan por el de guía se evalúa una sola vez.
+                if (guia.size() > 1 && !entrada.getKey().equals(documento.primerTermino(prefijoGuia))) {
+                    continue;
+                }
+                int puntuacion = documento.puntuacion(terminosConsulta);
+                if (puntuacion == 0) {
+                    continue;
+                }
+                if (mejores.size() < limite) {
+                    mejores.add(new Candidato(documento, puntuacion));
+                } else if (Candidato.comparar(documento, puntuacion, mejores.peek().documento, mejores.peek().puntuacion) < 0) {
+                    mejores.poll();
+                    mejores.add(new Candidato(documento, puntuacion));
+                }
+            }
+        }
+        List<Candidato> candidatos = new ArrayList<>(mejores);
+        Collections.sort(candidatos);
+        List<ProductoBusquedaDTO> resultados = new ArrayList<>(candidatos.size());
+        for (Candidato candidato : candidatos) {
+            resultados.add(candidato.documento.resultado(candidato.puntuacion));
+        }
+        return resultados;
+    }
+
+    /**
+     * Número de productos indexados.
+     *
+     * @return El número de productos del índice.
+     */
+    public int tamano() {
+        return documentos.size();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("growby.busqueda.productos.documentos", documentos, Map::size)
+                .description("Productos en el índice de búsqueda")
+                .register(registry);
+        Gauge.builder("growby.busqueda.productos.terminos", terminos, Map::size)
+                .description("Términos distintos en el índice de búsqueda")
+                .register(registry);
+    }
+
+    /**
+     * Divide un texto en términos en minúsculas, sin acentos ni diéresis. La eñe se reduce a "n",
+     * igual que las vocales acentuadas, porque es habitual escribirla así al buscar.
+     */
+    static List<String> terminos(String texto) {
+        List<String> resultado = new ArrayList<>();
+        if (texto == null) {
+            return resultado;
+        }
+        String normalizado = DIACRITICOS.matcher(Normalizer.normalize(texto, Normalizer.Form.NFD))
+                .replaceAll("").toLowerCase(Locale.ROOT);
+        for (String termino : SEPARADORES.split(normalizado)) {
+            if (!termino.isEmpty()) {
+                resultado.add(termino);
+            }
+        }
+        return resultado;
+    }
+
+    /**
+     * Términos de una consulta. Las palabras vacías se descartan salvo la última, que puede ser
+     * el principio de una palabra a medio escribir.
+     */
+    private static List<String> terminosConsulta(String consulta) {
+        List<String> resultado = terminos(consulta);
+        for (int i = resultado.size() - 2; i >= 0; i--) {
+            if (PALABRAS_VACIAS.contains(resultado.get(i))) {
+                resultado.remove(i);
+            }
+        }
+        return resultado;
+    }
+
+    /**
+     * Términos del índice que empiezan por el prefijo, con sus productos.
+     */
+    private Map<String, Map<Long, Documento>> rango(String prefijo) {
+        return terminos.subMap(prefijo, true, prefijo + Character.MAX_VALUE, false);
+    }
+
+    private void quitar(String termino, Long id) {
+        terminos.computeIfPresent(termino, (t, productos) -> {
+            productos.remove(id);
+            return productos.isEmpty() ? null : productos;
+        });
+    }
+
+    /**
+     * Copia de los datos de un producto indexado, con sus términos ordenados y el peso de cada uno.
+     */
+    private static final class Documento {
+
+        private final Long id;
+        private final String nombre;
+        private final String descripcion;
+        private final BigDecimal precio;
+        private final Producto.Estado estado;
+        private final String[] terminos;
+        private final int[] pesos;
+
+        private Documento(Producto producto) {
+            this.id = producto.getId();
+            this.nombre = producto.getNombre();
+            this.descripcion = producto.getDescripcion();
+            this.precio = producto.getPrecio();
+            this.estado = producto.getEstado();
+            Map<String, Integer> pesosTerminos = new TreeMap<>();
+            sumarPesos(pesosTerminos, nombre, PESO_NOMBRE);
+            sumarPesos(pesosTerminos, descripcion, PESO_DESCRIPCION);
+            this.terminos = pesosTerminos.keySet().toArray(new String[0]);
+            this.pesos = pesosTerminos.values().stream().mapToInt(Integer::intValue).toArray();
+        }
+
+        private static void sumarPesos(Map<String, Integer> pesosTerminos, String texto, int peso) {
+            IndiceBusquedaProductos.terminos(texto).stream()
+                    .filter(termino -> !PALABRAS_VACIAS.contains(termino))
+                    .distinct()
+                    .forEach(termino -> pesosTerminos.merge(termino, peso, Integer::sum));
+        }
+
+        /**
+         * Posición del primer término del producto que no es menor que el prefijo.
+         */
+        private int inicio(String prefijo) {
+            int posicion = Arrays.binarySearch(terminos, prefijo);
+            return posicion >= 0 ? posicion : -posicion - 1;
+        }
+
+        private String primerTermino(String prefijo) {
+            int posicion = inicio(prefijo);
+            return posicion < terminos.length && terminos[posicion].startsWith(prefijo) ? terminos[posicion] : null;
+        }
+
+        /**
+         * Suma de la mejor puntuación de cada término de la consulta: el peso del término del producto
+         * que empieza por él, doble si coincide entero. Cero si a algún término no le corresponde ninguno.
+         */
+        private int puntuacion(List<String> consulta) {
+            int total = 0;
+            for (String prefijo : consulta) {
+                int mejor = 0;
+                for (int i = inicio(prefijo); i < terminos.length && terminos[i].startsWith(prefijo); i++) {
+                    mejor = Math.max(mejor, terminos[i].length() == prefijo.length() ? 2 * pesos[i] : pesos[i]);
+                }
+                if (mejor == 0) {
+                    return 0;
+                }
+                total += mejor;
+            }
+            return total;
+        }
+
+        private ProductoBusquedaDTO resultado(int puntuacion) {
+            return new ProductoBusquedaDTO(id, nombre, descripcion, precio, estado, puntuacion);
+        }
+    }
+
+    /**
+     * Producto candidato a los resultados de una búsqueda. Los candidatos se ordenan de mayor a menor
+     * puntuación y, a igual puntuación, primero el nombre más corto, que coincide con más precisión.
+     */
+    private static final class Candidato implements Comparable<Candidato> {
+
+        private final Documento documento;
+        private final int puntuacion;
+
+        private Candidato(Documento documento, int puntuacion) {
+            this.documento = documento;
+            this.puntuacion = puntuacion;
+        }
+
+        private static int comparar(Documento documento, int puntuacion, Documento otro, int puntuacionOtro) {
+            if (puntuacion != puntuacionOtro) {
+                return Integer.compare(puntuacionOtro, puntuacion);
+            }
+            int longitud = documento.nombre == null ? 0 : documento.nombre.length();
+            int longitudOtro = otro.nombre == null ? 0 : otro.nombre.length();
+            if (longitud != longitudOtro) {
+                return Integer.compare(longitud, longitudOtro);
+            }
+            return documento.id.compareTo(otro.id);
+        }
+
+        @Override
+        public int compareTo(Candidato otro) {
+            return comparar(documento, puntuacion, otro.documento, otro.puntuacion);
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.springboot.microservicio.growby.cache;
+
+import com.springboot.microservicio.growby.repository.ClienteRepository;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Índice en memoria de los emails de clientes registrados, usado para evitar la consulta
+ * {@code findByEmail} antes de cada alta cuando el email es nuevo.
+ * <p>
+ * El índice puede contener emails que ya no existen (clientes eliminados o modificados desde
+ * otra instancia), pero no deja de contener ninguno registrado por esta instancia: una ausencia
+ * indica que el email es nuevo, y una presencia debe confirmarse contra la base de datos.
+ * La restricción única de {@code clientes.email} sigue siendo la garantía definitiva.
+ */
+@Component
+public class IndiceEmailClientes {
+
+    private final ClienteRepository clienteRepository;
+    private final Set<String> emails = ConcurrentHashMap.newKeySet();
+
+    public IndiceEmailClientes(ClienteRepository clienteRepository) {
+        this.clienteRepository = clienteRepository;
+    }
+
+    /**
+     * Carga en el índice todos los emails existentes en la base de datos.
+     */
+    @PostConstruct
+    public void cargar() {
+        emails.addAll(clienteRepository.findAllEmails());
+    }
+
+    /**
+     * Indica si un email puede estar en uso.
+     *
+     * @param email El email a comprobar.
+     * @return {@code false} si el email no está registrado; {@code true} si puede estarlo.
+     */
+    public boolean posiblementeEnUso(String email) {
+        return email != null && emails.contains(email);
+    }
+
+    /**
+     * Añade al índice el email de un cliente recién guardado.
+     *
+     * @param email El email registrado.
+     */
+    public void registrar(String email) {
+        if (email != null) {
+            emails.add(email);
+        }
+    }
+}
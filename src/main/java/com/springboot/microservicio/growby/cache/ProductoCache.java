@@ -0,0 +1,120 @@
+package com.springboot.microservicio.growby.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.springboot.microservicio.growby.dto.EstadisticasCacheDTO;
+import com.springboot.microservicio.growby.model.Producto;
+import com.springboot.microservicio.growby.repository.ProductoRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Caché en memoria del catálogo de productos situada delante de {@link ProductoRepository}.
+ * Las entradas se desalojan por tamaño máximo y por tiempo de vida desde su escritura.
+ * El servicio de productos se encarga de invalidarla en cada alta, modificación o baja.
+ * Publica sus estadísticas en Micrometer como la caché {@value #NOMBRE_METRICAS}.
+ */
+@Component
+public class ProductoCache implements MeterBinder {
+
+    static final String NOMBRE_METRICAS = "productos";
+
+    private final ProductoRepository productoRepository;
+    private final Cache<Long, Producto> cache;
+
+    @Autowired
+    public ProductoCache(ProductoRepository productoRepository,
+                         @Value("${growby.cache.productos.tamano-maximo:10000}") long tamanoMaximo,
+                         @Value("${growby.cache.productos.ttl:10m}") Duration ttl) {
+        this(productoRepository, tamanoMaximo, ttl, ForkJoinPool.commonPool());
+    }
+
+    ProductoCache(ProductoRepository productoRepository, long tamanoMaximo, Duration ttl, Executor executor) {
+        this.productoRepository = productoRepository;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(tamanoMaximo)
+                .expireAfterWrite(ttl)
+                .executor(executor)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Recupera un producto por su identificador, consultando la base de datos solo si no está en caché.
+     *
+     * @param id El identificador del producto.
+     * @return Un {@link Optional} que contiene el producto encontrado, o vacío si no existe.
+     */
+    public Optional<Producto> findById(Long id) {
+        if (id == null) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(cache.get(id, clave -> productoRepository.findById(clave).orElse(null)));
+    }
+
+    /**
+     * Recupera varios productos por sus identificadores. Los que no están en caché se cargan
+     * con una única consulta a la base de datos.
+     *
+     * @param ids Los identificadores de los productos.
+     * @return Un mapa con los productos encontrados indexados por identificador.
+     */
+    public Map<Long, Producto> findAllById(Collection<Long> ids) {
+        return cache.getAll(ids, faltantes -> {
+            List<Long> idsFaltantes = new ArrayList<>();
+            faltantes.forEach(idsFaltantes::add);
+            return productoRepository.findAllById(idsFaltantes).stream()
+                    .collect(Collectors.toMap(Producto::getId, Function.identity()));
+        });
+    }
+
+    /**
+     * Sustituye la entrada de un producto recién guardado.
+     *
+     * @param producto El producto guardado.
+     */
+    public void actualizar(Producto producto) {
+        cache.put(producto.getId(), producto);
+    }
+
+    /**
+     * Elimina un producto de la caché.
+     *
+     * @param id El identificador del producto.
+     */
+    public void invalidar(Long id) {
+        cache.invalidate(id);
+    }
+
+    /**
+     * Obtiene las estadísticas de aciertos, fallos y desalojos acumuladas desde el arranque.
+     *
+     * @return Las estadísticas de la caché.
+     */
+    public EstadisticasCacheDTO estadisticas() {
+        CacheStats stats = cache.stats();
+        return new EstadisticasCacheDTO(stats.hitCount(), stats.missCount(), stats.evictionCount(),
+                stats.hitRate(), cache.estimatedSize());
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache, NOMBRE_METRICAS);
+    }
+}
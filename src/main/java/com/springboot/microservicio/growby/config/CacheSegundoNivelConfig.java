@@ -0,0 +1,63 @@
+package com.springboot.microservicio.growby.config;
+
+import com.springboot.microservicio.growby.cache.CacheSegundoNivel;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cache.spi.RegionFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.persistence.SharedCacheMode;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Caché de segundo nivel de Hibernate para {@link com.springboot.microservicio.growby.model.Producto},
+ * {@link com.springboot.microservicio.growby.model.Cliente} y la consulta
+ * {@link com.springboot.microservicio.growby.repository.ClienteRepository#findByEmail(String)}, compartida
+ * por todas las sesiones, de modo que las búsquedas repetidas por identificador no vuelven a la base de
+ * datos en cada transacción.
+ * <p>
+ * Solo se cachean las entidades anotadas con {@link javax.persistence.Cacheable}. El tamaño máximo y el
+ * tiempo de vida de cada región se configuran con {@code growby.cache.segundo-nivel.<region>.tamano-maximo}
+ * y {@code growby.cache.segundo-nivel.<region>.ttl}. Hibernate publica los aciertos, fallos y escrituras de
+ * cada región en Micrometer como {@code hibernate.second.level.cache.*}.
+ */
+@Configuration
+public class CacheSegundoNivelConfig {
+
+    /**
+     * Regiones configurables: las de las entidades y la de la consulta de clientes por email.
+     */
+    static final List<String> REGIONES = List.of("productos", "clientes", "clientes-por-email");
+
+    private static final String PREFIJO_PROPIEDADES = "growby.cache.segundo-nivel.";
+
+    @Bean(destroyMethod = "close")
+    public CacheSegundoNivel cacheSegundoNivel(Environment environment) {
+        CacheSegundoNivel cache = new CacheSegundoNivel();
+        for (String region : REGIONES) {
+            cache.crearRegion(region,
+                    environment.getProperty(PREFIJO_PROPIEDADES + region + ".tamano-maximo", Long.class, 10_000L),
+                    environment.getProperty(PREFIJO_PROPIEDADES + region + ".ttl", Duration.class, Duration.ofMinutes(10)));
+        }
+        // Regiones que Hibernate crea siempre con la caché de consultas; ninguna consulta usa la de por defecto.
+        cache.crearRegion(RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME, 1_000, Duration.ofMinutes(10));
+        cache.crearRegionSinDesalojo(RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME);
+        return cache;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer cacheSegundoNivelHibernate(CacheSegundoNivel cacheSegundoNivel) {
+        return propiedades -> {
+            propiedades.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, true);
+            propiedades.put(AvailableSettings.USE_QUERY_CACHE, true);
+            propiedades.put(AvailableSettings.JPA_SHARED_CACHE_MODE, SharedCacheMode.ENABLE_SELECTIVE);
+            propiedades.put(AvailableSettings.CACHE_REGION_FACTORY, ConfigSettings.SIMPLE_FACTORY_NAME);
+            propiedades.put(ConfigSettings.CACHE_MANAGER, cacheSegundoNivel.getCacheManager());
+            propiedades.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+        };
+    }
+}
@@ -0,0 +1,40 @@
+package com.springboot.microservicio.growby.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+
+import java.util.concurrent.Executors;
+
+/**
+ * Modo de ejecución sobre hilos virtuales. Se activa con {@code growby.hilos-virtuales.habilitados=true}.
+ * <p>
+ * Tomcat atiende cada petición en un hilo virtual nuevo en lugar de en su pool de hilos de plataforma,
+ * de modo que {@code server.tomcat.threads.max} deja de limitar las peticiones en curso; el límite real
+ * pasa a ser {@code server.tomcat.max-connections} y el pool de conexiones a la base de datos.
+ * El trabajo asíncrono de Spring MVC (exportación NDJSON) también se ejecuta en hilos virtuales, y
+ * {@link com.springboot.microservicio.growby.recepcion.RecepcionOrdenes} crea virtuales sus escritores.
+ */
+@Configuration
+@ConditionalOnProperty(name = "growby.hilos-virtuales.habilitados", havingValue = "true")
+public class HilosVirtualesConfig {
+
+    @Bean
+    public TomcatProtocolHandlerCustomizer<?> ejecutorVirtualTomcat() {
+        return protocolHandler -> protocolHandler.setExecutor(
+                Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("http-virtual-", 0).factory()));
+    }
+
+    /**
+     * Sustituye al pool de hilos de {@link TaskExecutionAutoConfiguration}, que Spring MVC usa para
+     * las respuestas asíncronas.
+     */
+    @Bean(name = TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME)
+    public AsyncTaskExecutor applicationTaskExecutor() {
+        return new SimpleAsyncTaskExecutor(Thread.ofVirtual().name("tarea-virtual-", 0).factory());
+    }
+}
@@ -0,0 +1,80 @@
+package com.springboot.microservicio.growby.config;
+
+import com.springboot.microservicio.growby.replicas.EnrutadorLecturas;
+import com.springboot.microservicio.growby.replicas.LecturaTrasEscritura;
+import com.springboot.microservicio.growby.replicas.ReplicasLectura;
+import com.zaxxer.hikari.HikariDataSource;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.PhysicalConnectionHandlingMode;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Réplicas de lectura. Se activan con {@code growby.replicas.habilitadas=true} y la lista de URLs JDBC de
+ * las réplicas en {@code growby.replicas.urls}.
+ * <p>
+ * Sustituye al {@code DataSource} de Spring Boot por un {@link EnrutadorLecturas} sobre un pool para el
+ * primario, configurado con {@code spring.datasource.*}, y otro de {@code tamano-pool} conexiones para cada
+ * réplica. Las réplicas reciben el esquema y los datos por la replicación de la base de datos, no por Flyway.
+ * <p>
+ * Hibernate devuelve la conexión al terminar cada transacción en lugar de conservarla hasta el final de
+ * la petición, para que cada transacción se enrute por separado: una petición que ha leído de una réplica
+ * no debe escribir con la misma conexión.
+ */
+@Configuration
+@ConditionalOnProperty(name = "growby.replicas.habilitadas", havingValue = "true")
+public class ReplicasLecturaConfig {
+
+    @Bean(destroyMethod = "close")
+    public ReplicasLectura replicasLectura(DataSourceProperties propiedades, Environment environment,
+                                           @Value("${growby.replicas.urls}") String[] urls,
+                                           @Value("${growby.replicas.usuario:${spring.datasource.username:}}") String usuario,
+                                           @Value("${growby.replicas.clave:${spring.datasource.password:}}") String clave,
+                                           @Value("${growby.replicas.tamano-pool:10}") int tamanoPool,
+                                           @Value("${growby.replicas.retraso-maximo:5s}") Duration retrasoMaximo) {
+        HikariDataSource primario = propiedades.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(primario));
+        primario.setPoolName("growby-primario");
+
+        List<DataSource> replicas = new ArrayList<>();
+        for (String url : urls) {
+            HikariDataSource replica = DataSourceBuilder.create().type(HikariDataSource.class)
+                    .url(url.trim()).username(usuario).password(clave).build();
+            replica.setPoolName("growby-replica-" + (replicas.size() + 1));
+            replica.setMaximumPoolSize(tamanoPool);
+            replica.setReadOnly(true);
+            replicas.add(replica);
+        }
+        return new ReplicasLectura(primario, replicas, retrasoMaximo);
+    }
+
+    @Bean
+    public DataSource dataSource(ReplicasLectura replicasLectura) {
+        return new LazyConnectionDataSourceProxy(new EnrutadorLecturas(replicasLectura));
+    }
+
+    @Bean
+    public LecturaTrasEscritura lecturaTrasEscritura(@Value("${growby.replicas.retraso-maximo:5s}") Duration retrasoMaximo) {
+        return new LecturaTrasEscritura(retrasoMaximo);
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer conexionPorTransaccion() {
+        return propiedades -> propiedades.put(AvailableSettings.CONNECTION_HANDLING,
+                PhysicalConnectionHandlingMode.DELAYED_ACQUISITION_AND_RELEASE_AFTER_TRANSACTION);
+    }
+}
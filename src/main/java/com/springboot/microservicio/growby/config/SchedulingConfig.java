@@ -0,0 +1,12 @@
+package com.springboot.microservicio.growby.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Habilita la ejecución de tareas programadas con {@code @Scheduled}.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
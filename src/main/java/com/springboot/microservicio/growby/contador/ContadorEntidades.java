@@ -0,0 +1,97 @@
+package com.springboot.microservicio.growby.contador;
+
+import com.springboot.microservicio.growby.repository.ClienteRepository;
+import com.springboot.microservicio.growby.repository.OrdenRepository;
+import com.springboot.microservicio.growby.repository.ProductoRepository;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Contadores en memoria del número de clientes, productos y órdenes.
+ * Se inicializan al arrancar con un {@code COUNT} por tabla, los servicios los actualizan en cada
+ * alta y baja, y se reconcilian periódicamente con la base de datos para corregir cualquier
+ * desviación (por ejemplo, filas insertadas o eliminadas por otra instancia).
+ */
+@Component
+public class ContadorEntidades {
+
+    /**
+     * Entidades cuyo número de filas se mantiene en memoria.
+     */
+    public enum Entidad {
+        CLIENTES,
+        PRODUCTOS,
+        ORDENES
+    }
+
+    private final ClienteRepository clienteRepository;
+    private final ProductoRepository productoRepository;
+    private final OrdenRepository ordenRepository;
+    private final Map<Entidad, LongAdder> contadores = new EnumMap<>(Entidad.class);
+
+    public ContadorEntidades(ClienteRepository clienteRepository, ProductoRepository productoRepository,
+                             OrdenRepository ordenRepository) {
+        this.clienteRepository = clienteRepository;
+        this.productoRepository = productoRepository;
+        this.ordenRepository = ordenRepository;
+        for (Entidad entidad : Entidad.values()) {
+            contadores.put(entidad, new LongAdder());
+        }
+    }
+
+    /**
+     * Suma filas creadas al contador de una entidad.
+     *
+     * @param entidad  La entidad cuyo contador se incrementa.
+     * @param cantidad El número de filas creadas.
+     */
+    public void incrementar(Entidad entidad, long cantidad) {
+        contadores.get(entidad).add(cantidad);
+    }
+
+    /**
+     * Resta una fila eliminada del contador de una entidad.
+     *
+     * @param entidad La entidad cuyo contador se decrementa.
+     */
+    public void decrementar(Entidad entidad) {
+        contadores.get(entidad).decrement();
+    }
+
+    /**
+     * Obtiene el valor actual del contador de una entidad.
+     *
+     * @param entidad La entidad cuyo contador se consulta.
+     * @return El número de filas de la entidad.
+     */
+    public long valor(Entidad entidad) {
+        return contadores.get(entidad).sum();
+    }
+
+    /**
+     * Sustituye los contadores por el número real de filas de cada tabla.
+     * Se ejecuta al arrancar y después de forma periódica.
+     */
+    @PostConstruct
+    @Scheduled(initialDelayString = "${growby.contadores.intervalo-reconciliacion-ms:60000}",
+            fixedDelayString = "${growby.contadores.intervalo-reconciliacion-ms:60000}")
+    public void reconciliar() {
+        fijar(Entidad.CLIENTES, clienteRepository.count());
+        fijar(Entidad.PRODUCTOS, productoRepository.count());
+        fijar(Entidad.ORDENES, ordenRepository.count());
+    }
+
+    /**
+     * Lleva un contador al valor indicado sumándole la diferencia, sin ponerlo a cero: una lectura
+     * concurrente nunca ve un valor intermedio y los incrementos hechos mientras tanto se conservan.
+     */
+    private void fijar(Entidad entidad, long valor) {
+        LongAdder contador = contadores.get(entidad);
+        contador.add(valor - contador.sum());
+    }
+}
@@ -0,0 +1,154 @@
+package com.springboot.microservicio.growby.contador;
+
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.time.Instant;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Versiones en memoria de las colecciones de clientes, productos y órdenes, con las que los
+ * controladores construyen los ETag de sus lecturas y responden 304 Not Modified sin consultar
+ * la base de datos ni serializar la respuesta.
+ * <p>
+ * Los servicios incrementan la versión de una colección después de cada escritura confirmada.
+ * Los cambios de cada cliente y de sus órdenes se registran además en una versión por cliente,
+ * repartida en {@value #FRANJAS} franjas por hash del identificador: un cambio invalida también
+ * los ETag de los clientes de la misma franja, pero la memoria usada no depende del número de clientes.
+ * <p>
+ * Las versiones empiezan en cero en cada arranque, así que los ETag incluyen una época aleatoria
+ * de la instancia para que ninguno emitido antes de reiniciar vuelva a coincidir. Con varias
+ * instancias detrás de un balanceador, cada una solo conoce sus propias escrituras.
+ * <p>
+ * Junto a cada versión se guarda la hora de la última escritura confirmada. Al calcular un ETag durante
+ * una petición HTTP se anota en ella la hora de la última escritura que incluye, en el atributo
+ * {@link #ATRIBUTO_ULTIMA_ESCRITURA}, para que sus lecturas solo vayan a réplicas que ya la tengan: una
+ * réplica atrasada devolvería los datos anteriores con el ETag nuevo.
+ */
+@Component
+public class VersionesColecciones {
+
+    static final int FRANJAS = 1024;
+
+    /**
+     * Atributo de la petición HTTP con la hora ({@link Instant}) de la última escritura incluida en los
+     * ETag calculados en ella.
+     */
+    public static final String ATRIBUTO_ULTIMA_ESCRITURA = VersionesColecciones.class.getName() + ".ULTIMA_ESCRITURA";
+
+    /**
+     * Colecciones cuya versión se mantiene en memoria.
+     */
+    public enum Coleccion {
+        CLIENTES,
+        PRODUCTOS,
+        ORDENES
+    }
+
+    private final String epoca = Long.toString(ThreadLocalRandom.current().nextLong() & Long.MAX_VALUE, 36);
+    private final Map<Coleccion, AtomicLong> versiones = new EnumMap<>(Coleccion.class);
+    private final AtomicLongArray versionesClientes = new AtomicLongArray(FRANJAS);
+    private final Map<Coleccion, AtomicLong> escrituras = new EnumMap<>(Coleccion.class);
+    private final AtomicLongArray escriturasClientes = new AtomicLongArray(FRANJAS);
+
+    public VersionesColecciones() {
+        for (Coleccion coleccion : Coleccion.values()) {
+            versiones.put(coleccion, new AtomicLong());
+            escrituras.put(coleccion, new AtomicLong());
+        }
+    }
+
+    /**
+     * Registra un cambio en una colección.
+     *
+     * @param coleccion La colección modificada.
+     */
+    public void incrementar(Coleccion coleccion) {
+        escrituras.get(coleccion).accumulateAndGet(ahora(), Math::max);
+        versiones.get(coleccion).incrementAndGet();
+    }
+
+    /**
+     * Registra un cambio en los datos de un cliente o en sus órdenes.
+     *
+     * @param clienteId El identificador del cliente.
+     */
+    public void incrementarCliente(Long clienteId) {
+        int franja = franja(clienteId);
+        escriturasClientes.accumulateAndGet(franja, ahora(), Math::max);
+        versionesClientes.incrementAndGet(franja);
+    }
+
+    /**
+     * ETag fuerte de una colección y de las colecciones cuyos datos incluye su representación.
+     * Anota en la petición HTTP actual la hora de la última escritura que incluye.
+     *
+     * @param coleccion    La colección leída.
+     * @param relacionadas Colecciones cuyos datos aparecen embebidos en la respuesta.
+     * @return El ETag, entre comillas.
+     */
+    public String etag(Coleccion coleccion, Coleccion... relacionadas) {
+        StringBuilder etag = new StringBuilder("\"").append(coleccion.name().toLowerCase())
+                .append('-').append(epoca).append('-').append(versiones.get(coleccion).get());
+        for (Coleccion relacionada : relacionadas) {
+            etag.append('.').append(versiones.get(relacionada).get());
+        }
+        anotarUltimaEscritura(escrituras.get(coleccion).get(), relacionadas);
+        return etag.append('"').toString();
+    }
+
+    /**
+     * ETag fuerte de los datos de un cliente o de sus órdenes.
+     * Anota en la petición HTTP actual la hora de la última escritura que incluye.
+     *
+     * @param clienteId    El identificador del cliente.
+     * @param relacionadas Colecciones cuyos datos aparecen embebidos en la respuesta.
+     * @return El ETag, entre comillas.
+     */
+    public String etagCliente(Long clienteId, Coleccion... relacionadas) {
+        int franja = franja(clienteId);
+        StringBuilder etag = new StringBuilder("\"cliente-").append(clienteId)
+                .append('-').append(epoca).append('-').append(versionesClientes.get(franja));
+        for (Coleccion relacionada : relacionadas) {
+            etag.append('.').append(versiones.get(relacionada).get());
+        }
+        anotarUltimaEscritura(escriturasClientes.get(franja), relacionadas);
+        return etag.append('"').toString();
+    }
+
+    /**
+     * Se leen las horas después de las versiones y se escriben antes, así que la hora anotada nunca es
+     * anterior a las escrituras que cuenta el ETag.
+     */
+    private void anotarUltimaEscritura(long escritura, Coleccion... relacionadas) {
+        RequestAttributes peticion = RequestContextHolder.getRequestAttributes();
+        if (peticion == null) {
+            return;
+        }
+        long maxima = escritura;
+        for (Coleccion relacionada : relacionadas) {
+            maxima = Math.max(maxima, escrituras.get(relacionada).get());
+        }
+        Instant ultima = Instant.ofEpochMilli(maxima);
+        Object anotada = peticion.getAttribute(ATRIBUTO_ULTIMA_ESCRITURA, RequestAttributes.SCOPE_REQUEST);
+        if (anotada == null || ultima.isAfter((Instant) anotada)) {
+            peticion.setAttribute(ATRIBUTO_ULTIMA_ESCRITURA, ultima, RequestAttributes.SCOPE_REQUEST);
+        }
+    }
+
+    /**
+     * La hora actual redondeada al milisegundo siguiente, para no quedar antes de la confirmación.
+     */
+    private static long ahora() {
+        return Instant.now().toEpochMilli() + 1;
+    }
+
+    private static int franja(Long clienteId) {
+        return Math.floorMod(Long.hashCode(clienteId), FRANJAS);
+    }
+}
@@ -0,0 +1,114 @@
+package com.springboot.microservicio.growby.controller;
+
+import com.springboot.microservicio.growby.dto.VentasAgrupadasDTO;
+import com.springboot.microservicio.growby.dto.VentasPeriodoDTO;
+import com.springboot.microservicio.growby.service.AnaliticaService;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Controlador que expone la analítica de ventas: importe y unidades vendidas por producto,
+ * por cliente y por día, semana o mes en un rango de fechas.
+ * Las fechas se reciben en formato ISO ({@code yyyy-MM-dd}) y ambos extremos del rango se incluyen.
+ */
+@RestController
+@RequestMapping("/api/analytics")
+public class AnaliticaController {
+
+    private final AnaliticaService analiticaService;
+
+    public AnaliticaController(AnaliticaService analiticaService) {
+        this.analiticaService = analiticaService;
+    }
+
+    /**
+     * Obtiene las ventas de cada producto en un rango de fechas, ordenadas por importe descendente.
+     *
+     * @param desde Primer día del rango.
+     * @param hasta Último día del rango.
+     * @return Las ventas de cada producto, o 400 Bad Request si el rango no es válido.
+     */
+    @GetMapping("/productos")
+    public ResponseEntity<List<VentasAgrupadasDTO>> ventasPorProducto(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate desde,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate hasta) {
+        if (desde.isAfter(hasta)) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(analiticaService.ventasPorProducto(desde, hasta));
+    }
+
+    /**
+     * Obtiene las ventas de cada cliente en un rango de fechas, ordenadas por importe descendente.
+     *
+     * @param desde Primer día del rango.
+     * @param hasta Último día del rango.
+     * @return Las ventas de cada cliente, o 400 Bad Request si el rango no es válido.
+     */
+    @GetMapping("/clientes")
+    public ResponseEntity<List<VentasAgrupadasDTO>> ventasPorCliente(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate desde,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate hasta) {
+        if (desde.isAfter(hasta)) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(analiticaService.ventasPorCliente(desde, hasta));
+    }
+
+    /**
+     * Obtiene la serie de ventas de un rango de fechas agrupada por día, semana o mes,
+     * opcionalmente limitada a un producto o a un cliente.
+     *
+     * @param desde      Primer día del rango.
+     * @param hasta      Último día del rango.
+     * @param periodo    {@code dia}, {@code semana} o {@code mes}.
+     * @param productoId Producto cuyas ventas se desean; se omite para todos.
+     * @param clienteId  Cliente cuyas compras se desean; se omite para todos.
+     * @return Las ventas de cada periodo, o 400 Bad Request si el rango o el periodo no son válidos
+     *         o se indican a la vez un producto y un cliente.
+     */
+    @GetMapping("/ventas")
+    public ResponseEntity<List<VentasPeriodoDTO>> ventasPorPeriodo(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate desde,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate hasta,
+            @RequestParam(defaultValue = "dia") String periodo,
+            @RequestParam(required = false) Long productoId,
+            @RequestParam(required = false) Long clienteId) {
+        AnaliticaService.Periodo agrupacion = periodo(periodo);
+        if (desde.isAfter(hasta) || agrupacion == null || (productoId != null && clienteId != null)) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(analiticaService.ventasPorPeriodo(desde, hasta, agrupacion, productoId, clienteId));
+    }
+
+    /**
+     * Recalcula desde la tabla de órdenes los acumulados de ventas de un rango de fechas.
+     *
+     * @param desde Primer día del rango.
+     * @param hasta Último día del rango.
+     * @return 204 No Content, o 400 Bad Request si el rango no es válido.
+     */
+    @PostMapping("/reconstruir")
+    public ResponseEntity<Void> reconstruir(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate desde,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate hasta) {
+        if (desde.isAfter(hasta)) {
+            return ResponseEntity.badRequest().build();
+        }
+        analiticaService.reconstruir(desde, hasta);
+        return ResponseEntity.noContent().build();
+    }
+
+    private static AnaliticaService.Periodo periodo(String nombre) {
+        for (AnaliticaService.Periodo periodo : AnaliticaService.Periodo.values()) {
+            if (periodo.name().equalsIgnoreCase(nombre)) {
+                return periodo;
+            }
+        }
+        return null;
+    }
+}
@@ -1,14 +1,22 @@
 package com.springboot.microservicio.growby.controller;
 
+import com.springboot.microservicio.growby.contador.VersionesColecciones;
 import com.springboot.microservicio.growby.dto.ClienteDTO;
+import com.springboot.microservicio.growby.dto.ResultadoImportacionDTO;
 import com.springboot.microservicio.growby.model.Cliente;
+import com.springboot.microservicio.growby.model.ResumenCliente;
 import com.springboot.microservicio.growby.service.ClienteService;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.multipart.MultipartFile;
 
 import javax.validation.Valid;
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 
 /**
@@ -19,18 +27,25 @@ import java.util.List;
 public class ClienteController {
 
     private final ClienteService clienteService;
+    private final VersionesColecciones versionesColecciones;
 
-    public ClienteController(ClienteService clienteService) {
+    public ClienteController(ClienteService clienteService, VersionesColecciones versionesColecciones) {
         this.clienteService = clienteService;
+        this.versionesColecciones = versionesColecciones;
     }
 
     /**
-     * Obtiene la lista de todos los clientes.
+     * Obtiene la lista de todos los clientes. La respuesta lleva un ETag con la versión de los
+     * clientes; si coincide con {@code If-None-Match} se responde 304 sin consultar la base de datos.
      *
-     * @return Lista de clientes.
+     * @param request Petición, para la comprobación del ETag.
+     * @return Lista de clientes, o 304 Not Modified si no han cambiado.
      */
     @GetMapping
-    public ResponseEntity<List<Cliente>> getAllClientes() {
+    public ResponseEntity<List<Cliente>> getAllClientes(WebRequest request) {
+        if (request.checkNotModified(versionesColecciones.etag(VersionesColecciones.Coleccion.CLIENTES))) {
+            return null;
+        }
         List<Cliente> clientes = clienteService.findAll();
         return ResponseEntity.ok(clientes);
     }
@@ -48,18 +63,36 @@ public class ClienteController {
     }
 
     /**
-     * Obtiene un cliente por su identificador.
+     * Obtiene un cliente por su identificador, con un ETag que cambia con cada modificación del cliente.
      *
-     * @param id Identificador del cliente.
-     * @return El cliente correspondiente, si existe.
+     * @param id      Identificador del cliente.
+     * @param request Petición, para la comprobación del ETag.
+     * @return El cliente correspondiente, si existe, o 304 Not Modified si no ha cambiado.
      */
     @GetMapping("/{id}")
-    public ResponseEntity<Cliente> getClienteById(@PathVariable Long id) {
+    public ResponseEntity<Cliente> getClienteById(@PathVariable Long id, WebRequest request) {
+        if (request.checkNotModified(versionesColecciones.etagCliente(id))) {
+            return null;
+        }
         return clienteService.getClienteById(id)
                 .map(ResponseEntity::ok)
                 .orElseGet(() -> ResponseEntity.notFound().build());
     }
 
+    /**
+     * Obtiene el resumen de las órdenes de un cliente: número de órdenes, importe total
+     * y fechas de la primera y la última orden.
+     *
+     * @param id Identificador del cliente.
+     * @return El resumen del cliente, o 404 Not Found si el cliente no existe.
+     */
+    @GetMapping("/{id}/resumen")
+    public ResponseEntity<ResumenCliente> getResumen(@PathVariable Long id) {
+        return clienteService.getResumen(id)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
     /**
      * Actualiza un cliente existente.
      *
@@ -100,4 +133,18 @@ public class ClienteController {
         return ResponseEntity.ok(totalClientes);
     }
 
+    /**
+     * Importa clientes desde un archivo CSV subido como multipart en el campo {@code archivo}.
+     * El archivo se procesa por bloques a medida que se lee.
+     *
+     * @param archivo El archivo CSV, codificado en UTF-8 y con cabecera.
+     * @return El resumen de la importación con los errores por fila.
+     * @throws IOException Si falla la lectura o el archivo no es un CSV válido.
+     */
+    @PostMapping(value = "/importar", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<ResultadoImportacionDTO> importarClientes(@RequestParam("archivo") MultipartFile archivo) throws IOException {
+        try (InputStream csv = archivo.getInputStream()) {
+            return ResponseEntity.ok(clienteService.importarCsv(csv));
+        }
+    }
 }
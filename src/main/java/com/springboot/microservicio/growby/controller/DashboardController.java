@@ -0,0 +1,59 @@
+package com.springboot.microservicio.growby.controller;
+
+import com.springboot.microservicio.growby.cache.CacheSegundoNivel;
+import com.springboot.microservicio.growby.dto.ConteosDTO;
+import com.springboot.microservicio.growby.dto.EstadisticasCacheDTO;
+import com.springboot.microservicio.growby.service.ClienteService;
+import com.springboot.microservicio.growby.service.OrdenService;
+import com.springboot.microservicio.growby.service.ProductoService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+/**
+ * Controlador que expone los datos agregados del panel de control.
+ */
+@RestController
+@RequestMapping("/api/dashboard")
+public class DashboardController {
+
+    private final ClienteService clienteService;
+    private final ProductoService productoService;
+    private final OrdenService ordenService;
+    private final CacheSegundoNivel cacheSegundoNivel;
+
+    public DashboardController(ClienteService clienteService, ProductoService productoService, OrdenService ordenService,
+                               CacheSegundoNivel cacheSegundoNivel) {
+        this.clienteService = clienteService;
+        this.productoService = productoService;
+        this.ordenService = ordenService;
+        this.cacheSegundoNivel = cacheSegundoNivel;
+    }
+
+    /**
+     * Obtiene en una sola respuesta el número de clientes, productos y órdenes.
+     *
+     * @return Los tres contadores.
+     */
+    @GetMapping("/counts")
+    public ResponseEntity<ConteosDTO> getCounts() {
+        ConteosDTO conteos = new ConteosDTO(
+                clienteService.countAllClientes(),
+                productoService.countAllProducts(),
+                ordenService.countAllOrdenes());
+        return ResponseEntity.ok(conteos);
+    }
+
+    /**
+     * Obtiene las estadísticas de cada región de la caché de segundo nivel de Hibernate.
+     *
+     * @return Aciertos, fallos, desalojos y tamaño actual de cada región, indexados por nombre.
+     */
+    @GetMapping("/cache-segundo-nivel")
+    public ResponseEntity<Map<String, EstadisticasCacheDTO>> getEstadisticasCacheSegundoNivel() {
+        return ResponseEntity.ok(cacheSegundoNivel.estadisticas());
+    }
+}
@@ -1,12 +1,23 @@
 package com.springboot.microservicio.growby.controller;
 
+import com.springboot.microservicio.growby.contador.VersionesColecciones;
 import com.springboot.microservicio.growby.dto.OrdenDTO;
+import com.springboot.microservicio.growby.dto.PaginaCursorDTO;
+import com.springboot.microservicio.growby.dto.ResultadoOrdenDTO;
 import com.springboot.microservicio.growby.model.Orden;
 import com.springboot.microservicio.growby.service.OrdenService;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import javax.validation.Valid;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
 import java.util.List;
 import java.util.Optional;
 
@@ -17,33 +28,110 @@ import java.util.Optional;
 @RequestMapping("/api/ordenes")
 public class OrdenController {
 
+    static final String VISTA_COMPLETA = "completa";
+    static final String VISTA_RESUMEN = "resumen";
+    static final int TAMANO_MAXIMO_LOTE = 1000;
+    static final MediaType APPLICATION_NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
     private final OrdenService ordenService;
+    private final VersionesColecciones versionesColecciones;
 
-    public OrdenController(OrdenService ordenService) {
+    public OrdenController(OrdenService ordenService, VersionesColecciones versionesColecciones) {
         this.ordenService = ordenService;
+        this.versionesColecciones = versionesColecciones;
     }
 
     /**
-     * Obtiene la lista de todas las órdenes.
+     * Obtiene una página de órdenes mediante paginación por cursor. Con {@code clienteId} o {@code productoId}
+     * se devuelven solo las órdenes de ese cliente o producto, opcionalmente en un rango de fechas,
+     * ordenadas por fecha.
      *
-     * @return Lista de órdenes.
+     * @param clienteId Identificador del cliente cuyas órdenes se buscan, opcional.
+     * @param productoId Identificador del producto cuyas órdenes se buscan, opcional.
+     * @param desde Inicio del rango de fechas, incluido; requiere {@code clienteId} o {@code productoId}.
+     * @param hasta Fin del rango de fechas, excluido; requiere {@code clienteId} o {@code productoId}.
+     * @param after Identificador de la última orden recibida; se omite para la primera página.
+     * @param limit Número máximo de órdenes a devolver.
+     * @param vista {@code completa} para devolver las órdenes con su cliente y producto,
+     *              o {@code resumen} para devolver solo los campos de la orden y los identificadores.
+     * @param incluirNombres En la vista {@code resumen}, si se incluyen los nombres del cliente y del producto.
+     * @param request Petición, para la comprobación del ETag.
+     * @return Página de órdenes con el cursor de la página siguiente, 304 Not Modified si ninguna orden,
+     *         cliente o producto ha cambiado, o 400 Bad Request si la vista no es válida o se indica un
+     *         rango de fechas sin cliente ni producto.
      */
     @GetMapping
-    public ResponseEntity<List<Orden>> getAll() {
-        List<Orden> ordenes = ordenService.findAll();
-        return ResponseEntity.ok(ordenes);
+    public ResponseEntity<PaginaCursorDTO<?>> getAll(@RequestParam(required = false) Long clienteId,
+                                                     @RequestParam(required = false) Long productoId,
+                                                     @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime desde,
+                                                     @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime hasta,
+                                                     @RequestParam(required = false) Long after,
+                                                     @RequestParam(defaultValue = "50") int limit,
+                                                     @RequestParam(defaultValue = VISTA_COMPLETA) String vista,
+                                                     @RequestParam(defaultValue = "false") boolean incluirNombres,
+                                                     WebRequest request) {
+        boolean porFecha = clienteId != null || productoId != null;
+        if (!vistaValida(vista) || (!porFecha && (desde != null || hasta != null))) {
+            return ResponseEntity.badRequest().build();
+        }
+        if (request.checkNotModified(versionesColecciones.etag(VersionesColecciones.Coleccion.ORDENES,
+                VersionesColecciones.Coleccion.CLIENTES, VersionesColecciones.Coleccion.PRODUCTOS))) {
+            return null;
+        }
+        if (porFecha) {
+            if (VISTA_RESUMEN.equalsIgnoreCase(vista)) {
+                return ResponseEntity.ok(ordenService.findResumenByFechaOrden(clienteId, productoId,
+                        fecha(desde), fecha(hasta), after, limit, incluirNombres));
+            }
+            return ResponseEntity.ok(ordenService.findByFechaOrden(clienteId, productoId, fecha(desde), fecha(hasta), after, limit));
+        }
+        if (VISTA_RESUMEN.equalsIgnoreCase(vista)) {
+            return ResponseEntity.ok(ordenService.findResumen(after, limit, incluirNombres));
+        }
+        return ResponseEntity.ok(ordenService.findAll(after, limit));
     }
 
     /**
-     * Obtiene la lista de órdenes asociadas a un cliente por su identificador.
+     * Obtiene una página de las órdenes asociadas a un cliente mediante paginación por cursor.
      *
      * @param clienteId Identificador del cliente.
-     * @return Lista de órdenes del cliente.
+     * @param after Identificador de la última orden recibida; se omite para la primera página.
+     * @param limit Número máximo de órdenes a devolver.
+     * @param vista {@code completa} o {@code resumen}, como en {@link #getAll}.
+     * @param incluirNombres En la vista {@code resumen}, si se incluyen los nombres del cliente y del producto.
+     * @param request Petición, para la comprobación del ETag.
+     * @return Página de órdenes del cliente con el cursor de la página siguiente, 304 Not Modified si ni
+     *         el cliente, ni sus órdenes ni los productos han cambiado, o 400 Bad Request si la vista no es válida.
      */
     @GetMapping("/cliente/{clienteId}")
-    public ResponseEntity<List<Orden>> getOrdenesByClienteId(@PathVariable Long clienteId) {
-        List<Orden> ordenes = ordenService.findOrdenesByClienteId(clienteId);
-        return ResponseEntity.ok(ordenes);
+    public ResponseEntity<PaginaCursorDTO<?>> getOrdenesByClienteId(@PathVariable Long clienteId,
+                                                                    @RequestParam(required = false) Long after,
+                                                                    @RequestParam(defaultValue = "50") int limit,
+                                                                    @RequestParam(defaultValue = VISTA_COMPLETA) String vista,
+                                                                    @RequestParam(defaultValue = "false") boolean incluirNombres,
+                                                                    WebRequest request) {
+        if (!vistaValida(vista)) {
+            return ResponseEntity.badRequest().build();
+        }
+        if (request.checkNotModified(versionesColecciones.etagCliente(clienteId, VersionesColecciones.Coleccion.PRODUCTOS))) {
+            return null;
+        }
+        if (VISTA_RESUMEN.equalsIgnoreCase(vista)) {
+            return ResponseEntity.ok(ordenService.findResumenByClienteId(clienteId, after, limit, incluirNombres));
+        }
+        return ResponseEntity.ok(ordenService.findOrdenesByClienteId(clienteId, after, limit));
+    }
+
+    /**
+     * Exporta todas las órdenes en formato NDJSON (una orden JSON por línea).
+     * La respuesta se escribe a medida que se leen las filas, sin cargar todas las órdenes en memoria.
+     *
+     * @return Cuerpo de respuesta que escribe las órdenes en streaming.
+     */
+    @GetMapping(value = "/export", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> exportarOrdenes() {
+        StreamingResponseBody cuerpo = ordenService::exportarNdjson;
+        return ResponseEntity.ok().contentType(APPLICATION_NDJSON).body(cuerpo);
     }
 
     /**
@@ -73,6 +161,22 @@ public class OrdenController {
         return ResponseEntity.status(201).body(orden);
     }
 
+    /**
+     * Crea un lote de órdenes en una sola petición.
+     *
+     * @param ordenesDTO Lista con los datos de las nuevas órdenes (máximo {@value #TAMANO_MAXIMO_LOTE}).
+     * @return El resultado de cada orden, en el mismo orden en que se recibieron,
+     *         o 413 Payload Too Large si el lote supera el tamaño máximo.
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<List<ResultadoOrdenDTO>> createOrdersBatch(@RequestBody List<OrdenDTO> ordenesDTO) {
+        if (ordenesDTO.size() > TAMANO_MAXIMO_LOTE) {
+            return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE).build();
+        }
+        List<ResultadoOrdenDTO> resultados = ordenService.saveAll(ordenesDTO);
+        return ResponseEntity.ok(resultados);
+    }
+
     /**
      * Actualiza una orden existente.
      *
@@ -108,4 +212,11 @@ public class OrdenController {
         return ResponseEntity.ok(totalOrdenes);
     }
 
+    private static Date fecha(LocalDateTime fecha) {
+        return fecha != null ? Date.from(fecha.atZone(ZoneId.systemDefault()).toInstant()) : null;
+    }
+
+    private static boolean vistaValida(String vista) {
+        return VISTA_RESUMEN.equalsIgnoreCase(vista) || VISTA_COMPLETA.equalsIgnoreCase(vista);
+    }
 }
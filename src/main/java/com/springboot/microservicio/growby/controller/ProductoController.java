@@ -1,13 +1,31 @@
 package com.springboot.microservicio.growby.controller;
 
+import com.springboot.microservicio.growby.contador.VersionesColecciones;
+import com.springboot.microservicio.growby.dto.EstadisticasCacheDTO;
+import com.springboot.microservicio.growby.dto.PaginaDTO;
+import com.springboot.microservicio.growby.dto.ProductoBusquedaDTO;
 import com.springboot.microservicio.growby.dto.ProductoDTO;
+import com.springboot.microservicio.growby.dto.ResultadoImportacionDTO;
 import com.springboot.microservicio.growby.model.Producto;
 import com.springboot.microservicio.growby.service.ProductoService;
+import org.springframework.data.domain.Sort;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.multipart.MultipartFile;
 
 import javax.validation.Valid;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
 
 /**
  * Controlador que gestiona las operaciones relacionadas con los productos.
@@ -16,34 +34,126 @@ import java.util.List;
 @RequestMapping("/api/productos")
 public class ProductoController {
 
+    /**
+     * Campos por los que se puede ordenar el catálogo, los que tienen índice junto con el estado.
+     */
+    private static final Set<String> CAMPOS_ORDEN = Set.of("id", "precio", "fechaCreacion");
+
     private final ProductoService productoService;
+    private final VersionesColecciones versionesColecciones;
 
-    public ProductoController(ProductoService productoService) {
+    public ProductoController(ProductoService productoService, VersionesColecciones versionesColecciones) {
         this.productoService = productoService;
+        this.versionesColecciones = versionesColecciones;
     }
 
     /**
-     * Obtiene la lista de todos los productos.
+     * Obtiene la lista de todos los productos. La respuesta lleva un ETag con la versión del
+     * catálogo; si coincide con {@code If-None-Match} se responde 304 sin consultar la base de datos.
      *
-     * @return Lista de productos.
+     * @param request Petición, para la comprobación del ETag.
+     * @return Lista de productos, o 304 Not Modified si el catálogo no ha cambiado.
      */
     @GetMapping
-    public ResponseEntity<List<Producto>> getAllProductos() {
+    public ResponseEntity<List<Producto>> getAllProductos(WebRequest request) {
+        if (request.checkNotModified(versionesColecciones.etag(VersionesColecciones.Coleccion.PRODUCTOS))) {
+            return null;
+        }
         List<Producto> productos = productoService.findAll();
         return ResponseEntity.ok(productos);
     }
 
     /**
-     * Obtiene un producto por su identificador.
+     * Obtiene una página del catálogo de productos, filtrada por estado, precio y fecha de creación.
+     * La respuesta lleva el ETag del catálogo, como {@link #getAllProductos(WebRequest)}.
      *
-     * @param id Identificador del producto.
-     * @return El producto correspondiente, si existe.
+     * @param estado    Estado de los productos (Activo o Inactivo), opcional.
+     * @param precioMin Precio mínimo, incluido, opcional.
+     * @param precioMax Precio máximo, incluido, opcional.
+     * @param desde     Inicio del rango de fechas de creación, incluido, opcional.
+     * @param hasta     Fin del rango de fechas de creación, excluido, opcional.
+     * @param sort      Campo de ordenación ({@code id}, {@code precio} o {@code fechaCreacion}),
+     *                  seguido opcionalmente de {@code ,asc} o {@code ,desc}.
+     * @param page      Número de página, empezando por 0.
+     * @param size      Número de productos por página.
+     * @param request   Petición, para la comprobación del ETag.
+     * @return La página de productos con el total, 400 Bad Request si el estado o la ordenación no
+     *         son válidos, o 304 Not Modified si el catálogo no ha cambiado.
+     */
+    @GetMapping("/catalogo")
+    public ResponseEntity<PaginaDTO<Producto>> getCatalogo(@RequestParam(required = false) String estado,
+                                                           @RequestParam(required = false) BigDecimal precioMin,
+                                                           @RequestParam(required = false) BigDecimal precioMax,
+                                                           @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime desde,
+                                                           @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime hasta,
+                                                           @RequestParam(defaultValue = "id") String sort,
+                                                           @RequestParam(defaultValue = "0") int page,
+                                                           @RequestParam(defaultValue = "20") int size,
+                                                           WebRequest request) {
+        Producto.Estado filtroEstado;
+        Sort orden;
+        try {
+            filtroEstado = estado != null ? Producto.Estado.fromString(estado) : null;
+            orden = orden(sort);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        if (request.checkNotModified(versionesColecciones.etag(VersionesColecciones.Coleccion.PRODUCTOS))) {
+            return null;
+        }
+        return ResponseEntity.ok(productoService.findAll(filtroEstado, precioMin, precioMax,
+                fecha(desde), fecha(hasta), orden, page, size));
+    }
+
+    /**
+     * Obtiene un producto por su identificador. El producto se lee de la caché y el ETag
+     * se construye con su versión, de modo que un 304 no se serializa.
+     *
+     * @param id      Identificador del producto.
+     * @param request Petición, para la comprobación del ETag.
+     * @return El producto correspondiente, si existe, o 304 Not Modified si no ha cambiado.
      */
     @GetMapping("/{id}")
-    public ResponseEntity<Producto> getProductoById(@PathVariable Long id) {
-        return productoService.getProductoById(id)
-                .map(ResponseEntity::ok)
-                .orElseGet(() -> ResponseEntity.notFound().build());
+    public ResponseEntity<Producto> getProductoById(@PathVariable Long id, WebRequest request) {
+        Optional<Producto> producto = productoService.getProductoById(id);
+        if (producto.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        if (request.checkNotModified("\"producto-" + id + "-" + producto.get().getVersion() + "\"")) {
+            return null;
+        }
+        return ResponseEntity.ok(producto.get());
+    }
+
+    /**
+     * Busca productos por el texto de su nombre y descripción, sin distinguir mayúsculas ni acentos.
+     * Cada palabra de la consulta se busca como prefijo, para poder buscar mientras se escribe.
+     * La respuesta lleva el ETag del catálogo, que cambia con cualquier alta, modificación o baja.
+     *
+     * @param q       Texto buscado.
+     * @param estado  Estado de los productos a devolver (Activo o Inactivo), opcional.
+     * @param limit   Número máximo de productos a devolver.
+     * @param request Petición, para la comprobación del ETag.
+     * @return Los productos encontrados de mayor a menor puntuación, 400 Bad Request si el estado
+     *         no es válido, o 304 Not Modified si el catálogo no ha cambiado.
+     */
+    @GetMapping("/search")
+    public ResponseEntity<List<ProductoBusquedaDTO>> buscarProductos(@RequestParam(defaultValue = "") String q,
+                                                                     @RequestParam(required = false) String estado,
+                                                                     @RequestParam(defaultValue = "10") int limit,
+                                                                     WebRequest request) {
+        Producto.Estado filtroEstado = null;
+        if (estado != null) {
+            try {
+                filtroEstado = Producto.Estado.fromString(estado);
+            } catch (IllegalArgumentException e) {
+                return ResponseEntity.badRequest().build();
+            }
+        }
+        if (request.checkNotModified(versionesColecciones.etag(VersionesColecciones.Coleccion.PRODUCTOS))) {
+            return null;
+        }
+        return ResponseEntity.ok(productoService.buscar(q, filtroEstado, limit));
     }
 
     /**
@@ -93,4 +203,59 @@ public class ProductoController {
         return ResponseEntity.ok(totalProductos);
     }
 
+    /**
+     * Obtiene las unidades disponibles de un producto, descontadas las ya reservadas por órdenes.
+     *
+     * @param id Identificador del producto.
+     * @return Las unidades disponibles, o 404 Not Found si el producto no existe o no controla existencias.
+     */
+    @GetMapping("/{id}/stock")
+    public ResponseEntity<Long> getStockDisponible(@PathVariable Long id) {
+        return productoService.getStockDisponible(id)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Obtiene las estadísticas de la caché de productos.
+     *
+     * @return Aciertos, fallos, desalojos y tamaño actual de la caché.
+     */
+    @GetMapping("/cache/estadisticas")
+    public ResponseEntity<EstadisticasCacheDTO> getEstadisticasCache() {
+        return ResponseEntity.ok(productoService.getEstadisticasCache());
+    }
+
+    /**
+     * Importa productos desde un archivo CSV subido como multipart en el campo {@code archivo}.
+     * El archivo se procesa por bloques a medida que se lee.
+     *
+     * @param archivo El archivo CSV, codificado en UTF-8 y con cabecera.
+     * @return El resumen de la importación con los errores por fila.
+     * @throws IOException Si falla la lectura o el archivo no es un CSV válido.
+     */
+    @PostMapping(value = "/importar", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<ResultadoImportacionDTO> importarProductos(@RequestParam("archivo") MultipartFile archivo) throws IOException {
+        try (InputStream csv = archivo.getInputStream()) {
+            return ResponseEntity.ok(productoService.importarCsv(csv));
+        }
+    }
+
+    /**
+     * Convierte el parámetro {@code sort}, con el formato {@code campo[,asc|desc]}, en una ordenación.
+     *
+     * @throws IllegalArgumentException si el campo no está permitido o la dirección no es válida.
+     */
+    private static Sort orden(String sort) {
+        String[] partes = sort.split(",", 2);
+        if (!CAMPOS_ORDEN.contains(partes[0])) {
+            throw new IllegalArgumentException("Campo de ordenación no válido: " + partes[0]);
+        }
+        Sort.Direction direccion = partes.length > 1 ? Sort.Direction.fromString(partes[1]) : Sort.Direction.ASC;
+        return Sort.by(direccion, partes[0]);
+    }
+
+    private static Date fecha(LocalDateTime fecha) {
+        return fecha != null ? Date.from(fecha.atZone(ZoneId.systemDefault()).toInstant()) : null;
+    }
 }
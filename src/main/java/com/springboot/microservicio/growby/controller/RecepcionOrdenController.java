@@ -0,0 +1,62 @@
+package com.springboot.microservicio.growby.controller;
+
+import com.springboot.microservicio.growby.dto.EstadoRecepcionDTO;
+import com.springboot.microservicio.growby.dto.OrdenDTO;
+import com.springboot.microservicio.growby.recepcion.RecepcionOrdenes;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import javax.validation.Valid;
+
+/**
+ * Controlador de la recepción asíncrona de órdenes. Solo existe si
+ * {@code growby.ordenes.recepcion-asincrona.habilitada=true}.
+ */
+@RestController
+@RequestMapping("/api/ordenes/async")
+@ConditionalOnProperty(name = "growby.ordenes.recepcion-asincrona.habilitada", havingValue = "true")
+public class RecepcionOrdenController {
+
+    static final String SEGUNDOS_REINTENTO = "1";
+
+    private final RecepcionOrdenes recepcionOrdenes;
+
+    public RecepcionOrdenController(RecepcionOrdenes recepcionOrdenes) {
+        this.recepcionOrdenes = recepcionOrdenes;
+    }
+
+    /**
+     * Recibe una orden para guardarla de forma asíncrona.
+     *
+     * @param ordenDTO Objeto que contiene los datos de la nueva orden.
+     * @return 202 Accepted con el token de la orden y la URL de su estado en la cabecera {@code Location},
+     *         o 429 Too Many Requests si la cola está llena.
+     */
+    @PostMapping
+    public ResponseEntity<EstadoRecepcionDTO> recibirOrden(@Valid @RequestBody OrdenDTO ordenDTO) {
+        return recepcionOrdenes.recibir(ordenDTO)
+                .map(estado -> ResponseEntity.status(HttpStatus.ACCEPTED)
+                        .header(HttpHeaders.LOCATION, "/api/ordenes/async/" + estado.getToken())
+                        .body(estado))
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                        .header(HttpHeaders.RETRY_AFTER, SEGUNDOS_REINTENTO)
+                        .build());
+    }
+
+    /**
+     * Obtiene el estado de una orden recibida de forma asíncrona. Una vez creada, el estado
+     * incluye el identificador de la orden.
+     *
+     * @param token Token devuelto al recibir la orden.
+     * @return El estado de la orden, o 404 Not Found si el token no existe o ha caducado.
+     */
+    @GetMapping("/{token}")
+    public ResponseEntity<EstadoRecepcionDTO> getEstado(@PathVariable String token) {
+        return recepcionOrdenes.estado(token)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+}
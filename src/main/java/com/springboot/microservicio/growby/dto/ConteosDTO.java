@@ -0,0 +1,21 @@
+package com.springboot.microservicio.growby.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Data Transfer Object (DTO) que agrupa el número total de clientes,
+ * productos y órdenes para el panel de control.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ConteosDTO {
+
+    private long clientes;
+    private long productos;
+    private long ordenes;
+}
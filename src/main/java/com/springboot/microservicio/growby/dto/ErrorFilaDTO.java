@@ -0,0 +1,20 @@
+package com.springboot.microservicio.growby.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Data Transfer Object (DTO) que representa una fila rechazada en una importación,
+ * identificada por su número de línea en el archivo.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ErrorFilaDTO {
+
+    private long linea;
+    private String mensaje;
+}
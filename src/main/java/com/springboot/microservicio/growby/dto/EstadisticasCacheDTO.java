@@ -0,0 +1,22 @@
+package com.springboot.microservicio.growby.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Data Transfer Object (DTO) que representa las estadísticas de uso de una caché en memoria.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class EstadisticasCacheDTO {
+
+    private long aciertos;
+    private long fallos;
+    private long desalojos;
+    private double tasaAciertos;
+    private long tamano;
+}
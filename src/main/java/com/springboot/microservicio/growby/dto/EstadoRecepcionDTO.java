@@ -0,0 +1,34 @@
+package com.springboot.microservicio.growby.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Data Transfer Object (DTO) que representa el estado de una orden recibida de forma asíncrona.
+ * Mientras la orden espera en la cola su estado es {@value #PENDIENTE}; cuando se guarda pasa a
+ * {@link ResultadoOrdenDTO#CREADA}, con el identificador de la orden, o a
+ * {@link ResultadoOrdenDTO#RECHAZADA}, con el motivo.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class EstadoRecepcionDTO {
+
+    public static final String PENDIENTE = "PENDIENTE";
+
+    private String token;
+    private String estado;
+    private Long ordenId;
+    private String mensaje;
+
+    public static EstadoRecepcionDTO pendiente(String token) {
+        return new EstadoRecepcionDTO(token, PENDIENTE, null, null);
+    }
+
+    public static EstadoRecepcionDTO de(String token, ResultadoOrdenDTO resultado) {
+        return new EstadoRecepcionDTO(token, resultado.getEstado(), resultado.getOrdenId(), resultado.getMensaje());
+    }
+}
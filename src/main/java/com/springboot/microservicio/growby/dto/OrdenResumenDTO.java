@@ -0,0 +1,34 @@
+package com.springboot.microservicio.growby.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.util.Date;
+
+/**
+ * Data Transfer Object (DTO) que representa una vista reducida de una orden.
+ * Se construye directamente desde las consultas de {@code OrdenRepository}, sin
+ * cargar entidades gestionadas ni el cliente y producto completos.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrdenResumenDTO {
+
+    private Long id;
+    private int cantidad;
+    private BigDecimal total;
+    private Date fechaOrden;
+    private Long clienteId;
+    private Long productoId;
+    private String nombreCliente;
+    private String nombreProducto;
+
+    public OrdenResumenDTO(Long id, int cantidad, BigDecimal total, Date fechaOrden, Long clienteId, Long productoId) {
+        this(id, cantidad, total, fechaOrden, clienteId, productoId, null, null);
+    }
+}
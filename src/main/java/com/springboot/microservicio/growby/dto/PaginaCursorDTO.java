@@ -0,0 +1,26 @@
+package com.springboot.microservicio.growby.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+/**
+ * Data Transfer Object (DTO) que representa una página de resultados obtenida
+ * mediante paginación por cursor (keyset).
+ * El campo {@code siguienteCursor} debe enviarse como parámetro {@code after}
+ * para obtener la página siguiente; es nulo cuando no hay más resultados.
+ *
+ * @param <T> Tipo de los elementos de la página.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class PaginaCursorDTO<T> {
+
+    private List<T> contenido;
+    private Long siguienteCursor;
+}
@@ -0,0 +1,29 @@
+package com.springboot.microservicio.growby.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+/**
+ * Data Transfer Object (DTO) que representa una página de resultados obtenida
+ * mediante paginación por número de página.
+ * A diferencia de {@link PaginaCursorDTO}, permite saltar a cualquier página y
+ * conocer el total de resultados, a costa de contarlos en cada consulta.
+ *
+ * @param <T> Tipo de los elementos de la página.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class PaginaDTO<T> {
+
+    private List<T> contenido;
+    private int pagina;
+    private int tamano;
+    private long totalElementos;
+    private int totalPaginas;
+}
@@ -0,0 +1,28 @@
+package com.springboot.microservicio.growby.dto;
+
+import com.springboot.microservicio.growby.model.Producto;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+
+/**
+ * Data Transfer Object (DTO) que representa un producto encontrado por la búsqueda de texto.
+ * Se construye desde el índice de búsqueda en memoria, sin consultar la base de datos, e incluye
+ * la puntuación con la que se ordenan los resultados.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductoBusquedaDTO {
+
+    private Long id;
+    private String nombre;
+    private String descripcion;
+    private BigDecimal precio;
+    private Producto.Estado estado;
+    private int puntuacion;
+}
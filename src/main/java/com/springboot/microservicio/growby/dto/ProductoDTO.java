@@ -33,4 +33,11 @@ public class ProductoDTO {
 
     @NotEmpty
     private String estado;
+
+    /**
+     * Existencias disponibles del producto. Si se omite, el producto no controla existencias
+     * o, al actualizarlo, conserva las que tenía.
+     */
+    @PositiveOrZero
+    private Integer stock;
 }
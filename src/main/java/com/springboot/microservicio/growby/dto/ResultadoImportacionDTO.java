@@ -0,0 +1,39 @@
+package com.springboot.microservicio.growby.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Data Transfer Object (DTO) que representa el resumen de una importación masiva:
+ * filas leídas, importadas y rechazadas, y el motivo de rechazo de cada fila.
+ * Solo se detallan los primeros {@link #MAXIMO_ERRORES_INFORMADOS} errores; el resto solo se cuentan.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ResultadoImportacionDTO {
+
+    public static final int MAXIMO_ERRORES_INFORMADOS = 1000;
+
+    private long filasLeidas;
+    private long filasImportadas;
+    private long filasRechazadas;
+    private List<ErrorFilaDTO> errores = new ArrayList<>();
+
+    public void importadas(int cantidad) {
+        filasImportadas += cantidad;
+    }
+
+    public void rechazar(long linea, String mensaje) {
+        filasRechazadas++;
+        if (errores.size() < MAXIMO_ERRORES_INFORMADOS) {
+            errores.add(new ErrorFilaDTO(linea, mensaje));
+        }
+    }
+}
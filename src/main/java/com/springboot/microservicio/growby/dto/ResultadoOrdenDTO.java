@@ -0,0 +1,36 @@
+package com.springboot.microservicio.growby.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Data Transfer Object (DTO) que representa el resultado del procesamiento
+ * de una orden dentro de una carga masiva.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ResultadoOrdenDTO {
+
+    public static final String CREADA = "CREADA";
+    public static final String RECHAZADA = "RECHAZADA";
+
+    /**
+     * Posición de la orden dentro del lote recibido.
+     */
+    private int indice;
+    private String estado;
+    private Long ordenId;
+    private String mensaje;
+
+    public static ResultadoOrdenDTO creada(int indice, Long ordenId) {
+        return new ResultadoOrdenDTO(indice, CREADA, ordenId, null);
+    }
+
+    public static ResultadoOrdenDTO rechazada(int indice, String mensaje) {
+        return new ResultadoOrdenDTO(indice, RECHAZADA, null, mensaje);
+    }
+}
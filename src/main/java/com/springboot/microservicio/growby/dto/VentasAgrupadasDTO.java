@@ -0,0 +1,28 @@
+package com.springboot.microservicio.growby.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+
+/**
+ * Data Transfer Object (DTO) que representa las ventas acumuladas de un producto
+ * o de un cliente en un rango de fechas.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class VentasAgrupadasDTO {
+
+    /**
+     * Identificador del producto o del cliente.
+     */
+    private Long id;
+    private String nombre;
+    private long cantidad;
+    private BigDecimal total;
+    private long ordenes;
+}
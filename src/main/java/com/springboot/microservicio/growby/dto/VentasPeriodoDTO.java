@@ -0,0 +1,27 @@
+package com.springboot.microservicio.growby.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Data Transfer Object (DTO) que representa las ventas acumuladas de un día, una semana o un mes.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class VentasPeriodoDTO {
+
+    /**
+     * Primer día del periodo: el propio día, el lunes de la semana o el día 1 del mes.
+     */
+    private LocalDate inicio;
+    private long cantidad;
+    private BigDecimal total;
+    private long ordenes;
+}
@@ -0,0 +1,16 @@
+package com.springboot.microservicio.growby.exception;
+
+/**
+ * Excepción lanzada cuando se intenta registrar un cliente con un email
+ * que ya pertenece a otro cliente.
+ */
+public class EmailEnUsoException extends RuntimeException {
+    /**
+     * Constructor que recibe un mensaje de error.
+     *
+     * @param message Mensaje que describe la excepción.
+     */
+    public EmailEnUsoException(String message) {
+        super(message);
+    }
+}
@@ -1,5 +1,6 @@
 package com.springboot.microservicio.growby.exception;
 
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
@@ -29,6 +30,39 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
     }
 
+    /**
+     * Maneja las excepciones de tipo {@link EmailEnUsoException}.
+     *
+     * @param e La excepción lanzada.
+     * @return Una respuesta HTTP con estado 409 Conflict y el mensaje de error.
+     */
+    @ExceptionHandler(EmailEnUsoException.class)
+    public ResponseEntity<String> handleEmailEnUsoException(EmailEnUsoException e) {
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+    }
+
+    /**
+     * Maneja las excepciones de tipo {@link StockInsuficienteException}.
+     *
+     * @param e La excepción lanzada.
+     * @return Una respuesta HTTP con estado 409 Conflict y el mensaje de error.
+     */
+    @ExceptionHandler(StockInsuficienteException.class)
+    public ResponseEntity<String> handleStockInsuficienteException(StockInsuficienteException e) {
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+    }
+
+    /**
+     * Maneja las modificaciones concurrentes de una misma entidad detectadas por su versión.
+     *
+     * @param e La excepción lanzada.
+     * @return Una respuesta HTTP con estado 409 Conflict.
+     */
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<String> handleOptimisticLockingFailureException(OptimisticLockingFailureException e) {
+        return ResponseEntity.status(HttpStatus.CONFLICT).body("El recurso fue modificado por otra petición; vuelva a intentarlo");
+    }
+
     /**
      * Maneja excepciones de validación cuando se producen errores en los
      * argumentos de los métodos.
@@ -0,0 +1,16 @@
+package com.springboot.microservicio.growby.exception;
+
+/**
+ * Excepción lanzada cuando se intenta crear o modificar una orden por más unidades
+ * de las que quedan disponibles del producto.
+ */
+public class StockInsuficienteException extends RuntimeException {
+    /**
+     * Constructor que recibe un mensaje de error.
+     *
+     * @param message Mensaje que describe la excepción.
+     */
+    public StockInsuficienteException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,72 @@
+package com.springboot.microservicio.growby.importacion;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Registro de un archivo CSV cuyos campos se consultan por el nombre de la columna de la cabecera.
+ */
+public class FilaCsv {
+
+    private final Map<String, Integer> columnas;
+    private final List<String> valores;
+
+    FilaCsv(Map<String, Integer> columnas, List<String> valores) {
+        this.columnas = columnas;
+        this.valores = valores;
+    }
+
+    /**
+     * Obtiene el valor de una columna.
+     *
+     * @param columna El nombre de la columna, sin distinguir mayúsculas.
+     * @return El valor sin espacios iniciales ni finales, o {@code null} si la columna no existe o está vacía.
+     */
+    public String valor(String columna) {
+        Integer indice = columnas.get(ImportadorCsv.normalizarColumna(columna));
+        if (indice == null || indice >= valores.size()) {
+            return null;
+        }
+        String valor = valores.get(indice).trim();
+        return valor.isEmpty() ? null : valor;
+    }
+
+    /**
+     * Obtiene el valor numérico de una columna.
+     *
+     * @param columna El nombre de la columna, sin distinguir mayúsculas.
+     * @return El valor, o {@code null} si la columna no existe o está vacía.
+     * @throws IllegalArgumentException Si el valor no es un número.
+     */
+    public BigDecimal decimal(String columna) {
+        String valor = valor(columna);
+        if (valor == null) {
+            return null;
+        }
+        try {
+            return new BigDecimal(valor);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(columna + ": valor numérico no válido: " + valor);
+        }
+    }
+
+    /**
+     * Obtiene el valor entero de una columna.
+     *
+     * @param columna El nombre de la columna, sin distinguir mayúsculas.
+     * @return El valor, o {@code null} si la columna no existe o está vacía.
+     * @throws IllegalArgumentException Si el valor no es un número entero.
+     */
+    public Integer entero(String columna) {
+        String valor = valor(columna);
+        if (valor == null) {
+            return null;
+        }
+        try {
+            return Integer.valueOf(valor);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(columna + ": valor entero no válido: " + valor);
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.springboot.microservicio.growby.importacion;
+
+/**
+ * Fila de un archivo de importación ya validada, junto con su número de línea en el archivo.
+ *
+ * @param <D> Tipo del DTO construido a partir de la fila.
+ */
+public class FilaImportacion<D> {
+
+    private final long linea;
+    private final D datos;
+
+    public FilaImportacion(long linea, D datos) {
+        this.linea = linea;
+        this.datos = datos;
+    }
+
+    public long getLinea() {
+        return linea;
+    }
+
+    public D getDatos() {
+        return datos;
+    }
+}
@@ -0,0 +1,17 @@
+package com.springboot.microservicio.growby.importacion;
+
+import com.springboot.microservicio.growby.dto.ResultadoImportacionDTO;
+
+import java.util.List;
+
+/**
+ * Guarda un bloque de filas válidas de una importación y anota en el resultado
+ * las filas importadas y las rechazadas.
+ *
+ * @param <D> Tipo del DTO de cada fila.
+ */
+@FunctionalInterface
+public interface GuardadoBloque<D> {
+
+    void guardar(List<FilaImportacion<D>> bloque, ResultadoImportacionDTO resultado);
+}
@@ -0,0 +1,113 @@
+package com.springboot.microservicio.growby.importacion;
+
+import com.springboot.microservicio.growby.dto.ResultadoImportacionDTO;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Importa archivos CSV por bloques. Lee las filas a medida que llegan, convierte cada una en un DTO,
+ * la valida con Bean Validation y entrega las válidas en bloques de tamaño fijo a un {@link GuardadoBloque}.
+ * Cada bloque se guarda en su propia transacción, cuyo contexto de persistencia se cierra al confirmarla,
+ * de modo que la memoria usada depende del tamaño del bloque y no del tamaño del archivo.
+ * <p>
+ * La primera fila del archivo debe ser la cabecera con los nombres de las columnas.
+ */
+@Component
+public class ImportadorCsv {
+
+    private final Validator validator;
+    private final int tamanoBloque;
+
+    public ImportadorCsv(Validator validator, @Value("${growby.importacion.tamano-bloque:500}") int tamanoBloque) {
+        this.validator = validator;
+        this.tamanoBloque = tamanoBloque;
+    }
+
+    /**
+     * Importa un archivo CSV codificado en UTF-8.
+     *
+     * @param csv      El contenido del archivo.
+     * @param mapeador Convierte una fila en su DTO; puede lanzar {@link IllegalArgumentException} si un valor no es válido.
+     * @param guardado Guarda cada bloque de filas válidas.
+     * @return El resumen de la importación con los errores por fila.
+     * @throws IOException Si falla la lectura o el archivo no es un CSV válido.
+     */
+    public <D> ResultadoImportacionDTO importar(InputStream csv, Function<FilaCsv, D> mapeador,
+                                                GuardadoBloque<D> guardado) throws IOException {
+        ResultadoImportacionDTO resultado = new ResultadoImportacionDTO();
+        try (LectorCsv lector = new LectorCsv(new InputStreamReader(csv, StandardCharsets.UTF_8))) {
+            List<String> cabecera = lector.siguienteRegistro();
+            if (cabecera == null) {
+                return resultado;
+            }
+            Map<String, Integer> columnas = indexarColumnas(cabecera);
+
+            List<FilaImportacion<D>> bloque = new ArrayList<>(tamanoBloque);
+            List<String> valores;
+            while ((valores = lector.siguienteRegistro()) != null) {
+                resultado.setFilasLeidas(resultado.getFilasLeidas() + 1);
+                D datos;
+                try {
+                    datos = mapeador.apply(new FilaCsv(columnas, valores));
+                } catch (IllegalArgumentException e) {
+                    resultado.rechazar(lector.getLinea(), e.getMessage());
+                    continue;
+                }
+                Set<ConstraintViolation<D>> violaciones = validator.validate(datos);
+                if (!violaciones.isEmpty()) {
+                    resultado.rechazar(lector.getLinea(), describir(violaciones));
+                    continue;
+                }
+
+                bloque.add(new FilaImportacion<>(lector.getLinea(), datos));
+                if (bloque.size() == tamanoBloque) {
+                    guardarBloque(bloque, guardado, resultado);
+                }
+            }
+            if (!bloque.isEmpty()) {
+                guardarBloque(bloque, guardado, resultado);
+            }
+        }
+        return resultado;
+    }
+
+    static String normalizarColumna(String columna) {
+        return columna.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private <D> void guardarBloque(List<FilaImportacion<D>> bloque, GuardadoBloque<D> guardado,
+                                   ResultadoImportacionDTO resultado) {
+        guardado.guardar(bloque, resultado);
+        bloque.clear();
+    }
+
+    private static Map<String, Integer> indexarColumnas(List<String> cabecera) {
+        Map<String, Integer> columnas = new HashMap<>();
+        for (int i = 0; i < cabecera.size(); i++) {
+            columnas.putIfAbsent(normalizarColumna(cabecera.get(i)), i);
+        }
+        return columnas;
+    }
+
+    private static <D> String describir(Set<ConstraintViolation<D>> violaciones) {
+        return violaciones.stream()
+                .map(violacion -> violacion.getPropertyPath() + ": " + violacion.getMessage())
+                .sorted()
+                .collect(Collectors.joining("; "));
+    }
+}
@@ -0,0 +1,132 @@
+package com.springboot.microservicio.growby.importacion;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Lector de CSV (RFC 4180) que devuelve los registros uno a uno a medida que lee la entrada,
+ * sin cargar el archivo completo en memoria.
+ * Admite campos entre comillas dobles con comas, saltos de línea y comillas escapadas ({@code ""}),
+ * finales de línea {@code \n} o {@code \r\n}, y una marca de orden de bytes UTF-8 al inicio.
+ * Las líneas vacías se ignoran.
+ */
+public class LectorCsv implements Closeable {
+
+    private static final char SEPARADOR = ',';
+    private static final char COMILLA = '"';
+    private static final int FIN = -1;
+    private static final int NINGUNO = -2;
+
+    private final BufferedReader reader;
+    private long lineaActual = 1;
+    private long lineaRegistro;
+    private boolean inicio = true;
+    private int pendiente = NINGUNO;
+
+    public LectorCsv(Reader reader) {
+        this.reader = reader instanceof BufferedReader ? (BufferedReader) reader : new BufferedReader(reader);
+    }
+
+    /**
+     * Lee el siguiente registro.
+     *
+     * @return Los campos del registro, o {@code null} si no quedan registros.
+     * @throws IOException Si falla la lectura o hay comillas sin cerrar al final del archivo.
+     */
+    public List<String> siguienteRegistro() throws IOException {
+        int c = leer();
+        while (c == '\r' || c == '\n') {
+            consumirFinDeLinea(c);
+            c = leer();
+        }
+        if (c == FIN) {
+            return null;
+        }
+
+        lineaRegistro = lineaActual;
+        List<String> campos = new ArrayList<>();
+        StringBuilder campo = new StringBuilder();
+        boolean entreComillas = false;
+        while (true) {
+            if (entreComillas) {
+                if (c == FIN) {
+                    throw new IOException("Comillas sin cerrar en el registro de la línea " + lineaRegistro);
+                }
+                if (c == COMILLA) {
+                    int siguiente = leer();
+                    if (siguiente == COMILLA) {
+                        campo.append(COMILLA);
+                    } else {
+                        entreComillas = false;
+                        c = siguiente;
+                        continue;
+                    }
+                } else {
+                    if (c == '\n') {
+                        lineaActual++;
+                    }
+                    campo.append((char) c);
+                }
+            } else if (c == COMILLA && campo.length() == 0) {
+                entreComillas = true;
+            } else if (c == SEPARADOR) {
+                campos.add(campo.toString());
+                campo.setLength(0);
+            } else if (c == '\r' || c == '\n' || c == FIN) {
+                campos.add(campo.toString());
+                if (c != FIN) {
+                    consumirFinDeLinea(c);
+                }
+                return campos;
+            } else {
+                campo.append((char) c);
+            }
+            c = leer();
+        }
+    }
+
+    /**
+     * @return El número de línea del archivo en el que empieza el último registro leído.
+     */
+    public long getLinea() {
+        return lineaRegistro;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    private int leer() throws IOException {
+        if (pendiente != NINGUNO) {
+            int c = pendiente;
+            pendiente = NINGUNO;
+            return c;
+        }
+        int c = reader.read();
+        if (inicio) {
+            inicio = false;
+            if (c == '\uFEFF') {
+                c = reader.read();
+            }
+        }
+        return c;
+    }
+
+    /**
+     * Consume un fin de línea ({@code \n}, {@code \r} o {@code \r\n}) cuyo primer carácter ya se ha leído.
+     */
+    private void consumirFinDeLinea(int c) throws IOException {
+        lineaActual++;
+        if (c == '\r') {
+            int siguiente = leer();
+            if (siguiente != '\n') {
+                pendiente = siguiente;
+            }
+        }
+    }
+}
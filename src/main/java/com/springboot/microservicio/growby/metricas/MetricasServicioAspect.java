@@ -0,0 +1,53 @@
+package com.springboot.microservicio.growby.metricas;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
+
+/**
+ * Aspecto que mide la duración de cada método público de las implementaciones de servicio.
+ * Registra el temporizador {@value #METRICA} etiquetado con la clase, el método y la excepción
+ * lanzada ({@code none} si terminó correctamente).
+ */
+@Aspect
+@Component
+public class MetricasServicioAspect {
+
+    public static final String METRICA = "growby.servicio";
+
+    private final MeterRegistry meterRegistry;
+
+    public MetricasServicioAspect(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Ejecuta el método interceptado y registra su duración.
+     *
+     * @param punto El método interceptado.
+     * @return El resultado del método.
+     * @throws Throwable La excepción lanzada por el método, sin modificar.
+     */
+    @Around("execution(public * com.springboot.microservicio.growby.service.impl..*(..))")
+    public Object medir(ProceedingJoinPoint punto) throws Throwable {
+        Timer.Sample muestra = Timer.start(meterRegistry);
+        String excepcion = "none";
+        try {
+            return punto.proceed();
+        } catch (Throwable e) {
+            excepcion = e.getClass().getSimpleName();
+            throw e;
+        } finally {
+            muestra.stop(Timer.builder(METRICA)
+                    .description("Duración de los métodos de la capa de servicio")
+                    .tag("clase", ClassUtils.getUserClass(punto.getTarget()).getSimpleName())
+                    .tag("metodo", punto.getSignature().getName())
+                    .tag("excepcion", excepcion)
+                    .register(meterRegistry));
+        }
+    }
+}
@@ -1,27 +1,47 @@
 package com.springboot.microservicio.growby.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import javax.persistence.*;
 
 /**
  * Clase que representa un Cliente en el sistema.
+ * Se guarda en la región {@code clientes} de la caché de segundo nivel de Hibernate
+ * ({@link com.springboot.microservicio.growby.config.CacheSegundoNivelConfig}).
  */
 @Getter
 @Setter
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 @Table(name = "clientes")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "clientes")
 public class Cliente {
+    /**
+     * Se usa una secuencia con asignación por bloques en lugar de IDENTITY para que
+     * Hibernate pueda agrupar los INSERT de las importaciones masivas en lotes JDBC.
+     */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "clientes_seq")
+    @SequenceGenerator(name = "clientes_seq", sequenceName = "clientes_seq", allocationSize = 50)
     private Long id;
 
     private String nombre;
+    @Column(unique = true)
     private String email;
     private String telefono;
+
+    /**
+     * Versión para el bloqueo optimista; Hibernate la incrementa en cada modificación.
+     */
+    @Version
+    private long version;
 }
@@ -1,5 +1,6 @@
 package com.springboot.microservicio.growby.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
@@ -20,8 +21,13 @@ import java.util.Date;
 @Table(name = "ordenes")
 public class Orden {
 
+    /**
+     * Se usa una secuencia con asignación por bloques en lugar de IDENTITY para que
+     * Hibernate pueda agrupar los INSERT de órdenes en lotes JDBC.
+     */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "ordenes_seq")
+    @SequenceGenerator(name = "ordenes_seq", sequenceName = "ordenes_seq", allocationSize = 50)
     private Long id;
 
     private int cantidad;
@@ -30,11 +36,24 @@ public class Orden {
     @Temporal(TemporalType.TIMESTAMP)
     private Date fechaOrden;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "cliente_id", nullable = false)
     private Cliente cliente;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "producto_id", nullable = false)
     private Producto producto;
+
+    /**
+     * Si las unidades de la orden están pendientes de descontarse del stock del producto en la base
+     * de datos ({@code true}), ya se descontaron ({@code false}) o el producto no controla existencias (nulo).
+     */
+    @JsonIgnore
+    private Boolean stockPendiente;
+
+    /**
+     * Versión para el bloqueo optimista; Hibernate la incrementa en cada modificación.
+     */
+    @Version
+    private long version;
 }
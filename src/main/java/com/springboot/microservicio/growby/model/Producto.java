@@ -1,9 +1,12 @@
 package com.springboot.microservicio.growby.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import javax.persistence.*;
 import java.math.BigDecimal;
@@ -11,16 +14,26 @@ import java.util.Date;
 
 /**
  * Clase que representa un Producto en el sistema.
+ * Se guarda en la región {@code productos} de la caché de segundo nivel de Hibernate
+ * ({@link com.springboot.microservicio.growby.config.CacheSegundoNivelConfig}).
  */
 @Getter
 @Setter
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 @Table(name = "productos")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "productos")
 public class Producto {
+    /**
+     * Se usa una secuencia con asignación por bloques en lugar de IDENTITY para que
+     * Hibernate pueda agrupar los INSERT de las importaciones masivas en lotes JDBC.
+     */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "productos_seq")
+    @SequenceGenerator(name = "productos_seq", sequenceName = "productos_seq", allocationSize = 50)
     private Long id;
 
     private String nombre;
@@ -33,6 +46,21 @@ public class Producto {
     @Enumerated(EnumType.STRING)
     private Estado estado;
 
+    /**
+     * Existencias del producto, o nulo si no se controlan. Las órdenes las descuentan en memoria a través
+     * de {@link com.springboot.microservicio.growby.stock.ReservasStock}, que es la única que escribe
+     * esta columna; por eso no se incluye en los UPDATE del producto. En la caché de segundo nivel puede
+     * faltar algún descuento posterior a la carga del producto; las existencias se consultan a ReservasStock.
+     */
+    @Column(updatable = false)
+    private Integer stock;
+
+    /**
+     * Versión para el bloqueo optimista; Hibernate la incrementa en cada modificación.
+     */
+    @Version
+    private long version;
+
     public enum Estado {
         ACTIVO,
         INACTIVO;
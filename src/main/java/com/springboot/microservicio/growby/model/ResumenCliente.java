@@ -0,0 +1,47 @@
+package com.springboot.microservicio.growby.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import javax.persistence.*;
+import java.math.BigDecimal;
+import java.util.Date;
+
+/**
+ * Resumen de las órdenes de un cliente: número de órdenes, importe total y fechas de la
+ * primera y la última orden. Se mantiene con cada alta, modificación y baja de órdenes
+ * para que la ficha del cliente se sirva con una lectura por clave primaria.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "resumenes_cliente")
+public class ResumenCliente {
+
+    @Id
+    @Column(name = "cliente_id")
+    private Long clienteId;
+
+    private long ordenes;
+    private BigDecimal total;
+
+    @Temporal(TemporalType.TIMESTAMP)
+    private Date primeraOrden;
+
+    @Temporal(TemporalType.TIMESTAMP)
+    private Date ultimaOrden;
+
+    /**
+     * Crea el resumen de un cliente que todavía no tiene órdenes.
+     *
+     * @param clienteId El identificador del cliente.
+     * @return Un resumen con cero órdenes y sin fechas.
+     */
+    public static ResumenCliente vacio(Long clienteId) {
+        return new ResumenCliente(clienteId, 0, BigDecimal.ZERO, null, null);
+    }
+}
@@ -0,0 +1,49 @@
+package com.springboot.microservicio.growby.model;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import javax.persistence.*;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Acumulado diario de ventas de un producto: unidades vendidas, importe total y número de órdenes.
+ * Se mantiene de forma incremental con cada alta, modificación y baja de órdenes.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@IdClass(VentaDiariaProducto.Clave.class)
+@Table(name = "ventas_diarias_producto")
+public class VentaDiariaProducto {
+    @Id
+    private LocalDate fecha;
+
+    @Id
+    @Column(name = "producto_id")
+    private Long productoId;
+
+    private long cantidad;
+    private BigDecimal total;
+    private long ordenes;
+
+    /**
+     * Clave primaria compuesta por el día y el producto.
+     */
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @EqualsAndHashCode
+    public static class Clave implements Serializable {
+        private LocalDate fecha;
+        private Long productoId;
+    }
+}
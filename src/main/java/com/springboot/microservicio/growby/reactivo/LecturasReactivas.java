@@ -0,0 +1,103 @@
+package com.springboot.microservicio.growby.reactivo;
+
+import com.springboot.microservicio.growby.dto.OrdenResumenDTO;
+import com.springboot.microservicio.growby.model.Producto;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Optional;
+
+/**
+ * Rutas y manejadores de la API reactiva de lectura. Replica con las mismas rutas y parámetros
+ * las lecturas de órdenes y productos de la API MVC, pero cada respuesta se escribe en NDJSON
+ * (un objeto JSON por línea) a medida que llegan las filas de la base de datos, respetando la
+ * contrapresión del cliente: si el cliente lee despacio, se dejan de pedir filas.
+ * <p>
+ * Las órdenes se devuelven siempre en la vista {@code resumen}; el cursor de la página siguiente
+ * es el identificador de la última línea recibida.
+ */
+class LecturasReactivas {
+
+    static final int LIMITE_MAXIMO = 10_000;
+
+    private final OrdenReactivaRepository ordenRepository;
+    private final ProductoReactivoRepository productoRepository;
+
+    LecturasReactivas(OrdenReactivaRepository ordenRepository, ProductoReactivoRepository productoRepository) {
+        this.ordenRepository = ordenRepository;
+        this.productoRepository = productoRepository;
+    }
+
+    RouterFunction<ServerResponse> rutas() {
+        return RouterFunctions.route()
+                .GET("/api/ordenes", this::ordenes)
+                .GET("/api/ordenes/cliente/{clienteId}", this::ordenesDeCliente)
+                .GET("/api/productos", this::productos)
+                .build();
+    }
+
+    /**
+     * Parámetros: {@code after}, {@code limit} (por defecto 50, acotado a {@value #LIMITE_MAXIMO})
+     * e {@code incluirNombres}.
+     */
+    Mono<ServerResponse> ordenes(ServerRequest peticion) {
+        Optional<Long> after = numero(peticion.queryParam("after"), 0L);
+        Optional<Long> limite = numero(peticion.queryParam("limit"), 50L);
+        if (after.isEmpty() || limite.isEmpty()) {
+            return ServerResponse.badRequest().build();
+        }
+        return ndjson(ordenRepository.findResumen(after.get(), acotarLimite(limite.get()), incluirNombres(peticion)));
+    }
+
+    /**
+     * Parámetros: los mismos que {@link #ordenes(ServerRequest)}.
+     */
+    Mono<ServerResponse> ordenesDeCliente(ServerRequest peticion) {
+        Optional<Long> clienteId = numero(Optional.of(peticion.pathVariable("clienteId")), null);
+        Optional<Long> after = numero(peticion.queryParam("after"), 0L);
+        Optional<Long> limite = numero(peticion.queryParam("limit"), 50L);
+        if (clienteId.isEmpty() || after.isEmpty() || limite.isEmpty()) {
+            return ServerResponse.badRequest().build();
+        }
+        return ndjson(ordenRepository.findResumenByClienteId(clienteId.get(), after.get(),
+                acotarLimite(limite.get()), incluirNombres(peticion)));
+    }
+
+    Mono<ServerResponse> productos(ServerRequest peticion) {
+        return ServerResponse.ok().contentType(MediaType.APPLICATION_NDJSON)
+                .body(productoRepository.findAll(), Producto.class);
+    }
+
+    private static Mono<ServerResponse> ndjson(Flux<OrdenResumenDTO> ordenes) {
+        return ServerResponse.ok().contentType(MediaType.APPLICATION_NDJSON).body(ordenes, OrdenResumenDTO.class);
+    }
+
+    private static boolean incluirNombres(ServerRequest peticion) {
+        return peticion.queryParam("incluirNombres").map(Boolean::parseBoolean).orElse(false);
+    }
+
+    private static int acotarLimite(long limite) {
+        return (int) Math.max(1, Math.min(limite, LIMITE_MAXIMO));
+    }
+
+    /**
+     * Interpreta un parámetro numérico.
+     *
+     * @return El valor, el valor por defecto si falta, o vacío si no es un número.
+     */
+    private static Optional<Long> numero(Optional<String> valor, Long porDefecto) {
+        if (valor.isEmpty()) {
+            return Optional.ofNullable(porDefecto);
+        }
+        try {
+            return Optional.of(Long.parseLong(valor.get()));
+        } catch (NumberFormatException e) {
+            return Optional.empty();
+        }
+    }
+}
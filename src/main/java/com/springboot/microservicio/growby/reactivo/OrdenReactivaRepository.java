@@ -0,0 +1,82 @@
+package com.springboot.microservicio.growby.reactivo;
+
+import com.springboot.microservicio.growby.dto.OrdenResumenDTO;
+import io.r2dbc.spi.Row;
+import org.springframework.r2dbc.core.DatabaseClient;
+import reactor.core.publisher.Flux;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
+
+/**
+ * Consultas reactivas de solo lectura sobre la tabla {@code ordenes}, con R2DBC.
+ * Devuelven la vista reducida {@link OrdenResumenDTO}, igual que la vista {@code resumen}
+ * de la API MVC, recorriendo la tabla por rangos de clave primaria sin OFFSET.
+ */
+class OrdenReactivaRepository {
+
+    private static final String COLUMNAS = "o.id, o.cantidad, o.total, o.fecha_orden, o.cliente_id, o.producto_id";
+    private static final String DESDE_ORDENES = " from ordenes o";
+    private static final String DESDE_ORDENES_CON_NOMBRES = ", c.nombre as nombre_cliente, p.nombre as nombre_producto"
+            + " from ordenes o join clientes c on c.id = o.cliente_id join productos p on p.id = o.producto_id";
+    private static final String ORDEN_Y_LIMITE = " order by o.id fetch first :limite rows only";
+
+    private final DatabaseClient databaseClient;
+
+    OrdenReactivaRepository(DatabaseClient databaseClient) {
+        this.databaseClient = databaseClient;
+    }
+
+    /**
+     * Busca las órdenes cuyo identificador es mayor que el cursor indicado.
+     *
+     * @param after          El identificador a partir del cual (excluido) se buscan órdenes.
+     * @param limite         Número máximo de órdenes a devolver.
+     * @param incluirNombres Si se incluyen los nombres del cliente y del producto.
+     * @return Las órdenes ordenadas por identificador ascendente, a medida que se leen.
+     */
+    Flux<OrdenResumenDTO> findResumen(long after, int limite, boolean incluirNombres) {
+        String sql = "select " + COLUMNAS + (incluirNombres ? DESDE_ORDENES_CON_NOMBRES : DESDE_ORDENES)
+                + " where o.id > :after" + ORDEN_Y_LIMITE;
+        return databaseClient.sql(sql)
+                .bind("after", after)
+                .bind("limite", limite)
+                .map((fila, metadatos) -> resumen(fila, incluirNombres))
+                .all();
+    }
+
+    /**
+     * Busca las órdenes de un cliente cuyo identificador es mayor que el cursor indicado.
+     *
+     * @param clienteId      El identificador del cliente.
+     * @param after          El identificador a partir del cual (excluido) se buscan órdenes.
+     * @param limite         Número máximo de órdenes a devolver.
+     * @param incluirNombres Si se incluyen los nombres del cliente y del producto.
+     * @return Las órdenes del cliente ordenadas por identificador ascendente, a medida que se leen.
+     */
+    Flux<OrdenResumenDTO> findResumenByClienteId(long clienteId, long after, int limite, boolean incluirNombres) {
+        String sql = "select " + COLUMNAS + (incluirNombres ? DESDE_ORDENES_CON_NOMBRES : DESDE_ORDENES)
+                + " where o.cliente_id = :clienteId and o.id > :after" + ORDEN_Y_LIMITE;
+        return databaseClient.sql(sql)
+                .bind("clienteId", clienteId)
+                .bind("after", after)
+                .bind("limite", limite)
+                .map((fila, metadatos) -> resumen(fila, incluirNombres))
+                .all();
+    }
+
+    private static OrdenResumenDTO resumen(Row fila, boolean incluirNombres) {
+        LocalDateTime fechaOrden = fila.get("fecha_orden", LocalDateTime.class);
+        return new OrdenResumenDTO(
+                fila.get("id", Long.class),
+                fila.get("cantidad", Integer.class),
+                fila.get("total", BigDecimal.class),
+                fechaOrden != null ? Date.from(fechaOrden.atZone(ZoneId.systemDefault()).toInstant()) : null,
+                fila.get("cliente_id", Long.class),
+                fila.get("producto_id", Long.class),
+                incluirNombres ? fila.get("nombre_cliente", String.class) : null,
+                incluirNombres ? fila.get("nombre_producto", String.class) : null);
+    }
+}
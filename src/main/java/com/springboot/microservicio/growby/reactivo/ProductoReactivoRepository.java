@@ -0,0 +1,51 @@
+package com.springboot.microservicio.growby.reactivo;
+
+import com.springboot.microservicio.growby.model.Producto;
+import io.r2dbc.spi.Row;
+import org.springframework.r2dbc.core.DatabaseClient;
+import reactor.core.publisher.Flux;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
+
+/**
+ * Consultas reactivas de solo lectura sobre la tabla {@code productos}, con R2DBC.
+ * Los productos se devuelven como objetos {@link Producto} sin gestionar por JPA, de modo que
+ * su JSON coincide con el de la API MVC.
+ */
+class ProductoReactivoRepository {
+
+    private final DatabaseClient databaseClient;
+
+    ProductoReactivoRepository(DatabaseClient databaseClient) {
+        this.databaseClient = databaseClient;
+    }
+
+    /**
+     * Recorre todo el catálogo de productos.
+     *
+     * @return Los productos ordenados por identificador, a medida que se leen.
+     */
+    Flux<Producto> findAll() {
+        return databaseClient.sql("select id, nombre, descripcion, precio, fecha_creacion, estado, stock, version from productos order by id")
+                .map((fila, metadatos) -> producto(fila))
+                .all();
+    }
+
+    private static Producto producto(Row fila) {
+        LocalDateTime fechaCreacion = fila.get("fecha_creacion", LocalDateTime.class);
+        String estado = fila.get("estado", String.class);
+        Producto producto = new Producto();
+        producto.setId(fila.get("id", Long.class));
+        producto.setNombre(fila.get("nombre", String.class));
+        producto.setDescripcion(fila.get("descripcion", String.class));
+        producto.setPrecio(fila.get("precio", BigDecimal.class));
+        producto.setFechaCreacion(fechaCreacion != null ? Date.from(fechaCreacion.atZone(ZoneId.systemDefault()).toInstant()) : null);
+        producto.setEstado(estado != null ? Producto.Estado.valueOf(estado) : null);
+        producto.setStock(fila.get("stock", Integer.class));
+        producto.setVersion(fila.get("version", Long.class));
+        return producto;
+    }
+}
@@ -0,0 +1,122 @@
+package com.springboot.microservicio.growby.reactivo;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import org.springframework.http.server.reactive.ReactorHttpHandlerAdapter;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.server.HandlerStrategies;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import reactor.core.Disposable;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.resources.LoopResources;
+
+/**
+ * Servidor de la API reactiva de lectura. Se activa con {@code growby.reactivo.habilitado=true}.
+ * <p>
+ * Escucha en su propio puerto ({@code growby.reactivo.puerto}) con Reactor Netty, junto al Tomcat de
+ * la API MVC, y atiende {@code GET /api/ordenes}, {@code /api/ordenes/cliente/{id}} y
+ * {@code /api/productos} con unos pocos hilos de event loop ({@code growby.reactivo.hilos}): ninguna
+ * petición ocupa un hilo mientras espera a la base de datos o a que el cliente lea la respuesta.
+ * Las consultas leen las mismas tablas que JPA a través de un pool de conexiones R2DBC
+ * ({@code growby.reactivo.r2dbc.*}). El pool no se publica como bean porque una
+ * {@link ConnectionFactory} en el contexto desactivaría el {@code DataSource} de JPA.
+ * <p>
+ * El driver R2DBC de H2 ejecuta cada consulta en el hilo que la pide; solo con un driver de red
+ * como Oracle R2DBC el event loop queda libre mientras la base de datos responde.
+ */
+@Component
+@ConditionalOnProperty(name = "growby.reactivo.habilitado", havingValue = "true")
+public class ServidorReactivo implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(ServidorReactivo.class);
+
+    private final ObjectMapper objectMapper;
+    private final String url;
+    private final String usuario;
+    private final String clave;
+    private final int puerto;
+    private final int hilos;
+    private ConnectionFactory conexiones;
+    private LoopResources eventLoop;
+    private volatile DisposableServer servidor;
+
+    public ServidorReactivo(ObjectMapper objectMapper,
+                            @Value("${growby.reactivo.r2dbc.url}") String url,
+                            @Value("${growby.reactivo.r2dbc.usuario:}") String usuario,
+                            @Value("${growby.reactivo.r2dbc.clave:}") String clave,
+                            @Value("${growby.reactivo.puerto:8081}") int puerto,
+                            @Value("${growby.reactivo.hilos:0}") int hilos) {
+        this.objectMapper = objectMapper;
+        this.url = url;
+        this.usuario = usuario;
+        this.clave = clave;
+        this.puerto = puerto;
+        this.hilos = hilos > 0 ? hilos : Runtime.getRuntime().availableProcessors();
+    }
+
+    @Override
+    public void start() {
+        ConnectionFactoryOptions.Builder opciones = ConnectionFactoryOptions.parse(url).mutate();
+        if (!usuario.isEmpty()) {
+            opciones.option(ConnectionFactoryOptions.USER, usuario);
+        }
+        if (!clave.isEmpty()) {
+            opciones.option(ConnectionFactoryOptions.PASSWORD, clave);
+        }
+        conexiones = ConnectionFactories.get(opciones.build());
+        DatabaseClient databaseClient = DatabaseClient.create(conexiones);
+        LecturasReactivas lecturas = new LecturasReactivas(
+                new OrdenReactivaRepository(databaseClient), new ProductoReactivoRepository(databaseClient));
+
+        HandlerStrategies estrategias = HandlerStrategies.builder()
+                .codecs(codecs -> codecs.defaultCodecs().jackson2JsonEncoder(new Jackson2JsonEncoder(objectMapper)))
+                .build();
+        eventLoop = LoopResources.create("reactivo-http", hilos, true);
+        servidor = HttpServer.create()
+                .port(puerto)
+                .runOn(eventLoop)
+                .handle(new ReactorHttpHandlerAdapter(RouterFunctions.toHttpHandler(lecturas.rutas(), estrategias)))
+                .bindNow();
+        log.info("API reactiva de lectura escuchando en el puerto {} con {} hilos de event loop", servidor.port(), hilos);
+    }
+
+    @Override
+    public void stop() {
+        DisposableServer actual = servidor;
+        servidor = null;
+        if (actual != null) {
+            actual.disposeNow();
+        }
+        if (eventLoop != null) {
+            eventLoop.disposeLater().block();
+        }
+        if (conexiones instanceof Disposable) {
+            ((Disposable) conexiones).dispose();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return servidor != null;
+    }
+
+    /**
+     * Puerto en el que escucha el servidor; útil cuando se configura el puerto 0.
+     *
+     * @return El puerto, o -1 si el servidor no está arrancado.
+     */
+    public int getPuerto() {
+        DisposableServer actual = servidor;
+        return actual != null ? actual.port() : -1;
+    }
+}
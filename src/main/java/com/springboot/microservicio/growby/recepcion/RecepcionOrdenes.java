@@ -0,0 +1,260 @@
+package com.springboot.microservicio.growby.recepcion;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.springboot.microservicio.growby.cache.ProductoCache;
+import com.springboot.microservicio.growby.dto.EstadoRecepcionDTO;
+import com.springboot.microservicio.growby.dto.OrdenDTO;
+import com.springboot.microservicio.growby.dto.ResultadoOrdenDTO;
+import com.springboot.microservicio.growby.exception.OrdenNotFoundException;
+import com.springboot.microservicio.growby.repository.ClienteRepository;
+import com.springboot.microservicio.growby.service.OrdenService;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * Recepción asíncrona de órdenes. Se activa con {@code growby.ordenes.recepcion-asincrona.habilitada=true}.
+ * <p>
+ * Cada orden se valida contra la caché de productos y una caché de clientes existentes, se deja
+ * en una cola circular acotada y se responde de inmediato con un token. Varios hilos escritores
+ * vacían la cola en lotes que se guardan con {@link OrdenService#saveAll(List)}, de modo que el
+ * coste de cada commit se reparte entre todas las órdenes del lote. Si la cola está llena la
+ * orden no se acepta y el llamante debe reintentar más tarde.
+ * <p>
+ * El estado de cada token se conserva durante {@code retencion-estados} desde su última
+ * actualización. Las órdenes pendientes se guardan al detener la aplicación de forma ordenada,
+ * pero se pierden si el proceso termina de forma abrupta.
+ * <p>
+ * Con {@code growby.hilos-virtuales.habilitados=true} los escritores son hilos virtuales.
+ */
+@Component
+@ConditionalOnProperty(name = "growby.ordenes.recepcion-asincrona.habilitada", havingValue = "true")
+public class RecepcionOrdenes implements MeterBinder {
+
+    private static final Logger log = LoggerFactory.getLogger(RecepcionOrdenes.class);
+    private static final long ESPERA_ESCRITOR_MS = 100;
+
+    private final OrdenService ordenService;
+    private final ProductoCache productoCache;
+    private final ClienteRepository clienteRepository;
+    private final BlockingQueue<OrdenPendiente> cola;
+    private final int escritores;
+    private final int tamanoLote;
+    private final boolean hilosVirtuales;
+    private final Cache<String, EstadoRecepcionDTO> estados;
+    private final Cache<Long, Boolean> clientesExistentes;
+    private final LongAdder rechazadasColaLlena = new LongAdder();
+    private final List<Thread> hilos = new ArrayList<>();
+    private volatile boolean activa;
+
+    public RecepcionOrdenes(OrdenService ordenService, ProductoCache productoCache, ClienteRepository clienteRepository,
+                            @Value("${growby.ordenes.recepcion-asincrona.capacidad:10000}") int capacidad,
+                            @Value("${growby.ordenes.recepcion-asincrona.escritores:2}") int escritores,
+                            @Value("${growby.ordenes.recepcion-asincrona.tamano-lote:500}") int tamanoLote,
+                            @Value("${growby.ordenes.recepcion-asincrona.retencion-estados:10m}") Duration retencionEstados,
+                            @Value("${growby.hilos-virtuales.habilitados:false}") boolean hilosVirtuales) {
+        this.ordenService = ordenService;
+        this.productoCache = productoCache;
+        this.clienteRepository = clienteRepository;
+        this.cola = new ArrayBlockingQueue<>(capacidad);
+        this.escritores = escritores;
+        this.tamanoLote = tamanoLote;
+        this.hilosVirtuales = hilosVirtuales;
+        this.estados = Caffeine.newBuilder().expireAfterWrite(retencionEstados).build();
+        this.clientesExistentes = Caffeine.newBuilder().maximumSize(100_000).expireAfterWrite(retencionEstados).build();
+    }
+
+    /**
+     * Arranca los hilos escritores.
+     */
+    @PostConstruct
+    public void iniciar() {
+        activa = true;
+        for (int i = 0; i < escritores; i++) {
+            Thread.Builder constructor = hilosVirtuales ? Thread.ofVirtual() : Thread.ofPlatform();
+            Thread hilo = constructor.name("recepcion-ordenes-" + i).start(this::escribir);
+            hilos.add(hilo);
+        }
+    }
+
+    /**
+     * Deja de aceptar órdenes y espera a que los hilos escritores guarden las pendientes.
+     * Las que se encolaron mientras se detenían los escritores se guardan en este hilo.
+     *
+     * @throws InterruptedException si se interrumpe la espera.
+     */
+    @PreDestroy
+    public void detener() throws InterruptedException {
+        activa = false;
+        for (Thread hilo : hilos) {
+            hilo.join();
+        }
+        hilos.clear();
+        while (escribirLote(0, TimeUnit.MILLISECONDS) > 0) {
+            // Se repite hasta vaciar la cola.
+        }
+    }
+
+    /**
+     * Valida una orden y la deja en la cola para guardarla de forma asíncrona.
+     *
+     * @param ordenDTO Los datos de la orden.
+     * @return El estado pendiente de la orden con su token, o vacío si la cola está llena
+     *         o la recepción se está deteniendo.
+     * @throws OrdenNotFoundException si el producto o el cliente no existen.
+     */
+    public Optional<EstadoRecepcionDTO> recibir(OrdenDTO ordenDTO) {
+        if (productoCache.findById(ordenDTO.getProductoId()).isEmpty()) {
+            throw new OrdenNotFoundException("Producto no encontrado");
+        }
+        if (!clienteExiste(ordenDTO.getClienteId())) {
+            throw new OrdenNotFoundException("Cliente no encontrado");
+        }
+
+        EstadoRecepcionDTO estado = EstadoRecepcionDTO.pendiente(UUID.randomUUID().toString());
+        estados.put(estado.getToken(), estado);
+        if (!activa || !cola.offer(new OrdenPendiente(estado.getToken(), ordenDTO))) {
+            estados.invalidate(estado.getToken());
+            rechazadasColaLlena.increment();
+            return Optional.empty();
+        }
+        return Optional.of(estado);
+    }
+
+    /**
+     * Consulta el estado de una orden recibida de forma asíncrona.
+     *
+     * @param token El token devuelto al recibir la orden.
+     * @return El estado de la orden, o vacío si el token no existe o ha caducado.
+     */
+    public Optional<EstadoRecepcionDTO> estado(String token) {
+        return Optional.ofNullable(estados.getIfPresent(token));
+    }
+
+    /**
+     * Número de órdenes que esperan en la cola.
+     *
+     * @return El número de órdenes pendientes de guardar.
+     */
+    public int pendientes() {
+        return cola.size();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("growby.recepcion.ordenes.pendientes", cola, BlockingQueue::size)
+                .description("Órdenes recibidas de forma asíncrona pendientes de guardar")
+                .register(registry);
+        Gauge.builder("growby.recepcion.ordenes.capacidad", cola, c -> c.size() + c.remainingCapacity())
+                .description("Capacidad de la cola de recepción asíncrona de órdenes")
+                .register(registry);
+        FunctionCounter.builder("growby.recepcion.ordenes.cola-llena", rechazadasColaLlena, LongAdder::sum)
+                .description("Órdenes no aceptadas porque la cola estaba llena")
+                .register(registry);
+    }
+
+    /**
+     * Saca de la cola hasta un lote de órdenes, esperando como mucho el tiempo indicado a que
+     * llegue la primera, y lo guarda.
+     *
+     * @param espera Tiempo máximo de espera por la primera orden.
+     * @param unidad Unidad del tiempo de espera.
+     * @return El número de órdenes procesadas.
+     * @throws InterruptedException si se interrumpe la espera.
+     */
+    int escribirLote(long espera, TimeUnit unidad) throws InterruptedException {
+        OrdenPendiente primera = cola.poll(espera, unidad);
+        if (primera == null) {
+            return 0;
+        }
+        List<OrdenPendiente> lote = new ArrayList<>(tamanoLote);
+        lote.add(primera);
+        cola.drainTo(lote, tamanoLote - 1);
+        guardar(lote);
+        return lote.size();
+    }
+
+    private void escribir() {
+        try {
+            while (activa || !cola.isEmpty()) {
+                escribirLote(ESPERA_ESCRITOR_MS, TimeUnit.MILLISECONDS);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void guardar(List<OrdenPendiente> lote) {
+        List<ResultadoOrdenDTO> resultados;
+        try {
+            resultados = ordenService.saveAll(lote.stream().map(OrdenPendiente::getOrden).collect(Collectors.toList()));
+        } catch (RuntimeException e) {
+            log.error("No se pudo guardar un lote de {} órdenes recibidas de forma asíncrona", lote.size(), e);
+            for (int i = 0; i < lote.size(); i++) {
+                String token = lote.get(i).getToken();
+                estados.put(token, EstadoRecepcionDTO.de(token, ResultadoOrdenDTO.rechazada(i, "No se pudo guardar la orden")));
+            }
+            return;
+        }
+        for (int i = 0; i < lote.size(); i++) {
+            String token = lote.get(i).getToken();
+            estados.put(token, EstadoRecepcionDTO.de(token, resultados.get(i)));
+        }
+    }
+
+    private boolean clienteExiste(Long clienteId) {
+        if (clienteId == null) {
+            return false;
+        }
+        if (clientesExistentes.getIfPresent(clienteId) != null) {
+            return true;
+        }
+        // Solo se guardan los clientes que existen: uno recién creado se acepta en cuanto se da de alta.
+        if (clienteRepository.existsById(clienteId)) {
+            clientesExistentes.put(clienteId, Boolean.TRUE);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Orden a la espera de guardarse junto con su token.
+     */
+    private static final class OrdenPendiente {
+        private final String token;
+        private final OrdenDTO orden;
+
+        OrdenPendiente(String token, OrdenDTO orden) {
+            this.token = token;
+            this.orden = orden;
+        }
+
+        String getToken() {
+            return token;
+        }
+
+        OrdenDTO getOrden() {
+            return orden;
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.springboot.microservicio.growby.replicas;
+
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Instant;
+
+/**
+ * {@code DataSource} que envía a una réplica las transacciones de solo lectura
+ * ({@code @Transactional(readOnly = true)}) de las peticiones GET y HEAD, y todo lo demás al primario.
+ * <p>
+ * El destino se decide al pedir la conexión, así que debe envolverse en un
+ * {@link LazyConnectionDataSourceProxy}: la transacción ya está marcada como de solo lectura cuando se
+ * ejecuta su primera sentencia, pero no al empezar.
+ */
+public class EnrutadorLecturas extends AbstractRoutingDataSource {
+
+    private final ReplicasLectura replicas;
+
+    public EnrutadorLecturas(ReplicasLectura replicas) {
+        this.replicas = replicas;
+        setTargetDataSources(replicas.pools());
+        setDefaultTargetDataSource(replicas.pools().get(ReplicasLectura.PRIMARIO));
+        setLenientFallback(false);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        LecturaTrasEscritura.Peticion peticion = LecturaTrasEscritura.peticionActual();
+        if (TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (peticion != null && peticion.admiteReplica()) {
+                return replicas.elegir(peticion.getUltimaEscritura()).orElse(ReplicasLectura.PRIMARIO);
+            }
+        } else if (peticion != null && TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    peticion.registrarEscritura(Instant.now());
+                }
+            });
+        }
+        return ReplicasLectura.PRIMARIO;
+    }
+}
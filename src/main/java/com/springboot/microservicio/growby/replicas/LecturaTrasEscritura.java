@@ -0,0 +1,133 @@
+package com.springboot.microservicio.growby.replicas;
+
+import com.springboot.microservicio.growby.contador.VersionesColecciones;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.Cookie;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Decide en cada petición HTTP si sus lecturas pueden ir a una réplica, y garantiza que un cliente lea
+ * sus propias escrituras.
+ * <p>
+ * Solo las peticiones GET y HEAD leen de las réplicas; en las demás, las lecturas suelen preceder a una
+ * escritura y se hacen en el primario. Cuando una petición confirma una escritura en el primario, la
+ * respuesta incluye la cookie {@value #COOKIE} con la hora de la escritura, y mientras el cliente la
+ * envíe sus lecturas solo van a réplicas cuyo latido sea posterior. La cookie caduca pasado el retraso
+ * máximo, cuando cualquier réplica que cumpla el retraso ya tiene la escritura.
+ * <p>
+ * Del mismo modo, una respuesta con un ETag de {@link VersionesColecciones} solo lee de réplicas cuyo
+ * latido sea posterior a la última escritura que cuenta el ETag: una réplica atrasada devolvería los
+ * datos anteriores con el ETag nuevo, que el cliente revalidaría con 304 hasta la siguiente escritura.
+ */
+public class LecturaTrasEscritura extends OncePerRequestFilter {
+
+    static final String COOKIE = "growby-escritura";
+
+    private static final ThreadLocal<Peticion> PETICION_ACTUAL = new ThreadLocal<>();
+
+    private final Duration retrasoMaximo;
+
+    public LecturaTrasEscritura(Duration retrasoMaximo) {
+        this.retrasoMaximo = retrasoMaximo;
+    }
+
+    /**
+     * La petición HTTP que atiende el hilo actual.
+     *
+     * @return La petición, o {@code null} si el hilo no atiende ninguna, como las tareas programadas.
+     */
+    static Peticion peticionActual() {
+        return PETICION_ACTUAL.get();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        boolean lectura = "GET".equals(request.getMethod()) || "HEAD".equals(request.getMethod());
+        PETICION_ACTUAL.set(new Peticion(lectura, ultimaEscritura(request), request, response));
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            PETICION_ACTUAL.remove();
+        }
+    }
+
+    private static Instant ultimaEscritura(HttpServletRequest request) {
+        if (request.getCookies() != null) {
+            for (Cookie cookie : request.getCookies()) {
+                if (COOKIE.equals(cookie.getName())) {
+                    try {
+                        return Instant.ofEpochMilli(Long.parseLong(cookie.getValue()));
+                    } catch (NumberFormatException e) {
+                        return null;
+                    }
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Estado de una petición HTTP para el enrutamiento de sus lecturas.
+     */
+    final class Peticion {
+
+        private final boolean lectura;
+        private final HttpServletRequest request;
+        private final HttpServletResponse response;
+        private volatile Instant ultimaEscritura;
+
+        private Peticion(boolean lectura, Instant ultimaEscritura, HttpServletRequest request,
+                         HttpServletResponse response) {
+            this.lectura = lectura;
+            this.ultimaEscritura = ultimaEscritura;
+            this.request = request;
+            this.response = response;
+        }
+
+        /**
+         * Si las lecturas de la petición pueden ir a una réplica.
+         */
+        boolean admiteReplica() {
+            return lectura;
+        }
+
+        /**
+         * La escritura más reciente que deben ver las lecturas de la petición: la del cliente o la
+         * última que cuenta el ETag de la respuesta. Los controladores calculan el ETag al comprobar
+         * {@code If-None-Match}, antes de leer.
+         *
+         * @return La hora de la escritura, o {@code null} si no hay ninguna.
+         */
+        Instant getUltimaEscritura() {
+            Instant escritura = ultimaEscritura;
+            Object etag = request.getAttribute(VersionesColecciones.ATRIBUTO_ULTIMA_ESCRITURA);
+            if (etag instanceof Instant && (escritura == null || ((Instant) etag).isAfter(escritura))) {
+                return (Instant) etag;
+            }
+            return escritura;
+        }
+
+        /**
+         * Anota una escritura confirmada en el primario y la envía al cliente en la cookie, si la
+         * respuesta no se ha enviado ya.
+         */
+        void registrarEscritura(Instant instante) {
+            ultimaEscritura = instante;
+            if (!response.isCommitted()) {
+                Cookie cookie = new Cookie(COOKIE, Long.toString(instante.toEpochMilli()));
+                cookie.setPath("/");
+                cookie.setHttpOnly(true);
+                cookie.setMaxAge((int) Math.max(1, (retrasoMaximo.toMillis() + 999) / 1000));
+                response.addCookie(cookie);
+            }
+        }
+    }
+}
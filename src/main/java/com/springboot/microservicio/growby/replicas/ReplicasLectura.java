@@ -0,0 +1,153 @@
+package com.springboot.microservicio.growby.replicas;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pool de conexiones del primario y de cada réplica de lectura, con el retraso de replicación de cada réplica.
+ * <p>
+ * El retraso se mide con un latido: cada {@code intervalo-latido-ms} se escribe la hora en la tabla
+ * {@code latido_replicacion} del primario y se lee en cada réplica la última hora replicada. Una réplica
+ * que tiene el latido de la hora {@code t} ha aplicado todo lo que el primario confirmó antes de {@code t}.
+ * Solo se leen de una réplica los datos si su latido no tiene más de {@code retraso-maximo} de antigüedad,
+ * y si es posterior a la última escritura del cliente que lee; si ninguna réplica cumple, se lee del primario.
+ */
+public class ReplicasLectura implements MeterBinder, AutoCloseable {
+
+    /**
+     * Clave del primario en {@link EnrutadorLecturas}.
+     */
+    public static final String PRIMARIO = "primario";
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicasLectura.class);
+
+    private final DataSource primario;
+    private final List<Replica> replicas = new ArrayList<>();
+    private final Duration retrasoMaximo;
+    private final AtomicInteger siguiente = new AtomicInteger();
+
+    public ReplicasLectura(DataSource primario, List<DataSource> replicas, Duration retrasoMaximo) {
+        this.primario = primario;
+        for (int i = 0; i < replicas.size(); i++) {
+            this.replicas.add(new Replica("replica-" + (i + 1), replicas.get(i)));
+        }
+        this.retrasoMaximo = retrasoMaximo;
+    }
+
+    /**
+     * Los pools indexados por su clave de enrutamiento: {@link #PRIMARIO} y {@code replica-N}.
+     *
+     * @return Los pools del primario y de las réplicas.
+     */
+    public Map<Object, Object> pools() {
+        Map<Object, Object> pools = new LinkedHashMap<>();
+        pools.put(PRIMARIO, primario);
+        replicas.forEach(replica -> pools.put(replica.clave, replica.dataSource));
+        return pools;
+    }
+
+    /**
+     * Elige, por turnos, una réplica que cumpla el retraso máximo y que haya replicado una escritura.
+     *
+     * @param escritura La hora de la última escritura que la lectura debe ver, o {@code null} si no hay ninguna.
+     * @return La clave de la réplica, o vacío si ninguna cumple y hay que leer del primario.
+     */
+    public Optional<String> elegir(Instant escritura) {
+        Instant minimo = Instant.now().minus(retrasoMaximo);
+        if (escritura != null && escritura.isAfter(minimo)) {
+            minimo = escritura;
+        }
+        int inicio = siguiente.getAndIncrement();
+        for (int i = 0; i < replicas.size(); i++) {
+            Replica replica = replicas.get(Math.floorMod(inicio + i, replicas.size()));
+            Instant latido = replica.latido;
+            if (latido != null && !latido.isBefore(minimo)) {
+                return Optional.of(replica.clave);
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Escribe el latido en el primario y lee el de cada réplica.
+     */
+    @Scheduled(fixedDelayString = "${growby.replicas.intervalo-latido-ms:1000}")
+    public void actualizarLatidos() {
+        try {
+            new JdbcTemplate(primario).update("update latido_replicacion set instante = ? where id = 1",
+                    Timestamp.from(Instant.now()));
+        } catch (DataAccessException e) {
+            log.warn("No se pudo escribir el latido de replicación en el primario", e);
+        }
+        for (Replica replica : replicas) {
+            replica.leerLatido();
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        for (Replica replica : replicas) {
+            Gauge.builder("growby.replicas.retraso", replica, Replica::retrasoSegundos)
+                    .description("Antigüedad del último latido replicado; las lecturas van al primario si supera el retraso máximo")
+                    .baseUnit("seconds")
+                    .tag("replica", replica.clave)
+                    .register(registry);
+        }
+    }
+
+    @Override
+    public void close() throws Exception {
+        for (Object pool : pools().values()) {
+            if (pool instanceof AutoCloseable) {
+                ((AutoCloseable) pool).close();
+            }
+        }
+    }
+
+    private static final class Replica {
+
+        private final String clave;
+        private final DataSource dataSource;
+        private volatile Instant latido;
+
+        private Replica(String clave, DataSource dataSource) {
+            this.clave = clave;
+            this.dataSource = dataSource;
+        }
+
+        private void leerLatido() {
+            try {
+                Timestamp instante = new JdbcTemplate(dataSource).queryForObject(
+                        "select instante from latido_replicacion where id = 1", Timestamp.class);
+                latido = instante == null ? null : instante.toInstant();
+            } catch (DataAccessException e) {
+                if (latido != null) {
+                    log.warn("No se pudo leer el latido de replicación de {}; sus lecturas irán al primario", clave, e);
+                }
+                latido = null;
+            }
+        }
+
+        private double retrasoSegundos() {
+            Instant instante = latido;
+            return instante == null ? Double.NaN : Duration.between(instante, Instant.now()).toMillis() / 1000.0;
+        }
+    }
+}
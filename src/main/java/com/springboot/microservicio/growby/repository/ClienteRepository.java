@@ -2,9 +2,18 @@ package com.springboot.microservicio.growby.repository;
 
 import com.springboot.microservicio.growby.model.Cliente;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import javax.persistence.QueryHint;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
+import static org.hibernate.jpa.QueryHints.HINT_CACHEABLE;
+import static org.hibernate.jpa.QueryHints.HINT_CACHE_REGION;
+
 /**
  * Repositorio para manejar operaciones de acceso a datos relacionadas con la entidad {@link Cliente}.
  * Extiende la interfaz {@link JpaRepository}, proporcionando métodos CRUD y operaciones de consulta
@@ -12,10 +21,33 @@ import java.util.Optional;
  */
 public interface ClienteRepository extends JpaRepository<Cliente, Long> {
     /**
-     * Busca un cliente por su dirección de correo electrónico.
+     * Busca un cliente por su dirección de correo electrónico. El resultado se guarda en la región
+     * {@code clientes-por-email} de la caché de consultas de Hibernate, que lo descarta cuando cambia
+     * la tabla de clientes.
      *
      * @param email La dirección de correo electrónico del cliente.
      * @return Un {@link Optional} que contiene el cliente encontrado, o vacío si no se encuentra.
      */
+    @QueryHints({
+            @QueryHint(name = HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HINT_CACHE_REGION, value = "clientes-por-email")
+    })
     Optional<Cliente> findByEmail(String email);
+
+    /**
+     * Recupera los emails de todos los clientes, sin cargar las entidades.
+     *
+     * @return Una lista con los emails registrados.
+     */
+    @Query("select c.email from Cliente c")
+    List<String> findAllEmails();
+
+    /**
+     * Recupera, de entre los emails indicados, los que ya pertenecen a algún cliente.
+     *
+     * @param emails Los emails a comprobar.
+     * @return Una lista con los emails registrados.
+     */
+    @Query("select c.email from Cliente c where c.email in :emails")
+    List<String> findEmailsIn(@Param("emails") Collection<String> emails);
 }
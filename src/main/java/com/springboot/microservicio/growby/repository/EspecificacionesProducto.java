@@ -0,0 +1,68 @@
+package com.springboot.microservicio.growby.repository;
+
+import com.springboot.microservicio.growby.model.Producto;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.math.BigDecimal;
+import java.util.Date;
+
+/**
+ * Criterios de filtrado del catálogo de productos para {@link ProductoRepository#findAll(Specification,
+ * org.springframework.data.domain.Pageable)}. Cada criterio devuelve {@code null} si no se indica su
+ * valor, y {@link Specification#and(Specification)} lo ignora.
+ */
+public final class EspecificacionesProducto {
+
+    private EspecificacionesProducto() {
+    }
+
+    /**
+     * Productos en un estado.
+     *
+     * @param estado El estado, o {@code null} para no filtrar.
+     * @return El criterio, o {@code null} si no se indica el estado.
+     */
+    public static Specification<Producto> conEstado(Producto.Estado estado) {
+        return estado == null ? null : (producto, consulta, cb) -> cb.equal(producto.get("estado"), estado);
+    }
+
+    /**
+     * Productos con un precio mayor o igual que el indicado.
+     *
+     * @param precio El precio mínimo, incluido, o {@code null} para no filtrar.
+     * @return El criterio, o {@code null} si no se indica el precio.
+     */
+    public static Specification<Producto> precioDesde(BigDecimal precio) {
+        return precio == null ? null : (producto, consulta, cb) -> cb.greaterThanOrEqualTo(producto.get("precio"), precio);
+    }
+
+    /**
+     * Productos con un precio menor o igual que el indicado.
+     *
+     * @param precio El precio máximo, incluido, o {@code null} para no filtrar.
+     * @return El criterio, o {@code null} si no se indica el precio.
+     */
+    public static Specification<Producto> precioHasta(BigDecimal precio) {
+        return precio == null ? null : (producto, consulta, cb) -> cb.lessThanOrEqualTo(producto.get("precio"), precio);
+    }
+
+    /**
+     * Productos creados en la fecha indicada o después.
+     *
+     * @param fecha El inicio del rango, incluido, o {@code null} para no filtrar.
+     * @return El criterio, o {@code null} si no se indica la fecha.
+     */
+    public static Specification<Producto> creadoDesde(Date fecha) {
+        return fecha == null ? null : (producto, consulta, cb) -> cb.greaterThanOrEqualTo(producto.get("fechaCreacion"), fecha);
+    }
+
+    /**
+     * Productos creados antes de la fecha indicada.
+     *
+     * @param fecha El fin del rango, excluido, o {@code null} para no filtrar.
+     * @return El criterio, o {@code null} si no se indica la fecha.
+     */
+    public static Specification<Producto> creadoAntesDe(Date fecha) {
+        return fecha == null ? null : (producto, consulta, cb) -> cb.lessThan(producto.get("fechaCreacion"), fecha);
+    }
+}
@@ -0,0 +1,100 @@
+package com.springboot.microservicio.growby.repository;
+
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.Date;
+
+/**
+ * Inserción de los acumulados de ventas y de los resúmenes de clientes dentro de la transacción
+ * de la orden que los crea.
+ * <p>
+ * Si otra transacción crea a la vez el mismo acumulado, la inserción falla por clave primaria.
+ * Cada inserción se hace tras un savepoint JDBC en la conexión de la transacción y, si falla por
+ * clave duplicada, se vuelve al savepoint y la transacción sigue adelante. Se ejecuta con
+ * {@link JdbcTemplate} y no con Hibernate, que marcaría la transacción entera para deshacerse.
+ */
+@Component
+public class InsercionAcumulados {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public InsercionAcumulados(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Crea el acumulado de un producto en un día.
+     *
+     * @param fecha      El día del acumulado.
+     * @param productoId El identificador del producto.
+     * @param cantidad   Unidades vendidas.
+     * @param total      Importe vendido.
+     * @param ordenes    Número de órdenes.
+     * @return {@code false} si otra transacción ya lo había creado.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public boolean insertarVentaProducto(LocalDate fecha, Long productoId, long cantidad, BigDecimal total, long ordenes) {
+        return insertar("insert into ventas_diarias_producto (fecha, producto_id, cantidad, total, ordenes) "
+                + "values (?, ?, ?, ?, ?)", java.sql.Date.valueOf(fecha), productoId, cantidad, total, ordenes);
+    }
+
+    /**
+     * Crea el acumulado de un cliente en un día.
+     *
+     * @param fecha     El día del acumulado.
+     * @param clienteId El identificador del cliente.
+     * @param cantidad  Unidades compradas.
+     * @param total     Importe comprado.
+     * @param ordenes   Número de órdenes.
+     * @return {@code false} si otra transacción ya lo había creado.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public boolean insertarVentaCliente(LocalDate fecha, Long clienteId, long cantidad, BigDecimal total, long ordenes) {
+        return insertar("insert into ventas_diarias_cliente (fecha, cliente_id, cantidad, total, ordenes) "
+                + "values (?, ?, ?, ?, ?)", java.sql.Date.valueOf(fecha), clienteId, cantidad, total, ordenes);
+    }
+
+    /**
+     * Crea el resumen de un cliente.
+     *
+     * @param clienteId El identificador del cliente.
+     * @param ordenes   Número de órdenes.
+     * @param total     Importe de las órdenes.
+     * @param primera   Fecha de la orden más antigua.
+     * @param ultima    Fecha de la orden más reciente.
+     * @return {@code false} si otra transacción ya lo había creado.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public boolean insertarResumenCliente(Long clienteId, long ordenes, BigDecimal total, Date primera, Date ultima) {
+        return insertar("insert into resumenes_cliente (cliente_id, ordenes, total, primera_orden, ultima_orden) "
+                + "values (?, ?, ?, ?, ?)", clienteId, ordenes, total, new Timestamp(primera.getTime()), new Timestamp(ultima.getTime()));
+    }
+
+    private boolean insertar(String sql, Object... valores) {
+        return Boolean.TRUE.equals(jdbcTemplate.execute((ConnectionCallback<Boolean>) conexion -> {
+            Savepoint savepoint = conexion.setSavepoint();
+            try {
+                jdbcTemplate.update(sql, valores);
+            } catch (DuplicateKeyException e) {
+                conexion.rollback(savepoint);
+                return false;
+            }
+            try {
+                conexion.releaseSavepoint(savepoint);
+            } catch (SQLException e) {
+                // Oracle no admite liberar savepoints; se liberan al terminar la transacción.
+            }
+            return true;
+        }));
+    }
+}
@@ -1,21 +1,346 @@
 package com.springboot.microservicio.growby.repository;
 
+import com.springboot.microservicio.growby.dto.OrdenResumenDTO;
 import com.springboot.microservicio.growby.model.Orden;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import javax.persistence.LockModeType;
+import javax.persistence.QueryHint;
+import java.util.Collection;
+import java.util.Date;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.QueryHints.HINT_READONLY;
 
 /**
  * Repositorio para manejar operaciones de acceso a datos relacionadas con la entidad {@link Orden}.
  * Extiende la interfaz {@link JpaRepository}, proporcionando métodos CRUD y operaciones de consulta
  * para la entidad Orden.
+ * <p>
+ * Las asociaciones de {@link Orden} con su cliente y producto son perezosas; las consultas de
+ * listado declaran un {@link EntityGraph} para cargarlas en la misma sentencia SQL y evitar
+ * una consulta adicional por cada cliente o producto distinto.
  */
 public interface OrdenRepository extends JpaRepository<Orden, Long> {
+
+    /**
+     * Busca todas las órdenes junto con su cliente y producto.
+     *
+     * @return Una lista con todas las órdenes.
+     */
+    @Override
+    @EntityGraph(attributePaths = {"cliente", "producto"})
+    List<Orden> findAll();
+
+    /**
+     * Busca una orden por su identificador junto con su cliente y producto.
+     *
+     * @param id El identificador de la orden.
+     * @return Un {@link Optional} que contiene la orden encontrada, o vacío si no existe.
+     */
+    @Override
+    @EntityGraph(attributePaths = {"cliente", "producto"})
+    Optional<Orden> findById(Long id);
+
     /**
      * Busca todas las órdenes asociadas a un cliente específico.
      *
      * @param clienteId El identificador del cliente cuyas órdenes se desean buscar.
      * @return Una lista de órdenes asociadas al cliente.
      */
+    @EntityGraph(attributePaths = {"cliente", "producto"})
     List<Orden> findByClienteId(Long clienteId);
+
+    /**
+     * Busca las órdenes cuyo identificador es mayor que el cursor indicado, ordenadas por identificador.
+     * Permite recorrer la tabla por rangos de clave primaria sin usar OFFSET.
+     *
+     * @param id       El identificador a partir del cual (excluido) se buscan órdenes.
+     * @param pageable Límite de filas a recuperar.
+     * @return Una lista de órdenes ordenadas por identificador ascendente.
+     */
+    @EntityGraph(attributePaths = {"cliente", "producto"})
+    List<Orden> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+
+    /**
+     * Busca las órdenes de un cliente cuyo identificador es mayor que el cursor indicado,
+     * ordenadas por identificador.
+     *
+     * @param clienteId El identificador del cliente cuyas órdenes se desean buscar.
+     * @param id        El identificador a partir del cual (excluido) se buscan órdenes.
+     * @param pageable  Límite de filas a recuperar.
+     * @return Una lista de órdenes del cliente ordenadas por identificador ascendente.
+     */
+    @EntityGraph(attributePaths = {"cliente", "producto"})
+    List<Orden> findByClienteIdAndIdGreaterThanOrderByIdAsc(Long clienteId, Long id, Pageable pageable);
+
+    /**
+     * Busca la vista reducida de las órdenes cuyo identificador es mayor que el cursor indicado.
+     * Solo lee la tabla de órdenes.
+     *
+     * @param after    El identificador a partir del cual (excluido) se buscan órdenes.
+     * @param pageable Límite de filas a recuperar.
+     * @return Una lista de resúmenes ordenados por identificador ascendente.
+     */
+    @Query("select new com.springboot.microservicio.growby.dto.OrdenResumenDTO("
+            + "o.id, o.cantidad, o.total, o.fechaOrden, o.cliente.id, o.producto.id) "
+            + "from Orden o where o.id > :after order by o.id")
+    List<OrdenResumenDTO> findResumenByIdGreaterThan(@Param("after") Long after, Pageable pageable);
+
+    /**
+     * Busca la vista reducida, incluidos los nombres de cliente y producto, de las órdenes
+     * cuyo identificador es mayor que el cursor indicado.
+     *
+     * @param after    El identificador a partir del cual (excluido) se buscan órdenes.
+     * @param pageable Límite de filas a recuperar.
+     * @return Una lista de resúmenes ordenados por identificador ascendente.
+     */
+    @Query("select new com.springboot.microservicio.growby.dto.OrdenResumenDTO("
+            + "o.id, o.cantidad, o.total, o.fechaOrden, c.id, p.id, c.nombre, p.nombre) "
+            + "from Orden o join o.cliente c join o.producto p where o.id > :after order by o.id")
+    List<OrdenResumenDTO> findResumenConNombresByIdGreaterThan(@Param("after") Long after, Pageable pageable);
+
+    /**
+     * Busca la vista reducida de las órdenes de un cliente cuyo identificador es mayor que el cursor indicado.
+     * Solo lee la tabla de órdenes.
+     *
+     * @param clienteId El identificador del cliente cuyas órdenes se desean buscar.
+     * @param after     El identificador a partir del cual (excluido) se buscan órdenes.
+     * @param pageable  Límite de filas a recuperar.
+     * @return Una lista de resúmenes ordenados por identificador ascendente.
+     */
+    @Query("select new com.springboot.microservicio.growby.dto.OrdenResumenDTO("
+            + "o.id, o.cantidad, o.total, o.fechaOrden, o.cliente.id, o.producto.id) "
+            + "from Orden o where o.cliente.id = :clienteId and o.id > :after order by o.id")
+    List<OrdenResumenDTO> findResumenByClienteIdAndIdGreaterThan(@Param("clienteId") Long clienteId,
+                                                                 @Param("after") Long after, Pageable pageable);
+
+    /**
+     * Busca la vista reducida, incluidos los nombres de cliente y producto, de las órdenes de un
+     * cliente cuyo identificador es mayor que el cursor indicado.
+     *
+     * @param clienteId El identificador del cliente cuyas órdenes se desean buscar.
+     * @param after     El identificador a partir del cual (excluido) se buscan órdenes.
+     * @param pageable  Límite de filas a recuperar.
+     * @return Una lista de resúmenes ordenados por identificador ascendente.
+     */
+    @Query("select new com.springboot.microservicio.growby.dto.OrdenResumenDTO("
+            + "o.id, o.cantidad, o.total, o.fechaOrden, c.id, p.id, c.nombre, p.nombre) "
+            + "from Orden o join o.cliente c join o.producto p where c.id = :clienteId and o.id > :after order by o.id")
+    List<OrdenResumenDTO> findResumenConNombresByClienteIdAndIdGreaterThan(@Param("clienteId") Long clienteId,
+                                                                           @Param("after") Long after, Pageable pageable);
+
+    /**
+     * Busca las órdenes de un cliente, y opcionalmente de un producto, en un rango de fechas,
+     * ordenadas por fecha e identificador. El rango se recorre con el índice
+     * {@code idx_ordenes_cliente_fecha} a partir del cursor, sin usar OFFSET.
+     *
+     * @param clienteId  El identificador del cliente.
+     * @param productoId El identificador del producto, o nulo para no filtrar por producto.
+     * @param desde      Inicio del rango, incluido; en las páginas siguientes, la fecha de la orden del cursor.
+     * @param hasta      Fin del rango, excluido.
+     * @param after      El identificador de la orden del cursor; con fecha {@code desde} solo se devuelven
+     *                   las órdenes posteriores a ella. Cero para la primera página.
+     * @param pageable   Límite de filas a recuperar.
+     * @return Una lista de órdenes ordenadas por fecha e identificador ascendentes.
+     */
+    @EntityGraph(attributePaths = {"cliente", "producto"})
+    @Query("select o from Orden o where o.cliente.id = :clienteId "
+            + "and (:productoId is null or o.producto.id = :productoId) "
+            + "and o.fechaOrden >= :desde and o.fechaOrden < :hasta and (o.fechaOrden > :desde or o.id > :after) "
+            + "order by o.cliente.id, o.fechaOrden, o.id")
+    List<Orden> findByClienteIdAndFechaOrden(@Param("clienteId") Long clienteId, @Param("productoId") Long productoId,
+                                             @Param("desde") Date desde, @Param("hasta") Date hasta,
+                                             @Param("after") Long after, Pageable pageable);
+
+    /**
+     * Busca las órdenes de un producto en un rango de fechas, ordenadas por fecha e identificador,
+     * recorriendo el índice {@code idx_ordenes_producto_fecha}.
+     *
+     * @param productoId El identificador del producto.
+     * @param desde      Inicio del rango, incluido; en las páginas siguientes, la fecha de la orden del cursor.
+     * @param hasta      Fin del rango, excluido.
+     * @param after      El identificador de la orden del cursor, o cero para la primera página.
+     * @param pageable   Límite de filas a recuperar.
+     * @return Una lista de órdenes ordenadas por fecha e identificador ascendentes.
+     */
+    @EntityGraph(attributePaths = {"cliente", "producto"})
+    @Query("select o from Orden o where o.producto.id = :productoId "
+            + "and o.fechaOrden >= :desde and o.fechaOrden < :hasta and (o.fechaOrden > :desde or o.id > :after) "
+            + "order by o.producto.id, o.fechaOrden, o.id")
+    List<Orden> findByProductoIdAndFechaOrden(@Param("productoId") Long productoId,
+                                              @Param("desde") Date desde, @Param("hasta") Date hasta,
+                                              @Param("after") Long after, Pageable pageable);
+
+    /**
+     * Busca la vista reducida de las órdenes de un cliente, y opcionalmente de un producto, en un rango
+     * de fechas, como {@link #findByClienteIdAndFechaOrden}. Solo lee la tabla de órdenes.
+     *
+     * @param clienteId  El identificador del cliente.
+     * @param productoId El identificador del producto, o nulo para no filtrar por producto.
+     * @param desde      Inicio del rango, incluido; en las páginas siguientes, la fecha de la orden del cursor.
+     * @param hasta      Fin del rango, excluido.
+     * @param after      El identificador de la orden del cursor, o cero para la primera página.
+     * @param pageable   Límite de filas a recuperar.
+     * @return Una lista de resúmenes ordenados por fecha e identificador ascendentes.
+     */
+    @Query("select new com.springboot.microservicio.growby.dto.OrdenResumenDTO("
+            + "o.id, o.cantidad, o.total, o.fechaOrden, o.cliente.id, o.producto.id) "
+            + "from Orden o where o.cliente.id = :clienteId "
+            + "and (:productoId is null or o.producto.id = :productoId) "
+            + "and o.fechaOrden >= :desde and o.fechaOrden < :hasta and (o.fechaOrden > :desde or o.id > :after) "
+            + "order by o.cliente.id, o.fechaOrden, o.id")
+    List<OrdenResumenDTO> findResumenByClienteIdAndFechaOrden(@Param("clienteId") Long clienteId,
+                                                              @Param("productoId") Long productoId,
+                                                              @Param("desde") Date desde, @Param("hasta") Date hasta,
+                                                              @Param("after") Long after, Pageable pageable);
+
+    /**
+     * Busca la vista reducida de las órdenes de un producto en un rango de fechas, como
+     * {@link #findByProductoIdAndFechaOrden}. Solo lee la tabla de órdenes.
+     *
+     * @param productoId El identificador del producto.
+     * @param desde      Inicio del rango, incluido; en las páginas siguientes, la fecha de la orden del cursor.
+     * @param hasta      Fin del rango, excluido.
+     * @param after      El identificador de la orden del cursor, o cero para la primera página.
+     * @param pageable   Límite de filas a recuperar.
+     * @return Una lista de resúmenes ordenados por fecha e identificador ascendentes.
+     */
+    @Query("select new com.springboot.microservicio.growby.dto.OrdenResumenDTO("
+            + "o.id, o.cantidad, o.total, o.fechaOrden, o.cliente.id, o.producto.id) "
+            + "from Orden o where o.producto.id = :productoId "
+            + "and o.fechaOrden >= :desde and o.fechaOrden < :hasta and (o.fechaOrden > :desde or o.id > :after) "
+            + "order by o.producto.id, o.fechaOrden, o.id")
+    List<OrdenResumenDTO> findResumenByProductoIdAndFechaOrden(@Param("productoId") Long productoId,
+                                                               @Param("desde") Date desde, @Param("hasta") Date hasta,
+                                                               @Param("after") Long after, Pageable pageable);
+
+    /**
+     * Busca la vista reducida, incluidos los nombres de cliente y producto, de las órdenes de un cliente,
+     * y opcionalmente de un producto, en un rango de fechas, como {@link #findByClienteIdAndFechaOrden}.
+     *
+     * @param clienteId  El identificador del cliente.
+     * @param productoId El identificador del producto, o nulo para no filtrar por producto.
+     * @param desde      Inicio del rango, incluido; en las páginas siguientes, la fecha de la orden del cursor.
+     * @param hasta      Fin del rango, excluido.
+     * @param after      El identificador de la orden del cursor, o cero para la primera página.
+     * @param pageable   Límite de filas a recuperar.
+     * @return Una lista de resúmenes ordenados por fecha e identificador ascendentes.
+     */
+    @Query("select new com.springboot.microservicio.growby.dto.OrdenResumenDTO("
+            + "o.id, o.cantidad, o.total, o.fechaOrden, c.id, p.id, c.nombre, p.nombre) "
+            + "from Orden o join o.cliente c join o.producto p where o.cliente.id = :clienteId "
+            + "and (:productoId is null or o.producto.id = :productoId) "
+            + "and o.fechaOrden >= :desde and o.fechaOrden < :hasta and (o.fechaOrden > :desde or o.id > :after) "
+            + "order by o.cliente.id, o.fechaOrden, o.id")
+    List<OrdenResumenDTO> findResumenConNombresByClienteIdAndFechaOrden(@Param("clienteId") Long clienteId,
+                                                                        @Param("productoId") Long productoId,
+                                                                        @Param("desde") Date desde, @Param("hasta") Date hasta,
+                                                                        @Param("after") Long after, Pageable pageable);
+
+    /**
+     * Busca la vista reducida, incluidos los nombres de cliente y producto, de las órdenes de un producto
+     * en un rango de fechas, como {@link #findByProductoIdAndFechaOrden}.
+     *
+     * @param productoId El identificador del producto.
+     * @param desde      Inicio del rango, incluido; en las páginas siguientes, la fecha de la orden del cursor.
+     * @param hasta      Fin del rango, excluido.
+     * @param after      El identificador de la orden del cursor, o cero para la primera página.
+     * @param pageable   Límite de filas a recuperar.
+     * @return Una lista de resúmenes ordenados por fecha e identificador ascendentes.
+     */
+    @Query("select new com.springboot.microservicio.growby.dto.OrdenResumenDTO("
+            + "o.id, o.cantidad, o.total, o.fechaOrden, c.id, p.id, c.nombre, p.nombre) "
+            + "from Orden o join o.cliente c join o.producto p where o.producto.id = :productoId "
+            + "and o.fechaOrden >= :desde and o.fechaOrden < :hasta and (o.fechaOrden > :desde or o.id > :after) "
+            + "order by o.producto.id, o.fechaOrden, o.id")
+    List<OrdenResumenDTO> findResumenConNombresByProductoIdAndFechaOrden(@Param("productoId") Long productoId,
+                                                                         @Param("desde") Date desde, @Param("hasta") Date hasta,
+                                                                         @Param("after") Long after, Pageable pageable);
+
+    /**
+     * Obtiene la fecha de una orden, para continuar desde ella una consulta por rango de fechas.
+     *
+     * @param id El identificador de la orden.
+     * @return La fecha de la orden, o vacío si no existe o no tiene fecha.
+     */
+    @Query("select o.fechaOrden from Orden o where o.id = :id")
+    Optional<Date> findFechaOrdenById(@Param("id") Long id);
+
+    /**
+     * Recorre todas las órdenes con un cursor de base de datos de solo avance.
+     * Las filas se leen del servidor en bloques de tamaño fijo y se cargan junto con su cliente
+     * y producto en la misma consulta. Debe consumirse dentro de una transacción y cerrarse al terminar.
+     *
+     * @return Un {@link Stream} de órdenes ordenadas por identificador.
+     */
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HINT_READONLY, value = "true")
+    })
+    @Query("select o from Orden o join fetch o.cliente join fetch o.producto order by o.id")
+    Stream<Orden> streamAll();
+
+    /**
+     * Recorre la vista reducida de las órdenes de un rango de fechas con un cursor de base de datos
+     * de solo avance. Solo lee la tabla de órdenes. Debe consumirse dentro de una transacción y
+     * cerrarse al terminar.
+     *
+     * @param desde Inicio del rango, incluido.
+     * @param hasta Fin del rango, excluido.
+     * @return Un {@link Stream} con los resúmenes de las órdenes del rango.
+     */
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HINT_READONLY, value = "true")
+    })
+    @Query("select new com.springboot.microservicio.growby.dto.OrdenResumenDTO("
+            + "o.id, o.cantidad, o.total, o.fechaOrden, o.cliente.id, o.producto.id) "
+            + "from Orden o where o.fechaOrden >= :desde and o.fechaOrden < :hasta")
+    Stream<OrdenResumenDTO> streamResumenByFechaOrden(@Param("desde") Date desde, @Param("hasta") Date hasta);
+
+    /**
+     * Obtiene la fecha de la orden más antigua.
+     *
+     * @return La fecha más antigua, o vacío si no hay órdenes.
+     */
+    @Query("select min(o.fechaOrden) from Orden o")
+    Optional<Date> findPrimeraFechaOrden();
+
+    /**
+     * Obtiene la fecha de la orden más reciente.
+     *
+     * @return La fecha más reciente, o vacío si no hay órdenes.
+     */
+    @Query("select max(o.fechaOrden) from Orden o")
+    Optional<Date> findUltimaFechaOrden();
+
+    /**
+     * Busca y bloquea hasta el final de la transacción las órdenes indicadas cuyas unidades
+     * siguen pendientes de descontarse del stock de su producto.
+     *
+     * @param ids Los identificadores de las órdenes.
+     * @return Las órdenes pendientes, sin su cliente ni su producto.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select o from Orden o where o.id in :ids and o.stockPendiente = true")
+    List<Orden> findConStockPendienteByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Obtiene los identificadores de todas las órdenes cuyas unidades siguen pendientes de
+     * descontarse del stock de su producto.
+     *
+     * @return Los identificadores de las órdenes pendientes.
+     */
+    @Query("select o.id from Orden o where o.stockPendiente = true")
+    List<Long> findIdsConStockPendiente();
 }
@@ -2,12 +2,81 @@ package com.springboot.microservicio.growby.repository;
 
 import com.springboot.microservicio.growby.model.Producto;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.QueryHint;
+import java.util.Optional;
+
+import static org.hibernate.jpa.QueryHints.HINT_NATIVE_SPACES;
 
 /**
  * Repositorio para manejar operaciones de acceso a datos relacionadas con la entidad {@link Producto}.
  * Extiende la interfaz {@link JpaRepository}, proporcionando métodos CRUD y operaciones de consulta
- * para la entidad Producto.
+ * para la entidad Producto, y de {@link JpaSpecificationExecutor} para el catálogo filtrado con los
+ * criterios de {@link EspecificacionesProducto}.
+ * <p>
+ * El stock solo se modifica con las sentencias de este repositorio, nunca al guardar la entidad.
  */
-public interface ProductoRepository extends JpaRepository<Producto, Long> {
-    // Este repositorio hereda todos los métodos CRUD de JpaRepository.
+public interface ProductoRepository extends JpaRepository<Producto, Long>, JpaSpecificationExecutor<Producto> {
+
+    /**
+     * Calcula las unidades disponibles de un producto: su stock menos las unidades de las órdenes
+     * que todavía no se han descontado de él, en una sola sentencia.
+     *
+     * @param id El identificador del producto.
+     * @return Las unidades disponibles, o vacío si el producto no existe o no controla existencias.
+     */
+    @Query("select p.stock - (select coalesce(sum(o.cantidad), 0) from Orden o "
+            + "where o.producto = p and o.stockPendiente = true) from Producto p where p.id = :id")
+    Optional<Long> findStockDisponible(@Param("id") Long id);
+
+    /**
+     * Suma o resta unidades al stock de un producto.
+     * <p>
+     * Es una sentencia nativa con su propio espacio de consulta porque se ejecuta en cada volcado de
+     * {@link com.springboot.microservicio.growby.stock.ReservasStock}: como actualización JPQL, Hibernate
+     * vaciaría en cada volcado toda la región {@code productos} de la caché de segundo nivel. Ninguna
+     * consulta cacheada lee el stock.
+     *
+     * @param id       El identificador del producto.
+     * @param unidades Las unidades a sumar, negativas para restarlas.
+     * @return El número de filas modificadas.
+     */
+    @Transactional
+    @Modifying
+    @QueryHints(@QueryHint(name = HINT_NATIVE_SPACES, value = "productos_stock"))
+    @Query(value = "update productos set stock = stock + :unidades where id = :id", nativeQuery = true)
+    int ajustarStock(@Param("id") Long id, @Param("unidades") long unidades);
+
+    /**
+     * Suma o resta unidades al stock de un producto, como {@link #ajustarStock(Long, long)}, pero con
+     * una actualización JPQL: Hibernate desaloja los productos de la caché de segundo nivel y se vuelven
+     * a cargar con el stock nuevo. Se usa al cambiar el stock desde la API, no en cada volcado.
+     *
+     * @param id       El identificador del producto.
+     * @param unidades Las unidades a sumar, negativas para restarlas.
+     * @return El número de filas modificadas.
+     */
+    @Transactional
+    @Modifying
+    @Query("update Producto p set p.stock = p.stock + :unidades where p.id = :id")
+    int corregirStock(@Param("id") Long id, @Param("unidades") long unidades);
+
+    /**
+     * Sustituye el stock de un producto. Al ser una actualización JPQL, Hibernate desaloja los productos
+     * de la caché de segundo nivel y se vuelven a cargar con el stock nuevo.
+     *
+     * @param id    El identificador del producto.
+     * @param stock El nuevo stock.
+     * @return El número de filas modificadas.
+     */
+    @Transactional
+    @Modifying
+    @Query("update Producto p set p.stock = :stock where p.id = :id")
+    int fijarStock(@Param("id") Long id, @Param("stock") int stock);
 }
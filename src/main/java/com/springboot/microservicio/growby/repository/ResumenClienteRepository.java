@@ -0,0 +1,79 @@
+package com.springboot.microservicio.growby.repository;
+
+import com.springboot.microservicio.growby.model.ResumenCliente;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.jpa.repository.Temporal;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.QueryHint;
+import javax.persistence.TemporalType;
+import java.math.BigDecimal;
+import java.util.Date;
+
+import static org.hibernate.jpa.QueryHints.HINT_NATIVE_SPACES;
+
+/**
+ * Repositorio para manejar operaciones de acceso a datos relacionadas con la entidad {@link ResumenCliente}.
+ * <p>
+ * El número de órdenes y el importe se modifican con sentencias aditivas. Las fechas de la primera
+ * y la última orden se amplían al sumar órdenes y se recalculan desde la tabla de órdenes al
+ * restarlas, en la misma sentencia, de modo que las escrituras concurrentes no se pisan entre sí.
+ */
+public interface ResumenClienteRepository extends JpaRepository<ResumenCliente, Long> {
+
+    /**
+     * Suma órdenes al resumen de un cliente y amplía sus fechas de primera y última orden.
+     *
+     * @param clienteId El identificador del cliente.
+     * @param ordenes   Número de órdenes a sumar.
+     * @param total     Importe a sumar.
+     * @param primera   Fecha de la orden más antigua de las que se suman.
+     * @param ultima    Fecha de la orden más reciente de las que se suman.
+     * @return El número de filas modificadas: 0 si el resumen todavía no existe.
+     */
+    @Transactional
+    @Modifying
+    @Query("update ResumenCliente r set r.ordenes = r.ordenes + :ordenes, r.total = r.total + :total, "
+            + "r.primeraOrden = case when r.primeraOrden is null or r.primeraOrden > :primera "
+            + "then :primera else r.primeraOrden end, "
+            + "r.ultimaOrden = case when r.ultimaOrden is null or r.ultimaOrden < :ultima "
+            + "then :ultima else r.ultimaOrden end "
+            + "where r.clienteId = :clienteId")
+    int acumular(@Param("clienteId") Long clienteId, @Param("ordenes") long ordenes, @Param("total") BigDecimal total,
+                 @Param("primera") @Temporal(TemporalType.TIMESTAMP) Date primera,
+                 @Param("ultima") @Temporal(TemporalType.TIMESTAMP) Date ultima);
+
+    /**
+     * Resta órdenes del resumen de un cliente y recalcula sus fechas de primera y última orden
+     * a partir de las órdenes que le quedan.
+     *
+     * @param clienteId El identificador del cliente.
+     * @param ordenes   Número de órdenes a restar.
+     * @param total     Importe a restar.
+     * @return El número de filas modificadas: 0 si el resumen no existe.
+     */
+    @Transactional
+    @Modifying
+    @Query("update ResumenCliente r set r.ordenes = r.ordenes - :ordenes, r.total = r.total - :total, "
+            + "r.primeraOrden = (select min(o.fechaOrden) from Orden o where o.cliente.id = r.clienteId), "
+            + "r.ultimaOrden = (select max(o.fechaOrden) from Orden o where o.cliente.id = r.clienteId) "
+            + "where r.clienteId = :clienteId")
+    int descontar(@Param("clienteId") Long clienteId, @Param("ordenes") long ordenes, @Param("total") BigDecimal total);
+
+    /**
+     * Crea el resumen de cada cliente con órdenes a partir de la tabla de órdenes.
+     *
+     * @return El número de resúmenes creados.
+     */
+    @Transactional
+    @Modifying
+    @QueryHints(@QueryHint(name = HINT_NATIVE_SPACES, value = "resumenes_cliente"))
+    @Query(value = "insert into resumenes_cliente (cliente_id, ordenes, total, primera_orden, ultima_orden) "
+            + "select cliente_id, count(*), sum(total), min(fecha_orden), max(fecha_orden) "
+            + "from ordenes group by cliente_id", nativeQuery = true)
+    int insertarDesdeOrdenes();
+}
@@ -0,0 +1,115 @@
+package com.springboot.microservicio.growby.repository;
+
+import com.springboot.microservicio.growby.dto.VentasAgrupadasDTO;
+import com.springboot.microservicio.growby.dto.VentasPeriodoDTO;
+import com.springboot.microservicio.growby.model.VentaDiariaCliente;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.QueryHint;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.hibernate.jpa.QueryHints.HINT_NATIVE_SPACES;
+
+/**
+ * Repositorio para manejar operaciones de acceso a datos relacionadas con la entidad {@link VentaDiariaCliente}.
+ * <p>
+ * Los acumulados se modifican con sentencias aditivas para que dos órdenes concurrentes
+ * del mismo día y cliente no se pisen entre sí. Un acumulado cuyas órdenes se han eliminado o
+ * movido a otro día queda a cero y las consultas lo omiten.
+ */
+public interface VentaDiariaClienteRepository extends JpaRepository<VentaDiariaCliente, VentaDiariaCliente.Clave> {
+
+    /**
+     * Suma las cantidades indicadas al acumulado de un cliente en un día.
+     *
+     * @param fecha     El día del acumulado.
+     * @param clienteId El identificador del cliente.
+     * @param cantidad  Unidades a sumar; negativas para descontar.
+     * @param total     Importe a sumar; negativo para descontar.
+     * @param ordenes   Número de órdenes a sumar; negativo para descontar.
+     * @return El número de filas modificadas: 0 si el acumulado todavía no existe.
+     */
+    @Transactional
+    @Modifying
+    @Query("update VentaDiariaCliente v set v.cantidad = v.cantidad + :cantidad, v.total = v.total + :total, "
+            + "v.ordenes = v.ordenes + :ordenes where v.fecha = :fecha and v.clienteId = :clienteId")
+    int acumular(@Param("fecha") LocalDate fecha, @Param("clienteId") Long clienteId, @Param("cantidad") long cantidad,
+                 @Param("total") BigDecimal total, @Param("ordenes") long ordenes);
+
+    /**
+     * Crea el acumulado de un cliente en un día. Falla con una violación de clave primaria
+     * si otra transacción lo ha creado antes.
+     *
+     * @param fecha     El día del acumulado.
+     * @param clienteId El identificador del cliente.
+     * @param cantidad  Unidades vendidas.
+     * @param total     Importe vendido.
+     * @param ordenes   Número de órdenes.
+     */
+    @Transactional
+    @Modifying
+    @QueryHints(@QueryHint(name = HINT_NATIVE_SPACES, value = "ventas_diarias_cliente"))
+    @Query(value = "insert into ventas_diarias_cliente (fecha, cliente_id, cantidad, total, ordenes) "
+            + "values (:fecha, :clienteId, :cantidad, :total, :ordenes)", nativeQuery = true)
+    void insertar(@Param("fecha") LocalDate fecha, @Param("clienteId") Long clienteId, @Param("cantidad") long cantidad,
+                  @Param("total") BigDecimal total, @Param("ordenes") long ordenes);
+
+    /**
+     * Elimina los acumulados de un rango de días.
+     *
+     * @param desde Primer día del rango, incluido.
+     * @param hasta Último día del rango, incluido.
+     */
+    @Transactional
+    @Modifying
+    @Query("delete from VentaDiariaCliente v where v.fecha between :desde and :hasta")
+    void deleteByFechaBetween(@Param("desde") LocalDate desde, @Param("hasta") LocalDate hasta);
+
+    /**
+     * Suma las ventas de cada cliente en un rango de días, ordenadas por importe descendente.
+     *
+     * @param desde Primer día del rango, incluido.
+     * @param hasta Último día del rango, incluido.
+     * @return Una lista con las ventas de los clientes que han vendido en el rango.
+     */
+    @Query("select new com.springboot.microservicio.growby.dto.VentasAgrupadasDTO("
+            + "v.clienteId, x.nombre, sum(v.cantidad), sum(v.total), sum(v.ordenes)) "
+            + "from VentaDiariaCliente v, Cliente x where x.id = v.clienteId and v.fecha between :desde and :hasta "
+            + "group by v.clienteId, x.nombre having sum(v.ordenes) <> 0 order by sum(v.total) desc")
+    List<VentasAgrupadasDTO> sumarPorCliente(@Param("desde") LocalDate desde, @Param("hasta") LocalDate hasta);
+
+    /**
+     * Suma las ventas de todos los clientes por día en un rango de días.
+     *
+     * @param desde Primer día del rango, incluido.
+     * @param hasta Último día del rango, incluido.
+     * @return Una lista con las ventas de cada día con actividad, ordenada por día.
+     */
+    @Query("select new com.springboot.microservicio.growby.dto.VentasPeriodoDTO("
+            + "v.fecha, sum(v.cantidad), sum(v.total), sum(v.ordenes)) "
+            + "from VentaDiariaCliente v where v.fecha between :desde and :hasta group by v.fecha "
+            + "having sum(v.ordenes) <> 0 order by v.fecha")
+    List<VentasPeriodoDTO> sumarPorDia(@Param("desde") LocalDate desde, @Param("hasta") LocalDate hasta);
+
+    /**
+     * Devuelve las ventas diarias de un cliente en un rango de días.
+     *
+     * @param clienteId El identificador del cliente.
+     * @param desde     Primer día del rango, incluido.
+     * @param hasta     Último día del rango, incluido.
+     * @return Una lista con las ventas de cada día con actividad, ordenada por día.
+     */
+    @Query("select new com.springboot.microservicio.growby.dto.VentasPeriodoDTO("
+            + "v.fecha, v.cantidad, v.total, v.ordenes) "
+            + "from VentaDiariaCliente v where v.clienteId = :clienteId and v.fecha between :desde and :hasta "
+            + "and v.ordenes <> 0 order by v.fecha")
+    List<VentasPeriodoDTO> sumarPorDiaDeCliente(@Param("clienteId") Long clienteId,
+                                             @Param("desde") LocalDate desde, @Param("hasta") LocalDate hasta);
+}
@@ -0,0 +1,115 @@
+package com.springboot.microservicio.growby.repository;
+
+import com.springboot.microservicio.growby.dto.VentasAgrupadasDTO;
+import com.springboot.microservicio.growby.dto.VentasPeriodoDTO;
+import com.springboot.microservicio.growby.model.VentaDiariaProducto;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.QueryHint;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.hibernate.jpa.QueryHints.HINT_NATIVE_SPACES;
+
+/**
+ * Repositorio para manejar operaciones de acceso a datos relacionadas con la entidad {@link VentaDiariaProducto}.
+ * <p>
+ * Los acumulados se modifican con sentencias aditivas para que dos órdenes concurrentes
+ * del mismo día y producto no se pisen entre sí. Un acumulado cuyas órdenes se han eliminado o
+ * movido a otro día queda a cero y las consultas lo omiten.
+ */
+public interface VentaDiariaProductoRepository extends JpaRepository<VentaDiariaProducto, VentaDiariaProducto.Clave> {
+
+    /**
+     * Suma las cantidades indicadas al acumulado de un producto en un día.
+     *
+     * @param fecha      El día del acumulado.
+     * @param productoId El identificador del producto.
+     * @param cantidad   Unidades a sumar; negativas para descontar.
+     * @param total      Importe a sumar; negativo para descontar.
+     * @param ordenes    Número de órdenes a sumar; negativo para descontar.
+     * @return El número de filas modificadas: 0 si el acumulado todavía no existe.
+     */
+    @Transactional
+    @Modifying
+    @Query("update VentaDiariaProducto v set v.cantidad = v.cantidad + :cantidad, v.total = v.total + :total, "
+            + "v.ordenes = v.ordenes + :ordenes where v.fecha = :fecha and v.productoId = :productoId")
+    int acumular(@Param("fecha") LocalDate fecha, @Param("productoId") Long productoId, @Param("cantidad") long cantidad,
+                 @Param("total") BigDecimal total, @Param("ordenes") long ordenes);
+
+    /**
+     * Crea el acumulado de un producto en un día. Falla con una violación de clave primaria
+     * si otra transacción lo ha creado antes.
+     *
+     * @param fecha      El día del acumulado.
+     * @param productoId El identificador del producto.
+     * @param cantidad   Unidades vendidas.
+     * @param total      Importe vendido.
+     * @param ordenes    Número de órdenes.
+     */
+    @Transactional
+    @Modifying
+    @QueryHints(@QueryHint(name = HINT_NATIVE_SPACES, value = "ventas_diarias_producto"))
+    @Query(value = "insert into ventas_diarias_producto (fecha, producto_id, cantidad, total, ordenes) "
+            + "values (:fecha, :productoId, :cantidad, :total, :ordenes)", nativeQuery = true)
+    void insertar(@Param("fecha") LocalDate fecha, @Param("productoId") Long productoId, @Param("cantidad") long cantidad,
+                  @Param("total") BigDecimal total, @Param("ordenes") long ordenes);
+
+    /**
+     * Elimina los acumulados de un rango de días.
+     *
+     * @param desde Primer día del rango, incluido.
+     * @param hasta Último día del rango, incluido.
+     */
+    @Transactional
+    @Modifying
+    @Query("delete from VentaDiariaProducto v where v.fecha between :desde and :hasta")
+    void deleteByFechaBetween(@Param("desde") LocalDate desde, @Param("hasta") LocalDate hasta);
+
+    /**
+     * Suma las ventas de cada producto en un rango de días, ordenadas por importe descendente.
+     *
+     * @param desde Primer día del rango, incluido.
+     * @param hasta Último día del rango, incluido.
+     * @return Una lista con las ventas de los productos que han vendido en el rango.
+     */
+    @Query("select new com.springboot.microservicio.growby.dto.VentasAgrupadasDTO("
+            + "v.productoId, x.nombre, sum(v.cantidad), sum(v.total), sum(v.ordenes)) "
+            + "from VentaDiariaProducto v, Producto x where x.id = v.productoId and v.fecha between :desde and :hasta "
+            + "group by v.productoId, x.nombre having sum(v.ordenes) <> 0 order by sum(v.total) desc")
+    List<VentasAgrupadasDTO> sumarPorProducto(@Param("desde") LocalDate desde, @Param("hasta") LocalDate hasta);
+
+    /**
+     * Suma las ventas de todos los productos por día en un rango de días.
+     *
+     * @param desde Primer día del rango, incluido.
+     * @param hasta Último día del rango, incluido.
+     * @return Una lista con las ventas de cada día con actividad, ordenada por día.
+     */
+    @Query("select new com.springboot.microservicio.growby.dto.VentasPeriodoDTO("
+            + "v.fecha, sum(v.cantidad), sum(v.total), sum(v.ordenes)) "
+            + "from VentaDiariaProducto v where v.fecha between :desde and :hasta group by v.fecha "
+            + "having sum(v.ordenes) <> 0 order by v.fecha")
+    List<VentasPeriodoDTO> sumarPorDia(@Param("desde") LocalDate desde, @Param("hasta") LocalDate hasta);
+
+    /**
+     * Devuelve las ventas diarias de un producto en un rango de días.
+     *
+     * @param productoId El identificador del producto.
+     * @param desde      Primer día del rango, incluido.
+     * @param hasta      Último día del rango, incluido.
+     * @return Una lista con las ventas de cada día con actividad, ordenada por día.
+     */
+    @Query("select new com.springboot.microservicio.growby.dto.VentasPeriodoDTO("
+            + "v.fecha, v.cantidad, v.total, v.ordenes) "
+            + "from VentaDiariaProducto v where v.productoId = :productoId and v.fecha between :desde and :hasta "
+            + "and v.ordenes <> 0 order by v.fecha")
+    List<VentasPeriodoDTO> sumarPorDiaDeProducto(@Param("productoId") Long productoId,
+                                              @Param("desde") LocalDate desde, @Param("hasta") LocalDate hasta);
+}
@@ -0,0 +1,85 @@
+package com.springboot.microservicio.growby.service;
+
+import com.springboot.microservicio.growby.dto.OrdenResumenDTO;
+import com.springboot.microservicio.growby.dto.VentasAgrupadasDTO;
+import com.springboot.microservicio.growby.dto.VentasPeriodoDTO;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Interfaz que define los métodos de analítica de ventas.
+ * Las consultas se sirven desde acumulados diarios por producto y por cliente, que se
+ * mantienen de forma incremental con cada alta, modificación y baja de órdenes.
+ */
+public interface AnaliticaService {
+
+    /**
+     * Agrupaciones temporales disponibles para las series de ventas.
+     */
+    enum Periodo {
+        DIA,
+        SEMANA,
+        MES
+    }
+
+    /**
+     * Suma un conjunto de órdenes a los acumulados de ventas. Debe llamarse dentro de la transacción
+     * que guarda las órdenes.
+     *
+     * @param ventas Las órdenes que se han creado o cuyos nuevos datos se han guardado.
+     */
+    void registrarVentas(Collection<OrdenResumenDTO> ventas);
+
+    /**
+     * Resta un conjunto de órdenes de los acumulados de ventas. Debe llamarse dentro de la transacción
+     * que elimina o modifica las órdenes.
+     *
+     * @param ventas Las órdenes eliminadas, o los datos anteriores de las órdenes modificadas.
+     */
+    void anularVentas(Collection<OrdenResumenDTO> ventas);
+
+    /**
+     * Obtiene las ventas de cada producto en un rango de días, ordenadas por importe descendente.
+     *
+     * @param desde Primer día del rango, incluido.
+     * @param hasta Último día del rango, incluido.
+     * @return Una lista con las ventas de cada producto vendido en el rango.
+     */
+    List<VentasAgrupadasDTO> ventasPorProducto(LocalDate desde, LocalDate hasta);
+
+    /**
+     * Obtiene las ventas de cada cliente en un rango de días, ordenadas por importe descendente.
+     *
+     * @param desde Primer día del rango, incluido.
+     * @param hasta Último día del rango, incluido.
+     * @return Una lista con las ventas de cada cliente que ha comprado en el rango.
+     */
+    List<VentasAgrupadasDTO> ventasPorCliente(LocalDate desde, LocalDate hasta);
+
+    /**
+     * Obtiene la serie de ventas de un rango de días agrupada por día, semana o mes.
+     * Puede limitarse a un producto o a un cliente, pero no a ambos a la vez.
+     *
+     * @param desde      Primer día del rango, incluido.
+     * @param hasta      Último día del rango, incluido.
+     * @param periodo    La agrupación temporal de la serie.
+     * @param productoId El producto cuyas ventas se desean, o nulo para todos.
+     * @param clienteId  El cliente cuyas compras se desean, o nulo para todos.
+     * @return Una lista con las ventas de cada periodo con actividad, ordenada por fecha.
+     * @throws IllegalArgumentException si se indican a la vez un producto y un cliente.
+     */
+    List<VentasPeriodoDTO> ventasPorPeriodo(LocalDate desde, LocalDate hasta, Periodo periodo,
+                                            Long productoId, Long clienteId);
+
+    /**
+     * Recalcula desde la tabla de órdenes los acumulados de un rango de días.
+     * Corrige cualquier desviación y permite cargar los acumulados de órdenes
+     * existentes antes de que se mantuvieran de forma incremental.
+     *
+     * @param desde Primer día del rango, incluido.
+     * @param hasta Último día del rango, incluido.
+     */
+    void reconstruir(LocalDate desde, LocalDate hasta);
+}
@@ -1,8 +1,12 @@
 package com.springboot.microservicio.growby.service;
 
 import com.springboot.microservicio.growby.dto.ClienteDTO;
+import com.springboot.microservicio.growby.dto.ResultadoImportacionDTO;
 import com.springboot.microservicio.growby.model.Cliente;
+import com.springboot.microservicio.growby.model.ResumenCliente;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 import java.util.Optional;
 
@@ -27,6 +31,14 @@ public interface ClienteService {
      */
     Optional<Cliente> getClienteById(Long id);
 
+    /**
+     * Recupera el resumen de las órdenes de un cliente.
+     *
+     * @param id El identificador del cliente.
+     * @return Un {@link Optional} con el resumen, vacío si el cliente no existe.
+     */
+    Optional<ResumenCliente> getResumen(Long id);
+
     /**
      * Guarda un nuevo cliente.
      *
@@ -56,4 +68,14 @@ public interface ClienteService {
      *
      */
     long countAllClientes();
+
+    /**
+     * Importa clientes desde un archivo CSV con las columnas nombre, email, telefono.
+     * Las filas no válidas se rechazan sin interrumpir la importación.
+     *
+     * @param csv El contenido del archivo, codificado en UTF-8.
+     * @return El resumen de la importación con los errores por fila.
+     * @throws IOException Si falla la lectura o el archivo no es un CSV válido.
+     */
+    ResultadoImportacionDTO importarCsv(InputStream csv) throws IOException;
 }
@@ -1,8 +1,14 @@
 package com.springboot.microservicio.growby.service;
 
 import com.springboot.microservicio.growby.dto.OrdenDTO;
+import com.springboot.microservicio.growby.dto.OrdenResumenDTO;
+import com.springboot.microservicio.growby.dto.PaginaCursorDTO;
+import com.springboot.microservicio.growby.dto.ResultadoOrdenDTO;
 import com.springboot.microservicio.growby.model.Orden;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Date;
 import java.util.List;
 import java.util.Optional;
 
@@ -27,6 +33,77 @@ public interface OrdenService {
      */
     List<Orden> findOrdenesByClienteId(Long clienteId);
 
+    /**
+     * Recupera una página de órdenes mediante paginación por cursor.
+     *
+     * @param after Identificador de la última orden de la página anterior, o nulo para la primera página.
+     * @param limit Número máximo de órdenes a devolver.
+     * @return Una página de órdenes con el cursor de la página siguiente.
+     */
+    PaginaCursorDTO<Orden> findAll(Long after, int limit);
+
+    /**
+     * Recupera una página de las órdenes de un cliente mediante paginación por cursor.
+     *
+     * @param clienteId El identificador del cliente cuyas órdenes se desean recuperar.
+     * @param after     Identificador de la última orden de la página anterior, o nulo para la primera página.
+     * @param limit     Número máximo de órdenes a devolver.
+     * @return Una página de órdenes del cliente con el cursor de la página siguiente.
+     */
+    PaginaCursorDTO<Orden> findOrdenesByClienteId(Long clienteId, Long after, int limit);
+
+    /**
+     * Recupera una página de la vista reducida de las órdenes mediante paginación por cursor.
+     *
+     * @param after          Identificador de la última orden de la página anterior, o nulo para la primera página.
+     * @param limit          Número máximo de órdenes a devolver.
+     * @param incluirNombres Si se incluyen los nombres del cliente y del producto.
+     * @return Una página de resúmenes de órdenes con el cursor de la página siguiente.
+     */
+    PaginaCursorDTO<OrdenResumenDTO> findResumen(Long after, int limit, boolean incluirNombres);
+
+    /**
+     * Recupera una página de la vista reducida de las órdenes de un cliente mediante paginación por cursor.
+     *
+     * @param clienteId      El identificador del cliente cuyas órdenes se desean recuperar.
+     * @param after          Identificador de la última orden de la página anterior, o nulo para la primera página.
+     * @param limit          Número máximo de órdenes a devolver.
+     * @param incluirNombres Si se incluyen los nombres del cliente y del producto.
+     * @return Una página de resúmenes de órdenes del cliente con el cursor de la página siguiente.
+     */
+    PaginaCursorDTO<OrdenResumenDTO> findResumenByClienteId(Long clienteId, Long after, int limit, boolean incluirNombres);
+
+    /**
+     * Recupera una página de las órdenes de un cliente o de un producto en un rango de fechas,
+     * ordenadas por fecha e identificador, mediante paginación por cursor.
+     *
+     * @param clienteId  El identificador del cliente, o nulo para no filtrar por cliente.
+     * @param productoId El identificador del producto, o nulo para no filtrar por producto.
+     *                   Debe indicarse al menos el cliente o el producto.
+     * @param desde      Inicio del rango, incluido, o nulo para no acotarlo.
+     * @param hasta      Fin del rango, excluido, o nulo para no acotarlo.
+     * @param after      Identificador de la última orden de la página anterior, o nulo para la primera página.
+     * @param limit      Número máximo de órdenes a devolver.
+     * @return Una página de órdenes con el cursor de la página siguiente.
+     */
+    PaginaCursorDTO<Orden> findByFechaOrden(Long clienteId, Long productoId, Date desde, Date hasta, Long after, int limit);
+
+    /**
+     * Recupera una página de la vista reducida de las órdenes de un cliente o de un producto en un
+     * rango de fechas, como {@link #findByFechaOrden}.
+     *
+     * @param clienteId      El identificador del cliente, o nulo para no filtrar por cliente.
+     * @param productoId     El identificador del producto, o nulo para no filtrar por producto.
+     * @param desde          Inicio del rango, incluido, o nulo para no acotarlo.
+     * @param hasta          Fin del rango, excluido, o nulo para no acotarlo.
+     * @param after          Identificador de la última orden de la página anterior, o nulo para la primera página.
+     * @param limit          Número máximo de órdenes a devolver.
+     * @param incluirNombres Si se incluyen los nombres del cliente y del producto.
+     * @return Una página de resúmenes de órdenes con el cursor de la página siguiente.
+     */
+    PaginaCursorDTO<OrdenResumenDTO> findResumenByFechaOrden(Long clienteId, Long productoId, Date desde, Date hasta,
+                                                             Long after, int limit, boolean incluirNombres);
+
     /**
      * Guarda una nueva orden.
      *
@@ -35,6 +112,15 @@ public interface OrdenService {
      */
     Orden save(OrdenDTO ordenDTO);
 
+    /**
+     * Guarda un lote de órdenes. Las órdenes válidas se insertan juntas y las que hacen
+     * referencia a productos o clientes inexistentes se rechazan de forma individual.
+     *
+     * @param ordenesDTO Los datos de las órdenes a guardar.
+     * @return El resultado de cada orden, en el mismo orden en que se recibieron.
+     */
+    List<ResultadoOrdenDTO> saveAll(List<OrdenDTO> ordenesDTO);
+
     /**
      * Actualiza una orden existente.
      *
@@ -63,4 +149,12 @@ public interface OrdenService {
      *
      */
     long countAllOrdenes();
+
+    /**
+     * Exporta todas las órdenes en formato JSON delimitado por saltos de línea (NDJSON).
+     *
+     * @param salida Flujo de salida donde se escribe una orden por línea.
+     * @throws IOException si ocurre un error al escribir en el flujo de salida.
+     */
+    void exportarNdjson(OutputStream salida) throws IOException;
 }
@@ -1,8 +1,17 @@
 package com.springboot.microservicio.growby.service;
 
+import com.springboot.microservicio.growby.dto.EstadisticasCacheDTO;
+import com.springboot.microservicio.growby.dto.PaginaDTO;
+import com.springboot.microservicio.growby.dto.ProductoBusquedaDTO;
 import com.springboot.microservicio.growby.dto.ProductoDTO;
+import com.springboot.microservicio.growby.dto.ResultadoImportacionDTO;
 import com.springboot.microservicio.growby.model.Producto;
+import org.springframework.data.domain.Sort;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.util.Date;
 import java.util.List;
 import java.util.Optional;
 
@@ -19,6 +28,22 @@ public interface ProductoService {
      */
     List<Producto> findAll();
 
+    /**
+     * Recupera una página del catálogo de productos filtrado. Los criterios nulos no filtran.
+     *
+     * @param estado    El estado de los productos.
+     * @param precioMin El precio mínimo, incluido.
+     * @param precioMax El precio máximo, incluido.
+     * @param desde     El inicio del rango de fechas de creación, incluido.
+     * @param hasta     El fin del rango de fechas de creación, excluido.
+     * @param orden     El orden de los productos; a igualdad, se ordenan por identificador.
+     * @param page      El número de página, empezando por 0.
+     * @param size      El número de productos por página.
+     * @return La página de productos con el total de productos que cumplen los criterios.
+     */
+    PaginaDTO<Producto> findAll(Producto.Estado estado, BigDecimal precioMin, BigDecimal precioMax,
+                                Date desde, Date hasta, Sort orden, int page, int size);
+
     /**
      * Recupera un producto por su identificador.
      *
@@ -56,4 +81,40 @@ public interface ProductoService {
      *
      */
     long countAllProducts();
+
+    /**
+     * Recupera las estadísticas de la caché de productos.
+     *
+     * @return Las estadísticas de aciertos, fallos y desalojos de la caché.
+     */
+    EstadisticasCacheDTO getEstadisticasCache();
+
+    /**
+     * Recupera las unidades disponibles de un producto.
+     *
+     * @param id El identificador del producto.
+     * @return Las unidades disponibles, o vacío si el producto no existe o no controla existencias.
+     */
+    Optional<Long> getStockDisponible(Long id);
+
+    /**
+     * Busca productos por el texto de su nombre y descripción.
+     *
+     * @param consulta El texto buscado; cada palabra se trata como prefijo.
+     * @param estado   El estado de los productos a devolver, o {@code null} para cualquiera.
+     * @param limit    Número máximo de productos a devolver.
+     * @return Los productos encontrados, de mayor a menor puntuación.
+     */
+    List<ProductoBusquedaDTO> buscar(String consulta, Producto.Estado estado, int limit);
+
+    /**
+     * Importa productos desde un archivo CSV con las columnas nombre, descripcion, precio, estado
+     * y, opcionalmente, stock.
+     * Las filas no válidas se rechazan sin interrumpir la importación.
+     *
+     * @param csv El contenido del archivo, codificado en UTF-8.
+     * @return El resumen de la importación con los errores por fila.
+     * @throws IOException Si falla la lectura o el archivo no es un CSV válido.
+     */
+    ResultadoImportacionDTO importarCsv(InputStream csv) throws IOException;
 }
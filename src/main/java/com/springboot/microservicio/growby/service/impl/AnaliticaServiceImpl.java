@@ -0,0 +1,338 @@
+package com.springboot.microservicio.growby.service.impl;
+
+import com.springboot.microservicio.growby.dto.OrdenResumenDTO;
+import com.springboot.microservicio.growby.dto.VentasAgrupadasDTO;
+import com.springboot.microservicio.growby.dto.VentasPeriodoDTO;
+import com.springboot.microservicio.growby.repository.InsercionAcumulados;
+import com.springboot.microservicio.growby.repository.OrdenRepository;
+import com.springboot.microservicio.growby.repository.ResumenClienteRepository;
+import com.springboot.microservicio.growby.repository.VentaDiariaClienteRepository;
+import com.springboot.microservicio.growby.repository.VentaDiariaProductoRepository;
+import com.springboot.microservicio.growby.service.AnaliticaService;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+
+/**
+ * Implementación del servicio {@link AnaliticaService}.
+ * <p>
+ * Cada alta, modificación o baja de órdenes suma o resta sus unidades, importe y número de
+ * órdenes en los acumulados del día de la orden, uno por producto y otro por cliente. Cada
+ * acumulado se modifica con una actualización aditiva y solo se inserta cuando todavía no
+ * existe. Las órdenes de un lote se agrupan por día antes de escribir, de modo que un lote
+ * cuesta una sentencia por día y producto y otra por día y cliente. Estas escrituras se hacen en la
+ * transacción de la orden, de modo que los acumulados se confirman o se deshacen con ella. Si otra
+ * orden del mismo día crea a la vez un acumulado, {@link InsercionAcumulados} vuelve al savepoint
+ * anterior a la inserción y el acumulado se actualiza. Los acumulados se escriben ordenados por día
+ * e identificador, para que dos transacciones que modifican los mismos se bloqueen en el mismo orden.
+ * <p>
+ * Con las mismas órdenes se mantiene el {@link com.springboot.microservicio.growby.model.ResumenCliente}
+ * de cada cliente, con una sentencia por cliente del lote.
+ * <p>
+ * Los días se calculan en la zona horaria del servidor.
+ */
+@Service
+public class AnaliticaServiceImpl implements AnaliticaService {
+
+    private final VentaDiariaProductoRepository ventaDiariaProductoRepository;
+    private final VentaDiariaClienteRepository ventaDiariaClienteRepository;
+    private final ResumenClienteRepository resumenClienteRepository;
+    private final OrdenRepository ordenRepository;
+    private final InsercionAcumulados insercionAcumulados;
+    private final ZoneId zona = ZoneId.systemDefault();
+
+    public AnaliticaServiceImpl(VentaDiariaProductoRepository ventaDiariaProductoRepository,
+                                VentaDiariaClienteRepository ventaDiariaClienteRepository,
+                                ResumenClienteRepository resumenClienteRepository,
+                                OrdenRepository ordenRepository,
+                                InsercionAcumulados insercionAcumulados) {
+        this.ventaDiariaProductoRepository = ventaDiariaProductoRepository;
+        this.ventaDiariaClienteRepository = ventaDiariaClienteRepository;
+        this.resumenClienteRepository = resumenClienteRepository;
+        this.ordenRepository = ordenRepository;
+        this.insercionAcumulados = insercionAcumulados;
+    }
+
+    /**
+     * Suma un conjunto de órdenes a los acumulados de ventas, en la transacción que las guarda.
+     *
+     * @param ventas Las órdenes que se han creado o cuyos nuevos datos se han guardado.
+     */
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void registrarVentas(Collection<OrdenResumenDTO> ventas) {
+        aplicar(ventas, 1);
+    }
+
+    /**
+     * Resta un conjunto de órdenes de los acumulados de ventas, en la transacción que las elimina o
+     * modifica.
+     *
+     * @param ventas Las órdenes eliminadas, o los datos anteriores de las órdenes modificadas.
+     */
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void anularVentas(Collection<OrdenResumenDTO> ventas) {
+        aplicar(ventas, -1);
+    }
+
+    /**
+     * Obtiene las ventas de cada producto en un rango de días, ordenadas por importe descendente.
+     *
+     * @param desde Primer día del rango, incluido.
+     * @param hasta Último día del rango, incluido.
+     * @return Una lista con las ventas de cada producto vendido en el rango.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public List<VentasAgrupadasDTO> ventasPorProducto(LocalDate desde, LocalDate hasta) {
+        return ventaDiariaProductoRepository.sumarPorProducto(desde, hasta);
+    }
+
+    /**
+     * Obtiene las ventas de cada cliente en un rango de días, ordenadas por importe descendente.
+     *
+     * @param desde Primer día del rango, incluido.
+     * @param hasta Último día del rango, incluido.
+     * @return Una lista con las ventas de cada cliente que ha comprado en el rango.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public List<VentasAgrupadasDTO> ventasPorCliente(LocalDate desde, LocalDate hasta) {
+        return ventaDiariaClienteRepository.sumarPorCliente(desde, hasta);
+    }
+
+    /**
+     * Obtiene la serie de ventas de un rango de días agrupada por día, semana o mes.
+     * Las semanas empiezan en lunes. Las semanas y meses se construyen sumando los días leídos.
+     *
+     * @param desde      Primer día del rango, incluido.
+     * @param hasta      Último día del rango, incluido.
+     * @param periodo    La agrupación temporal de la serie.
+     * @param productoId El producto cuyas ventas se desean, o nulo para todos.
+     * @param clienteId  El cliente cuyas compras se desean, o nulo para todos.
+     * @return Una lista con las ventas de cada periodo con actividad, ordenada por fecha.
+     * @throws IllegalArgumentException si se indican a la vez un producto y un cliente.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public List<VentasPeriodoDTO> ventasPorPeriodo(LocalDate desde, LocalDate hasta, Periodo periodo,
+                                                   Long productoId, Long clienteId) {
+        if (productoId != null && clienteId != null) {
+            throw new IllegalArgumentException("No se puede filtrar a la vez por producto y por cliente");
+        }
+        List<VentasPeriodoDTO> dias;
+        if (productoId != null) {
+            dias = ventaDiariaProductoRepository.sumarPorDiaDeProducto(productoId, desde, hasta);
+        } else if (clienteId != null) {
+            dias = ventaDiariaClienteRepository.sumarPorDiaDeCliente(clienteId, desde, hasta);
+        } else {
+            dias = ventaDiariaProductoRepository.sumarPorDia(desde, hasta);
+        }
+        if (periodo == Periodo.DIA) {
+            return dias;
+        }
+
+        Map<LocalDate, VentasPeriodoDTO> periodos = new LinkedHashMap<>();
+        for (VentasPeriodoDTO dia : dias) {
+            periodos.merge(inicioPeriodo(dia.getInicio(), periodo), dia, (actual, siguiente) -> new VentasPeriodoDTO(
+                    actual.getInicio(),
+                    actual.getCantidad() + siguiente.getCantidad(),
+                    actual.getTotal().add(siguiente.getTotal()),
+                    actual.getOrdenes() + siguiente.getOrdenes()));
+        }
+        List<VentasPeriodoDTO> resultado = new ArrayList<>(periodos.size());
+        periodos.forEach((inicio, ventas) ->
+                resultado.add(new VentasPeriodoDTO(inicio, ventas.getCantidad(), ventas.getTotal(), ventas.getOrdenes())));
+        return resultado;
+    }
+
+    /**
+     * Recalcula desde la tabla de órdenes los acumulados de un rango de días. Las órdenes se
+     * leen con un cursor y solo se mantienen en memoria los acumulados, no las órdenes.
+     *
+     * @param desde Primer día del rango, incluido.
+     * @param hasta Último día del rango, incluido.
+     */
+    @Override
+    @Transactional
+    public void reconstruir(LocalDate desde, LocalDate hasta) {
+        Acumulados porProducto = new Acumulados();
+        Acumulados porCliente = new Acumulados();
+        try (Stream<OrdenResumenDTO> ordenes = ordenRepository.streamResumenByFechaOrden(
+                inicioDelDia(desde), inicioDelDia(hasta.plusDays(1)))) {
+            ordenes.forEach(orden -> {
+                LocalDate fecha = dia(orden.getFechaOrden());
+                porProducto.sumar(fecha, orden.getProductoId(), orden, 1);
+                porCliente.sumar(fecha, orden.getClienteId(), orden, 1);
+            });
+        }
+
+        ventaDiariaProductoRepository.deleteByFechaBetween(desde, hasta);
+        ventaDiariaClienteRepository.deleteByFechaBetween(desde, hasta);
+        porProducto.forEach(ventaDiariaProductoRepository::insertar);
+        porCliente.forEach(ventaDiariaClienteRepository::insertar);
+    }
+
+    /**
+     * Carga al arrancar los acumulados y los resúmenes de clientes de las órdenes existentes si
+     * todavía no hay ninguno, por ejemplo la primera vez que se despliega esta versión.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void inicializar() {
+        if (resumenClienteRepository.count() == 0) {
+            resumenClienteRepository.insertarDesdeOrdenes();
+        }
+        if (ventaDiariaProductoRepository.count() > 0) {
+            return;
+        }
+        Optional<Date> primera = ordenRepository.findPrimeraFechaOrden();
+        Optional<Date> ultima = ordenRepository.findUltimaFechaOrden();
+        if (primera.isPresent() && ultima.isPresent()) {
+            reconstruir(dia(primera.get()), dia(ultima.get()));
+        }
+    }
+
+    private void aplicar(Collection<OrdenResumenDTO> ventas, int signo) {
+        Acumulados porProducto = new Acumulados();
+        Acumulados porCliente = new Acumulados();
+        Map<Long, ResumenOrdenes> resumenes = new TreeMap<>();
+        for (OrdenResumenDTO venta : ventas) {
+            LocalDate fecha = dia(venta.getFechaOrden());
+            porProducto.sumar(fecha, venta.getProductoId(), venta, signo);
+            porCliente.sumar(fecha, venta.getClienteId(), venta, signo);
+            resumenes.computeIfAbsent(venta.getClienteId(), id -> new ResumenOrdenes()).sumar(venta);
+        }
+        porProducto.forEach((fecha, id, cantidad, total, ordenes) -> acumular(fecha, id, cantidad, total, ordenes,
+                ventaDiariaProductoRepository::acumular, insercionAcumulados::insertarVentaProducto));
+        porCliente.forEach((fecha, id, cantidad, total, ordenes) -> acumular(fecha, id, cantidad, total, ordenes,
+                ventaDiariaClienteRepository::acumular, insercionAcumulados::insertarVentaCliente));
+        if (signo > 0) {
+            resumenes.forEach(this::sumarResumen);
+        } else {
+            resumenes.forEach(this::restarResumen);
+        }
+    }
+
+    private void sumarResumen(Long clienteId, ResumenOrdenes resumen) {
+        if (resumenClienteRepository.acumular(clienteId, resumen.ordenes, resumen.total, resumen.primera, resumen.ultima) == 0
+                && !insercionAcumulados.insertarResumenCliente(clienteId, resumen.ordenes, resumen.total, resumen.primera, resumen.ultima)) {
+            // Otra orden del cliente ha creado el resumen después de la actualización.
+            resumenClienteRepository.acumular(clienteId, resumen.ordenes, resumen.total, resumen.primera, resumen.ultima);
+        }
+    }
+
+    private void restarResumen(Long clienteId, ResumenOrdenes resumen) {
+        // Sin resumen no hay nada que restar; se creará con la siguiente orden del cliente.
+        resumenClienteRepository.descontar(clienteId, resumen.ordenes, resumen.total);
+    }
+
+    private static void acumular(LocalDate fecha, Long id, long cantidad, BigDecimal total, long ordenes,
+                                 Actualizacion actualizacion, Insercion insercion) {
+        if (actualizacion.aplicar(fecha, id, cantidad, total, ordenes) == 0
+                && !insercion.aplicar(fecha, id, cantidad, total, ordenes)) {
+            // Otra orden del mismo día ha creado el acumulado después de la actualización.
+            actualizacion.aplicar(fecha, id, cantidad, total, ordenes);
+        }
+    }
+
+    private LocalDate dia(Date fecha) {
+        return fecha.toInstant().atZone(zona).toLocalDate();
+    }
+
+    private Date inicioDelDia(LocalDate dia) {
+        return Date.from(dia.atStartOfDay(zona).toInstant());
+    }
+
+    private static LocalDate inicioPeriodo(LocalDate dia, Periodo periodo) {
+        switch (periodo) {
+            case SEMANA:
+                return dia.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+            case MES:
+                return dia.withDayOfMonth(1);
+            default:
+                return dia;
+        }
+    }
+
+    @FunctionalInterface
+    private interface Actualizacion {
+        int aplicar(LocalDate fecha, Long id, long cantidad, BigDecimal total, long ordenes);
+    }
+
+    @FunctionalInterface
+    private interface Insercion {
+        boolean aplicar(LocalDate fecha, Long id, long cantidad, BigDecimal total, long ordenes);
+    }
+
+    @FunctionalInterface
+    private interface Escritura {
+        void aplicar(LocalDate fecha, Long id, long cantidad, BigDecimal total, long ordenes);
+    }
+
+    /**
+     * Acumulados en memoria por día e identificador de producto o cliente.
+     */
+    private static final class Acumulados {
+
+        private final Map<LocalDate, Map<Long, Acumulado>> porDia = new TreeMap<>();
+
+        void sumar(LocalDate fecha, Long id, OrdenResumenDTO orden, int signo) {
+            Acumulado acumulado = porDia.computeIfAbsent(fecha, f -> new TreeMap<>())
+                    .computeIfAbsent(id, i -> new Acumulado());
+            acumulado.cantidad += (long) signo * orden.getCantidad();
+            acumulado.total = signo < 0 ? acumulado.total.subtract(orden.getTotal()) : acumulado.total.add(orden.getTotal());
+            acumulado.ordenes += signo;
+        }
+
+        void forEach(Escritura escritura) {
+            porDia.forEach((fecha, porId) -> porId.forEach((id, acumulado) ->
+                    escritura.aplicar(fecha, id, acumulado.cantidad, acumulado.total, acumulado.ordenes)));
+        }
+    }
+
+    /**
+     * Número de órdenes, importe y rango de fechas de las órdenes de un cliente en un lote.
+     */
+    private static final class ResumenOrdenes {
+        private long ordenes;
+        private BigDecimal total = BigDecimal.ZERO;
+        private Date primera;
+        private Date ultima;
+
+        void sumar(OrdenResumenDTO orden) {
+            ordenes++;
+            total = total.add(orden.getTotal());
+            if (primera == null || orden.getFechaOrden().before(primera)) {
+                primera = orden.getFechaOrden();
+            }
+            if (ultima == null || orden.getFechaOrden().after(ultima)) {
+                ultima = orden.getFechaOrden();
+            }
+        }
+    }
+
+    private static final class Acumulado {
+        private long cantidad;
+        private BigDecimal total = BigDecimal.ZERO;
+        private long ordenes;
+    }
+}
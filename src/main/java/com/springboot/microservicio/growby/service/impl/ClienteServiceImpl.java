@@ -1,27 +1,78 @@
 package com.springboot.microservicio.growby.service.impl;
 
+import com.springboot.microservicio.growby.cache.IndiceEmailClientes;
+import com.springboot.microservicio.growby.contador.ContadorEntidades;
+import com.springboot.microservicio.growby.contador.VersionesColecciones;
 import com.springboot.microservicio.growby.dto.ClienteDTO;
+import com.springboot.microservicio.growby.dto.ResultadoImportacionDTO;
 import com.springboot.microservicio.growby.exception.ClienteNotFoundException;
+import com.springboot.microservicio.growby.exception.EmailEnUsoException;
+import com.springboot.microservicio.growby.importacion.FilaImportacion;
+import com.springboot.microservicio.growby.importacion.ImportadorCsv;
 import com.springboot.microservicio.growby.model.Cliente;
+import com.springboot.microservicio.growby.model.ResumenCliente;
 import com.springboot.microservicio.growby.repository.ClienteRepository;
+import com.springboot.microservicio.growby.repository.ResumenClienteRepository;
 import com.springboot.microservicio.growby.service.ClienteService;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import javax.validation.Valid;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 /**
  * Implementación del servicio {@link ClienteService} que maneja la lógica de negocio
  * relacionada con la entidad {@link Cliente}.
+ * <p>
+ * La unicidad del email la garantiza la restricción única de {@code clientes.email}. Antes de
+ * escribir solo se consulta la base de datos si el {@link IndiceEmailClientes} indica que el
+ * email puede estar en uso, de modo que el alta de un email nuevo cuesta una única sentencia.
+ * <p>
+ * Cada consulta se hace en una transacción de solo lectura y cada alta, modificación o baja en una
+ * única transacción; los contadores y versiones en memoria se actualizan después de confirmarla.
+ * La importación confirma cada bloque por separado.
  */
 @Service
 public class ClienteServiceImpl implements ClienteService {
 
+    private static final String MENSAJE_EMAIL_EN_USO = "El email ya está en uso";
+    private static final String MENSAJE_EMAIL_DUPLICADO = "El email está repetido en el archivo";
+    private static final String RESTRICCION_EMAIL = "uk_clientes_email";
+
     private final ClienteRepository clienteRepository;
+    private final ContadorEntidades contadorEntidades;
+    private final IndiceEmailClientes indiceEmailClientes;
+    private final ImportadorCsv importadorCsv;
+    private final ResumenClienteRepository resumenClienteRepository;
+    private final VersionesColecciones versionesColecciones;
+    private final TransactionTemplate transactionTemplate;
 
-    public ClienteServiceImpl(ClienteRepository clienteRepository) {
+    public ClienteServiceImpl(ClienteRepository clienteRepository, ContadorEntidades contadorEntidades,
+                              IndiceEmailClientes indiceEmailClientes, ImportadorCsv importadorCsv,
+                              ResumenClienteRepository resumenClienteRepository,
+                              VersionesColecciones versionesColecciones,
+                              PlatformTransactionManager transactionManager) {
         this.clienteRepository = clienteRepository;
+        this.contadorEntidades = contadorEntidades;
+        this.indiceEmailClientes = indiceEmailClientes;
+        this.importadorCsv = importadorCsv;
+        this.resumenClienteRepository = resumenClienteRepository;
+        this.versionesColecciones = versionesColecciones;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
     }
 
     /**
@@ -30,6 +81,7 @@ public class ClienteServiceImpl implements ClienteService {
      * @return Una lista de clientes.
      */
     @Override
+    @Transactional(readOnly = true)
     public List<Cliente> findAll() {
         return clienteRepository.findAll();
     }
@@ -41,28 +93,46 @@ public class ClienteServiceImpl implements ClienteService {
      * @return Un {@link Optional} que contiene el cliente encontrado, o vacío si no se encuentra.
      */
     @Override
+    @Transactional(readOnly = true)
     public Optional<Cliente> getClienteById(Long id) {
         return clienteRepository.findById(id);
     }
 
+    /**
+     * Recupera el resumen de las órdenes de un cliente con una lectura por clave primaria.
+     * Solo si el cliente no tiene resumen, porque todavía no tiene órdenes, se comprueba que exista.
+     *
+     * @param id El identificador del cliente.
+     * @return Un {@link Optional} con el resumen, vacío si el cliente no existe.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<ResumenCliente> getResumen(Long id) {
+        Optional<ResumenCliente> resumen = resumenClienteRepository.findById(id);
+        if (resumen.isPresent() || !clienteRepository.existsById(id)) {
+            return resumen;
+        }
+        return Optional.of(ResumenCliente.vacio(id));
+    }
+
     /**
      * Guarda un nuevo cliente.
      *
      * @param clienteDTO Los datos del cliente a guardar.
      * @return El cliente guardado.
-     * @throws RuntimeException si el email ya está en uso.
+     * @throws EmailEnUsoException si el email ya está en uso.
      */
     @Override
     public Cliente save(@Valid ClienteDTO clienteDTO) {
-        if (emailExists(clienteDTO.getEmail())) {
-            throw new RuntimeException("El email ya está en uso");
-        }
-
-        Cliente cliente = new Cliente();
-        cliente.setNombre(clienteDTO.getNombre());
-        cliente.setEmail(clienteDTO.getEmail());
-        cliente.setTelefono(clienteDTO.getTelefono());
-        return clienteRepository.save(cliente);
+        Cliente guardado = transactionTemplate.execute(estado -> {
+            if (emailExists(clienteDTO.getEmail())) {
+                throw new EmailEnUsoException(MENSAJE_EMAIL_EN_USO);
+            }
+            return guardar(nuevoCliente(clienteDTO));
+        });
+        contadorEntidades.incrementar(ContadorEntidades.Entidad.CLIENTES, 1);
+        registrarCambio(guardado.getId());
+        return guardado;
     }
 
     /**
@@ -72,24 +142,24 @@ public class ClienteServiceImpl implements ClienteService {
      * @param clienteDTO Los nuevos datos del cliente.
      * @return El cliente actualizado.
      * @throws ClienteNotFoundException si el cliente no se encuentra.
-     * @throws RuntimeException         si el email ya está en uso.
+     * @throws EmailEnUsoException      si el email ya está en uso.
      */
     @Override
     public Cliente update(Long id, @Valid ClienteDTO clienteDTO) {
-        Optional<Cliente> optionalCliente = clienteRepository.findById(id);
-        if (optionalCliente.isPresent()) {
-            if (emailExists(clienteDTO.getEmail(), id)) {
-                throw new RuntimeException("El email ya está en uso");
+        Cliente guardado = transactionTemplate.execute(estado -> {
+            Cliente cliente = clienteRepository.findById(id)
+                    .orElseThrow(() -> new ClienteNotFoundException("Cliente no encontrado"));
+            if (!Objects.equals(clienteDTO.getEmail(), cliente.getEmail()) && emailExists(clienteDTO.getEmail(), id)) {
+                throw new EmailEnUsoException(MENSAJE_EMAIL_EN_USO);
             }
 
-            Cliente cliente = optionalCliente.get();
             cliente.setNombre(clienteDTO.getNombre());
             cliente.setEmail(clienteDTO.getEmail());
             cliente.setTelefono(clienteDTO.getTelefono());
-            return clienteRepository.save(cliente);
-        } else {
-            throw new ClienteNotFoundException("Cliente no encontrado");
-        }
+            return guardar(cliente);
+        });
+        registrarCambio(id);
+        return guardado;
     }
 
     /**
@@ -99,23 +169,186 @@ public class ClienteServiceImpl implements ClienteService {
      */
     @Override
     public void delete(Long id) {
-        clienteRepository.deleteById(id);
+        transactionTemplate.executeWithoutResult(estado -> clienteRepository.deleteById(id));
+        contadorEntidades.decrementar(ContadorEntidades.Entidad.CLIENTES);
+        registrarCambio(id);
     }
 
     /**
-     * Contador de todos los clientes.
+     * Contador de todos los clientes, servido desde el contador en memoria.
      *
      */
     @Override
     public long countAllClientes() {
-        return clienteRepository.count();
+        return contadorEntidades.valor(ContadorEntidades.Entidad.CLIENTES);
+    }
+
+    /**
+     * Importa clientes desde un archivo CSV con las columnas nombre, email y telefono.
+     * Los emails repetidos dentro del archivo o ya registrados se rechazan por fila. Cada bloque se
+     * guarda en su propia transacción, para poder reintentarlo fila a fila si falla.
+     *
+     * @param csv El contenido del archivo, codificado en UTF-8.
+     * @return El resumen de la importación con los errores por fila.
+     * @throws IOException Si falla la lectura o el archivo no es un CSV válido.
+     */
+    @Override
+    public ResultadoImportacionDTO importarCsv(InputStream csv) throws IOException {
+        return importadorCsv.importar(csv,
+                fila -> new ClienteDTO(fila.valor("nombre"), fila.valor("email"), fila.valor("telefono")),
+                this::guardarBloque);
+    }
+
+    /**
+     * Guarda un bloque de clientes importados. Los emails repetidos dentro del bloque se rechazan;
+     * los de bloques anteriores ya están registrados en el índice, así que, como el resto de emails
+     * que el índice marca como posiblemente en uso, se comprueban con una única consulta para todo el
+     * bloque. Los clientes nuevos se insertan con un solo {@code saveAll} agrupado en lotes JDBC. Si
+     * una escritura concurrente provoca una violación de una restricción, el bloque se reintenta fila
+     * a fila.
+     */
+    private void guardarBloque(List<FilaImportacion<ClienteDTO>> bloque, ResultadoImportacionDTO resultado) {
+        Set<String> emailsBloque = new HashSet<>();
+        Set<String> posiblementeEnUso = new HashSet<>();
+        List<FilaImportacion<ClienteDTO>> candidatas = new ArrayList<>(bloque.size());
+        for (FilaImportacion<ClienteDTO> fila : bloque) {
+            String email = fila.getDatos().getEmail();
+            if (!emailsBloque.add(email)) {
+                resultado.rechazar(fila.getLinea(), MENSAJE_EMAIL_DUPLICADO);
+                continue;
+            }
+            if (indiceEmailClientes.posiblementeEnUso(email)) {
+                posiblementeEnUso.add(email);
+            }
+            candidatas.add(fila);
+        }
+
+        Set<String> enUso = posiblementeEnUso.isEmpty()
+                ? Collections.emptySet()
+                : new HashSet<>(clienteRepository.findEmailsIn(posiblementeEnUso));
+        List<FilaImportacion<ClienteDTO>> nuevas = new ArrayList<>(candidatas.size());
+        for (FilaImportacion<ClienteDTO> fila : candidatas) {
+            if (enUso.contains(fila.getDatos().getEmail())) {
+                resultado.rechazar(fila.getLinea(), MENSAJE_EMAIL_EN_USO);
+            } else {
+                nuevas.add(fila);
+            }
+        }
+        if (nuevas.isEmpty()) {
+            return;
+        }
+
+        List<Cliente> guardados;
+        try {
+            guardados = clienteRepository.saveAll(nuevas.stream()
+                    .map(fila -> nuevoCliente(fila.getDatos()))
+                    .collect(Collectors.toList()));
+        } catch (DataIntegrityViolationException e) {
+            guardados = guardarFilaAFila(nuevas, resultado);
+        }
+        guardados.forEach(cliente -> indiceEmailClientes.registrar(cliente.getEmail()));
+        contadorEntidades.incrementar(ContadorEntidades.Entidad.CLIENTES, guardados.size());
+        versionesColecciones.incrementar(VersionesColecciones.Coleccion.CLIENTES);
+        resultado.importadas(guardados.size());
+    }
+
+    private List<Cliente> guardarFilaAFila(List<FilaImportacion<ClienteDTO>> filas, ResultadoImportacionDTO resultado) {
+        List<Cliente> guardados = new ArrayList<>(filas.size());
+        for (FilaImportacion<ClienteDTO> fila : filas) {
+            try {
+                guardados.add(clienteRepository.saveAndFlush(nuevoCliente(fila.getDatos())));
+            } catch (DataIntegrityViolationException e) {
+                resultado.rechazar(fila.getLinea(), motivoRechazo(e));
+            }
+        }
+        return guardados;
+    }
+
+    /**
+     * Describe la restricción de la base de datos que ha impedido guardar una fila importada.
+     */
+    private static String motivoRechazo(DataIntegrityViolationException e) {
+        String restriccion = restriccionViolada(e);
+        if (restriccion == null) {
+            return "No se pudo guardar la fila: " + e.getMostSpecificCause().getMessage();
+        }
+        if (esRestriccionEmail(restriccion)) {
+            return MENSAJE_EMAIL_EN_USO;
+        }
+        return "Restricción no cumplida: " + nombreRestriccion(restriccion);
+    }
+
+    /**
+     * El nombre de la restricción de la base de datos que ha provocado la excepción.
+     *
+     * @return El nombre, o {@code null} si la excepción no se debe a una restricción con nombre.
+     */
+    private static String restriccionViolada(DataIntegrityViolationException e) {
+        for (Throwable causa = e.getCause(); causa != null; causa = causa.getCause()) {
+            if (causa instanceof ConstraintViolationException) {
+                return ((ConstraintViolationException) causa).getConstraintName();
+            }
+        }
+        return null;
+    }
+
+    private static boolean esRestriccionEmail(String restriccion) {
+        return restriccion != null && restriccion.toLowerCase(Locale.ROOT).contains(RESTRICCION_EMAIL);
+    }
+
+    /**
+     * Con H2, Hibernate devuelve como nombre de la restricción el mensaje entero de la violación
+     * ({@code "PUBLIC.NOMBRE ON PUBLIC.TABLA(...) ..."}); se conserva solo el nombre.
+     */
+    private static String nombreRestriccion(String restriccion) {
+        String nombre = restriccion.strip();
+        if (nombre.startsWith("\"")) {
+            nombre = nombre.substring(1);
+        }
+        int fin = nombre.indexOf(' ');
+        return fin < 0 ? nombre : nombre.substring(0, fin);
+    }
+
+    private static Cliente nuevoCliente(ClienteDTO clienteDTO) {
+        Cliente cliente = new Cliente();
+        cliente.setNombre(clienteDTO.getNombre());
+        cliente.setEmail(clienteDTO.getEmail());
+        cliente.setTelefono(clienteDTO.getTelefono());
+        return cliente;
+    }
+
+    /**
+     * Guarda el cliente y lo envía a la base de datos en ese momento, de modo que una violación
+     * de la restricción única del email se detecte aquí y no al confirmar la transacción. Las
+     * violaciones de otras restricciones se propagan sin cambios.
+     */
+    private Cliente guardar(Cliente cliente) {
+        Cliente guardado;
+        try {
+            guardado = clienteRepository.saveAndFlush(cliente);
+        } catch (DataIntegrityViolationException e) {
+            if (esRestriccionEmail(restriccionViolada(e))) {
+                throw new EmailEnUsoException(MENSAJE_EMAIL_EN_USO);
+            }
+            throw e;
+        }
+        indiceEmailClientes.registrar(guardado.getEmail());
+        return guardado;
+    }
+
+    private void registrarCambio(Long id) {
+        versionesColecciones.incrementar(VersionesColecciones.Coleccion.CLIENTES);
+        versionesColecciones.incrementarCliente(id);
     }
 
     private boolean emailExists(String email) {
-        return clienteRepository.findByEmail(email).isPresent();
+        return indiceEmailClientes.posiblementeEnUso(email) && clienteRepository.findByEmail(email).isPresent();
     }
 
     private boolean emailExists(String email, Long id) {
+        if (!indiceEmailClientes.posiblementeEnUso(email)) {
+            return false;
+        }
         Optional<Cliente> cliente = clienteRepository.findByEmail(email);
         return cliente.isPresent() && !cliente.get().getId().equals(id);
     }
@@ -1,36 +1,97 @@
 package com.springboot.microservicio.growby.service.impl;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.springboot.microservicio.growby.cache.ProductoCache;
+import com.springboot.microservicio.growby.contador.ContadorEntidades;
+import com.springboot.microservicio.growby.contador.VersionesColecciones;
 import com.springboot.microservicio.growby.dto.OrdenDTO;
+import com.springboot.microservicio.growby.dto.OrdenResumenDTO;
+import com.springboot.microservicio.growby.dto.PaginaCursorDTO;
+import com.springboot.microservicio.growby.dto.ResultadoOrdenDTO;
 import com.springboot.microservicio.growby.exception.OrdenNotFoundException;
+import com.springboot.microservicio.growby.exception.StockInsuficienteException;
 import com.springboot.microservicio.growby.model.Cliente;
 import com.springboot.microservicio.growby.model.Orden;
 import com.springboot.microservicio.growby.model.Producto;
 import com.springboot.microservicio.growby.repository.ClienteRepository;
 import com.springboot.microservicio.growby.repository.OrdenRepository;
-import com.springboot.microservicio.growby.repository.ProductoRepository;
+import com.springboot.microservicio.growby.service.AnaliticaService;
 import com.springboot.microservicio.growby.service.OrdenService;
+import com.springboot.microservicio.growby.stock.ReservasStock;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import javax.persistence.EntityManager;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Implementación del servicio {@link OrdenService} que maneja la lógica de negocio
  * relacionada con la entidad {@link Orden}.
+ * <p>
+ * Cada alta, modificación y baja de órdenes se traslada a los acumulados de ventas de
+ * {@link AnaliticaService}: las altas se suman, las bajas se restan y las modificaciones
+ * restan los datos anteriores de la orden y suman los nuevos.
+ * <p>
+ * Las unidades de cada orden de un producto con stock se reservan en {@link ReservasStock} antes
+ * de guardarla y se devuelven si no se llega a guardar, al eliminarla o al modificarla.
+ * <p>
+ * Cada consulta se hace en una transacción de solo lectura. Cada alta, modificación o baja lee el
+ * producto, el cliente y la orden y escribe la orden y sus acumulados de ventas en una única
+ * transacción, y solo cuando se confirma se encola la orden para descontar su stock y se actualizan
+ * los contadores en memoria.
  */
 @Service
 public class OrdenServiceImpl implements OrdenService {
 
+    static final int LIMITE_MAXIMO = 500;
+    static final int INTERVALO_LIMPIEZA_EXPORTACION = 500;
+    private static final Date FECHA_MINIMA = new Date(0);
+    private static final Date FECHA_MAXIMA = Date.from(Instant.parse("9999-12-31T00:00:00Z"));
+
     private final OrdenRepository ordenRepository;
     private final ClienteRepository clienteRepository;
-    private final ProductoRepository productoRepository;
+    private final ProductoCache productoCache;
+    private final ContadorEntidades contadorEntidades;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+    private final AnaliticaService analiticaService;
+    private final VersionesColecciones versionesColecciones;
+    private final ReservasStock reservasStock;
+    private final TransactionTemplate transactionTemplate;
 
-    public OrdenServiceImpl(OrdenRepository ordenRepository, ClienteRepository clienteRepository, ProductoRepository productoRepository) {
+    public OrdenServiceImpl(OrdenRepository ordenRepository, ClienteRepository clienteRepository, ProductoCache productoCache,
+                            ContadorEntidades contadorEntidades, EntityManager entityManager, ObjectMapper objectMapper,
+                            AnaliticaService analiticaService, VersionesColecciones versionesColecciones,
+                            ReservasStock reservasStock, PlatformTransactionManager transactionManager) {
         this.ordenRepository = ordenRepository;
         this.clienteRepository = clienteRepository;
-        this.productoRepository = productoRepository;
+        this.productoCache = productoCache;
+        this.contadorEntidades = contadorEntidades;
+        this.entityManager = entityManager;
+        this.objectMapper = objectMapper;
+        this.analiticaService = analiticaService;
+        this.versionesColecciones = versionesColecciones;
+        this.reservasStock = reservasStock;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
     }
 
     /**
@@ -39,6 +100,7 @@ public class OrdenServiceImpl implements OrdenService {
      * @return Una lista de órdenes.
      */
     @Override
+    @Transactional(readOnly = true)
     public List<Orden> findAll() {
         return ordenRepository.findAll();
     }
@@ -50,34 +112,189 @@ public class OrdenServiceImpl implements OrdenService {
      * @return Una lista de órdenes asociadas al cliente.
      */
     @Override
+    @Transactional(readOnly = true)
     public List<Orden> findOrdenesByClienteId(Long clienteId) {
         return ordenRepository.findByClienteId(clienteId);
     }
 
+    /**
+     * Recupera una página de órdenes mediante paginación por cursor.
+     *
+     * @param after Identificador de la última orden de la página anterior, o nulo para la primera página.
+     * @param limit Número máximo de órdenes a devolver, acotado a {@value #LIMITE_MAXIMO}.
+     * @return Una página de órdenes con el cursor de la página siguiente.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public PaginaCursorDTO<Orden> findAll(Long after, int limit) {
+        int limite = acotarLimite(limit);
+        List<Orden> filas = ordenRepository.findByIdGreaterThanOrderByIdAsc(
+                cursorInicial(after), PageRequest.of(0, limite + 1));
+        return construirPagina(filas, limite, Orden::getId);
+    }
+
+    /**
+     * Recupera una página de las órdenes de un cliente mediante paginación por cursor.
+     *
+     * @param clienteId El identificador del cliente cuyas órdenes se desean recuperar.
+     * @param after     Identificador de la última orden de la página anterior, o nulo para la primera página.
+     * @param limit     Número máximo de órdenes a devolver, acotado a {@value #LIMITE_MAXIMO}.
+     * @return Una página de órdenes del cliente con el cursor de la página siguiente.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public PaginaCursorDTO<Orden> findOrdenesByClienteId(Long clienteId, Long after, int limit) {
+        int limite = acotarLimite(limit);
+        List<Orden> filas = ordenRepository.findByClienteIdAndIdGreaterThanOrderByIdAsc(
+                clienteId, cursorInicial(after), PageRequest.of(0, limite + 1));
+        return construirPagina(filas, limite, Orden::getId);
+    }
+
+    /**
+     * Recupera una página de la vista reducida de las órdenes mediante paginación por cursor.
+     * Los resúmenes se construyen directamente desde la consulta, sin entidades gestionadas.
+     *
+     * @param after          Identificador de la última orden de la página anterior, o nulo para la primera página.
+     * @param limit          Número máximo de órdenes a devolver, acotado a {@value #LIMITE_MAXIMO}.
+     * @param incluirNombres Si se incluyen los nombres del cliente y del producto.
+     * @return Una página de resúmenes de órdenes con el cursor de la página siguiente.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public PaginaCursorDTO<OrdenResumenDTO> findResumen(Long after, int limit, boolean incluirNombres) {
+        int limite = acotarLimite(limit);
+        PageRequest pagina = PageRequest.of(0, limite + 1);
+        List<OrdenResumenDTO> filas = incluirNombres
+                ? ordenRepository.findResumenConNombresByIdGreaterThan(cursorInicial(after), pagina)
+                : ordenRepository.findResumenByIdGreaterThan(cursorInicial(after), pagina);
+        return construirPagina(filas, limite, OrdenResumenDTO::getId);
+    }
+
+    /**
+     * Recupera una página de la vista reducida de las órdenes de un cliente mediante paginación por cursor.
+     * Los resúmenes se construyen directamente desde la consulta, sin entidades gestionadas.
+     *
+     * @param clienteId      El identificador del cliente cuyas órdenes se desean recuperar.
+     * @param after          Identificador de la última orden de la página anterior, o nulo para la primera página.
+     * @param limit          Número máximo de órdenes a devolver, acotado a {@value #LIMITE_MAXIMO}.
+     * @param incluirNombres Si se incluyen los nombres del cliente y del producto.
+     * @return Una página de resúmenes de órdenes del cliente con el cursor de la página siguiente.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public PaginaCursorDTO<OrdenResumenDTO> findResumenByClienteId(Long clienteId, Long after, int limit, boolean incluirNombres) {
+        int limite = acotarLimite(limit);
+        PageRequest pagina = PageRequest.of(0, limite + 1);
+        List<OrdenResumenDTO> filas = incluirNombres
+                ? ordenRepository.findResumenConNombresByClienteIdAndIdGreaterThan(clienteId, cursorInicial(after), pagina)
+                : ordenRepository.findResumenByClienteIdAndIdGreaterThan(clienteId, cursorInicial(after), pagina);
+        return construirPagina(filas, limite, OrdenResumenDTO::getId);
+    }
+
+    /**
+     * Recupera una página de las órdenes de un cliente o de un producto en un rango de fechas.
+     * Las órdenes se recorren en el orden de los índices {@code (cliente_id, fecha_orden, id)} y
+     * {@code (producto_id, fecha_orden, id)}: la página siguiente empieza en la fecha de la orden
+     * del cursor, de modo que cada página es un rango del índice y no depende de las anteriores.
+     *
+     * @param clienteId  El identificador del cliente, o nulo para no filtrar por cliente.
+     * @param productoId El identificador del producto, o nulo para no filtrar por producto.
+     * @param desde      Inicio del rango, incluido, o nulo para no acotarlo.
+     * @param hasta      Fin del rango, excluido, o nulo para no acotarlo.
+     * @param after      Identificador de la última orden de la página anterior, o nulo para la primera página.
+     * @param limit      Número máximo de órdenes a devolver, acotado a {@value #LIMITE_MAXIMO}.
+     * @return Una página de órdenes con el cursor de la página siguiente.
+     * @throws OrdenNotFoundException si la orden del cursor no existe.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public PaginaCursorDTO<Orden> findByFechaOrden(Long clienteId, Long productoId, Date desde, Date hasta, Long after, int limit) {
+        int limite = acotarLimite(limit);
+        PageRequest pagina = PageRequest.of(0, limite + 1);
+        RangoFechas rango = rango(desde, hasta, after);
+        List<Orden> filas = clienteId != null
+                ? ordenRepository.findByClienteIdAndFechaOrden(clienteId, productoId, rango.desde, rango.hasta, rango.after, pagina)
+                : ordenRepository.findByProductoIdAndFechaOrden(productoId, rango.desde, rango.hasta, rango.after, pagina);
+        return construirPagina(filas, limite, Orden::getId);
+    }
+
+    /**
+     * Recupera una página de la vista reducida de las órdenes de un cliente o de un producto en un
+     * rango de fechas, como {@link #findByFechaOrden}.
+     *
+     * @param clienteId      El identificador del cliente, o nulo para no filtrar por cliente.
+     * @param productoId     El identificador del producto, o nulo para no filtrar por producto.
+     * @param desde          Inicio del rango, incluido, o nulo para no acotarlo.
+     * @param hasta          Fin del rango, excluido, o nulo para no acotarlo.
+     * @param after          Identificador de la última orden de la página anterior, o nulo para la primera página.
+     * @param limit          Número máximo de órdenes a devolver, acotado a {@value #LIMITE_MAXIMO}.
+     * @param incluirNombres Si se incluyen los nombres del cliente y del producto.
+     * @return Una página de resúmenes de órdenes con el cursor de la página siguiente.
+     * @throws OrdenNotFoundException si la orden del cursor no existe.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public PaginaCursorDTO<OrdenResumenDTO> findResumenByFechaOrden(Long clienteId, Long productoId, Date desde, Date hasta,
+                                                                    Long after, int limit, boolean incluirNombres) {
+        int limite = acotarLimite(limit);
+        PageRequest pagina = PageRequest.of(0, limite + 1);
+        RangoFechas rango = rango(desde, hasta, after);
+        List<OrdenResumenDTO> filas;
+        if (clienteId != null) {
+            filas = incluirNombres
+                    ? ordenRepository.findResumenConNombresByClienteIdAndFechaOrden(clienteId, productoId, rango.desde, rango.hasta, rango.after, pagina)
+                    : ordenRepository.findResumenByClienteIdAndFechaOrden(clienteId, productoId, rango.desde, rango.hasta, rango.after, pagina);
+        } else {
+            filas = incluirNombres
+                    ? ordenRepository.findResumenConNombresByProductoIdAndFechaOrden(productoId, rango.desde, rango.hasta, rango.after, pagina)
+                    : ordenRepository.findResumenByProductoIdAndFechaOrden(productoId, rango.desde, rango.hasta, rango.after, pagina);
+        }
+        return construirPagina(filas, limite, OrdenResumenDTO::getId);
+    }
+
     /**
      * Guarda una nueva orden.
      *
      * @param ordenDTO Los datos de la orden a guardar.
      * @return La orden guardada.
      * @throws OrdenNotFoundException si el cliente asociado no se encuentra.
+     * @throws StockInsuficienteException si no quedan unidades suficientes del producto.
      */
     @Override
     public Orden save(OrdenDTO ordenDTO) {
+        Orden orden = new Orden();
+        Orden guardada;
+        try {
+            guardada = transactionTemplate.execute(estado -> crear(ordenDTO, orden));
+        } catch (RuntimeException e) {
+            if (orden.getStockPendiente() != null) {
+                reservasStock.liberar(orden.getProducto().getId(), orden.getCantidad());
+            }
+            throw e;
+        }
+        if (orden.getStockPendiente() != null) {
+            reservasStock.registrarPendiente(guardada.getId());
+        }
+        contadorEntidades.incrementar(ContadorEntidades.Entidad.ORDENES, 1);
+        registrarCambio(guardada.getCliente().getId());
+        return guardada;
+    }
 
-        Optional<Producto> productoOpt = productoRepository.findById(ordenDTO.getProductoId());
+    /**
+     * Completa y guarda una orden nueva, reservando sus unidades, y la suma a los acumulados de ventas.
+     * Si se reservan, la orden queda con {@code stockPendiente} a {@code true} aunque luego falle el guardado.
+     */
+    private Orden crear(OrdenDTO ordenDTO, Orden orden) {
+        Optional<Producto> productoOpt = productoCache.findById(ordenDTO.getProductoId());
         if (!productoOpt.isPresent()) {
             throw new OrdenNotFoundException("Producto no encontrado");
         }
 
         Producto producto = productoOpt.get();
-        BigDecimal precioUnitario = producto.getPrecio();
         int cantidad = ordenDTO.getCantidad();
 
-        BigDecimal total = precioUnitario.multiply(BigDecimal.valueOf(cantidad));
-
-        Orden orden = new Orden();
         orden.setCantidad(cantidad);
-        orden.setTotal(total);
+        orden.setTotal(calcularTotal(producto, cantidad));
         orden.setFechaOrden(new Date());
 
         Optional<Cliente> clienteOpt = clienteRepository.findById(ordenDTO.getClienteId());
@@ -89,7 +306,89 @@ public class OrdenServiceImpl implements OrdenService {
 
         orden.setProducto(producto);
 
-        return ordenRepository.save(orden);
+        boolean conStock = reservasStock.reservar(producto, cantidad);
+        orden.setStockPendiente(conStock ? Boolean.TRUE : null);
+        Orden guardada = ordenRepository.save(orden);
+        analiticaService.registrarVentas(List.of(venta(guardada)));
+        return guardada;
+    }
+
+    /**
+     * Guarda un lote de órdenes. Los productos y clientes referenciados se resuelven con una
+     * única consulta {@code IN} cada uno y las órdenes válidas se insertan en lotes JDBC.
+     * Las órdenes sin stock suficiente se rechazan.
+     *
+     * @param ordenesDTO Los datos de las órdenes a guardar.
+     * @return El resultado de cada orden, en el mismo orden en que se recibieron.
+     */
+    @Override
+    public List<ResultadoOrdenDTO> saveAll(List<OrdenDTO> ordenesDTO) {
+        ResultadoOrdenDTO[] resultados = new ResultadoOrdenDTO[ordenesDTO.size()];
+        List<Integer> indicesValidos = new ArrayList<>();
+        List<Orden> nuevas = new ArrayList<>();
+        List<Orden> guardadas;
+        try {
+            guardadas = transactionTemplate.execute(estado -> crear(ordenesDTO, resultados, indicesValidos, nuevas));
+        } catch (RuntimeException e) {
+            nuevas.stream().filter(orden -> orden.getStockPendiente() != null)
+                    .forEach(orden -> reservasStock.liberar(orden.getProducto().getId(), orden.getCantidad()));
+            throw e;
+        }
+        guardadas.stream().filter(orden -> orden.getStockPendiente() != null)
+                .forEach(orden -> reservasStock.registrarPendiente(orden.getId()));
+        contadorEntidades.incrementar(ContadorEntidades.Entidad.ORDENES, guardadas.size());
+        guardadas.stream().map(orden -> orden.getCliente().getId()).distinct().forEach(this::registrarCambio);
+        for (int j = 0; j < guardadas.size(); j++) {
+            int indice = indicesValidos.get(j);
+            resultados[indice] = ResultadoOrdenDTO.creada(indice, guardadas.get(j).getId());
+        }
+        return List.of(resultados);
+    }
+
+    /**
+     * Valida un lote de órdenes, reserva sus unidades y guarda las válidas, que se suman a los acumulados
+     * de ventas. Las rechazadas se anotan en {@code resultados} y las válidas se añaden a {@code nuevas}
+     * antes de guardarlas, junto con su posición en {@code indicesValidos}.
+     */
+    private List<Orden> crear(List<OrdenDTO> ordenesDTO, ResultadoOrdenDTO[] resultados,
+                              List<Integer> indicesValidos, List<Orden> nuevas) {
+        Map<Long, Producto> productos = productoCache.findAllById(idsReferenciados(ordenesDTO, OrdenDTO::getProductoId));
+        Map<Long, Cliente> clientes = clienteRepository.findAllById(idsReferenciados(ordenesDTO, OrdenDTO::getClienteId))
+                .stream().collect(Collectors.toMap(Cliente::getId, Function.identity()));
+
+        Date fechaOrden = new Date();
+        for (int i = 0; i < ordenesDTO.size(); i++) {
+            OrdenDTO ordenDTO = ordenesDTO.get(i);
+            Producto producto = productos.get(ordenDTO.getProductoId());
+            Cliente cliente = clientes.get(ordenDTO.getClienteId());
+            if (ordenDTO.getCantidad() < 1) {
+                resultados[i] = ResultadoOrdenDTO.rechazada(i, "La cantidad debe ser al menos 1");
+            } else if (producto == null) {
+                resultados[i] = ResultadoOrdenDTO.rechazada(i, "Producto no encontrado");
+            } else if (cliente == null) {
+                resultados[i] = ResultadoOrdenDTO.rechazada(i, "Cliente no encontrado");
+            } else {
+                boolean conStock;
+                try {
+                    conStock = reservasStock.reservar(producto, ordenDTO.getCantidad());
+                } catch (StockInsuficienteException e) {
+                    resultados[i] = ResultadoOrdenDTO.rechazada(i, e.getMessage());
+                    continue;
+                }
+                Orden orden = new Orden();
+                orden.setCantidad(ordenDTO.getCantidad());
+                orden.setTotal(calcularTotal(producto, ordenDTO.getCantidad()));
+                orden.setFechaOrden(fechaOrden);
+                orden.setCliente(cliente);
+                orden.setProducto(producto);
+                orden.setStockPendiente(conStock ? Boolean.TRUE : null);
+                nuevas.add(orden);
+                indicesValidos.add(i);
+            }
+        }
+        List<Orden> guardadas = ordenRepository.saveAll(nuevas);
+        analiticaService.registrarVentas(guardadas.stream().map(OrdenServiceImpl::venta).collect(Collectors.toList()));
+        return guardadas;
     }
 
     /**
@@ -99,39 +398,71 @@ public class OrdenServiceImpl implements OrdenService {
      * @param ordenDTO Los nuevos datos de la orden.
      * @return La orden actualizada.
      * @throws OrdenNotFoundException si la orden no se encuentra.
+     * @throws StockInsuficienteException si no quedan unidades suficientes del nuevo producto.
      */
     @Override
     public Orden update(Long id, OrdenDTO ordenDTO) {
-        Optional<Orden> optionalOrden = ordenRepository.findById(id);
-        if (optionalOrden.isPresent()) {
-            Orden orden = optionalOrden.get();
-
-            orden.setCantidad(ordenDTO.getCantidad());
-
-            Optional<Producto> productoOpt = productoRepository.findById(ordenDTO.getProductoId());
-            if (productoOpt.isEmpty()) {
-                throw new OrdenNotFoundException("Producto no encontrado");
+        Modificacion modificacion = new Modificacion();
+        Orden actualizada;
+        try {
+            actualizada = transactionTemplate.execute(estado -> modificar(id, ordenDTO, modificacion));
+        } catch (RuntimeException e) {
+            if (modificacion.conStock) {
+                reservasStock.liberar(ordenDTO.getProductoId(), ordenDTO.getCantidad() - modificacion.credito);
             }
-            Producto producto = productoOpt.get();
-            orden.setProducto(producto);
-
-            BigDecimal precioUnitario = producto.getPrecio();
-            BigDecimal nuevoTotal = precioUnitario.multiply(BigDecimal.valueOf(ordenDTO.getCantidad()));
-            orden.setTotal(nuevoTotal);
+            throw e;
+        }
+        OrdenResumenDTO anterior = modificacion.anterior;
+        Boolean stockAnterior = modificacion.stockAnterior;
+        reservasStock.devolver(anterior.getProductoId(), anterior.getCantidad(), stockAnterior,
+                modificacion.mismoProducto ? 0 : anterior.getCantidad());
+        if (modificacion.conStock && !Boolean.TRUE.equals(stockAnterior)) {
+            reservasStock.registrarPendiente(actualizada.getId());
+        }
+        registrarCambio(anterior.getClienteId());
+        registrarCambio(actualizada.getCliente().getId());
+        return actualizada;
+    }
 
-            orden.setFechaOrden(ordenDTO.getFechaOrden() != null ? ordenDTO.getFechaOrden() : new Date());
+    /**
+     * Aplica los nuevos datos a una orden y la guarda, reservando sus unidades, y traslada el cambio a
+     * los acumulados de ventas. Anota en {@code modificacion} los datos anteriores de la orden y la
+     * reserva hecha.
+     */
+    private Orden modificar(Long id, OrdenDTO ordenDTO, Modificacion modificacion) {
+        Orden orden = ordenRepository.findById(id)
+                .orElseThrow(() -> new OrdenNotFoundException("Orden no encontrada"));
+        OrdenResumenDTO anterior = venta(orden);
+        Boolean stockAnterior = orden.getStockPendiente();
+        modificacion.anterior = anterior;
+        modificacion.stockAnterior = stockAnterior;
 
-            Optional<Cliente> clienteOpt = clienteRepository.findById(ordenDTO.getClienteId());
-            if (clienteOpt.isPresent()) {
-                orden.setCliente(clienteOpt.get());
-            } else {
-                throw new OrdenNotFoundException("Cliente no encontrado");
-            }
+        Optional<Producto> productoOpt = productoCache.findById(ordenDTO.getProductoId());
+        if (productoOpt.isEmpty()) {
+            throw new OrdenNotFoundException("Producto no encontrado");
+        }
+        Producto producto = productoOpt.get();
 
-            return ordenRepository.save(orden);
-        } else {
-            throw new OrdenNotFoundException("Orden no encontrada");
+        Optional<Cliente> clienteOpt = clienteRepository.findById(ordenDTO.getClienteId());
+        if (clienteOpt.isEmpty()) {
+            throw new OrdenNotFoundException("Cliente no encontrado");
         }
+
+        // Si la orden no cambia de producto, sus unidades reservadas cuentan como disponibles.
+        modificacion.mismoProducto = stockAnterior != null && producto.getId().equals(anterior.getProductoId());
+        modificacion.credito = modificacion.mismoProducto ? anterior.getCantidad() : 0;
+        modificacion.conStock = reservasStock.reservar(producto, ordenDTO.getCantidad(), modificacion.credito);
+
+        orden.setCantidad(ordenDTO.getCantidad());
+        orden.setProducto(producto);
+        orden.setTotal(calcularTotal(producto, ordenDTO.getCantidad()));
+        orden.setFechaOrden(ordenDTO.getFechaOrden() != null ? ordenDTO.getFechaOrden() : new Date());
+        orden.setCliente(clienteOpt.get());
+        orden.setStockPendiente(modificacion.conStock ? Boolean.TRUE : null);
+        Orden actualizada = ordenRepository.save(orden);
+        analiticaService.anularVentas(List.of(anterior));
+        analiticaService.registrarVentas(List.of(venta(actualizada)));
+        return actualizada;
     }
 
 
@@ -139,10 +470,21 @@ public class OrdenServiceImpl implements OrdenService {
      * Elimina una orden por su identificador.
      *
      * @param id El identificador de la orden a eliminar.
+     * @throws OrdenNotFoundException si la orden no se encuentra.
      */
     @Override
     public void delete(Long id) {
-        ordenRepository.deleteById(id);
+        Orden orden = transactionTemplate.execute(estado -> {
+            Orden eliminada = ordenRepository.findById(id)
+                    .orElseThrow(() -> new OrdenNotFoundException("Orden no encontrada"));
+            ordenRepository.delete(eliminada);
+            analiticaService.anularVentas(List.of(venta(eliminada)));
+            return eliminada;
+        });
+        reservasStock.devolver(orden.getProducto().getId(), orden.getCantidad(), orden.getStockPendiente(),
+                orden.getCantidad());
+        contadorEntidades.decrementar(ContadorEntidades.Entidad.ORDENES);
+        registrarCambio(orden.getCliente().getId());
     }
 
     /**
@@ -151,16 +493,126 @@ public class OrdenServiceImpl implements OrdenService {
      * @param id El identificador de la orden a buscar.
      */
     @Override
+    @Transactional(readOnly = true)
     public Optional<Orden> findById(Long id) {
         return ordenRepository.findById(id);
     }
 
     /**
-     * Contador de todos las Ordenes.
+     * Contador de todos las Ordenes, servido desde el contador en memoria.
      *
      */
     @Override
     public long countAllOrdenes() {
-        return ordenRepository.count();
+        return contadorEntidades.valor(ContadorEntidades.Entidad.ORDENES);
+    }
+
+    /**
+     * Exporta todas las órdenes en formato NDJSON leyendo de un cursor de base de datos.
+     * Cada {@value #INTERVALO_LIMPIEZA_EXPORTACION} órdenes se vacía la salida y se limpia el
+     * contexto de persistencia, de modo que la memoria usada no depende del número de filas.
+     *
+     * @param salida Flujo de salida donde se escribe una orden por línea.
+     * @throws IOException si ocurre un error al escribir en el flujo de salida.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public void exportarNdjson(OutputStream salida) throws IOException {
+        JsonGenerator generador = objectMapper.getFactory().createGenerator(salida);
+        generador.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        generador.setRootValueSeparator(null);
+        // Sin vaciar la salida tras cada orden: solo se vacía cada bloque.
+        ObjectWriter escritor = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        try (Stream<Orden> ordenes = ordenRepository.streamAll()) {
+            int escritas = 0;
+            for (Orden orden : (Iterable<Orden>) ordenes::iterator) {
+                escritor.writeValue(generador, orden);
+                generador.writeRaw('\n');
+                if (++escritas % INTERVALO_LIMPIEZA_EXPORTACION == 0) {
+                    generador.flush();
+                    entityManager.clear();
+                }
+            }
+        }
+        generador.flush();
+    }
+
+    private void registrarCambio(Long clienteId) {
+        versionesColecciones.incrementar(VersionesColecciones.Coleccion.ORDENES);
+        versionesColecciones.incrementarCliente(clienteId);
+    }
+
+    private static BigDecimal calcularTotal(Producto producto, int cantidad) {
+        return producto.getPrecio().multiply(BigDecimal.valueOf(cantidad));
+    }
+
+    private static OrdenResumenDTO venta(Orden orden) {
+        return new OrdenResumenDTO(orden.getId(), orden.getCantidad(), orden.getTotal(), orden.getFechaOrden(),
+                orden.getCliente().getId(), orden.getProducto().getId());
+    }
+
+    private static Set<Long> idsReferenciados(List<OrdenDTO> ordenesDTO, Function<OrdenDTO, Long> id) {
+        return ordenesDTO.stream().map(id).filter(Objects::nonNull).collect(Collectors.toSet());
+    }
+
+    private static int acotarLimite(int limit) {
+        return Math.max(1, Math.min(limit, LIMITE_MAXIMO));
+    }
+
+    private static Long cursorInicial(Long after) {
+        return after != null ? after : 0L;
+    }
+
+    /**
+     * Rango de fechas de una consulta por fechas a partir del cursor. Si hay cursor, el rango empieza
+     * en la fecha de su orden y solo incluye, de esa fecha, las órdenes con identificador mayor.
+     */
+    private RangoFechas rango(Date desde, Date hasta, Long after) {
+        Date inicio = desde != null ? desde : FECHA_MINIMA;
+        Date fin = hasta != null ? hasta : FECHA_MAXIMA;
+        if (after == null) {
+            return new RangoFechas(inicio, fin, 0L);
+        }
+        Date fechaCursor = ordenRepository.findFechaOrdenById(after)
+                .orElseThrow(() -> new OrdenNotFoundException("Orden no encontrada"));
+        if (fechaCursor.before(inicio)) {
+            return new RangoFechas(inicio, fin, 0L);
+        }
+        return new RangoFechas(fechaCursor, fin, after);
+    }
+
+    /**
+     * Lo que la modificación de una orden necesita conocer después de confirmarla o de fallar.
+     */
+    private static final class Modificacion {
+        private OrdenResumenDTO anterior;
+        private Boolean stockAnterior;
+        private boolean mismoProducto;
+        private int credito;
+        private boolean conStock;
+    }
+
+    private static final class RangoFechas {
+        private final Date desde;
+        private final Date hasta;
+        private final Long after;
+
+        private RangoFechas(Date desde, Date hasta, Long after) {
+            this.desde = desde;
+            this.hasta = hasta;
+            this.after = after;
+        }
+    }
+
+    /**
+     * Construye la página a partir de las filas leídas. Se consulta una fila más que el límite
+     * para saber si existe una página siguiente sin necesidad de un COUNT.
+     */
+    private static <T> PaginaCursorDTO<T> construirPagina(List<T> filas, int limite, Function<T, Long> id) {
+        if (filas.size() <= limite) {
+            return new PaginaCursorDTO<>(filas, null);
+        }
+        List<T> contenido = new ArrayList<>(filas.subList(0, limite));
+        return new PaginaCursorDTO<>(contenido, id.apply(contenido.get(limite - 1)));
     }
 }
@@ -1,13 +1,35 @@
 package com.springboot.microservicio.growby.service.impl;
 
+import com.springboot.microservicio.growby.cache.IndiceBusquedaProductos;
+import com.springboot.microservicio.growby.cache.ProductoCache;
+import com.springboot.microservicio.growby.contador.ContadorEntidades;
+import com.springboot.microservicio.growby.contador.VersionesColecciones;
+import com.springboot.microservicio.growby.dto.EstadisticasCacheDTO;
+import com.springboot.microservicio.growby.dto.PaginaDTO;
+import com.springboot.microservicio.growby.dto.ProductoBusquedaDTO;
 import com.springboot.microservicio.growby.dto.ProductoDTO;
+import com.springboot.microservicio.growby.dto.ResultadoImportacionDTO;
 import com.springboot.microservicio.growby.exception.ProductoNotFoundException;
+import com.springboot.microservicio.growby.importacion.FilaImportacion;
+import com.springboot.microservicio.growby.importacion.ImportadorCsv;
 import com.springboot.microservicio.growby.model.Producto;
+import com.springboot.microservicio.growby.repository.EspecificacionesProducto;
 import com.springboot.microservicio.growby.repository.ProductoRepository;
 import com.springboot.microservicio.growby.service.ProductoService;
-import org.springframework.beans.factory.annotation.Autowired;
+import com.springboot.microservicio.growby.stock.ReservasStock;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
 import java.util.Optional;
@@ -15,14 +37,39 @@ import java.util.Optional;
 /**
  * Implementación del servicio {@link ProductoService} que maneja la lógica de negocio
  * relacionada con la entidad {@link Producto}.
+ * <p>
+ * Cada consulta a la base de datos se hace en una transacción de solo lectura y cada alta,
+ * modificación o baja en una única transacción. La caché, el índice de búsqueda y los contadores
+ * en memoria se actualizan después de confirmarla. Las consultas que se sirven desde la caché no
+ * abren transacción, porque empezarla ya ocupa una conexión aunque no se llegue a consultar.
  */
 @Service
 public class ProductoServiceImpl implements ProductoService {
 
+    static final int LIMITE_BUSQUEDA_MAXIMO = 100;
+    static final int TAMANO_PAGINA_MAXIMO = 100;
+
     private final ProductoRepository productoRepository;
+    private final ProductoCache productoCache;
+    private final ContadorEntidades contadorEntidades;
+    private final ImportadorCsv importadorCsv;
+    private final VersionesColecciones versionesColecciones;
+    private final ReservasStock reservasStock;
+    private final IndiceBusquedaProductos indiceBusqueda;
+    private final TransactionTemplate transactionTemplate;
 
-    public ProductoServiceImpl(ProductoRepository productoRepository) {
+    public ProductoServiceImpl(ProductoRepository productoRepository, ProductoCache productoCache,
+                               ContadorEntidades contadorEntidades, ImportadorCsv importadorCsv,
+                               VersionesColecciones versionesColecciones, ReservasStock reservasStock,
+                               IndiceBusquedaProductos indiceBusqueda, PlatformTransactionManager transactionManager) {
         this.productoRepository = productoRepository;
+        this.productoCache = productoCache;
+        this.contadorEntidades = contadorEntidades;
+        this.importadorCsv = importadorCsv;
+        this.versionesColecciones = versionesColecciones;
+        this.reservasStock = reservasStock;
+        this.indiceBusqueda = indiceBusqueda;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
     }
 
     /**
@@ -31,19 +78,56 @@ public class ProductoServiceImpl implements ProductoService {
      * @return Una lista de productos.
      */
     @Override
+    @Transactional(readOnly = true)
     public List<Producto> findAll() {
         return productoRepository.findAll();
     }
 
     /**
-     * Recupera un producto por su identificador.
+     * Recupera una página del catálogo de productos filtrado, con una consulta para la página y otra
+     * para el total. Con el estado fijado, la consulta ordena primero por estado, lo que no cambia el
+     * resultado pero permite recorrer ya ordenados los índices {@code (estado, precio, id)} y
+     * {@code (estado, fecha_creacion, id)}.
+     *
+     * @param estado    El estado de los productos.
+     * @param precioMin El precio mínimo, incluido.
+     * @param precioMax El precio máximo, incluido.
+     * @param desde     El inicio del rango de fechas de creación, incluido.
+     * @param hasta     El fin del rango de fechas de creación, excluido.
+     * @param orden     El orden de los productos; a igualdad, se ordenan por identificador.
+     * @param page      El número de página, empezando por 0.
+     * @param size      El número de productos por página, acotado a {@value #TAMANO_PAGINA_MAXIMO}.
+     * @return La página de productos con el total de productos que cumplen los criterios.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public PaginaDTO<Producto> findAll(Producto.Estado estado, BigDecimal precioMin, BigDecimal precioMax,
+                                       Date desde, Date hasta, Sort orden, int page, int size) {
+        Specification<Producto> filtro = Specification.where(EspecificacionesProducto.conEstado(estado))
+                .and(EspecificacionesProducto.precioDesde(precioMin))
+                .and(EspecificacionesProducto.precioHasta(precioMax))
+                .and(EspecificacionesProducto.creadoDesde(desde))
+                .and(EspecificacionesProducto.creadoAntesDe(hasta));
+        Sort.Direction direccion = orden.stream().findFirst().map(Sort.Order::getDirection).orElse(Sort.Direction.ASC);
+        Sort criterio = (estado != null ? Sort.by("estado") : Sort.unsorted()).and(orden);
+        if (orden.getOrderFor("id") == null) {
+            criterio = criterio.and(Sort.by(direccion, "id"));
+        }
+        Page<Producto> productos = productoRepository.findAll(filtro,
+                PageRequest.of(Math.max(page, 0), Math.max(1, Math.min(size, TAMANO_PAGINA_MAXIMO)), criterio));
+        return new PaginaDTO<>(productos.getContent(), productos.getNumber(), productos.getSize(),
+                productos.getTotalElements(), productos.getTotalPages());
+    }
+
+    /**
+     * Recupera un producto por su identificador a través de la caché de productos.
      *
      * @param id El identificador del producto.
      * @return Un {@link Optional} que contiene el producto encontrado, o vacío si no se encuentra.
      */
     @Override
     public Optional<Producto> getProductoById(Long id) {
-        return productoRepository.findById(id);
+        return productoCache.findById(id);
     }
 
     /**
@@ -54,17 +138,19 @@ public class ProductoServiceImpl implements ProductoService {
      */
     @Override
     public Producto save(ProductoDTO productoDTO) {
-        Producto producto = new Producto();
-        producto.setNombre(productoDTO.getNombre());
-        producto.setDescripcion(productoDTO.getDescripcion());
-        producto.setPrecio(productoDTO.getPrecio());
-        producto.setFechaCreacion(new Date());
-        producto.setEstado(Producto.Estado.fromString(productoDTO.getEstado()));
-        return productoRepository.save(producto);
+        Producto guardado = transactionTemplate.execute(estado ->
+                productoRepository.save(nuevoProducto(productoDTO, new Date())));
+        productoCache.actualizar(guardado);
+        indiceBusqueda.indexar(guardado);
+        contadorEntidades.incrementar(ContadorEntidades.Entidad.PRODUCTOS, 1);
+        versionesColecciones.incrementar(VersionesColecciones.Coleccion.PRODUCTOS);
+        return guardado;
     }
 
     /**
-     * Actualiza un producto existente.
+     * Actualiza un producto existente. Si se indica el stock, pasa a ser el número de unidades
+     * disponibles del producto. El stock se fija después de confirmar el resto de cambios, porque
+     * las unidades disponibles en memoria no se deshacen si la transacción falla.
      *
      * @param id           El identificador del producto a actualizar.
      * @param productoDTO  Los nuevos datos del producto.
@@ -73,17 +159,23 @@ public class ProductoServiceImpl implements ProductoService {
      */
     @Override
     public Producto update(Long id, ProductoDTO productoDTO) {
-        Optional<Producto> optionalProducto = productoRepository.findById(id);
-        if (optionalProducto.isPresent()) {
-            Producto producto = optionalProducto.get();
+        Producto guardado = transactionTemplate.execute(estado -> {
+            Producto producto = productoRepository.findById(id)
+                    .orElseThrow(() -> new ProductoNotFoundException("Producto no encontrado"));
             producto.setNombre(productoDTO.getNombre());
             producto.setDescripcion(productoDTO.getDescripcion());
             producto.setPrecio(productoDTO.getPrecio());
             producto.setEstado(Producto.Estado.valueOf(productoDTO.getEstado()));
             return productoRepository.save(producto);
-        } else {
-            throw new ProductoNotFoundException("Producto no encontrado");
+        });
+        if (productoDTO.getStock() != null) {
+            reservasStock.fijar(id, productoDTO.getStock());
+            guardado.setStock(productoDTO.getStock());
         }
+        productoCache.actualizar(guardado);
+        indiceBusqueda.indexar(guardado);
+        versionesColecciones.incrementar(VersionesColecciones.Coleccion.PRODUCTOS);
+        return guardado;
     }
 
     /**
@@ -93,15 +185,108 @@ public class ProductoServiceImpl implements ProductoService {
      */
     @Override
     public void delete(Long id) {
-        productoRepository.deleteById(id);
+        transactionTemplate.executeWithoutResult(estado -> productoRepository.deleteById(id));
+        productoCache.invalidar(id);
+        indiceBusqueda.eliminar(id);
+        reservasStock.olvidar(id);
+        contadorEntidades.decrementar(ContadorEntidades.Entidad.PRODUCTOS);
+        versionesColecciones.incrementar(VersionesColecciones.Coleccion.PRODUCTOS);
     }
 
     /**
-     * Contador de todos los productos.
+     * Contador de todos los productos, servido desde el contador en memoria.
      *
      */
     @Override
     public long countAllProducts() {
-        return productoRepository.count();
+        return contadorEntidades.valor(ContadorEntidades.Entidad.PRODUCTOS);
+    }
+
+    /**
+     * Busca productos por el texto de su nombre y descripción en el índice de búsqueda en memoria.
+     *
+     * @param consulta El texto buscado; cada palabra se trata como prefijo.
+     * @param estado   El estado de los productos a devolver, o {@code null} para cualquiera.
+     * @param limit    Número máximo de productos a devolver, acotado a {@value #LIMITE_BUSQUEDA_MAXIMO}.
+     * @return Los productos encontrados, de mayor a menor puntuación.
+     */
+    @Override
+    public List<ProductoBusquedaDTO> buscar(String consulta, Producto.Estado estado, int limit) {
+        return indiceBusqueda.buscar(consulta, estado, Math.max(1, Math.min(limit, LIMITE_BUSQUEDA_MAXIMO)));
+    }
+
+    /**
+     * Importa productos desde un archivo CSV con las columnas nombre, descripcion, precio, estado
+     * y, opcionalmente, stock.
+     * Los productos importados no se añaden a la caché; se cargan en ella cuando se consultan.
+     * Sí se añaden al índice de búsqueda.
+     *
+     * @param csv El contenido del archivo, codificado en UTF-8.
+     * @return El resumen de la importación con los errores por fila.
+     * @throws IOException Si falla la lectura o el archivo no es un CSV válido.
+     */
+    @Override
+    public ResultadoImportacionDTO importarCsv(InputStream csv) throws IOException {
+        return importadorCsv.importar(csv,
+                fila -> new ProductoDTO(fila.valor("nombre"), fila.valor("descripcion"),
+                        fila.decimal("precio"), fila.valor("estado"), fila.entero("stock")),
+                this::guardarBloque);
+    }
+
+    /**
+     * Guarda un bloque de productos importados con un solo {@code saveAll} agrupado en lotes JDBC,
+     * en una transacción por bloque.
+     */
+    private void guardarBloque(List<FilaImportacion<ProductoDTO>> bloque, ResultadoImportacionDTO resultado) {
+        Date fechaCreacion = new Date();
+        List<Producto> productos = new ArrayList<>(bloque.size());
+        for (FilaImportacion<ProductoDTO> fila : bloque) {
+            try {
+                productos.add(nuevoProducto(fila.getDatos(), fechaCreacion));
+            } catch (IllegalArgumentException e) {
+                resultado.rechazar(fila.getLinea(), "estado: " + e.getMessage());
+            }
+        }
+        if (productos.isEmpty()) {
+            return;
+        }
+        productoRepository.saveAll(productos);
+        productos.forEach(indiceBusqueda::indexar);
+        contadorEntidades.incrementar(ContadorEntidades.Entidad.PRODUCTOS, productos.size());
+        versionesColecciones.incrementar(VersionesColecciones.Coleccion.PRODUCTOS);
+        resultado.importadas(productos.size());
+    }
+
+    private static Producto nuevoProducto(ProductoDTO productoDTO, Date fechaCreacion) {
+        Producto producto = new Producto();
+        producto.setNombre(productoDTO.getNombre());
+        producto.setDescripcion(productoDTO.getDescripcion());
+        producto.setPrecio(productoDTO.getPrecio());
+        producto.setFechaCreacion(fechaCreacion);
+        producto.setEstado(Producto.Estado.fromString(productoDTO.getEstado()));
+        producto.setStock(productoDTO.getStock());
+        return producto;
+    }
+
+    /**
+     * Recupera las estadísticas de la caché de productos.
+     *
+     * @return Las estadísticas de aciertos, fallos y desalojos de la caché.
+     */
+    @Override
+    public EstadisticasCacheDTO getEstadisticasCache() {
+        return productoCache.estadisticas();
+    }
+
+    /**
+     * Recupera las unidades disponibles de un producto, descontadas las reservadas por órdenes
+     * que todavía no se han descontado de la base de datos.
+     *
+     * @param id El identificador del producto.
+     * @return Las unidades disponibles, o vacío si el producto no existe o no controla existencias.
+     */
+    @Override
+    public Optional<Long> getStockDisponible(Long id) {
+        return productoCache.findById(id).flatMap(reservasStock::disponibles);
     }
 }
@@ -0,0 +1,299 @@
+package com.springboot.microservicio.growby.stock;
+
+import com.springboot.microservicio.growby.exception.StockInsuficienteException;
+import com.springboot.microservicio.growby.model.Orden;
+import com.springboot.microservicio.growby.model.Producto;
+import com.springboot.microservicio.growby.repository.OrdenRepository;
+import com.springboot.microservicio.growby.repository.ProductoRepository;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Reservas de stock de las órdenes, sin bloquear la fila del producto en cada orden.
+ * <p>
+ * Las unidades disponibles de cada producto que controla existencias se guardan en memoria en un
+ * {@link AtomicLong} y cada orden las reserva con una operación compare-and-set: las órdenes de un
+ * mismo producto no esperan a ningún bloqueo y una reserva solo falla si no quedan unidades. Las
+ * disponibles se cargan de la base de datos la primera vez que se pide el producto.
+ * <p>
+ * La orden se guarda con {@link Orden#getStockPendiente() stockPendiente} a {@code true}, en la misma
+ * sentencia que la crea, y su identificador se deja en una cola. Cada {@code intervalo-volcado-ms}
+ * las órdenes de la cola se descuentan del stock en lotes de {@code tamano-lote}: en una transacción
+ * se bloquean las órdenes, se marcan como descontadas y se resta del stock la suma de cada producto,
+ * con una sola sentencia por producto y lote. Las órdenes sirven así de registro de lo pendiente:
+ * las unidades disponibles son siempre el stock menos las unidades de las órdenes pendientes, y al
+ * arrancar se descuentan las que quedaron pendientes si el proceso terminó sin volcarlas.
+ * <p>
+ * Las reservas se mantienen en la memoria de cada instancia: con varias instancias atendiendo
+ * órdenes del mismo producto cada una vería sus propias unidades disponibles.
+ */
+@Component
+public class ReservasStock implements MeterBinder {
+
+    private static final Logger log = LoggerFactory.getLogger(ReservasStock.class);
+
+    private final ProductoRepository productoRepository;
+    private final OrdenRepository ordenRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int tamanoLote;
+    private final Map<Long, AtomicLong> disponibles = new ConcurrentHashMap<>();
+    private final ConcurrentLinkedQueue<Long> pendientes = new ConcurrentLinkedQueue<>();
+    private final LongAdder rechazadas = new LongAdder();
+
+    public ReservasStock(ProductoRepository productoRepository, OrdenRepository ordenRepository,
+                         PlatformTransactionManager transactionManager,
+                         @Value("${growby.stock.tamano-lote:500}") int tamanoLote) {
+        this.productoRepository = productoRepository;
+        this.ordenRepository = ordenRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.tamanoLote = tamanoLote;
+    }
+
+    /**
+     * Reserva unidades de un producto para una orden.
+     *
+     * @param producto El producto de la orden.
+     * @param cantidad Las unidades de la orden.
+     * @return {@code true} si el producto controla existencias y las unidades se han reservado, o
+     *         {@code false} si el producto no controla existencias.
+     * @throws StockInsuficienteException si no quedan unidades suficientes.
+     */
+    public boolean reservar(Producto producto, int cantidad) {
+        return reservar(producto, cantidad, 0);
+    }
+
+    /**
+     * Reserva unidades de un producto para una orden que se modifica, contando como disponibles
+     * las unidades que la orden ya tenía reservadas del mismo producto. Las disponibles cambian
+     * en {@code cantidad - credito} unidades.
+     *
+     * @param producto El producto de la orden.
+     * @param cantidad Las unidades de la orden.
+     * @param credito  Las unidades que la orden ya tenía reservadas de este producto.
+     * @return {@code true} si el producto controla existencias, o {@code false} si no las controla.
+     * @throws StockInsuficienteException si no quedan unidades suficientes.
+     */
+    public boolean reservar(Producto producto, int cantidad, int credito) {
+        Optional<AtomicLong> unidadesProducto = unidades(producto);
+        if (unidadesProducto.isEmpty()) {
+            return false;
+        }
+        AtomicLong unidades = unidadesProducto.get();
+        long actual;
+        do {
+            actual = unidades.get();
+            if (actual + credito < cantidad) {
+                rechazadas.increment();
+                throw new StockInsuficienteException("Stock insuficiente");
+            }
+        } while (!unidades.compareAndSet(actual, actual + credito - cantidad));
+        return true;
+    }
+
+    /**
+     * Devuelve a las disponibles en memoria unidades reservadas que no llegaron a usarse, por
+     * ejemplo porque la orden no se pudo guardar. No modifica la base de datos.
+     *
+     * @param productoId El identificador del producto.
+     * @param cantidad   Las unidades a devolver; si son negativas se retiran.
+     */
+    public void liberar(Long productoId, long cantidad) {
+        AtomicLong unidades = disponibles.get(productoId);
+        if (unidades != null) {
+            unidades.addAndGet(cantidad);
+        }
+    }
+
+    /**
+     * Devuelve al stock las unidades de una orden después de eliminarla o de cambiar su producto o
+     * cantidad. Si la orden ya se había descontado, sus unidades se suman al stock en la base de datos;
+     * si estaba pendiente, basta con devolverlas en memoria, porque la orden ya no se descontará o se
+     * descontará con sus nuevos datos. Como se llama después de guardar la orden, si el proceso
+     * termina entre ambas escrituras el stock queda por debajo del real, nunca por encima.
+     *
+     * @param productoId     El identificador del producto de la orden antes del cambio.
+     * @param cantidad       Las unidades de la orden antes del cambio.
+     * @param stockPendiente El estado del stock de la orden antes del cambio.
+     * @param liberadas      Las unidades a devolver en memoria.
+     */
+    public void devolver(Long productoId, int cantidad, Boolean stockPendiente, long liberadas) {
+        if (stockPendiente == null) {
+            return;
+        }
+        if (!stockPendiente) {
+            productoRepository.ajustarStock(productoId, cantidad);
+        }
+        liberar(productoId, liberadas);
+    }
+
+    /**
+     * Deja una orden guardada con {@code stockPendiente} a {@code true} en la cola de órdenes
+     * pendientes de descontar.
+     *
+     * @param ordenId El identificador de la orden.
+     */
+    public void registrarPendiente(Long ordenId) {
+        pendientes.add(ordenId);
+    }
+
+    /**
+     * Sustituye las unidades disponibles de un producto.
+     * <p>
+     * Las disponibles en memoria se cambian de forma atómica y el stock de la base de datos se corrige
+     * con la misma diferencia. Así se conservan las reservas hechas mientras tanto, que se descontarán
+     * de la base de datos al volcar sus órdenes. Si el producto no controlaba existencias no tiene
+     * órdenes pendientes, y su stock se fija directamente.
+     *
+     * @param productoId El identificador del producto.
+     * @param stock      Las unidades disponibles.
+     */
+    public void fijar(Long productoId, int stock) {
+        AtomicLong unidades = disponibles.computeIfAbsent(productoId,
+                id -> productoRepository.findStockDisponible(id).map(AtomicLong::new).orElse(null));
+        if (unidades == null) {
+            productoRepository.fijarStock(productoId, stock);
+            disponibles.computeIfAbsent(productoId, id -> new AtomicLong(stock));
+            return;
+        }
+        long diferencia = stock - unidades.getAndSet(stock);
+        try {
+            productoRepository.corregirStock(productoId, diferencia);
+        } catch (RuntimeException e) {
+            unidades.addAndGet(-diferencia);
+            throw e;
+        }
+    }
+
+    /**
+     * Olvida las unidades disponibles de un producto eliminado.
+     *
+     * @param productoId El identificador del producto.
+     */
+    public void olvidar(Long productoId) {
+        disponibles.remove(productoId);
+    }
+
+    /**
+     * Unidades disponibles de un producto.
+     *
+     * @param producto El producto.
+     * @return Las unidades disponibles, o vacío si el producto no controla existencias.
+     */
+    public Optional<Long> disponibles(Producto producto) {
+        return unidades(producto).map(AtomicLong::get);
+    }
+
+    /**
+     * Número de órdenes pendientes de descontar del stock en la base de datos.
+     *
+     * @return El tamaño de la cola de órdenes pendientes.
+     */
+    public int pendientes() {
+        return pendientes.size();
+    }
+
+    /**
+     * Descuenta del stock de la base de datos las órdenes de la cola, en lotes. Si un lote falla,
+     * sus órdenes vuelven a la cola y se reintentan en el siguiente volcado.
+     */
+    @Scheduled(initialDelayString = "${growby.stock.intervalo-volcado-ms:200}",
+            fixedDelayString = "${growby.stock.intervalo-volcado-ms:200}")
+    public synchronized void volcar() {
+        List<Long> lote;
+        while (!(lote = siguienteLote()).isEmpty()) {
+            List<Long> ordenIds = lote;
+            try {
+                transactionTemplate.executeWithoutResult(estado -> descontar(ordenIds));
+            } catch (RuntimeException e) {
+                log.error("No se pudo descontar del stock un lote de {} órdenes; se reintentará", ordenIds.size(), e);
+                pendientes.addAll(ordenIds);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Descuenta al arrancar las órdenes que quedaron pendientes, por ejemplo si el proceso terminó
+     * sin volcarlas. Mientras tanto las reservas ya son correctas, porque las unidades disponibles
+     * se cargan restando del stock las órdenes pendientes.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void recuperar() {
+        List<Long> ordenIds = ordenRepository.findIdsConStockPendiente();
+        if (!ordenIds.isEmpty()) {
+            log.info("Descontando del stock {} órdenes que quedaron pendientes", ordenIds.size());
+            pendientes.addAll(ordenIds);
+            volcar();
+        }
+    }
+
+    /**
+     * Vuelca las órdenes pendientes antes de detener la aplicación.
+     */
+    @PreDestroy
+    public void detener() {
+        volcar();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("growby.stock.ordenes.pendientes", pendientes, ConcurrentLinkedQueue::size)
+                .description("Órdenes pendientes de descontar del stock en la base de datos")
+                .register(registry);
+        FunctionCounter.builder("growby.stock.reservas.rechazadas", rechazadas, LongAdder::sum)
+                .description("Reservas rechazadas por falta de stock")
+                .register(registry);
+    }
+
+    private Optional<AtomicLong> unidades(Producto producto) {
+        AtomicLong unidades = disponibles.get(producto.getId());
+        if (unidades != null || producto.getStock() == null) {
+            return Optional.ofNullable(unidades);
+        }
+        // Se carga una sola vez por producto; las reservas concurrentes esperan a la carga.
+        return Optional.ofNullable(disponibles.computeIfAbsent(producto.getId(),
+                id -> productoRepository.findStockDisponible(id).map(AtomicLong::new).orElse(null)));
+    }
+
+    private List<Long> siguienteLote() {
+        Set<Long> lote = new LinkedHashSet<>();
+        Long ordenId;
+        while (lote.size() < tamanoLote && (ordenId = pendientes.poll()) != null) {
+            lote.add(ordenId);
+        }
+        return new ArrayList<>(lote);
+    }
+
+    private void descontar(List<Long> ordenIds) {
+        Map<Long, Long> porProducto = new HashMap<>();
+        for (Orden orden : ordenRepository.findConStockPendienteByIdIn(ordenIds)) {
+            porProducto.merge(orden.getProducto().getId(), (long) orden.getCantidad(), Long::sum);
+            orden.setStockPendiente(false);
+        }
+        porProducto.forEach((productoId, cantidad) -> productoRepository.ajustarStock(productoId, -cantidad));
+    }
+}
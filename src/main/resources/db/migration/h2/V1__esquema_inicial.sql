@@ -0,0 +1,33 @@
+-- Esquema de partida: las tablas que hasta ahora creaba Hibernate con ddl-auto=update, con identificadores IDENTITY.
+-- Con spring.flyway.baseline-version=0 también se ejecuta en las bases de datos que ya tienen estas tablas,
+-- así que solo crea las que faltan; los cambios posteriores están en las migraciones siguientes.
+
+create table if not exists clientes (
+    id bigint generated by default as identity,
+    nombre varchar(255),
+    email varchar(255),
+    telefono varchar(255),
+    primary key (id)
+);
+
+create table if not exists productos (
+    id bigint generated by default as identity,
+    nombre varchar(255),
+    descripcion varchar(255),
+    precio numeric(19, 2),
+    fecha_creacion timestamp,
+    estado varchar(255),
+    primary key (id)
+);
+
+create table if not exists ordenes (
+    id bigint generated by default as identity,
+    cantidad integer not null,
+    total numeric(19, 2),
+    fecha_orden timestamp,
+    cliente_id bigint not null,
+    producto_id bigint not null,
+    primary key (id),
+    constraint fk_ordenes_cliente foreign key (cliente_id) references clientes (id),
+    constraint fk_ordenes_producto foreign key (producto_id) references productos (id)
+);
@@ -0,0 +1,12 @@
+-- Los identificadores de clientes, productos y órdenes se toman de secuencias con asignación por bloques de 50,
+-- para que Hibernate pueda agrupar los INSERT en lotes JDBC, en lugar de columnas IDENTITY.
+-- Cada secuencia empieza por encima de los identificadores que ya hay en su tabla: Hibernate (optimizador pooled)
+-- reserva el bloque de 50 que termina en el valor leído, así que empezar en max(id) + 50 da max(id) + 1 como primero.
+
+alter table clientes alter column id drop identity;
+alter table productos alter column id drop identity;
+alter table ordenes alter column id drop identity;
+
+create sequence clientes_seq start with (select coalesce(max(id), 0) + 50 from clientes) increment by 50;
+create sequence productos_seq start with (select coalesce(max(id), 0) + 50 from productos) increment by 50;
+create sequence ordenes_seq start with (select coalesce(max(id), 0) + 50 from ordenes) increment by 50;
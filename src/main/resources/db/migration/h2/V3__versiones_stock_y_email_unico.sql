@@ -0,0 +1,11 @@
+-- Versión para el bloqueo optimista de clientes, productos y órdenes, stock de los productos, órdenes con stock
+-- pendiente de descontar y restricción única del email de los clientes.
+
+alter table clientes add column version bigint default 0 not null;
+alter table productos add column version bigint default 0 not null;
+alter table ordenes add column version bigint default 0 not null;
+
+alter table productos add column stock integer;
+alter table ordenes add column stock_pendiente boolean;
+
+alter table clientes add constraint uk_clientes_email unique (email);
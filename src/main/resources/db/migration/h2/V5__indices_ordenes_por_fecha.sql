@@ -0,0 +1,5 @@
+-- Órdenes de un cliente o de un producto en un rango de fechas (GET /api/ordenes?clienteId=&productoId=&desde=&hasta=).
+-- El identificador cierra el índice para que la paginación por (fecha_orden, id) se resuelva sin ordenar.
+
+create index idx_ordenes_cliente_fecha on ordenes (cliente_id, fecha_orden, id);
+create index idx_ordenes_producto_fecha on ordenes (producto_id, fecha_orden, id);
@@ -0,0 +1,6 @@
+-- Catálogo de productos filtrado por estado y por rango de precio o de fecha de creación (GET /api/productos/catalogo).
+-- El identificador cierra el índice para que la ordenación por (precio, id) o (fecha_creacion, id) se resuelva sin ordenar.
+-- El de fechas es descendente porque el catálogo se recorre de los productos más nuevos a los más antiguos.
+
+create index idx_productos_estado_precio on productos (estado, precio, id);
+create index idx_productos_estado_fecha on productos (estado, fecha_creacion desc, id desc);
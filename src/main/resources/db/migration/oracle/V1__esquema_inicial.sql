@@ -0,0 +1,58 @@
+-- Esquema de partida: las tablas que hasta ahora creaba Hibernate con ddl-auto=update, con identificadores IDENTITY.
+-- Con spring.flyway.baseline-version=0 también se ejecuta en las bases de datos que ya tienen estas tablas,
+-- así que solo crea las que faltan (ORA-00955: el nombre ya está en uso); los cambios posteriores están en las
+-- migraciones siguientes.
+
+begin
+    execute immediate 'create table clientes (
+        id number(19, 0) generated by default as identity,
+        nombre varchar2(255 char),
+        email varchar2(255 char),
+        telefono varchar2(255 char),
+        primary key (id)
+    )';
+exception
+    when others then
+        if sqlcode != -955 then
+            raise;
+        end if;
+end;
+/
+
+begin
+    execute immediate 'create table productos (
+        id number(19, 0) generated by default as identity,
+        nombre varchar2(255 char),
+        descripcion varchar2(255 char),
+        precio number(19, 2),
+        fecha_creacion timestamp,
+        estado varchar2(255 char),
+        primary key (id)
+    )';
+exception
+    when others then
+        if sqlcode != -955 then
+            raise;
+        end if;
+end;
+/
+
+begin
+    execute immediate 'create table ordenes (
+        id number(19, 0) generated by default as identity,
+        cantidad number(10, 0) not null,
+        total number(19, 2),
+        fecha_orden timestamp,
+        cliente_id number(19, 0) not null,
+        producto_id number(19, 0) not null,
+        primary key (id),
+        constraint fk_ordenes_cliente foreign key (cliente_id) references clientes (id),
+        constraint fk_ordenes_producto foreign key (producto_id) references productos (id)
+    )';
+exception
+    when others then
+        if sqlcode != -955 then
+            raise;
+        end if;
+end;
+/
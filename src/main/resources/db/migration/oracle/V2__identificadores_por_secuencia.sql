@@ -0,0 +1,29 @@
+-- Los identificadores de clientes, productos y órdenes se toman de secuencias con asignación por bloques de 50,
+-- para que Hibernate pueda agrupar los INSERT en lotes JDBC, en lugar de columnas IDENTITY.
+-- En las tablas creadas sin IDENTITY no hay nada que quitar (ORA-30673).
+-- Cada secuencia empieza por encima de los identificadores que ya hay en su tabla: Hibernate (optimizador pooled)
+-- reserva el bloque de 50 que termina en el valor leído, así que empezar en max(id) + 50 da max(id) + 1 como primero.
+
+begin
+    for tabla in (select column_value nombre from table(sys.odcivarchar2list('CLIENTES', 'PRODUCTOS', 'ORDENES'))) loop
+        begin
+            execute immediate 'alter table ' || tabla.nombre || ' modify id drop identity';
+        exception
+            when others then
+                if sqlcode != -30673 then
+                    raise;
+                end if;
+        end;
+    end loop;
+end;
+/
+
+declare
+    inicio number;
+begin
+    for tabla in (select column_value nombre from table(sys.odcivarchar2list('CLIENTES', 'PRODUCTOS', 'ORDENES'))) loop
+        execute immediate 'select coalesce(max(id), 0) + 50 from ' || tabla.nombre into inicio;
+        execute immediate 'create sequence ' || tabla.nombre || '_seq start with ' || inicio || ' increment by 50';
+    end loop;
+end;
+/
@@ -0,0 +1,25 @@
+-- Versión para el bloqueo optimista de clientes, productos y órdenes, stock de los productos, órdenes con stock
+-- pendiente de descontar y restricción única del email de los clientes.
+
+alter table clientes add (version number(19, 0) default 0 not null);
+alter table productos add (version number(19, 0) default 0 not null);
+alter table ordenes add (version number(19, 0) default 0 not null);
+
+alter table productos add (stock number(10, 0));
+alter table ordenes add (stock_pendiente number(1, 0));
+
+-- Las tablas creadas con import.sql ya tienen una restricción única sin nombre sobre el email; se sustituye por
+-- uk_clientes_email, que es la que la aplicación reconoce al rechazar un email en uso.
+begin
+    for restriccion in (
+            select c.constraint_name
+            from user_constraints c
+            join user_cons_columns cc on cc.constraint_name = c.constraint_name and cc.table_name = c.table_name
+            where c.table_name = 'CLIENTES' and c.constraint_type = 'U' and cc.column_name = 'EMAIL'
+              and (select count(*) from user_cons_columns todas where todas.constraint_name = c.constraint_name) = 1) loop
+        execute immediate 'alter table clientes drop constraint ' || restriccion.constraint_name;
+    end loop;
+end;
+/
+
+alter table clientes add constraint uk_clientes_email unique (email);
@@ -0,0 +1,29 @@
+-- Acumulados diarios de ventas por producto y por cliente, y resumen de las órdenes de cada cliente.
+-- Al arrancar, la aplicación los carga desde las órdenes existentes si todavía están vacíos.
+
+create table ventas_diarias_producto (
+    fecha date not null,
+    producto_id number(19, 0) not null,
+    cantidad number(19, 0) not null,
+    total number(19, 2),
+    ordenes number(19, 0) not null,
+    primary key (fecha, producto_id)
+);
+
+create table ventas_diarias_cliente (
+    fecha date not null,
+    cliente_id number(19, 0) not null,
+    cantidad number(19, 0) not null,
+    total number(19, 2),
+    ordenes number(19, 0) not null,
+    primary key (fecha, cliente_id)
+);
+
+create table resumenes_cliente (
+    cliente_id number(19, 0) not null,
+    ordenes number(19, 0) not null,
+    total number(19, 2),
+    primera_orden timestamp,
+    ultima_orden timestamp,
+    primary key (cliente_id)
+);
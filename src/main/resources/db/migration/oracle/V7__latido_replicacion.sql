@@ -0,0 +1,10 @@
+-- Latido de replicación: con réplicas de lectura habilitadas, la aplicación escribe la hora en el primario cada pocos
+-- segundos y lee en cada réplica el último valor replicado para medir su retraso.
+
+create table latido_replicacion (
+    id number(10, 0) not null,
+    instante timestamp not null,
+    primary key (id)
+);
+
+insert into latido_replicacion (id, instante) values (1, current_timestamp);
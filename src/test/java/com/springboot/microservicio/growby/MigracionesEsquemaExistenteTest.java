@@ -0,0 +1,135 @@
+package com.springboot.microservicio.growby;
+
+import com.springboot.microservicio.growby.model.Cliente;
+import com.springboot.microservicio.growby.model.Orden;
+import com.springboot.microservicio.growby.model.Producto;
+import com.springboot.microservicio.growby.repository.ClienteRepository;
+import com.springboot.microservicio.growby.repository.OrdenRepository;
+import com.springboot.microservicio.growby.repository.ProductoRepository;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SimpleDriverDataSource;
+
+import java.math.BigDecimal;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Arranca la aplicación sobre una base de datos que ya tiene las tablas y los datos de antes de Flyway, tal como
+ * las creaba Hibernate con {@code ddl-auto=update}. Flyway debe completar el esquema sin perder filas y Hibernate
+ * validarlo al arrancar.
+ */
+@SpringBootTest(properties = "spring.datasource.url=" + MigracionesEsquemaExistenteTest.URL)
+class MigracionesEsquemaExistenteTest {
+
+    static final String URL = "jdbc:h2:mem:esquema-existente;DB_CLOSE_DELAY=-1";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ClienteRepository clienteRepository;
+
+    @Autowired
+    private ProductoRepository productoRepository;
+
+    @Autowired
+    private OrdenRepository ordenRepository;
+
+    @BeforeAll
+    static void crearEsquemaExistente() {
+        JdbcTemplate existente = new JdbcTemplate(new SimpleDriverDataSource(new org.h2.Driver(), URL, "sa", "sasa"));
+        existente.execute("create table clientes (id bigint generated by default as identity, email varchar(255), "
+                + "nombre varchar(255), telefono varchar(255), primary key (id))");
+        existente.execute("create table productos (id bigint generated by default as identity, descripcion varchar(255), "
+                + "estado varchar(255), fecha_creacion timestamp, nombre varchar(255), precio numeric(19, 2), primary key (id))");
+        existente.execute("create table ordenes (id bigint generated by default as identity, cantidad integer not null, "
+                + "fecha_orden timestamp, total numeric(19, 2), cliente_id bigint not null, producto_id bigint not null, "
+                + "primary key (id))");
+        existente.execute("alter table ordenes add constraint FK6dyhiwbghbfb6bnbw2lojtbl2 foreign key (cliente_id) references clientes");
+        existente.execute("alter table ordenes add constraint FKpxba6e7o6qy0tdqa7xbg5w3t0 foreign key (producto_id) references productos");
+
+        existente.update("insert into clientes (nombre, email, telefono) values "
+                + "('Juan Pérez', 'juan.perez@example.com', '555-1234'), "
+                + "('María López', 'maria.lopez@example.com', '555-5678'), "
+                + "('Carlos García', 'carlos.garcia@example.com', '555-8765')");
+        existente.update("insert into productos (nombre, descripcion, precio, estado) values "
+                + "('Producto A', 'Descripción del Producto A', 10.00, 'ACTIVO'), "
+                + "('Producto B', 'Descripción del Producto B', 15.50, 'ACTIVO'), "
+                + "('Producto C', 'Descripción del Producto C', 8.75, 'INACTIVO')");
+        existente.update("insert into ordenes (cantidad, total, fecha_orden, cliente_id, producto_id) values "
+                + "(2, 20.00, current_timestamp, 1, 1), "
+                + "(1, 15.50, current_timestamp, 2, 2), "
+                + "(3, 26.25, current_timestamp, 3, 1)");
+        existente.update("insert into ordenes (id, cantidad, total, fecha_orden, cliente_id, producto_id) values "
+                + "(75, 1, 10.00, current_timestamp, 1, 1)");
+    }
+
+    @Test
+    void migrate_ShouldApplyEveryMigrationOverTheBaseline() {
+        List<String> versiones = jdbcTemplate.queryForList("select \"version\" from \"flyway_schema_history\" "
+                + "where \"version\" is not null and \"success\" order by \"installed_rank\"", String.class);
+
+        assertEquals(List.of("0", "1", "2", "3", "4", "5", "6", "7"), versiones);
+    }
+
+    @Test
+    void migrate_ShouldKeepExistingRows() {
+        List<Cliente> clientes = clienteRepository.findAll();
+
+        assertEquals(3, clientes.size());
+        assertTrue(clientes.stream().allMatch(cliente -> cliente.getVersion() == 0));
+        assertEquals(4, jdbcTemplate.queryForObject("select count(*) from ordenes", Integer.class));
+        assertEquals(4, jdbcTemplate.queryForObject("select sum(ordenes) from resumenes_cliente", Integer.class));
+    }
+
+    @Test
+    void migrate_ShouldAddTheUniqueEmailConstraint() {
+        DataIntegrityViolationException e = assertThrows(DataIntegrityViolationException.class, () ->
+                jdbcTemplate.update("insert into clientes (id, nombre, email, version) values (1000, 'Otro', 'juan.perez@example.com', 0)"));
+
+        assertTrue(e.getMessage().toUpperCase().contains("UK_CLIENTES_EMAIL"));
+    }
+
+    @Test
+    void save_ShouldTakeIdsAboveTheExistingRows() {
+        Cliente cliente = new Cliente();
+        cliente.setNombre("Nuevo");
+        cliente.setEmail("nuevo@example.com");
+        Producto producto = new Producto();
+        producto.setNombre("Producto D");
+        producto.setPrecio(BigDecimal.ONE);
+        producto.setEstado(Producto.Estado.ACTIVO);
+        clienteRepository.save(cliente);
+        productoRepository.save(producto);
+        List<Orden> ordenes = List.of(nuevaOrden(cliente, producto), nuevaOrden(cliente, producto));
+
+        try {
+            ordenRepository.saveAll(ordenes);
+
+            assertEquals(4, cliente.getId());
+            assertEquals(4, producto.getId());
+            assertEquals(List.of(76L, 77L), List.of(ordenes.get(0).getId(), ordenes.get(1).getId()));
+        } finally {
+            ordenRepository.deleteAll(ordenes);
+            productoRepository.delete(producto);
+            clienteRepository.delete(cliente);
+        }
+    }
+
+    private static Orden nuevaOrden(Cliente cliente, Producto producto) {
+        Orden orden = new Orden();
+        orden.setCantidad(1);
+        orden.setTotal(BigDecimal.ONE);
+        orden.setFechaOrden(new Date());
+        orden.setCliente(cliente);
+        orden.setProducto(producto);
+        return orden;
+    }
+}
@@ -0,0 +1,98 @@
+package com.springboot.microservicio.growby.cache;
+
+import com.springboot.microservicio.growby.dto.ProductoBusquedaDTO;
+import com.springboot.microservicio.growby.model.Producto;
+import com.springboot.microservicio.growby.repository.ProductoRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class IndiceBusquedaProductosTest {
+
+    private IndiceBusquedaProductos indice;
+
+    @BeforeEach
+    void setUp() {
+        ProductoRepository productoRepository = mock(ProductoRepository.class);
+        when(productoRepository.findAll()).thenReturn(List.of(
+                producto(1L, "Camión de bomberos", "Juguete de metal", Producto.Estado.ACTIVO),
+                producto(2L, "Camiseta", "Algodón orgánico", Producto.Estado.ACTIVO),
+                producto(3L, "Muñeca", "Incluye un camión pequeño", Producto.Estado.ACTIVO),
+                producto(4L, "Cámara", "Réflex digital", Producto.Estado.INACTIVO)));
+        indice = new IndiceBusquedaProductos(productoRepository);
+        indice.cargar();
+    }
+
+    @Test
+    void terminos_ShouldFoldAccentsAndCase() {
+        assertEquals(List.of("camion", "pinguino", "nino", "50"), IndiceBusquedaProductos.terminos("CAMIÓN-Pingüino, niño (50)"));
+    }
+
+    @Test
+    void buscar_ShouldMatchWithoutAccents() {
+        assertEquals(List.of(1L, 3L), ids(indice.buscar("camion", null, 10)));
+        assertEquals(List.of(3L), ids(indice.buscar("muneca", null, 10)));
+    }
+
+    @Test
+    void buscar_ShouldMatchPrefixesAndRankNameAndWholeWordsFirst() {
+        List<ProductoBusquedaDTO> resultados = indice.buscar("cam", null, 10);
+
+        // Los tres nombres empiezan por "cam"; a igual puntuación va primero el nombre más corto.
+        assertEquals(List.of(4L, 2L, 1L, 3L), ids(resultados));
+        assertEquals(IndiceBusquedaProductos.PESO_NOMBRE, resultados.get(0).getPuntuacion());
+        assertEquals(IndiceBusquedaProductos.PESO_DESCRIPCION, resultados.get(3).getPuntuacion());
+        assertEquals(2 * IndiceBusquedaProductos.PESO_NOMBRE, indice.buscar("camion", null, 10).get(0).getPuntuacion());
+    }
+
+    @Test
+    void buscar_ShouldRequireEveryTermAndIgnoreStopWords() {
+        assertEquals(List.of(1L), ids(indice.buscar("camión de bomb", null, 10)));
+        assertEquals(List.of(), ids(indice.buscar("camion algodon", null, 10)));
+        assertEquals(List.of(1L, 3L), ids(indice.buscar("de camion", null, 10)));
+    }
+
+    @Test
+    void buscar_ShouldFilterByEstadoAndLimit() {
+        assertEquals(List.of(2L, 1L, 3L), ids(indice.buscar("cam", Producto.Estado.ACTIVO, 10)));
+        assertEquals(List.of(4L, 2L), ids(indice.buscar("cam", null, 2)));
+        assertEquals(List.of(), indice.buscar("  ", null, 10));
+    }
+
+    @Test
+    void indexar_ShouldReplaceTermsOfUpdatedProduct() {
+        indice.indexar(producto(1L, "Tractor", "Juguete de metal", Producto.Estado.ACTIVO));
+
+        assertEquals(List.of(3L), ids(indice.buscar("camion", null, 10)));
+        assertEquals(List.of(1L), ids(indice.buscar("tractor metal", null, 10)));
+        assertEquals(4, indice.tamano());
+    }
+
+    @Test
+    void eliminar_ShouldRemoveProductFromResults() {
+        indice.eliminar(3L);
+
+        assertEquals(List.of(1L), ids(indice.buscar("camion", null, 10)));
+        assertEquals(List.of(), ids(indice.buscar("muneca", null, 10)));
+        assertEquals(3, indice.tamano());
+    }
+
+    private static List<Long> ids(List<ProductoBusquedaDTO> resultados) {
+        return resultados.stream().map(ProductoBusquedaDTO::getId).collect(Collectors.toList());
+    }
+
+    private static Producto producto(Long id, String nombre, String descripcion, Producto.Estado estado) {
+        Producto producto = new Producto();
+        producto.setId(id);
+        producto.setNombre(nombre);
+        producto.setDescripcion(descripcion);
+        producto.setEstado(estado);
+        return producto;
+    }
+}
@@ -0,0 +1,38 @@
+package com.springboot.microservicio.growby.cache;
+
+import com.springboot.microservicio.growby.repository.ClienteRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class IndiceEmailClientesTest {
+
+    private IndiceEmailClientes indiceEmailClientes;
+
+    @BeforeEach
+    void setUp() {
+        ClienteRepository clienteRepository = mock(ClienteRepository.class);
+        when(clienteRepository.findAllEmails()).thenReturn(Arrays.asList("juan@example.com", "maria@example.com"));
+        indiceEmailClientes = new IndiceEmailClientes(clienteRepository);
+        indiceEmailClientes.cargar();
+    }
+
+    @Test
+    void cargar_ShouldIndexExistingEmails() {
+        assertTrue(indiceEmailClientes.posiblementeEnUso("juan@example.com"));
+        assertTrue(indiceEmailClientes.posiblementeEnUso("maria@example.com"));
+        assertFalse(indiceEmailClientes.posiblementeEnUso("carlos@example.com"));
+        assertFalse(indiceEmailClientes.posiblementeEnUso(null));
+    }
+
+    @Test
+    void registrar_ShouldIndexNewEmail() {
+        indiceEmailClientes.registrar("carlos@example.com");
+
+        assertTrue(indiceEmailClientes.posiblementeEnUso("carlos@example.com"));
+    }
+}
@@ -0,0 +1,80 @@
+package com.springboot.microservicio.growby.cache;
+
+import com.springboot.microservicio.growby.dto.EstadisticasCacheDTO;
+import com.springboot.microservicio.growby.model.Producto;
+import com.springboot.microservicio.growby.repository.ProductoRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+class ProductoCacheTest {
+
+    private ProductoRepository productoRepository;
+    private ProductoCache productoCache;
+
+    @BeforeEach
+    void setUp() {
+        productoRepository = mock(ProductoRepository.class);
+        productoCache = new ProductoCache(productoRepository, 2, Duration.ofMinutes(10), Runnable::run);
+    }
+
+    @Test
+    void findById_ShouldNotCacheMissingProducts() {
+        when(productoRepository.findById(1L)).thenReturn(Optional.empty());
+
+        assertFalse(productoCache.findById(1L).isPresent());
+        assertFalse(productoCache.findById(1L).isPresent());
+
+        verify(productoRepository, times(2)).findById(1L);
+    }
+
+    @Test
+    void findById_ShouldReturnEmptyForNullId() {
+        assertFalse(productoCache.findById(null).isPresent());
+        verifyNoInteractions(productoRepository);
+    }
+
+    @Test
+    void findAllById_ShouldLoadOnlyMissingProducts() {
+        Producto producto1 = producto(1L);
+        Producto producto2 = producto(2L);
+        when(productoRepository.findById(1L)).thenReturn(Optional.of(producto1));
+        when(productoRepository.findAllById(List.of(2L))).thenReturn(List.of(producto2));
+        productoCache.findById(1L);
+
+        Map<Long, Producto> productos = productoCache.findAllById(List.of(1L, 2L));
+
+        assertEquals(2, productos.size());
+        assertSame(producto2, productos.get(2L));
+        verify(productoRepository, times(1)).findAllById(List.of(2L));
+    }
+
+    @Test
+    void estadisticas_ShouldReportEvictionsWhenSizeIsExceeded() {
+        when(productoRepository.findById(anyLong())).thenAnswer(invocation -> Optional.of(producto(invocation.getArgument(0))));
+
+        for (long id = 1; id <= 10; id++) {
+            productoCache.findById(id);
+        }
+        productoCache.findById(10L);
+        EstadisticasCacheDTO estadisticas = productoCache.estadisticas();
+
+        assertEquals(10, estadisticas.getFallos());
+        assertTrue(estadisticas.getDesalojos() > 0);
+        assertTrue(estadisticas.getTamano() <= 2);
+    }
+
+    private static Producto producto(Long id) {
+        Producto producto = new Producto();
+        producto.setId(id);
+        return producto;
+    }
+}
@@ -0,0 +1,179 @@
+package com.springboot.microservicio.growby.carga;
+
+import com.springboot.microservicio.growby.SpringBootMicroservicioGrowbyApplication;
+import com.springboot.microservicio.growby.carga.GeneradorCarga.Operacion;
+import com.springboot.microservicio.growby.carga.GeneradorCarga.ResultadoOperacion;
+import com.springboot.microservicio.growby.dto.ClienteDTO;
+import com.springboot.microservicio.growby.dto.OrdenDTO;
+import com.springboot.microservicio.growby.dto.ProductoDTO;
+import com.springboot.microservicio.growby.service.ClienteService;
+import com.springboot.microservicio.growby.service.OrdenService;
+import com.springboot.microservicio.growby.service.ProductoService;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Compara la API de órdenes atendida por el pool de hilos de plataforma de Tomcat y por hilos
+ * virtuales ({@code growby.hilos-virtuales.habilitados}) con muchos trabajadores concurrentes.
+ * Arranca la aplicación una vez por modo, cada una sobre su propia base de datos H2 con los mismos
+ * datos, lanza la misma mezcla de peticiones de órdenes y escribe un informe con ambos resultados.
+ * <p>
+ * Está excluida de la ejecución normal de las pruebas; se lanza con
+ * {@code mvn -Pcarga test -Dtest=ComparacionHilosCargaTest}. Parámetros (propiedades del sistema):
+ * <ul>
+ *     <li>{@code carga.hilos.trabajadores}: trabajadores concurrentes (por defecto 400).</li>
+ *     <li>{@code carga.calentamiento}: segundos de calentamiento sin medir (por defecto 10).</li>
+ *     <li>{@code carga.duracion}: segundos de medición de cada modo (por defecto 30).</li>
+ *     <li>{@code carga.hilos.informe}: ruta del informe (por defecto {@code target/carga/comparacion-hilos.txt}).</li>
+ * </ul>
+ */
+@Tag("carga")
+class ComparacionHilosCargaTest {
+
+    private static final int CLIENTES = 200;
+    private static final int PRODUCTOS = 200;
+    private static final int ORDENES = 2000;
+
+    @Test
+    void apiOrdenes_HilosDePlataformaFrenteAVirtuales() throws Exception {
+        int trabajadores = Integer.getInteger("carga.hilos.trabajadores", 400);
+        Duration calentamiento = Duration.ofSeconds(Long.getLong("carga.calentamiento", 10));
+        Duration duracion = Duration.ofSeconds(Long.getLong("carga.duracion", 30));
+        Path informe = Paths.get(System.getProperty("carga.hilos.informe", "target/carga/comparacion-hilos.txt"));
+
+        Map<String, Map<String, ResultadoOperacion>> resultados = new LinkedHashMap<>();
+        resultados.put("plataforma", medir(false, trabajadores, calentamiento, duracion));
+        resultados.put("virtuales", medir(true, trabajadores, calentamiento, duracion));
+
+        escribirInforme(informe, trabajadores, duracion, resultados);
+        resultados.forEach((modo, operaciones) -> operaciones.forEach((nombre, resultado) -> {
+            assertTrue(resultado.getPeticiones() > 0, "Sin peticiones para " + nombre + " en " + modo);
+            assertEquals(0, resultado.getErrores(), "Peticiones fallidas en " + nombre + " en " + modo);
+        }));
+    }
+
+    private Map<String, ResultadoOperacion> medir(boolean hilosVirtuales, int trabajadores, Duration calentamiento,
+                                                  Duration duracion) throws InterruptedException {
+        try (ConfigurableApplicationContext contexto = new SpringApplicationBuilder(SpringBootMicroservicioGrowbyApplication.class)
+                .run("--server.port=0",
+                        "--spring.datasource.url=jdbc:h2:mem:carga-" + (hilosVirtuales ? "virtuales" : "plataforma"),
+                        "--spring.jpa.show-sql=false",
+                        "--logging.level.root=WARN",
+                        "--growby.hilos-virtuales.habilitados=" + hilosVirtuales)) {
+            Datos datos = cargarDatos(contexto);
+            int puerto = ((WebServerApplicationContext) contexto).getWebServer().getPort();
+
+            HttpClient clienteHttp = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .connectTimeout(Duration.ofSeconds(5))
+                    .build();
+            GeneradorCarga generador = new GeneradorCarga(clienteHttp, operacionesDeOrdenes(puerto, datos));
+            return generador.ejecutar(trabajadores, calentamiento, duracion);
+        }
+    }
+
+    private Datos cargarDatos(ConfigurableApplicationContext contexto) {
+        ClienteService clienteService = contexto.getBean(ClienteService.class);
+        ProductoService productoService = contexto.getBean(ProductoService.class);
+        OrdenService ordenService = contexto.getBean(OrdenService.class);
+
+        Datos datos = new Datos();
+        for (int i = 0; i < CLIENTES; i++) {
+            datos.clienteIds.add(clienteService.save(
+                    new ClienteDTO("Cliente " + i, "cliente" + i + "@carga.example.com", "555-" + i)).getId());
+        }
+        for (int i = 0; i < PRODUCTOS; i++) {
+            datos.productoIds.add(productoService.save(
+                    new ProductoDTO("Producto " + i, "Producto de la prueba de carga", new BigDecimal("10.50"), "ACTIVO", null)).getId());
+        }
+        List<OrdenDTO> ordenes = new ArrayList<>();
+        for (int i = 0; i < ORDENES; i++) {
+            ordenes.add(new OrdenDTO(ThreadLocalRandom.current().nextInt(1, 10), null,
+                    aleatorio(datos.clienteIds), aleatorio(datos.productoIds)));
+        }
+        ordenService.saveAll(ordenes).forEach(resultado -> datos.ordenIds.add(resultado.getOrdenId()));
+        return datos;
+    }
+
+    private List<Operacion> operacionesDeOrdenes(int puerto, Datos datos) {
+        String base = "http://localhost:" + puerto;
+        return List.of(
+                new Operacion("listarOrdenes", 3, () -> get(base + "/api/ordenes?limit=50&after=" + aleatorio(datos.ordenIds))),
+                new Operacion("ordenesCliente", 3, () -> get(base + "/api/ordenes/cliente/" + aleatorio(datos.clienteIds) + "?limit=50")),
+                new Operacion("obtenerOrden", 4, () -> get(base + "/api/ordenes/" + aleatorio(datos.ordenIds))),
+                new Operacion("crearOrden", 2, () -> HttpRequest.newBuilder(URI.create(base + "/api/ordenes"))
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString(String.format(Locale.ROOT,
+                                "{\"cantidad\":%d,\"clienteId\":%d,\"productoId\":%d}",
+                                ThreadLocalRandom.current().nextInt(1, 10),
+                                aleatorio(datos.clienteIds), aleatorio(datos.productoIds))))
+                        .build()));
+    }
+
+    private void escribirInforme(Path informe, int trabajadores, Duration duracion,
+                                 Map<String, Map<String, ResultadoOperacion>> resultados) throws IOException {
+        StringBuilder texto = new StringBuilder();
+        texto.append("# Hilos de plataforma frente a hilos virtuales en la API de órdenes\n");
+        texto.append("# trabajadores=").append(trabajadores)
+                .append(" duracion=").append(duracion.getSeconds()).append("s por modo\n");
+        texto.append(String.format(Locale.ROOT, "%-11s %-16s %10s %8s %10s %10s %10s %10s %10s%n",
+                "modo", "operacion", "peticiones", "errores", "ops/s", "p50(ms)", "p99(ms)", "p999(ms)", "max(ms)"));
+        resultados.forEach((modo, operaciones) -> {
+            double total = 0;
+            for (Map.Entry<String, ResultadoOperacion> entrada : operaciones.entrySet()) {
+                ResultadoOperacion resultado = entrada.getValue();
+                total += resultado.getPeticionesPorSegundo();
+                texto.append(String.format(Locale.ROOT, "%-11s %-16s %10d %8d %10.1f %10.2f %10.2f %10.2f %10.2f%n",
+                        modo, entrada.getKey(), resultado.getPeticiones(), resultado.getErrores(),
+                        resultado.getPeticionesPorSegundo(), resultado.getPercentilMs(50), resultado.getPercentilMs(99),
+                        resultado.getPercentilMs(99.9), resultado.getMaximoMs()));
+            }
+            texto.append(String.format(Locale.ROOT, "%-11s %-16s %10s %8s %10.1f%n", modo, "total", "", "", total));
+        });
+
+        if (informe.getParent() != null) {
+            Files.createDirectories(informe.getParent());
+        }
+        Files.write(informe, texto.toString().getBytes(StandardCharsets.UTF_8));
+        System.out.print(texto);
+    }
+
+    private static HttpRequest get(String url) {
+        return HttpRequest.newBuilder(URI.create(url)).GET().build();
+    }
+
+    private static Long aleatorio(List<Long> ids) {
+        return ids.get(ThreadLocalRandom.current().nextInt(ids.size()));
+    }
+
+    /**
+     * Identificadores de los datos cargados en la aplicación de cada modo.
+     */
+    private static final class Datos {
+        private final List<Long> clienteIds = new ArrayList<>();
+        private final List<Long> productoIds = new ArrayList<>();
+        private final List<Long> ordenIds = new ArrayList<>();
+    }
+}
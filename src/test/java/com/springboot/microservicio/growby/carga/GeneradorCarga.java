@@ -0,0 +1,192 @@
+package com.springboot.microservicio.growby.carga;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Generador de carga HTTP de lazo cerrado: cada trabajador elige una operación según su peso,
+ * la envía, espera la respuesta y repite hasta agotar el tiempo de la prueba.
+ * La latencia de cada operación se registra en un histograma HdrHistogram en microsegundos.
+ */
+class GeneradorCarga {
+
+    private static final long LATENCIA_MAXIMA_US = TimeUnit.MINUTES.toMicros(1);
+
+    private final HttpClient clienteHttp;
+    private final List<Operacion> operaciones;
+    private final int pesoTotal;
+
+    GeneradorCarga(HttpClient clienteHttp, List<Operacion> operaciones) {
+        if (operaciones.isEmpty()) {
+            throw new IllegalArgumentException("La mezcla de operaciones no puede estar vacía");
+        }
+        this.clienteHttp = clienteHttp;
+        this.operaciones = operaciones;
+        this.pesoTotal = operaciones.stream().mapToInt(Operacion::getPeso).sum();
+    }
+
+    /**
+     * Ejecuta la prueba. Las peticiones enviadas durante el calentamiento no se registran.
+     *
+     * @param trabajadores  Número de trabajadores concurrentes.
+     * @param calentamiento Duración del calentamiento.
+     * @param duracion      Duración de la medición.
+     * @return El resultado de cada operación, en el orden de la mezcla.
+     */
+    Map<String, ResultadoOperacion> ejecutar(int trabajadores, Duration calentamiento, Duration duracion)
+            throws InterruptedException {
+        Map<String, ResultadoOperacion> resultados = new LinkedHashMap<>();
+        operaciones.forEach(operacion -> resultados.put(operacion.getNombre(), new ResultadoOperacion(duracion)));
+
+        long inicioMedicion = System.nanoTime() + calentamiento.toNanos();
+        long fin = inicioMedicion + duracion.toNanos();
+
+        ExecutorService executor = Executors.newFixedThreadPool(trabajadores);
+        try {
+            List<Future<?>> tareas = new ArrayList<>();
+            for (int i = 0; i < trabajadores; i++) {
+                tareas.add(executor.submit(() -> trabajar(resultados, inicioMedicion, fin)));
+            }
+            for (Future<?> tarea : tareas) {
+                tarea.get();
+            }
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Un trabajador de la prueba de carga falló", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+        return resultados;
+    }
+
+    private void trabajar(Map<String, ResultadoOperacion> resultados, long inicioMedicion, long fin) {
+        while (true) {
+            Operacion operacion = elegirOperacion();
+            HttpRequest peticion = operacion.getPeticion().get();
+
+            long inicio = System.nanoTime();
+            if (inicio >= fin) {
+                return;
+            }
+            boolean correcta;
+            try {
+                int estado = clienteHttp.send(peticion, HttpResponse.BodyHandlers.discarding()).statusCode();
+                correcta = estado >= 200 && estado < 300;
+            } catch (IOException e) {
+                correcta = false;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            long latenciaUs = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - inicio);
+
+            if (inicio >= inicioMedicion) {
+                resultados.get(operacion.getNombre()).registrar(latenciaUs, correcta);
+            }
+        }
+    }
+
+    private Operacion elegirOperacion() {
+        int valor = ThreadLocalRandom.current().nextInt(pesoTotal);
+        for (Operacion operacion : operaciones) {
+            valor -= operacion.getPeso();
+            if (valor < 0) {
+                return operacion;
+            }
+        }
+        return operaciones.get(operaciones.size() - 1);
+    }
+
+    /**
+     * Operación de la mezcla de carga: un nombre, su peso relativo y cómo construir cada petición.
+     */
+    static final class Operacion {
+
+        private final String nombre;
+        private final int peso;
+        private final Supplier<HttpRequest> peticion;
+
+        Operacion(String nombre, int peso, Supplier<HttpRequest> peticion) {
+            if (peso < 1) {
+                throw new IllegalArgumentException("El peso de la operación " + nombre + " debe ser al menos 1");
+            }
+            this.nombre = nombre;
+            this.peso = peso;
+            this.peticion = peticion;
+        }
+
+        String getNombre() {
+            return nombre;
+        }
+
+        int getPeso() {
+            return peso;
+        }
+
+        Supplier<HttpRequest> getPeticion() {
+            return peticion;
+        }
+    }
+
+    /**
+     * Latencias y errores medidos para una operación.
+     */
+    static final class ResultadoOperacion {
+
+        private final Histogram latencias = new ConcurrentHistogram(LATENCIA_MAXIMA_US, 3);
+        private final LongAdder errores = new LongAdder();
+        private final Duration duracion;
+
+        ResultadoOperacion(Duration duracion) {
+            this.duracion = duracion;
+        }
+
+        void registrar(long latenciaUs, boolean correcta) {
+            latencias.recordValue(Math.min(latenciaUs, LATENCIA_MAXIMA_US));
+            if (!correcta) {
+                errores.increment();
+            }
+        }
+
+        long getPeticiones() {
+            return latencias.getTotalCount();
+        }
+
+        long getErrores() {
+            return errores.sum();
+        }
+
+        double getPeticionesPorSegundo() {
+            return getPeticiones() / (duracion.toMillis() / 1000.0);
+        }
+
+        /**
+         * @param percentil Percentil entre 0 y 100.
+         * @return La latencia del percentil indicado, en milisegundos.
+         */
+        double getPercentilMs(double percentil) {
+            return latencias.getValueAtPercentile(percentil) / 1000.0;
+        }
+
+        double getMaximoMs() {
+            return latencias.getMaxValue() / 1000.0;
+        }
+    }
+}
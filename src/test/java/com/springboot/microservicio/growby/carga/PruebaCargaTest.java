@@ -0,0 +1,193 @@
+package com.springboot.microservicio.growby.carga;
+
+import com.springboot.microservicio.growby.carga.GeneradorCarga.Operacion;
+import com.springboot.microservicio.growby.carga.GeneradorCarga.ResultadoOperacion;
+import com.springboot.microservicio.growby.dto.ClienteDTO;
+import com.springboot.microservicio.growby.dto.OrdenDTO;
+import com.springboot.microservicio.growby.dto.ProductoDTO;
+import com.springboot.microservicio.growby.service.ClienteService;
+import com.springboot.microservicio.growby.service.OrdenService;
+import com.springboot.microservicio.growby.service.ProductoService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.web.server.LocalServerPort;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Prueba de carga de la API REST. Arranca la aplicación en un puerto aleatorio sobre H2,
+ * carga datos de prueba y lanza una mezcla configurable de peticiones desde varios trabajadores
+ * concurrentes. Escribe un informe con el rendimiento y los percentiles de latencia de cada operación.
+ * <p>
+ * Está excluida de la ejecución normal de las pruebas; se lanza con {@code mvn -Pcarga test}.
+ * Parámetros (propiedades del sistema):
+ * <ul>
+ *     <li>{@code carga.trabajadores}: trabajadores concurrentes (por defecto 8).</li>
+ *     <li>{@code carga.calentamiento}: segundos de calentamiento sin medir (por defecto 10).</li>
+ *     <li>{@code carga.duracion}: segundos de medición (por defecto 30).</li>
+ *     <li>{@code carga.mezcla}: operaciones y pesos, p. ej. {@code listarOrdenes=3,crearOrden=1}.</li>
+ *     <li>{@code carga.informe}: ruta del informe (por defecto {@code target/carga/informe-carga.txt}).</li>
+ * </ul>
+ */
+@Tag("carga")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.jpa.show-sql=false",
+        "logging.level.root=WARN"
+})
+class PruebaCargaTest {
+
+    private static final String MEZCLA_POR_DEFECTO = "listarClientes=1,obtenerCliente=4,listarProductos=1,"
+            + "obtenerProducto=6,listarOrdenes=3,ordenesCliente=3,obtenerOrden=4,crearOrden=2";
+    private static final int CLIENTES = 200;
+    private static final int PRODUCTOS = 200;
+    private static final int ORDENES = 2000;
+
+    @LocalServerPort
+    private int puerto;
+
+    @Autowired
+    private ClienteService clienteService;
+
+    @Autowired
+    private ProductoService productoService;
+
+    @Autowired
+    private OrdenService ordenService;
+
+    private final List<Long> clienteIds = new ArrayList<>();
+    private final List<Long> productoIds = new ArrayList<>();
+    private final List<Long> ordenIds = new ArrayList<>();
+
+    @BeforeEach
+    void cargarDatos() {
+        for (int i = 0; i < CLIENTES; i++) {
+            clienteIds.add(clienteService.save(
+                    new ClienteDTO("Cliente " + i, "cliente" + i + "@carga.example.com", "555-" + i)).getId());
+        }
+        for (int i = 0; i < PRODUCTOS; i++) {
+            productoIds.add(productoService.save(
+                    new ProductoDTO("Producto " + i, "Producto de la prueba de carga", new BigDecimal("10.50"), "ACTIVO", null)).getId());
+        }
+        List<OrdenDTO> ordenes = new ArrayList<>();
+        for (int i = 0; i < ORDENES; i++) {
+            ordenes.add(nuevaOrden());
+        }
+        ordenService.saveAll(ordenes).forEach(resultado -> ordenIds.add(resultado.getOrdenId()));
+    }
+
+    @Test
+    void apiRest_BajoCargaConcurrente() throws Exception {
+        int trabajadores = Integer.getInteger("carga.trabajadores", 8);
+        Duration calentamiento = Duration.ofSeconds(Long.getLong("carga.calentamiento", 10));
+        Duration duracion = Duration.ofSeconds(Long.getLong("carga.duracion", 30));
+        String mezcla = System.getProperty("carga.mezcla", MEZCLA_POR_DEFECTO);
+        Path informe = Paths.get(System.getProperty("carga.informe", "target/carga/informe-carga.txt"));
+
+        HttpClient clienteHttp = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        GeneradorCarga generador = new GeneradorCarga(clienteHttp, construirMezcla(mezcla));
+
+        Map<String, ResultadoOperacion> resultados = generador.ejecutar(trabajadores, calentamiento, duracion);
+
+        escribirInforme(informe, trabajadores, duracion, mezcla, resultados);
+        resultados.forEach((nombre, resultado) -> {
+            assertTrue(resultado.getPeticiones() > 0, "Sin peticiones para " + nombre);
+            assertEquals(0, resultado.getErrores(), "Peticiones fallidas en " + nombre);
+        });
+    }
+
+    private List<Operacion> construirMezcla(String mezcla) {
+        Map<String, Supplier<HttpRequest>> disponibles = new LinkedHashMap<>();
+        disponibles.put("listarClientes", () -> get("/api/clientes"));
+        disponibles.put("obtenerCliente", () -> get("/api/clientes/" + aleatorio(clienteIds)));
+        disponibles.put("listarProductos", () -> get("/api/productos"));
+        disponibles.put("obtenerProducto", () -> get("/api/productos/" + aleatorio(productoIds)));
+        disponibles.put("listarOrdenes", () -> get("/api/ordenes?limit=50&after=" + aleatorio(ordenIds)));
+        disponibles.put("ordenesCliente", () -> get("/api/ordenes/cliente/" + aleatorio(clienteIds) + "?limit=50"));
+        disponibles.put("obtenerOrden", () -> get("/api/ordenes/" + aleatorio(ordenIds)));
+        disponibles.put("crearOrden", () -> post("/api/ordenes", String.format(Locale.ROOT,
+                "{\"cantidad\":%d,\"clienteId\":%d,\"productoId\":%d}",
+                ThreadLocalRandom.current().nextInt(1, 10), aleatorio(clienteIds), aleatorio(productoIds))));
+
+        List<Operacion> operaciones = new ArrayList<>();
+        for (String entrada : mezcla.split(",")) {
+            String[] partes = entrada.trim().split("=");
+            Supplier<HttpRequest> peticion = disponibles.get(partes[0]);
+            if (peticion == null) {
+                throw new IllegalArgumentException("Operación desconocida: " + partes[0]
+                        + ". Disponibles: " + disponibles.keySet());
+            }
+            int peso = partes.length > 1 ? Integer.parseInt(partes[1]) : 1;
+            operaciones.add(new Operacion(partes[0], peso, peticion));
+        }
+        return operaciones;
+    }
+
+    private void escribirInforme(Path informe, int trabajadores, Duration duracion, String mezcla,
+                                 Map<String, ResultadoOperacion> resultados) throws IOException {
+        StringBuilder texto = new StringBuilder();
+        texto.append("# Prueba de carga de la API REST\n");
+        texto.append("# trabajadores=").append(trabajadores)
+                .append(" duracion=").append(duracion.getSeconds()).append("s")
+                .append(" mezcla=").append(mezcla).append('\n');
+        texto.append(String.format(Locale.ROOT, "%-16s %10s %8s %10s %10s %10s %10s %10s%n",
+                "operacion", "peticiones", "errores", "ops/s", "p50(ms)", "p99(ms)", "p999(ms)", "max(ms)"));
+        resultados.forEach((nombre, resultado) -> texto.append(String.format(Locale.ROOT,
+                "%-16s %10d %8d %10.1f %10.2f %10.2f %10.2f %10.2f%n",
+                nombre, resultado.getPeticiones(), resultado.getErrores(), resultado.getPeticionesPorSegundo(),
+                resultado.getPercentilMs(50), resultado.getPercentilMs(99), resultado.getPercentilMs(99.9),
+                resultado.getMaximoMs())));
+
+        if (informe.getParent() != null) {
+            Files.createDirectories(informe.getParent());
+        }
+        Files.write(informe, texto.toString().getBytes(StandardCharsets.UTF_8));
+        System.out.print(texto);
+    }
+
+    private OrdenDTO nuevaOrden() {
+        return new OrdenDTO(ThreadLocalRandom.current().nextInt(1, 10), null, aleatorio(clienteIds), aleatorio(productoIds));
+    }
+
+    private HttpRequest get(String ruta) {
+        return HttpRequest.newBuilder(uri(ruta)).GET().build();
+    }
+
+    private HttpRequest post(String ruta, String cuerpo) {
+        return HttpRequest.newBuilder(uri(ruta))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(cuerpo))
+                .build();
+    }
+
+    private URI uri(String ruta) {
+        return URI.create("http://localhost:" + puerto + ruta);
+    }
+
+    private static Long aleatorio(List<Long> ids) {
+        return ids.get(ThreadLocalRandom.current().nextInt(ids.size()));
+    }
+}
@@ -0,0 +1,116 @@
+package com.springboot.microservicio.growby.config;
+
+import com.springboot.microservicio.growby.cache.CacheSegundoNivel;
+import com.springboot.microservicio.growby.model.Cliente;
+import com.springboot.microservicio.growby.model.Producto;
+import com.springboot.microservicio.growby.repository.ClienteRepository;
+import com.springboot.microservicio.growby.repository.ProductoRepository;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManagerFactory;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Cada llamada a un repositorio se ejecuta en su propia transacción y su propia sesión, de modo que
+ * solo la caché de segundo nivel evita volver a la base de datos.
+ */
+@DataJpaTest
+@Import(CacheSegundoNivelConfig.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class CacheSegundoNivelConfigTest {
+
+    @Autowired
+    private ClienteRepository clienteRepository;
+
+    @Autowired
+    private ProductoRepository productoRepository;
+
+    @Autowired
+    private CacheSegundoNivel cacheSegundoNivel;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics estadisticas;
+
+    @BeforeEach
+    void setUp() {
+        estadisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @AfterEach
+    void tearDown() {
+        clienteRepository.deleteAll();
+        productoRepository.deleteAll();
+    }
+
+    @Test
+    void findById_ShouldBeServedFromSecondLevelCacheAcrossTransactions() {
+        Long id = clienteRepository.save(nuevoCliente("juan@example.com")).getId();
+        long aciertos = cacheSegundoNivel.estadisticas().get("clientes").getAciertos();
+        estadisticas.clear();
+
+        assertEquals("juan@example.com", clienteRepository.findById(id).orElseThrow().getEmail());
+        assertEquals("juan@example.com", clienteRepository.findById(id).orElseThrow().getEmail());
+
+        assertEquals(0, estadisticas.getPrepareStatementCount());
+        assertEquals(2, estadisticas.getDomainDataRegionStatistics("clientes").getHitCount());
+        assertEquals(aciertos + 2, cacheSegundoNivel.estadisticas().get("clientes").getAciertos());
+    }
+
+    @Test
+    void findByEmail_ShouldBeServedFromQueryCacheUntilClientesChange() {
+        clienteRepository.save(nuevoCliente("juan@example.com"));
+        estadisticas.clear();
+
+        clienteRepository.findByEmail("juan@example.com");
+        clienteRepository.findByEmail("juan@example.com");
+
+        assertEquals(1, estadisticas.getQueryCacheMissCount());
+        assertEquals(1, estadisticas.getQueryCacheHitCount());
+        assertEquals(1, estadisticas.getPrepareStatementCount());
+
+        clienteRepository.save(nuevoCliente("maria@example.com"));
+        assertTrue(clienteRepository.findByEmail("maria@example.com").isPresent());
+        assertTrue(clienteRepository.findByEmail("juan@example.com").isPresent());
+
+        assertEquals(3, estadisticas.getQueryCacheMissCount());
+    }
+
+    @Test
+    void ajustarStock_ShouldKeepProductosCachedAndFijarStockShouldEvictThem() {
+        Producto producto = new Producto();
+        producto.setNombre("Camión");
+        producto.setStock(10);
+        Long id = productoRepository.save(producto).getId();
+
+        productoRepository.ajustarStock(id, -3);
+        estadisticas.clear();
+        productoRepository.findById(id);
+
+        assertEquals(0, estadisticas.getPrepareStatementCount());
+
+        productoRepository.fijarStock(id, 20);
+        estadisticas.clear();
+
+        assertEquals(20, productoRepository.findById(id).orElseThrow().getStock());
+        assertEquals(1, estadisticas.getPrepareStatementCount());
+    }
+
+    private static Cliente nuevoCliente(String email) {
+        Cliente cliente = new Cliente();
+        cliente.setNombre("Cliente");
+        cliente.setEmail(email);
+        return cliente;
+    }
+}
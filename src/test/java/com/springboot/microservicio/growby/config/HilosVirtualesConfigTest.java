@@ -0,0 +1,37 @@
+package com.springboot.microservicio.growby.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.web.embedded.tomcat.TomcatWebServer;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.core.task.AsyncTaskExecutor;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "growby.hilos-virtuales.habilitados=true")
+class HilosVirtualesConfigTest {
+
+    @Autowired
+    private ServletWebServerApplicationContext contexto;
+
+    @Autowired
+    private AsyncTaskExecutor applicationTaskExecutor;
+
+    @Test
+    void tomcat_ShouldHandleRequestsOnVirtualThreads() throws Exception {
+        Executor executor = ((TomcatWebServer) contexto.getWebServer()).getTomcat()
+                .getConnector().getProtocolHandler().getExecutor();
+
+        assertTrue(CompletableFuture.supplyAsync(() -> Thread.currentThread().isVirtual(), executor).get());
+    }
+
+    @Test
+    void applicationTaskExecutor_ShouldRunTasksOnVirtualThreads() throws Exception {
+        assertTrue(applicationTaskExecutor.submit(() -> Thread.currentThread().isVirtual()).get());
+    }
+}
@@ -0,0 +1,89 @@
+package com.springboot.microservicio.growby.contador;
+
+import com.springboot.microservicio.growby.repository.ClienteRepository;
+import com.springboot.microservicio.growby.repository.OrdenRepository;
+import com.springboot.microservicio.growby.repository.ProductoRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.springboot.microservicio.growby.contador.ContadorEntidades.Entidad.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ContadorEntidadesTest {
+
+    private ClienteRepository clienteRepository;
+    private ProductoRepository productoRepository;
+    private OrdenRepository ordenRepository;
+    private ContadorEntidades contadorEntidades;
+
+    @BeforeEach
+    void setUp() {
+        clienteRepository = mock(ClienteRepository.class);
+        productoRepository = mock(ProductoRepository.class);
+        ordenRepository = mock(OrdenRepository.class);
+        contadorEntidades = new ContadorEntidades(clienteRepository, productoRepository, ordenRepository);
+    }
+
+    @Test
+    void reconciliar_ShouldSeedCountersFromDatabase() {
+        when(clienteRepository.count()).thenReturn(3L);
+        when(productoRepository.count()).thenReturn(5L);
+        when(ordenRepository.count()).thenReturn(7L);
+
+        contadorEntidades.reconciliar();
+
+        assertEquals(3L, contadorEntidades.valor(CLIENTES));
+        assertEquals(5L, contadorEntidades.valor(PRODUCTOS));
+        assertEquals(7L, contadorEntidades.valor(ORDENES));
+    }
+
+    @Test
+    void incrementarYDecrementar_ShouldNotTouchDatabase() {
+        contadorEntidades.incrementar(ORDENES, 10);
+        contadorEntidades.decrementar(ORDENES);
+        contadorEntidades.incrementar(CLIENTES, 1);
+
+        assertEquals(9L, contadorEntidades.valor(ORDENES));
+        assertEquals(1L, contadorEntidades.valor(CLIENTES));
+        assertEquals(0L, contadorEntidades.valor(PRODUCTOS));
+        verifyNoInteractions(clienteRepository, productoRepository, ordenRepository);
+    }
+
+    @Test
+    void reconciliar_ShouldCorrectDrift() {
+        contadorEntidades.incrementar(PRODUCTOS, 4);
+        when(productoRepository.count()).thenReturn(2L);
+
+        contadorEntidades.reconciliar();
+
+        assertEquals(2L, contadorEntidades.valor(PRODUCTOS));
+    }
+
+    @Test
+    void reconciliar_ShouldNeverExposeAnIntermediateValue() throws Exception {
+        when(clienteRepository.count()).thenReturn(1000L);
+        when(productoRepository.count()).thenReturn(0L);
+        when(ordenRepository.count()).thenReturn(0L);
+        contadorEntidades.reconciliar();
+        AtomicLong minimo = new AtomicLong(Long.MAX_VALUE);
+        AtomicBoolean terminado = new AtomicBoolean();
+        Thread lector = new Thread(() -> {
+            while (!terminado.get()) {
+                minimo.accumulateAndGet(contadorEntidades.valor(CLIENTES), Math::min);
+            }
+        });
+        lector.start();
+
+        for (int i = 0; i < 20_000; i++) {
+            contadorEntidades.reconciliar();
+        }
+        terminado.set(true);
+        lector.join();
+
+        assertEquals(1000L, minimo.get());
+    }
+}
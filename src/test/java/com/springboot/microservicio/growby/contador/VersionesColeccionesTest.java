@@ -0,0 +1,100 @@
+package com.springboot.microservicio.growby.contador;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.time.Instant;
+
+import static com.springboot.microservicio.growby.contador.VersionesColecciones.Coleccion.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class VersionesColeccionesTest {
+
+    private VersionesColecciones versionesColecciones;
+
+    @BeforeEach
+    void setUp() {
+        versionesColecciones = new VersionesColecciones();
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void etag_ShouldBeStableUntilCollectionChanges() {
+        String etag = versionesColecciones.etag(PRODUCTOS);
+
+        assertTrue(etag.startsWith("\"productos-") && etag.endsWith("\""));
+        assertEquals(etag, versionesColecciones.etag(PRODUCTOS));
+
+        versionesColecciones.incrementar(CLIENTES);
+        assertEquals(etag, versionesColecciones.etag(PRODUCTOS));
+
+        versionesColecciones.incrementar(PRODUCTOS);
+        assertNotEquals(etag, versionesColecciones.etag(PRODUCTOS));
+    }
+
+    @Test
+    void etag_ShouldIncludeRelatedCollections() {
+        String etag = versionesColecciones.etag(ORDENES, CLIENTES, PRODUCTOS);
+
+        versionesColecciones.incrementar(PRODUCTOS);
+
+        assertNotEquals(etag, versionesColecciones.etag(ORDENES, CLIENTES, PRODUCTOS));
+    }
+
+    @Test
+    void etagCliente_ShouldOnlyChangeForTheModifiedCliente() {
+        String etagCliente1 = versionesColecciones.etagCliente(1L);
+        String etagCliente2 = versionesColecciones.etagCliente(2L);
+
+        versionesColecciones.incrementarCliente(1L);
+
+        assertNotEquals(etagCliente1, versionesColecciones.etagCliente(1L));
+        assertEquals(etagCliente2, versionesColecciones.etagCliente(2L));
+    }
+
+    @Test
+    void etag_ShouldDifferBetweenInstances() {
+        assertNotEquals(new VersionesColecciones().etag(CLIENTES), versionesColecciones.etag(CLIENTES));
+    }
+
+    @Test
+    void etag_ShouldNoteTheLastWriteOfItsCollectionsInTheRequest() {
+        Instant antes = Instant.now();
+        versionesColecciones.incrementar(PRODUCTOS);
+
+        assertEquals(Instant.EPOCH, ultimaEscrituraAnotada(() -> versionesColecciones.etag(CLIENTES)));
+        Instant escritura = ultimaEscrituraAnotada(() -> versionesColecciones.etag(ORDENES, CLIENTES, PRODUCTOS));
+        assertFalse(escritura.isBefore(antes));
+    }
+
+    @Test
+    void etagCliente_ShouldNoteTheLastWriteOfItsStripeInTheRequest() {
+        Instant antes = Instant.now();
+        versionesColecciones.incrementarCliente(1L);
+
+        assertEquals(Instant.EPOCH, ultimaEscrituraAnotada(() -> versionesColecciones.etagCliente(2L)));
+        assertFalse(ultimaEscrituraAnotada(() -> versionesColecciones.etagCliente(1L)).isBefore(antes));
+    }
+
+    @Test
+    void etag_ShouldNotNeedAnHttpRequest() {
+        versionesColecciones.incrementar(CLIENTES);
+
+        assertNotNull(versionesColecciones.etag(CLIENTES));
+    }
+
+    private static Instant ultimaEscrituraAnotada(Runnable calculoEtag) {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+        calculoEtag.run();
+        return (Instant) request.getAttribute(VersionesColecciones.ATRIBUTO_ULTIMA_ESCRITURA);
+    }
+}
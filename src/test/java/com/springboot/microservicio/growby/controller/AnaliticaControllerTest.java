@@ -0,0 +1,89 @@
+package com.springboot.microservicio.growby.controller;
+
+import com.springboot.microservicio.growby.dto.VentasAgrupadasDTO;
+import com.springboot.microservicio.growby.dto.VentasPeriodoDTO;
+import com.springboot.microservicio.growby.service.AnaliticaService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.http.ResponseEntity;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class AnaliticaControllerTest {
+
+    private static final LocalDate DESDE = LocalDate.of(2024, 3, 1);
+    private static final LocalDate HASTA = LocalDate.of(2024, 3, 31);
+
+    @InjectMocks
+    private AnaliticaController analiticaController;
+
+    @Mock
+    private AnaliticaService analiticaService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    @Test
+    void ventasPorProducto_ShouldReturnRollup() {
+        List<VentasAgrupadasDTO> ventas = List.of(new VentasAgrupadasDTO(1L, "Producto A", 3, BigDecimal.TEN, 2));
+        when(analiticaService.ventasPorProducto(DESDE, HASTA)).thenReturn(ventas);
+
+        ResponseEntity<List<VentasAgrupadasDTO>> response = analiticaController.ventasPorProducto(DESDE, HASTA);
+
+        assertEquals(200, response.getStatusCodeValue());
+        assertEquals(ventas, response.getBody());
+    }
+
+    @Test
+    void ventasPorCliente_ShouldRejectInvertedRange() {
+        ResponseEntity<List<VentasAgrupadasDTO>> response = analiticaController.ventasPorCliente(HASTA, DESDE);
+
+        assertEquals(400, response.getStatusCodeValue());
+        verifyNoInteractions(analiticaService);
+    }
+
+    @Test
+    void ventasPorPeriodo_ShouldParsePeriodoIgnoringCase() {
+        List<VentasPeriodoDTO> ventas = List.of(new VentasPeriodoDTO(DESDE, 3, BigDecimal.TEN, 2));
+        when(analiticaService.ventasPorPeriodo(DESDE, HASTA, AnaliticaService.Periodo.MES, 5L, null)).thenReturn(ventas);
+
+        ResponseEntity<List<VentasPeriodoDTO>> response = analiticaController.ventasPorPeriodo(DESDE, HASTA, "Mes", 5L, null);
+
+        assertEquals(200, response.getStatusCodeValue());
+        assertEquals(ventas, response.getBody());
+    }
+
+    @Test
+    void ventasPorPeriodo_ShouldRejectUnknownPeriodo() {
+        ResponseEntity<List<VentasPeriodoDTO>> response = analiticaController.ventasPorPeriodo(DESDE, HASTA, "trimestre", null, null);
+
+        assertEquals(400, response.getStatusCodeValue());
+        verify(analiticaService, never()).ventasPorPeriodo(any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void ventasPorPeriodo_ShouldRejectProductoAndClienteTogether() {
+        ResponseEntity<List<VentasPeriodoDTO>> response = analiticaController.ventasPorPeriodo(DESDE, HASTA, "dia", 1L, 2L);
+
+        assertEquals(400, response.getStatusCodeValue());
+    }
+
+    @Test
+    void reconstruir_ShouldReturnNoContent() {
+        ResponseEntity<Void> response = analiticaController.reconstruir(DESDE, HASTA);
+
+        assertEquals(204, response.getStatusCodeValue());
+        verify(analiticaService).reconstruir(DESDE, HASTA);
+    }
+}
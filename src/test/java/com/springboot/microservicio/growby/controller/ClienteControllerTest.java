@@ -1,16 +1,27 @@
 package com.springboot.microservicio.growby.controller;
 
+import com.springboot.microservicio.growby.contador.VersionesColecciones;
 import com.springboot.microservicio.growby.dto.ClienteDTO;
+import com.springboot.microservicio.growby.dto.ResultadoImportacionDTO;
 import com.springboot.microservicio.growby.model.Cliente;
+import com.springboot.microservicio.growby.model.ResumenCliente;
 import com.springboot.microservicio.growby.service.ClienteService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.ResponseEntity;
-
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
@@ -27,6 +38,9 @@ class ClienteControllerTest {
     @Mock
     private ClienteService clienteService;
 
+    @Spy
+    private VersionesColecciones versionesColecciones = new VersionesColecciones();
+
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
@@ -42,7 +56,7 @@ class ClienteControllerTest {
         List<Cliente> clientes = Arrays.asList(cliente1, cliente2);
         when(clienteService.findAll()).thenReturn(clientes);
 
-        ResponseEntity<List<Cliente>> response = clienteController.getAllClientes();
+        ResponseEntity<List<Cliente>> response = clienteController.getAllClientes(peticion());
 
         assertEquals(200, response.getStatusCodeValue());
         assertEquals(clientes, response.getBody());
@@ -71,7 +85,7 @@ class ClienteControllerTest {
         cliente.setId(id);
         when(clienteService.getClienteById(id)).thenReturn(Optional.of(cliente));
 
-        ResponseEntity<Cliente> response = clienteController.getClienteById(id);
+        ResponseEntity<Cliente> response = clienteController.getClienteById(id, peticion());
 
         assertEquals(200, response.getStatusCodeValue());
         assertEquals(cliente, response.getBody());
@@ -83,12 +97,52 @@ class ClienteControllerTest {
         Long id = 1L;
         when(clienteService.getClienteById(id)).thenReturn(Optional.empty());
 
-        ResponseEntity<Cliente> response = clienteController.getClienteById(id);
+        ResponseEntity<Cliente> response = clienteController.getClienteById(id, peticion());
 
         assertEquals(404, response.getStatusCodeValue());
         assertNull(response.getBody());
     }
 
+    @Test
+    void getClienteById_ShouldReturnNotModifiedUntilClienteChanges() {
+        Cliente cliente = new Cliente();
+        cliente.setId(1L);
+        when(clienteService.getClienteById(1L)).thenReturn(Optional.of(cliente));
+        ServletWebRequest primera = peticion();
+        clienteController.getClienteById(1L, primera);
+        String etag = primera.getResponse().getHeader("ETag");
+
+        ServletWebRequest segunda = peticionConEtag(etag);
+        assertNull(clienteController.getClienteById(1L, segunda));
+        assertEquals(304, segunda.getResponse().getStatus());
+
+        versionesColecciones.incrementarCliente(1L);
+        ResponseEntity<Cliente> response = clienteController.getClienteById(1L, peticionConEtag(etag));
+
+        assertEquals(200, response.getStatusCodeValue());
+        verify(clienteService, times(2)).getClienteById(1L);
+    }
+
+    @Test
+    void getResumen_ShouldReturnSummary_WhenClienteExists() {
+        ResumenCliente resumen = ResumenCliente.vacio(1L);
+        when(clienteService.getResumen(1L)).thenReturn(Optional.of(resumen));
+
+        ResponseEntity<ResumenCliente> response = clienteController.getResumen(1L);
+
+        assertEquals(200, response.getStatusCodeValue());
+        assertSame(resumen, response.getBody());
+    }
+
+    @Test
+    void getResumen_ShouldReturnNotFound_WhenClienteDoesNotExist() {
+        when(clienteService.getResumen(1L)).thenReturn(Optional.empty());
+
+        ResponseEntity<ResumenCliente> response = clienteController.getResumen(1L);
+
+        assertEquals(404, response.getStatusCodeValue());
+    }
+
     @Test
     void updateCliente_ShouldReturnUpdatedCliente() {
 
@@ -129,4 +183,27 @@ class ClienteControllerTest {
         verify(clienteService, times(1)).delete(id);
     }
 
+    @Test
+    void importarClientes_ShouldReturnImportSummary() throws Exception {
+        MockMultipartFile archivo = new MockMultipartFile("archivo", "clientes.csv", "text/csv",
+                "nombre\nA\n".getBytes(StandardCharsets.UTF_8));
+        ResultadoImportacionDTO resumen = new ResultadoImportacionDTO(1, 1, 0, new ArrayList<>());
+        when(clienteService.importarCsv(any(InputStream.class))).thenReturn(resumen);
+
+        ResponseEntity<ResultadoImportacionDTO> response = clienteController.importarClientes(archivo);
+
+        assertEquals(200, response.getStatusCodeValue());
+        assertEquals(resumen, response.getBody());
+        verify(clienteService, times(1)).importarCsv(any(InputStream.class));
+    }
+
+    private static ServletWebRequest peticion() {
+        return new ServletWebRequest(new MockHttpServletRequest("GET", "/"), new MockHttpServletResponse());
+    }
+
+    private static ServletWebRequest peticionConEtag(String etag) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/");
+        request.addHeader("If-None-Match", etag);
+        return new ServletWebRequest(request, new MockHttpServletResponse());
+    }
 }
@@ -0,0 +1,67 @@
+package com.springboot.microservicio.growby.controller;
+
+import com.springboot.microservicio.growby.cache.CacheSegundoNivel;
+import com.springboot.microservicio.growby.dto.ConteosDTO;
+import com.springboot.microservicio.growby.dto.EstadisticasCacheDTO;
+import com.springboot.microservicio.growby.service.ClienteService;
+import com.springboot.microservicio.growby.service.OrdenService;
+import com.springboot.microservicio.growby.service.ProductoService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.http.ResponseEntity;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class DashboardControllerTest {
+
+    @InjectMocks
+    private DashboardController dashboardController;
+
+    @Mock
+    private ClienteService clienteService;
+
+    @Mock
+    private ProductoService productoService;
+
+    @Mock
+    private OrdenService ordenService;
+
+    @Mock
+    private CacheSegundoNivel cacheSegundoNivel;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    @Test
+    void getCounts_ShouldReturnAllCountersInOneResponse() {
+        when(clienteService.countAllClientes()).thenReturn(3L);
+        when(productoService.countAllProducts()).thenReturn(4L);
+        when(ordenService.countAllOrdenes()).thenReturn(5L);
+
+        ResponseEntity<ConteosDTO> response = dashboardController.getCounts();
+
+        assertEquals(200, response.getStatusCodeValue());
+        assertEquals(3L, response.getBody().getClientes());
+        assertEquals(4L, response.getBody().getProductos());
+        assertEquals(5L, response.getBody().getOrdenes());
+    }
+
+    @Test
+    void getEstadisticasCacheSegundoNivel_ShouldReturnStatisticsByRegion() {
+        EstadisticasCacheDTO clientes = new EstadisticasCacheDTO(8, 2, 0, 0.8, 2);
+        when(cacheSegundoNivel.estadisticas()).thenReturn(Map.of("clientes", clientes));
+
+        ResponseEntity<Map<String, EstadisticasCacheDTO>> response = dashboardController.getEstadisticasCacheSegundoNivel();
+
+        assertEquals(200, response.getStatusCodeValue());
+        assertSame(clientes, response.getBody().get("clientes"));
+    }
+}
@@ -1,6 +1,10 @@
 package com.springboot.microservicio.growby.controller;
 
+import com.springboot.microservicio.growby.contador.VersionesColecciones;
 import com.springboot.microservicio.growby.dto.OrdenDTO;
+import com.springboot.microservicio.growby.dto.OrdenResumenDTO;
+import com.springboot.microservicio.growby.dto.PaginaCursorDTO;
+import com.springboot.microservicio.growby.dto.ResultadoOrdenDTO;
 import com.springboot.microservicio.growby.model.Orden;
 import com.springboot.microservicio.growby.service.OrdenService;
 import org.junit.jupiter.api.BeforeEach;
@@ -9,13 +13,27 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
 import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 class OrdenControllerTest {
@@ -26,40 +44,159 @@ class OrdenControllerTest {
     @Mock
     private OrdenService ordenService;
 
+    @Spy
+    private VersionesColecciones versionesColecciones = new VersionesColecciones();
+
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
     }
 
     @Test
-    void getAll_ShouldReturnListOfOrdenes() {
+    void getAll_ShouldReturnPageOfOrdenes() {
         Orden orden1 = new Orden();
         orden1.setId(1L);
         Orden orden2 = new Orden();
         orden2.setId(2L);
         List<Orden> ordenes = Arrays.asList(orden1, orden2);
-        when(ordenService.findAll()).thenReturn(ordenes);
+        PaginaCursorDTO<Orden> pagina = new PaginaCursorDTO<>(ordenes, 2L);
+        when(ordenService.findAll(null, 2)).thenReturn(pagina);
 
-        ResponseEntity<List<Orden>> response = ordenController.getAll();
+        ResponseEntity<PaginaCursorDTO<?>> response = ordenController.getAll(null, null, null, null, null, 2, "completa", false, peticion());
 
         assertEquals(200, response.getStatusCodeValue());
-        assertEquals(ordenes, response.getBody());
+        assertEquals(ordenes, response.getBody().getContenido());
+        assertEquals(2L, response.getBody().getSiguienteCursor());
     }
 
     @Test
-    void getOrdenesByClienteId_ShouldReturnListOfOrdenes() {
+    void getOrdenesByClienteId_ShouldReturnPageOfOrdenes() {
         Long clienteId = 1L;
         Orden orden1 = new Orden();
         orden1.setId(1L);
         Orden orden2 = new Orden();
         orden2.setId(2L);
         List<Orden> ordenes = Arrays.asList(orden1, orden2);
-        when(ordenService.findOrdenesByClienteId(clienteId)).thenReturn(ordenes);
+        PaginaCursorDTO<Orden> pagina = new PaginaCursorDTO<>(ordenes, null);
+        when(ordenService.findOrdenesByClienteId(clienteId, 5L, 50)).thenReturn(pagina);
+
+        ResponseEntity<PaginaCursorDTO<?>> response = ordenController.getOrdenesByClienteId(clienteId, 5L, 50, "completa", false, peticion());
+
+        assertEquals(200, response.getStatusCodeValue());
+        assertEquals(ordenes, response.getBody().getContenido());
+        assertNull(response.getBody().getSiguienteCursor());
+    }
+
+    @Test
+    void getAll_ShouldReturnProjectionsWhenVistaIsResumen() {
+        List<OrdenResumenDTO> resumenes = List.of(new OrdenResumenDTO(1L, 2, null, null, 3L, 4L));
+        PaginaCursorDTO<OrdenResumenDTO> pagina = new PaginaCursorDTO<>(resumenes, null);
+        when(ordenService.findResumen(null, 50, true)).thenReturn(pagina);
+
+        ResponseEntity<PaginaCursorDTO<?>> response = ordenController.getAll(null, null, null, null, null, 50, "resumen", true, peticion());
+
+        assertEquals(200, response.getStatusCodeValue());
+        assertEquals(resumenes, response.getBody().getContenido());
+        verify(ordenService, never()).findAll(any(), anyInt());
+    }
+
+    @Test
+    void getOrdenesByClienteId_ShouldReturnProjectionsWhenVistaIsResumen() {
+        PaginaCursorDTO<OrdenResumenDTO> pagina = new PaginaCursorDTO<>(List.of(), null);
+        when(ordenService.findResumenByClienteId(1L, null, 50, false)).thenReturn(pagina);
+
+        ResponseEntity<PaginaCursorDTO<?>> response = ordenController.getOrdenesByClienteId(1L, null, 50, "resumen", false, peticion());
+
+        assertEquals(200, response.getStatusCodeValue());
+        assertSame(pagina, response.getBody());
+    }
+
+    @Test
+    void getAll_ShouldRejectUnknownVista() {
+        ResponseEntity<PaginaCursorDTO<?>> response = ordenController.getAll(null, null, null, null, null, 50, "otra", false, peticion());
+
+        assertEquals(400, response.getStatusCodeValue());
+        verifyNoInteractions(ordenService);
+    }
+
+    @Test
+    void getAll_ShouldFilterByProductoAndDateRange() {
+        LocalDateTime desde = LocalDateTime.of(2024, 3, 1, 0, 0);
+        LocalDateTime hasta = LocalDateTime.of(2024, 4, 1, 0, 0);
+        PaginaCursorDTO<Orden> pagina = new PaginaCursorDTO<>(List.of(new Orden()), 7L);
+        when(ordenService.findByFechaOrden(eq(null), eq(3L), any(), any(), eq(null), eq(50))).thenReturn(pagina);
+
+        ResponseEntity<PaginaCursorDTO<?>> response = ordenController.getAll(null, 3L, desde, hasta, null, 50, "completa", false, peticion());
+
+        assertEquals(200, response.getStatusCodeValue());
+        assertSame(pagina, response.getBody());
+        verify(ordenService).findByFechaOrden(null, 3L, Date.from(desde.atZone(ZoneId.systemDefault()).toInstant()),
+                Date.from(hasta.atZone(ZoneId.systemDefault()).toInstant()), null, 50);
+        verify(ordenService, never()).findAll(any(), anyInt());
+    }
+
+    @Test
+    void getAll_ShouldReturnResumenFilteredByCliente() {
+        PaginaCursorDTO<OrdenResumenDTO> pagina = new PaginaCursorDTO<>(List.of(), null);
+        when(ordenService.findResumenByFechaOrden(1L, null, null, null, 9L, 20, true)).thenReturn(pagina);
+
+        ResponseEntity<PaginaCursorDTO<?>> response = ordenController.getAll(1L, null, null, null, 9L, 20, "resumen", true, peticion());
+
+        assertSame(pagina, response.getBody());
+    }
+
+    @Test
+    void getAll_ShouldRejectDateRangeWithoutClienteOrProducto() {
+        ResponseEntity<PaginaCursorDTO<?>> response =
+                ordenController.getAll(null, null, LocalDateTime.of(2024, 3, 1, 0, 0), null, null, 50, "completa", false, peticion());
+
+        assertEquals(400, response.getStatusCodeValue());
+        verifyNoInteractions(ordenService);
+    }
+
+    @Test
+    void getOrdenesByClienteId_ShouldReturnNotModifiedUntilOrdersOrProductsChange() {
+        PaginaCursorDTO<OrdenResumenDTO> pagina = new PaginaCursorDTO<>(List.of(), null);
+        when(ordenService.findResumenByClienteId(1L, null, 50, false)).thenReturn(pagina);
+        ServletWebRequest primera = peticion();
+        ordenController.getOrdenesByClienteId(1L, null, 50, "resumen", false, primera);
+        String etag = primera.getResponse().getHeader("ETag");
 
-        ResponseEntity<List<Orden>> response = ordenController.getOrdenesByClienteId(clienteId);
+        assertNull(ordenController.getOrdenesByClienteId(1L, null, 50, "resumen", false, peticionConEtag(etag)));
+
+        versionesColecciones.incrementar(VersionesColecciones.Coleccion.PRODUCTOS);
+        ResponseEntity<PaginaCursorDTO<?>> response =
+                ordenController.getOrdenesByClienteId(1L, null, 50, "resumen", false, peticionConEtag(etag));
 
         assertEquals(200, response.getStatusCodeValue());
-        assertEquals(ordenes, response.getBody());
+        verify(ordenService, times(2)).findResumenByClienteId(1L, null, 50, false);
+    }
+
+    @Test
+    void getAll_ShouldChangeEtagWhenAnyEmbeddedCollectionChanges() {
+        ServletWebRequest primera = peticion();
+        when(ordenService.findAll(null, 50)).thenReturn(new PaginaCursorDTO<>(List.of(), null));
+        ordenController.getAll(null, null, null, null, null, 50, "completa", false, primera);
+        String etag = primera.getResponse().getHeader("ETag");
+
+        versionesColecciones.incrementar(VersionesColecciones.Coleccion.CLIENTES);
+        ServletWebRequest segunda = peticionConEtag(etag);
+        ResponseEntity<PaginaCursorDTO<?>> response = ordenController.getAll(null, null, null, null, null, 50, "completa", false, segunda);
+
+        assertEquals(200, response.getStatusCodeValue());
+        assertNotEquals(etag, segunda.getResponse().getHeader("ETag"));
+    }
+
+    @Test
+    void exportarOrdenes_ShouldStreamFromService() throws IOException {
+        ByteArrayOutputStream salida = new ByteArrayOutputStream();
+
+        ResponseEntity<StreamingResponseBody> response = ordenController.exportarOrdenes();
+        response.getBody().writeTo(salida);
+
+        assertEquals(200, response.getStatusCodeValue());
+        assertEquals(OrdenController.APPLICATION_NDJSON, response.getHeaders().getContentType());
+        verify(ordenService, times(1)).exportarNdjson(salida);
     }
 
     @Test
@@ -75,6 +212,30 @@ class OrdenControllerTest {
         assertEquals(orden, response.getBody());
     }
 
+    @Test
+    void createOrdersBatch_ShouldReturnResultsPerOrden() {
+        List<OrdenDTO> ordenesDTO = List.of(new OrdenDTO(), new OrdenDTO());
+        List<ResultadoOrdenDTO> resultados = List.of(
+                ResultadoOrdenDTO.creada(0, 1L),
+                ResultadoOrdenDTO.rechazada(1, "Producto no encontrado"));
+        when(ordenService.saveAll(ordenesDTO)).thenReturn(resultados);
+
+        ResponseEntity<List<ResultadoOrdenDTO>> response = ordenController.createOrdersBatch(ordenesDTO);
+
+        assertEquals(200, response.getStatusCodeValue());
+        assertEquals(resultados, response.getBody());
+    }
+
+    @Test
+    void createOrdersBatch_ShouldRejectOversizedBatch() {
+        List<OrdenDTO> ordenesDTO = new ArrayList<>(Collections.nCopies(OrdenController.TAMANO_MAXIMO_LOTE + 1, new OrdenDTO()));
+
+        ResponseEntity<List<ResultadoOrdenDTO>> response = ordenController.createOrdersBatch(ordenesDTO);
+
+        assertEquals(413, response.getStatusCodeValue());
+        verify(ordenService, never()).saveAll(any());
+    }
+
     @Test
     void updateOrder_ShouldReturnUpdatedOrden() {
         Long id = 1L;
@@ -99,4 +260,14 @@ class OrdenControllerTest {
         assertEquals(204, response.getStatusCodeValue());
         verify(ordenService, times(1)).delete(id);
     }
+
+    private static ServletWebRequest peticion() {
+        return new ServletWebRequest(new MockHttpServletRequest("GET", "/"), new MockHttpServletResponse());
+    }
+
+    private static ServletWebRequest peticionConEtag(String etag) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/");
+        request.addHeader("If-None-Match", etag);
+        return new ServletWebRequest(request, new MockHttpServletResponse());
+    }
 }
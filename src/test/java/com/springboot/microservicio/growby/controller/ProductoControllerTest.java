@@ -1,6 +1,10 @@
 package com.springboot.microservicio.growby.controller;
 
+import com.springboot.microservicio.growby.contador.VersionesColecciones;
+import com.springboot.microservicio.growby.dto.PaginaDTO;
+import com.springboot.microservicio.growby.dto.ProductoBusquedaDTO;
 import com.springboot.microservicio.growby.dto.ProductoDTO;
+import com.springboot.microservicio.growby.dto.ResultadoImportacionDTO;
 import com.springboot.microservicio.growby.model.Producto;
 import com.springboot.microservicio.growby.service.ProductoService;
 import org.junit.jupiter.api.BeforeEach;
@@ -8,8 +12,18 @@ import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.springframework.data.domain.Sort;
 import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.web.context.request.ServletWebRequest;
 
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
@@ -26,6 +40,9 @@ class ProductoControllerTest {
     @Mock
     private ProductoService productoService;
 
+    @Spy
+    private VersionesColecciones versionesColecciones = new VersionesColecciones();
+
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
@@ -40,7 +57,7 @@ class ProductoControllerTest {
         List<Producto> productos = Arrays.asList(producto1, producto2);
         when(productoService.findAll()).thenReturn(productos);
 
-        ResponseEntity<List<Producto>> response = productoController.getAllProductos();
+        ResponseEntity<List<Producto>> response = productoController.getAllProductos(peticion());
 
         assertEquals(200, response.getStatusCodeValue());
         assertEquals(productos, response.getBody());
@@ -53,7 +70,7 @@ class ProductoControllerTest {
         producto.setId(id);
         when(productoService.getProductoById(id)).thenReturn(Optional.of(producto));
 
-        ResponseEntity<Producto> response = productoController.getProductoById(id);
+        ResponseEntity<Producto> response = productoController.getProductoById(id, peticion());
 
         assertEquals(200, response.getStatusCodeValue());
         assertEquals(producto, response.getBody());
@@ -64,11 +81,72 @@ class ProductoControllerTest {
         Long id = 1L;
         when(productoService.getProductoById(id)).thenReturn(Optional.empty());
 
-        ResponseEntity<Producto> response = productoController.getProductoById(id);
+        ResponseEntity<Producto> response = productoController.getProductoById(id, peticion());
 
         assertEquals(404, response.getStatusCodeValue());
     }
 
+    @Test
+    void getStockDisponible_ShouldReturnAvailableUnits() {
+        when(productoService.getStockDisponible(1L)).thenReturn(Optional.of(7L));
+
+        ResponseEntity<Long> response = productoController.getStockDisponible(1L);
+
+        assertEquals(200, response.getStatusCodeValue());
+        assertEquals(7L, response.getBody());
+    }
+
+    @Test
+    void getStockDisponible_ShouldReturnNotFoundIfProductoDoesNotTrackStock() {
+        when(productoService.getStockDisponible(1L)).thenReturn(Optional.empty());
+
+        ResponseEntity<Long> response = productoController.getStockDisponible(1L);
+
+        assertEquals(404, response.getStatusCodeValue());
+    }
+
+    @Test
+    void getAllProductos_ShouldReturnNotModifiedWithoutQueryingWhenEtagMatches() {
+        ServletWebRequest primera = peticion();
+        productoController.getAllProductos(primera);
+        String etag = primera.getResponse().getHeader("ETag");
+        ServletWebRequest segunda = peticionConEtag(etag);
+
+        ResponseEntity<List<Producto>> response = productoController.getAllProductos(segunda);
+
+        assertNull(response);
+        assertEquals(304, segunda.getResponse().getStatus());
+        verify(productoService, times(1)).findAll();
+    }
+
+    @Test
+    void getAllProductos_ShouldChangeEtagAfterCatalogChanges() {
+        ServletWebRequest primera = peticion();
+        productoController.getAllProductos(primera);
+        String etag = primera.getResponse().getHeader("ETag");
+        versionesColecciones.incrementar(VersionesColecciones.Coleccion.PRODUCTOS);
+        ServletWebRequest segunda = peticionConEtag(etag);
+
+        ResponseEntity<List<Producto>> response = productoController.getAllProductos(segunda);
+
+        assertEquals(200, response.getStatusCodeValue());
+        assertNotEquals(etag, segunda.getResponse().getHeader("ETag"));
+    }
+
+    @Test
+    void getProductoById_ShouldUseEntityVersionAsEtag() {
+        Producto producto = new Producto();
+        producto.setId(1L);
+        producto.setVersion(3L);
+        when(productoService.getProductoById(1L)).thenReturn(Optional.of(producto));
+        ServletWebRequest request = peticionConEtag("\"producto-1-3\"");
+
+        ResponseEntity<Producto> response = productoController.getProductoById(1L, request);
+
+        assertNull(response);
+        assertEquals(304, request.getResponse().getStatus());
+    }
+
     @Test
     void createProducto_ShouldReturnCreatedProducto() {
         ProductoDTO productoDTO = new ProductoDTO();
@@ -106,4 +184,85 @@ class ProductoControllerTest {
         assertEquals(204, response.getStatusCodeValue());
         verify(productoService, times(1)).delete(id);
     }
+
+    @Test
+    void getCatalogo_ShouldPassFiltersAndSortToService() {
+        PaginaDTO<Producto> pagina = new PaginaDTO<>(List.of(new Producto()), 1, 20, 21, 2);
+        when(productoService.findAll(Producto.Estado.ACTIVO, BigDecimal.ONE, BigDecimal.TEN, null, null,
+                Sort.by(Sort.Direction.DESC, "precio"), 1, 20)).thenReturn(pagina);
+
+        ResponseEntity<PaginaDTO<Producto>> response = productoController.getCatalogo("Activo", BigDecimal.ONE,
+                BigDecimal.TEN, null, null, "precio,desc", 1, 20, peticion());
+
+        assertEquals(200, response.getStatusCodeValue());
+        assertEquals(pagina, response.getBody());
+    }
+
+    @Test
+    void getCatalogo_ShouldReturnBadRequestForUnknownSortOrEstado() {
+        assertEquals(400, productoController.getCatalogo(null, null, null, null, null, "nombre", 0, 20, peticion())
+                .getStatusCodeValue());
+        assertEquals(400, productoController.getCatalogo(null, null, null, null, null, "precio,arriba", 0, 20, peticion())
+                .getStatusCodeValue());
+        assertEquals(400, productoController.getCatalogo("Agotado", null, null, null, null, "id", 0, 20, peticion())
+                .getStatusCodeValue());
+        verifyNoInteractions(productoService);
+    }
+
+    @Test
+    void getCatalogo_ShouldReturnNotModifiedWhenCatalogUnchanged() {
+        String etag = versionesColecciones.etag(VersionesColecciones.Coleccion.PRODUCTOS);
+
+        ResponseEntity<PaginaDTO<Producto>> response = productoController.getCatalogo(null, null, null, null, null,
+                "id", 0, 20, peticionConEtag(etag));
+
+        assertNull(response);
+        verifyNoInteractions(productoService);
+    }
+
+    @Test
+    void buscarProductos_ShouldFilterByEstado() {
+        List<ProductoBusquedaDTO> resultados = List.of(
+                new ProductoBusquedaDTO(1L, "Camión", null, null, Producto.Estado.ACTIVO, 6));
+        when(productoService.buscar("cami", Producto.Estado.ACTIVO, 10)).thenReturn(resultados);
+
+        ResponseEntity<List<ProductoBusquedaDTO>> response =
+                productoController.buscarProductos("cami", "activo", 10, peticion());
+
+        assertEquals(200, response.getStatusCodeValue());
+        assertEquals(resultados, response.getBody());
+    }
+
+    @Test
+    void buscarProductos_ShouldReturnBadRequestForUnknownEstado() {
+        ResponseEntity<List<ProductoBusquedaDTO>> response =
+                productoController.buscarProductos("cami", "Agotado", 10, peticion());
+
+        assertEquals(400, response.getStatusCodeValue());
+        verifyNoInteractions(productoService);
+    }
+
+    @Test
+    void importarProductos_ShouldReturnImportSummary() throws Exception {
+        MockMultipartFile archivo = new MockMultipartFile("archivo", "productos.csv", "text/csv",
+                "nombre\nA\n".getBytes(StandardCharsets.UTF_8));
+        ResultadoImportacionDTO resumen = new ResultadoImportacionDTO(1, 1, 0, new ArrayList<>());
+        when(productoService.importarCsv(any(InputStream.class))).thenReturn(resumen);
+
+        ResponseEntity<ResultadoImportacionDTO> response = productoController.importarProductos(archivo);
+
+        assertEquals(200, response.getStatusCodeValue());
+        assertEquals(resumen, response.getBody());
+        verify(productoService, times(1)).importarCsv(any(InputStream.class));
+    }
+
+    private static ServletWebRequest peticion() {
+        return new ServletWebRequest(new MockHttpServletRequest("GET", "/"), new MockHttpServletResponse());
+    }
+
+    private static ServletWebRequest peticionConEtag(String etag) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/");
+        request.addHeader("If-None-Match", etag);
+        return new ServletWebRequest(request, new MockHttpServletResponse());
+    }
 }
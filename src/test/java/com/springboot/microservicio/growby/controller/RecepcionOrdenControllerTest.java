@@ -0,0 +1,61 @@
+package com.springboot.microservicio.growby.controller;
+
+import com.springboot.microservicio.growby.dto.EstadoRecepcionDTO;
+import com.springboot.microservicio.growby.dto.OrdenDTO;
+import com.springboot.microservicio.growby.recepcion.RecepcionOrdenes;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class RecepcionOrdenControllerTest {
+
+    @InjectMocks
+    private RecepcionOrdenController recepcionOrdenController;
+
+    @Mock
+    private RecepcionOrdenes recepcionOrdenes;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    @Test
+    void recibirOrden_ShouldReturnAcceptedWithToken() {
+        OrdenDTO ordenDTO = new OrdenDTO(1, null, 1L, 1L);
+        when(recepcionOrdenes.recibir(ordenDTO)).thenReturn(Optional.of(EstadoRecepcionDTO.pendiente("abc")));
+
+        ResponseEntity<EstadoRecepcionDTO> response = recepcionOrdenController.recibirOrden(ordenDTO);
+
+        assertEquals(202, response.getStatusCodeValue());
+        assertEquals("abc", response.getBody().getToken());
+        assertEquals("/api/ordenes/async/abc", response.getHeaders().getFirst(HttpHeaders.LOCATION));
+    }
+
+    @Test
+    void recibirOrden_ShouldReturnTooManyRequestsWhenQueueIsFull() {
+        OrdenDTO ordenDTO = new OrdenDTO(1, null, 1L, 1L);
+        when(recepcionOrdenes.recibir(ordenDTO)).thenReturn(Optional.empty());
+
+        ResponseEntity<EstadoRecepcionDTO> response = recepcionOrdenController.recibirOrden(ordenDTO);
+
+        assertEquals(429, response.getStatusCodeValue());
+        assertEquals(RecepcionOrdenController.SEGUNDOS_REINTENTO, response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+    }
+
+    @Test
+    void getEstado_ShouldReturnNotFoundForUnknownToken() {
+        when(recepcionOrdenes.estado("abc")).thenReturn(Optional.empty());
+
+        assertEquals(404, recepcionOrdenController.getEstado("abc").getStatusCodeValue());
+    }
+}
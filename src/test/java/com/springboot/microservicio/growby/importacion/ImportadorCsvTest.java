@@ -0,0 +1,87 @@
+package com.springboot.microservicio.growby.importacion;
+
+import com.springboot.microservicio.growby.dto.ClienteDTO;
+import com.springboot.microservicio.growby.dto.ErrorFilaDTO;
+import com.springboot.microservicio.growby.dto.ResultadoImportacionDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.validation.Validation;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ImportadorCsvTest {
+
+    private static final Function<FilaCsv, ClienteDTO> MAPEADOR =
+            fila -> new ClienteDTO(fila.valor("nombre"), fila.valor("email"), fila.valor("telefono"));
+
+    private ImportadorCsv importadorCsv;
+    private List<List<Long>> bloques;
+
+    @BeforeEach
+    void setUp() {
+        importadorCsv = new ImportadorCsv(Validation.buildDefaultValidatorFactory().getValidator(), 2);
+        bloques = new ArrayList<>();
+    }
+
+    @Test
+    void importar_ShouldDeliverValidRowsInBlocks() throws IOException {
+        String csv = "Email, NOMBRE ,telefono\n"
+                + "juan@example.com,Juan,555-1\n"
+                + "maria@example.com,María,\n"
+                + "carlos@example.com,Carlos,555-3\n";
+
+        ResultadoImportacionDTO resultado = importadorCsv.importar(flujo(csv), MAPEADOR, (bloque, r) -> {
+            List<Long> lineas = new ArrayList<>();
+            bloque.forEach(fila -> lineas.add(fila.getLinea()));
+            bloques.add(lineas);
+            r.importadas(bloque.size());
+        });
+
+        assertEquals(List.of(List.of(2L, 3L), List.of(4L)), bloques);
+        assertEquals(3, resultado.getFilasLeidas());
+        assertEquals(3, resultado.getFilasImportadas());
+        assertEquals(0, resultado.getFilasRechazadas());
+    }
+
+    @Test
+    void importar_ShouldRejectInvalidRowsWithTheirLine() throws IOException {
+        String csv = "nombre,email\n"
+                + "Juan,no-es-un-email\n"
+                + ",maria@example.com\n"
+                + "Carlos,carlos@example.com\n";
+
+        ResultadoImportacionDTO resultado = importadorCsv.importar(flujo(csv), MAPEADOR,
+                (bloque, r) -> r.importadas(bloque.size()));
+
+        assertEquals(3, resultado.getFilasLeidas());
+        assertEquals(1, resultado.getFilasImportadas());
+        assertEquals(2, resultado.getFilasRechazadas());
+        ErrorFilaDTO primero = resultado.getErrores().get(0);
+        assertEquals(2, primero.getLinea());
+        assertEquals("email: Email no válido", primero.getMensaje());
+        ErrorFilaDTO segundo = resultado.getErrores().get(1);
+        assertEquals(3, segundo.getLinea());
+        assertEquals("nombre: El nombre es obligatorio", segundo.getMensaje());
+    }
+
+    @Test
+    void importar_ShouldReturnEmptySummaryForEmptyFile() throws IOException {
+        ResultadoImportacionDTO resultado = importadorCsv.importar(flujo(""), MAPEADOR,
+                (bloque, r) -> fail("No debería guardar bloques"));
+
+        assertEquals(0, resultado.getFilasLeidas());
+        assertTrue(resultado.getErrores().isEmpty());
+    }
+
+    private static InputStream flujo(String contenido) {
+        return new ByteArrayInputStream(contenido.getBytes(StandardCharsets.UTF_8));
+    }
+}
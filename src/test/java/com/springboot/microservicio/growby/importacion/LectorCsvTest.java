@@ -0,0 +1,46 @@
+package com.springboot.microservicio.growby.importacion;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LectorCsvTest {
+
+    @Test
+    void siguienteRegistro_ShouldSplitFieldsAndTrackLines() throws IOException {
+        LectorCsv lector = new LectorCsv(new StringReader("\uFEFFnombre,email\r\nJuan,juan@example.com\r\n\r\nMaría,maria@example.com"));
+
+        assertEquals(List.of("nombre", "email"), lector.siguienteRegistro());
+        assertEquals(1, lector.getLinea());
+        assertEquals(List.of("Juan", "juan@example.com"), lector.siguienteRegistro());
+        assertEquals(2, lector.getLinea());
+        assertEquals(List.of("María", "maria@example.com"), lector.siguienteRegistro());
+        assertEquals(4, lector.getLinea());
+        assertNull(lector.siguienteRegistro());
+    }
+
+    @Test
+    void siguienteRegistro_ShouldHandleQuotedFields() throws IOException {
+        LectorCsv lector = new LectorCsv(new StringReader(
+                "\"Producto, A\",\"Dice \"\"hola\"\"\",\n\"Varias\nlíneas\",,x\nfin\n"));
+
+        assertEquals(List.of("Producto, A", "Dice \"hola\"", ""), lector.siguienteRegistro());
+        assertEquals(List.of("Varias\nlíneas", "", "x"), lector.siguienteRegistro());
+        assertEquals(2, lector.getLinea());
+        assertEquals(List.of("fin"), lector.siguienteRegistro());
+        assertEquals(4, lector.getLinea());
+        assertNull(lector.siguienteRegistro());
+    }
+
+    @Test
+    void siguienteRegistro_ShouldFailOnUnclosedQuotes() throws IOException {
+        LectorCsv lector = new LectorCsv(new StringReader("a,b\n\"sin cerrar,c\n"));
+        lector.siguienteRegistro();
+
+        assertThrows(IOException.class, lector::siguienteRegistro);
+    }
+}
@@ -0,0 +1,75 @@
+package com.springboot.microservicio.growby.metricas;
+
+import com.springboot.microservicio.growby.cache.IndiceEmailClientes;
+import com.springboot.microservicio.growby.contador.ContadorEntidades;
+import com.springboot.microservicio.growby.contador.VersionesColecciones;
+import com.springboot.microservicio.growby.dto.ClienteDTO;
+import com.springboot.microservicio.growby.exception.ClienteNotFoundException;
+import com.springboot.microservicio.growby.importacion.ImportadorCsv;
+import com.springboot.microservicio.growby.repository.ClienteRepository;
+import com.springboot.microservicio.growby.repository.ResumenClienteRepository;
+import com.springboot.microservicio.growby.service.ClienteService;
+import com.springboot.microservicio.growby.service.impl.ClienteServiceImpl;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.Collections;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class MetricasServicioAspectTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private ClienteRepository clienteRepository;
+    private ClienteService clienteService;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        clienteRepository = mock(ClienteRepository.class);
+
+        AspectJProxyFactory fabrica = new AspectJProxyFactory(
+                new ClienteServiceImpl(clienteRepository, mock(ContadorEntidades.class), mock(IndiceEmailClientes.class),
+                        mock(ImportadorCsv.class), mock(ResumenClienteRepository.class),
+                        new VersionesColecciones(), mock(PlatformTransactionManager.class)));
+        fabrica.addAspect(new MetricasServicioAspect(meterRegistry));
+        clienteService = fabrica.getProxy();
+    }
+
+    @Test
+    void medir_ShouldRecordTimerPerMethod() {
+        when(clienteRepository.findAll()).thenReturn(Collections.emptyList());
+
+        clienteService.findAll();
+        clienteService.findAll();
+
+        Timer timer = meterRegistry.get(MetricasServicioAspect.METRICA)
+                .tag("clase", "ClienteServiceImpl")
+                .tag("metodo", "findAll")
+                .tag("excepcion", "none")
+                .timer();
+        assertEquals(2, timer.count());
+    }
+
+    @Test
+    void medir_ShouldTagExceptionAndRethrow() {
+        when(clienteRepository.findById(1L)).thenReturn(Optional.empty());
+        ClienteDTO clienteDTO = new ClienteDTO("Juan Pérez", "juan.perez@example.com", "555-1234");
+
+        assertThrows(ClienteNotFoundException.class, () -> clienteService.update(1L, clienteDTO));
+
+        Timer timer = meterRegistry.get(MetricasServicioAspect.METRICA)
+                .tag("metodo", "update")
+                .tag("excepcion", "ClienteNotFoundException")
+                .timer();
+        assertEquals(1, timer.count());
+        verify(clienteRepository, never()).save(any());
+    }
+}
@@ -0,0 +1,78 @@
+package com.springboot.microservicio.growby.reactivo;
+
+import com.springboot.microservicio.growby.dto.OrdenResumenDTO;
+import com.springboot.microservicio.growby.model.Producto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+
+import java.math.BigDecimal;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class LecturasReactivasTest {
+
+    private OrdenReactivaRepository ordenRepository;
+    private ProductoReactivoRepository productoRepository;
+    private WebTestClient cliente;
+
+    @BeforeEach
+    void setUp() {
+        ordenRepository = mock(OrdenReactivaRepository.class);
+        productoRepository = mock(ProductoReactivoRepository.class);
+        cliente = WebTestClient.bindToRouterFunction(new LecturasReactivas(ordenRepository, productoRepository).rutas()).build();
+    }
+
+    @Test
+    void ordenes_ShouldStreamNdjsonWithDefaultCursorAndLimit() {
+        when(ordenRepository.findResumen(0L, 50, false)).thenReturn(Flux.just(
+                new OrdenResumenDTO(1L, 2, BigDecimal.TEN, new Date(), 3L, 4L),
+                new OrdenResumenDTO(2L, 1, BigDecimal.ONE, new Date(), 3L, 5L)));
+
+        List<OrdenResumenDTO> ordenes = cliente.get().uri("/api/ordenes").exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentType(MediaType.APPLICATION_NDJSON)
+                .returnResult(OrdenResumenDTO.class).getResponseBody().collectList().block();
+
+        assertEquals(2, ordenes.size());
+        assertEquals(2L, ordenes.get(1).getId());
+    }
+
+    @Test
+    void ordenesDeCliente_ShouldPassCursorAndClampLimit() {
+        when(ordenRepository.findResumenByClienteId(anyLong(), anyLong(), anyInt(), anyBoolean())).thenReturn(Flux.empty());
+
+        cliente.get().uri("/api/ordenes/cliente/7?after=10&limit=1000000&incluirNombres=true").exchange()
+                .expectStatus().isOk();
+
+        verify(ordenRepository).findResumenByClienteId(7L, 10L, LecturasReactivas.LIMITE_MAXIMO, true);
+    }
+
+    @Test
+    void ordenes_ShouldReturnBadRequestForInvalidParameters() {
+        cliente.get().uri("/api/ordenes?after=abc").exchange().expectStatus().isBadRequest();
+        cliente.get().uri("/api/ordenes/cliente/x").exchange().expectStatus().isBadRequest();
+
+        verifyNoInteractions(ordenRepository);
+    }
+
+    @Test
+    void productos_ShouldStreamCatalog() {
+        Producto producto = new Producto();
+        producto.setId(1L);
+        producto.setNombre("Producto");
+        producto.setEstado(Producto.Estado.ACTIVO);
+        when(productoRepository.findAll()).thenReturn(Flux.just(producto));
+
+        cliente.get().uri("/api/productos").exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentType(MediaType.APPLICATION_NDJSON)
+                .expectBodyList(Producto.class).hasSize(1);
+    }
+}
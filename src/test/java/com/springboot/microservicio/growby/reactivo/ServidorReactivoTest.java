@@ -0,0 +1,67 @@
+package com.springboot.microservicio.growby.reactivo;
+
+import com.springboot.microservicio.growby.dto.ClienteDTO;
+import com.springboot.microservicio.growby.dto.OrdenDTO;
+import com.springboot.microservicio.growby.dto.OrdenResumenDTO;
+import com.springboot.microservicio.growby.dto.ProductoDTO;
+import com.springboot.microservicio.growby.model.Orden;
+import com.springboot.microservicio.growby.model.Producto;
+import com.springboot.microservicio.growby.service.ClienteService;
+import com.springboot.microservicio.growby.service.OrdenService;
+import com.springboot.microservicio.growby.service.ProductoService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {"growby.reactivo.habilitado=true", "growby.reactivo.puerto=0"})
+class ServidorReactivoTest {
+
+    @Autowired
+    private ServidorReactivo servidor;
+
+    @Autowired
+    private ClienteService clienteService;
+
+    @Autowired
+    private ProductoService productoService;
+
+    @Autowired
+    private OrdenService ordenService;
+
+    @Test
+    void ordenesDeCliente_ShouldReadRowsWrittenThroughJpa() {
+        Long clienteId = clienteService.save(new ClienteDTO("Cliente reactivo", "reactivo@example.com", "555")).getId();
+        Producto producto = productoService.save(new ProductoDTO("Producto reactivo", "Descripción", new BigDecimal("2.50"), "ACTIVO", null));
+        Orden primera = ordenService.save(new OrdenDTO(2, null, clienteId, producto.getId()));
+        Orden segunda = ordenService.save(new OrdenDTO(3, null, clienteId, producto.getId()));
+        WebTestClient cliente = WebTestClient.bindToServer().baseUrl("http://localhost:" + servidor.getPuerto()).build();
+
+        List<OrdenResumenDTO> ordenes = cliente.get()
+                .uri("/api/ordenes/cliente/{id}?incluirNombres=true", clienteId).exchange()
+                .expectStatus().isOk()
+                .returnResult(OrdenResumenDTO.class).getResponseBody().collectList().block();
+        List<OrdenResumenDTO> siguientes = cliente.get()
+                .uri("/api/ordenes/cliente/{id}?after={after}", clienteId, primera.getId()).exchange()
+                .expectStatus().isOk()
+                .returnResult(OrdenResumenDTO.class).getResponseBody().collectList().block();
+        List<Producto> productos = cliente.get().uri("/api/productos").exchange()
+                .expectStatus().isOk()
+                .returnResult(Producto.class).getResponseBody().collectList().block();
+
+        assertEquals(2, ordenes.size());
+        assertEquals(primera.getId(), ordenes.get(0).getId());
+        assertEquals(0, new BigDecimal("5.00").compareTo(ordenes.get(0).getTotal()));
+        assertEquals("Cliente reactivo", ordenes.get(0).getNombreCliente());
+        assertEquals("Producto reactivo", ordenes.get(0).getNombreProducto());
+        assertEquals(primera.getFechaOrden(), ordenes.get(0).getFechaOrden());
+        assertEquals(List.of(segunda.getId()), siguientes.stream().map(OrdenResumenDTO::getId).toList());
+        assertTrue(productos.stream().anyMatch(p -> p.getId().equals(producto.getId())
+                && p.getEstado() == Producto.Estado.ACTIVO));
+    }
+}
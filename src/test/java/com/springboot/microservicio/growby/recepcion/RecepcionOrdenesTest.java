@@ -0,0 +1,157 @@
+package com.springboot.microservicio.growby.recepcion;
+
+import com.springboot.microservicio.growby.cache.ProductoCache;
+import com.springboot.microservicio.growby.dto.EstadoRecepcionDTO;
+import com.springboot.microservicio.growby.dto.OrdenDTO;
+import com.springboot.microservicio.growby.dto.ResultadoOrdenDTO;
+import com.springboot.microservicio.growby.exception.OrdenNotFoundException;
+import com.springboot.microservicio.growby.model.Producto;
+import com.springboot.microservicio.growby.repository.ClienteRepository;
+import com.springboot.microservicio.growby.service.OrdenService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+class RecepcionOrdenesTest {
+
+    private OrdenService ordenService;
+    private ProductoCache productoCache;
+    private ClienteRepository clienteRepository;
+    private RecepcionOrdenes recepcion;
+
+    @BeforeEach
+    void setUp() {
+        ordenService = mock(OrdenService.class);
+        productoCache = mock(ProductoCache.class);
+        clienteRepository = mock(ClienteRepository.class);
+        when(productoCache.findById(1L)).thenReturn(Optional.of(new Producto()));
+        when(clienteRepository.existsById(1L)).thenReturn(true);
+        when(ordenService.saveAll(anyList())).thenAnswer(invocation -> {
+            List<OrdenDTO> lote = invocation.getArgument(0);
+            return IntStream.range(0, lote.size()).mapToObj(i -> ResultadoOrdenDTO.creada(i, (long) i)).collect(Collectors.toList());
+        });
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        if (recepcion != null) {
+            recepcion.detener();
+        }
+    }
+
+    @Test
+    void recibir_ShouldRejectUnknownProductoOrClienteBeforeQueueing() {
+        recepcion = nuevaRecepcion(10, 0);
+
+        assertThrows(OrdenNotFoundException.class, () -> recepcion.recibir(new OrdenDTO(1, null, 1L, 2L)));
+        assertThrows(OrdenNotFoundException.class, () -> recepcion.recibir(new OrdenDTO(1, null, 2L, 1L)));
+        assertEquals(0, recepcion.pendientes());
+    }
+
+    @Test
+    void recibir_ShouldCacheExistingClientes() {
+        recepcion = nuevaRecepcion(10, 0);
+
+        recepcion.recibir(new OrdenDTO(1, null, 1L, 1L));
+        recepcion.recibir(new OrdenDTO(1, null, 1L, 1L));
+
+        verify(clienteRepository, times(1)).existsById(1L);
+    }
+
+    @Test
+    void recibir_ShouldRefuseOrdenWhenQueueIsFull() {
+        recepcion = nuevaRecepcion(2, 0);
+
+        assertTrue(recepcion.recibir(new OrdenDTO(1, null, 1L, 1L)).isPresent());
+        assertTrue(recepcion.recibir(new OrdenDTO(1, null, 1L, 1L)).isPresent());
+        assertTrue(recepcion.recibir(new OrdenDTO(1, null, 1L, 1L)).isEmpty());
+
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        recepcion.bindTo(registry);
+        assertEquals(1.0, registry.get("growby.recepcion.ordenes.cola-llena").functionCounter().count());
+        assertEquals(2.0, registry.get("growby.recepcion.ordenes.pendientes").gauge().value());
+    }
+
+    @Test
+    void escribirLote_ShouldSaveQueuedOrdenesInOneBatchAndPublishTheirIds() throws InterruptedException {
+        recepcion = nuevaRecepcion(10, 0);
+        when(ordenService.saveAll(anyList())).thenReturn(List.of(
+                ResultadoOrdenDTO.creada(0, 100L), ResultadoOrdenDTO.rechazada(1, "Cliente no encontrado")));
+
+        String creada = recepcion.recibir(new OrdenDTO(1, null, 1L, 1L)).orElseThrow().getToken();
+        String rechazada = recepcion.recibir(new OrdenDTO(2, null, 1L, 1L)).orElseThrow().getToken();
+        assertEquals(EstadoRecepcionDTO.PENDIENTE, recepcion.estado(creada).orElseThrow().getEstado());
+
+        assertEquals(2, recepcion.escribirLote(0, TimeUnit.MILLISECONDS));
+
+        verify(ordenService, times(1)).saveAll(argThat(lote -> lote.size() == 2 && lote.get(1).getCantidad() == 2));
+        assertEquals(100L, recepcion.estado(creada).orElseThrow().getOrdenId());
+        assertEquals(ResultadoOrdenDTO.RECHAZADA, recepcion.estado(rechazada).orElseThrow().getEstado());
+        assertEquals("Cliente no encontrado", recepcion.estado(rechazada).orElseThrow().getMensaje());
+    }
+
+    @Test
+    void escribirLote_ShouldRejectWholeBatchWhenSaveFails() throws InterruptedException {
+        recepcion = nuevaRecepcion(10, 0);
+        when(ordenService.saveAll(anyList())).thenThrow(new IllegalStateException("sin conexión"));
+
+        String token = recepcion.recibir(new OrdenDTO(1, null, 1L, 1L)).orElseThrow().getToken();
+        recepcion.escribirLote(0, TimeUnit.MILLISECONDS);
+
+        assertEquals(ResultadoOrdenDTO.RECHAZADA, recepcion.estado(token).orElseThrow().getEstado());
+    }
+
+    @Test
+    void detener_ShouldSavePendingOrdenesBeforeReturning() throws InterruptedException {
+        recepcion = nuevaRecepcion(10, 1);
+        when(ordenService.saveAll(anyList())).thenAnswer(invocation ->
+                List.of(ResultadoOrdenDTO.creada(0, 7L)));
+
+        String token = recepcion.recibir(new OrdenDTO(1, null, 1L, 1L)).orElseThrow().getToken();
+        recepcion.detener();
+
+        assertEquals(7L, recepcion.estado(token).orElseThrow().getOrdenId());
+        assertTrue(recepcion.recibir(new OrdenDTO(1, null, 1L, 1L)).isEmpty());
+        recepcion = null;
+    }
+
+    @Test
+    void iniciar_ShouldStartVirtualWritersWhenEnabled() throws InterruptedException {
+        recepcion = nuevaRecepcion(10, 1, true);
+        List<Boolean> escritorVirtual = new CopyOnWriteArrayList<>();
+        when(ordenService.saveAll(anyList())).thenAnswer(invocation -> {
+            escritorVirtual.add(Thread.currentThread().isVirtual());
+            return List.of(ResultadoOrdenDTO.creada(0, 1L));
+        });
+
+        recepcion.recibir(new OrdenDTO(1, null, 1L, 1L));
+        recepcion.detener();
+        recepcion = null;
+
+        assertEquals(List.of(true), escritorVirtual);
+    }
+
+    private RecepcionOrdenes nuevaRecepcion(int capacidad, int escritores) {
+        return nuevaRecepcion(capacidad, escritores, false);
+    }
+
+    private RecepcionOrdenes nuevaRecepcion(int capacidad, int escritores, boolean hilosVirtuales) {
+        RecepcionOrdenes nueva = new RecepcionOrdenes(ordenService, productoCache, clienteRepository,
+                capacidad, escritores, 500, Duration.ofMinutes(1), hilosVirtuales);
+        nueva.iniciar();
+        return nueva;
+    }
+}
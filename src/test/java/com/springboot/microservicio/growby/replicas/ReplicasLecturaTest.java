@@ -0,0 +1,159 @@
+package com.springboot.microservicio.growby.replicas;
+
+import com.springboot.microservicio.growby.dto.ClienteDTO;
+import com.springboot.microservicio.growby.model.Cliente;
+import com.springboot.microservicio.growby.model.ResumenCliente;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.web.server.LocalServerPort;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseCookie;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SimpleDriverDataSource;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Dos bases de datos H2 hacen de primario y de réplica. La prueba hace de replicación: crea el esquema
+ * en la réplica y le escribe el latido, con un cliente y un resumen distintos en cada base de datos.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "growby.replicas.habilitadas=true",
+        "growby.replicas.urls=" + ReplicasLecturaTest.URL_REPLICA,
+        "growby.replicas.retraso-maximo=5s",
+        "growby.replicas.intervalo-latido-ms=3600000"})
+class ReplicasLecturaTest {
+
+    static final String URL_REPLICA = "jdbc:h2:mem:replica-lectura;DB_CLOSE_DELAY=-1";
+
+    private static final long ID_CLIENTE = 900_001L;
+    private static final long ORDENES_PRIMARIO = 1;
+    private static final long ORDENES_REPLICA = 2;
+
+    private static JdbcTemplate replica;
+
+    @Autowired
+    private ReplicasLectura replicasLectura;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @LocalServerPort
+    private int puerto;
+
+    private WebTestClient cliente;
+
+    @BeforeAll
+    static void crearReplica() throws Exception {
+        DataSource dataSource = new SimpleDriverDataSource(new org.h2.Driver(), URL_REPLICA, "sa", "sasa");
+        Flyway.configure().dataSource(dataSource).locations("classpath:db/migration/h2").load().migrate();
+        replica = new JdbcTemplate(dataSource);
+    }
+
+    @BeforeEach
+    void setUp() {
+        cliente = WebTestClient.bindToServer().baseUrl("http://localhost:" + puerto).build();
+        replica.update("insert into clientes (id, nombre, email, version) values (?, 'En la réplica', 'replica@example.com', 0)", ID_CLIENTE);
+        replica.update("insert into resumenes_cliente (cliente_id, ordenes, total) values (?, ?, 0)", ID_CLIENTE, ORDENES_REPLICA);
+        JdbcTemplate primario = new JdbcTemplate(dataSource);
+        primario.update("insert into clientes (id, nombre, email, version) values (?, 'En el primario', 'primario@example.com', 0)", ID_CLIENTE);
+        primario.update("insert into resumenes_cliente (cliente_id, ordenes, total) values (?, ?, 0)", ID_CLIENTE, ORDENES_PRIMARIO);
+        replicar(Instant.now());
+    }
+
+    @AfterEach
+    void tearDown() {
+        replica.update("delete from resumenes_cliente");
+        replica.update("delete from clientes");
+        JdbcTemplate primario = new JdbcTemplate(dataSource);
+        primario.update("delete from resumenes_cliente where cliente_id = ?", ID_CLIENTE);
+        primario.update("delete from clientes where id = ? or email = 'escritura@example.com'", ID_CLIENTE);
+    }
+
+    @Test
+    void getResumen_ShouldReadFromReplica() {
+        assertEquals(ORDENES_REPLICA, ordenesLeidas(null));
+    }
+
+    @Test
+    void getResumen_ShouldReadFromPrimaryWhenReplicaLagsBeyondTolerance() {
+        replicar(Instant.now().minus(Duration.ofMinutes(1)));
+
+        assertEquals(ORDENES_PRIMARIO, ordenesLeidas(null));
+    }
+
+    @Test
+    void getResumen_ShouldReadYourWritesFromPrimaryUntilReplicaCatchesUp() {
+        ResponseCookie escritura = cliente.post().uri("/api/clientes")
+                .bodyValue(new ClienteDTO("Escritura", "escritura@example.com", null)).exchange()
+                .expectStatus().is2xxSuccessful()
+                .returnResult(Cliente.class).getResponseCookies().getFirst(LecturaTrasEscritura.COOKIE);
+
+        assertNotNull(escritura);
+        assertEquals(ORDENES_REPLICA, ordenesLeidas(null));
+        assertEquals(ORDENES_PRIMARIO, ordenesLeidas(escritura));
+
+        replicar(Instant.now());
+
+        assertEquals(ORDENES_REPLICA, ordenesLeidas(escritura));
+    }
+
+    @Test
+    void getClientes_ShouldReadFromReplicaThatHasTheLastWriteInTheEtag() {
+        assertEquals("En la réplica", nombreLeido());
+    }
+
+    @Test
+    void getClientes_ShouldReadFromPrimaryUntilReplicaHasTheLastWriteInTheEtag() {
+        cliente.post().uri("/api/clientes")
+                .bodyValue(new ClienteDTO("Escritura", "escritura@example.com", null)).exchange()
+                .expectStatus().is2xxSuccessful();
+
+        assertEquals("En el primario", nombreLeido());
+
+        replicar(Instant.now());
+
+        assertEquals("En la réplica", nombreLeido());
+    }
+
+    /**
+     * Simula que la réplica ha aplicado todo lo confirmado en el primario hasta un instante.
+     */
+    private void replicar(Instant instante) {
+        replica.update("update latido_replicacion set instante = ? where id = 1", Timestamp.from(instante));
+        replicasLectura.actualizarLatidos();
+    }
+
+    /**
+     * Lee la lista de clientes, que lleva ETag, sin la cookie de escritura.
+     */
+    private String nombreLeido() {
+        List<Cliente> clientes = cliente.get().uri("/api/clientes").exchange()
+                .expectStatus().isOk()
+                .expectHeader().exists(HttpHeaders.ETAG)
+                .returnResult(Cliente.class).getResponseBody().collectList().block();
+        return clientes.stream().filter(c -> c.getId() == ID_CLIENTE).findFirst().orElseThrow().getNombre();
+    }
+
+    private long ordenesLeidas(ResponseCookie escritura) {
+        WebTestClient.RequestHeadersSpec<?> peticion = cliente.get().uri("/api/clientes/{id}/resumen", ID_CLIENTE);
+        if (escritura != null) {
+            peticion = peticion.cookie(escritura.getName(), escritura.getValue());
+        }
+        return peticion.exchange()
+                .expectStatus().isOk()
+                .expectBody(ResumenCliente.class).returnResult().getResponseBody().getOrdenes();
+    }
+}
@@ -0,0 +1,44 @@
+package com.springboot.microservicio.growby.repository;
+
+import com.springboot.microservicio.growby.model.Cliente;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+class ClienteRepositoryTest {
+
+    @Autowired
+    private ClienteRepository clienteRepository;
+
+    @Test
+    void saveAndFlush_ShouldRejectDuplicateEmail() {
+        clienteRepository.saveAndFlush(nuevoCliente("Juan", "juan@example.com"));
+
+        assertThrows(DataIntegrityViolationException.class,
+                () -> clienteRepository.saveAndFlush(nuevoCliente("Otro Juan", "juan@example.com")));
+    }
+
+    @Test
+    void findAllEmails_ShouldReturnEveryEmail() {
+        clienteRepository.saveAndFlush(nuevoCliente("Juan", "juan@example.com"));
+        clienteRepository.saveAndFlush(nuevoCliente("María", "maria@example.com"));
+
+        List<String> emails = clienteRepository.findAllEmails();
+
+        assertEquals(2, emails.size());
+        assertTrue(emails.containsAll(List.of("juan@example.com", "maria@example.com")));
+    }
+
+    private Cliente nuevoCliente(String nombre, String email) {
+        Cliente cliente = new Cliente();
+        cliente.setNombre(nombre);
+        cliente.setEmail(email);
+        return cliente;
+    }
+}
@@ -0,0 +1,65 @@
+package com.springboot.microservicio.growby.repository;
+
+import com.springboot.microservicio.growby.model.Producto;
+import com.springboot.microservicio.growby.model.VentaDiariaProducto;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@Import(InsercionAcumulados.class)
+class InsercionAcumuladosTest {
+
+    private static final LocalDate HOY = LocalDate.of(2024, 3, 14);
+
+    @Autowired
+    private InsercionAcumulados insercionAcumulados;
+
+    @Autowired
+    private VentaDiariaProductoRepository ventaDiariaProductoRepository;
+
+    @Autowired
+    private ResumenClienteRepository resumenClienteRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Test
+    void insertarVentaProducto_ShouldReturnFalseAndKeepTheTransactionUsableWhenRowExists() {
+        Long productoId = nuevoProducto();
+
+        assertTrue(insercionAcumulados.insertarVentaProducto(HOY, productoId, 2, new BigDecimal("20.00"), 1));
+        assertFalse(insercionAcumulados.insertarVentaProducto(HOY, productoId, 3, new BigDecimal("30.00"), 1));
+
+        assertEquals(1, ventaDiariaProductoRepository.acumular(HOY, productoId, 3, new BigDecimal("30.00"), 1));
+        entityManager.clear();
+        VentaDiariaProducto venta = ventaDiariaProductoRepository.findById(new VentaDiariaProducto.Clave(HOY, productoId)).orElseThrow();
+        assertEquals(5, venta.getCantidad());
+        assertEquals(0, new BigDecimal("50.00").compareTo(venta.getTotal()));
+        assertEquals(2, venta.getOrdenes());
+    }
+
+    @Test
+    void insertarResumenCliente_ShouldReturnFalseWhenSummaryExists() {
+        assertTrue(insercionAcumulados.insertarResumenCliente(1L, 1, BigDecimal.TEN, new Date(1000), new Date(1000)));
+        assertFalse(insercionAcumulados.insertarResumenCliente(1L, 1, BigDecimal.TEN, new Date(2000), new Date(2000)));
+
+        assertEquals(1, resumenClienteRepository.findById(1L).orElseThrow().getOrdenes());
+    }
+
+    private Long nuevoProducto() {
+        Producto producto = new Producto();
+        producto.setNombre("Producto A");
+        producto.setPrecio(BigDecimal.TEN);
+        producto.setEstado(Producto.Estado.ACTIVO);
+        return entityManager.persistAndFlush(producto).getId();
+    }
+}
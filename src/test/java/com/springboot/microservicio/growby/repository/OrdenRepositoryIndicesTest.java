@@ -0,0 +1,111 @@
+package com.springboot.microservicio.growby.repository;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Comprueba con {@code EXPLAIN} de H2 que las consultas de órdenes por rango de fechas recorren los
+ * índices compuestos de la migración {@code V5__indices_ordenes_por_fecha}. Los datos se confirman
+ * fuera de la transacción de la prueba porque el optimizador de H2 solo cuenta las filas confirmadas,
+ * y con la tabla vacía elige el índice de la clave ajena.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "com.springboot.microservicio.growby.repository.OrdenRepositoryIndicesTest$UltimaSentencia")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class OrdenRepositoryIndicesTest {
+
+    @Autowired
+    private OrdenRepository ordenRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("insert into clientes (id, nombre, email, version) "
+                + "select x, 'Cliente ' || x, 'cliente' || x || '@example.com', 0 from system_range(1, 20)");
+        jdbcTemplate.update("insert into productos (id, nombre, precio, version) "
+                + "select x, 'Producto ' || x, 10, 0 from system_range(1, 20)");
+        jdbcTemplate.update("insert into ordenes (id, cantidad, total, fecha_orden, cliente_id, producto_id, version) "
+                + "select x, 1, 10, timestamp '2024-01-01 00:00:00' + x * interval '1' minute, mod(x, 20) + 1, mod(x, 7) + 1, 0 "
+                + "from system_range(1, 20000)");
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("delete from ordenes");
+        jdbcTemplate.update("delete from productos");
+        jdbcTemplate.update("delete from clientes");
+    }
+
+    @Test
+    void findByClienteIdAndFechaOrden_ShouldRangeScanClienteFechaIndex() {
+        ordenRepository.findByClienteIdAndFechaOrden(1L, 2L, new Date(0), new Date(), 0L, PageRequest.of(0, 10));
+        String planCompleta = explicar(UltimaSentencia.sql);
+        ordenRepository.findResumenByClienteIdAndFechaOrden(1L, null, new Date(0), new Date(), 0L, PageRequest.of(0, 10));
+        String planResumen = explicar(UltimaSentencia.sql);
+
+        assertRecorreIndice(planCompleta, "IDX_ORDENES_CLIENTE_FECHA", "CLIENTE_ID");
+        assertRecorreIndice(planResumen, "IDX_ORDENES_CLIENTE_FECHA", "CLIENTE_ID");
+    }
+
+    @Test
+    void findByProductoIdAndFechaOrden_ShouldRangeScanProductoFechaIndex() {
+        ordenRepository.findResumenConNombresByProductoIdAndFechaOrden(1L, new Date(0), new Date(), 0L, PageRequest.of(0, 10));
+
+        assertRecorreIndice(explicar(UltimaSentencia.sql), "IDX_ORDENES_PRODUCTO_FECHA", "PRODUCTO_ID");
+    }
+
+    /**
+     * El índice debe acotar tanto la igualdad de la primera columna como el rango de fechas,
+     * y la consulta no debe ordenar: las filas salen del índice en orden de fecha e identificador.
+     */
+    private static void assertRecorreIndice(String plan, String indice, String columna) {
+        String accesoIndice = plan.substring(plan.indexOf("/*"), plan.indexOf("*/"));
+        assertTrue(accesoIndice.contains(indice), plan);
+        assertTrue(accesoIndice.contains(columna + " = ?"), plan);
+        assertTrue(accesoIndice.contains("FECHA_ORDEN >= ?"), plan);
+        assertTrue(accesoIndice.contains("FECHA_ORDEN < ?"), plan);
+        assertTrue(plan.contains("/* index sorted */"), plan);
+    }
+
+    /**
+     * Plan de ejecución de H2 para una sentencia generada por Hibernate, sin valores en los parámetros.
+     */
+    private String explicar(String sql) {
+        return jdbcTemplate.query("explain " + sql, sentencia -> {
+            for (int i = 1; i <= sentencia.getParameterMetaData().getParameterCount(); i++) {
+                sentencia.setObject(i, null);
+            }
+        }, plan -> {
+            plan.next();
+            return plan.getString(1);
+        });
+    }
+
+    /**
+     * Guarda la última sentencia SQL preparada por Hibernate.
+     */
+    public static class UltimaSentencia implements StatementInspector {
+
+        static volatile String sql;
+
+        @Override
+        public String inspect(String sql) {
+            UltimaSentencia.sql = sql;
+            return sql;
+        }
+    }
+}
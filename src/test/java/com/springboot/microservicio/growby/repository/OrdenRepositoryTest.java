@@ -0,0 +1,165 @@
+package com.springboot.microservicio.growby.repository;
+
+import com.springboot.microservicio.growby.dto.OrdenResumenDTO;
+import com.springboot.microservicio.growby.model.Cliente;
+import com.springboot.microservicio.growby.model.Orden;
+import com.springboot.microservicio.growby.model.Producto;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class OrdenRepositoryTest {
+
+    @Autowired
+    private OrdenRepository ordenRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private Statistics statistics;
+    private Long clienteId;
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < 4; i++) {
+            Cliente cliente = new Cliente();
+            cliente.setNombre("Cliente " + i);
+            cliente.setEmail("cliente" + i + "@example.com");
+            entityManager.persist(cliente);
+            clienteId = cliente.getId();
+
+            Producto producto = new Producto();
+            producto.setNombre("Producto " + i);
+            producto.setPrecio(BigDecimal.TEN);
+            producto.setEstado(Producto.Estado.ACTIVO);
+            entityManager.persist(producto);
+
+            for (int j = 0; j < 3; j++) {
+                Orden orden = new Orden();
+                orden.setCantidad(1);
+                orden.setTotal(BigDecimal.TEN);
+                orden.setFechaOrden(new Date());
+                orden.setCliente(cliente);
+                orden.setProducto(producto);
+                entityManager.persist(orden);
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManager.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void findAll_ShouldLoadClientesAndProductosInASingleStatement() {
+        List<Orden> ordenes = ordenRepository.findAll();
+
+        assertEquals(12, ordenes.size());
+        ordenes.forEach(orden -> {
+            assertNotNull(orden.getCliente().getNombre());
+            assertNotNull(orden.getProducto().getNombre());
+        });
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void findByClienteId_ShouldLoadClientesAndProductosInASingleStatement() {
+        List<Orden> ordenes = ordenRepository.findByClienteId(clienteId);
+
+        assertEquals(3, ordenes.size());
+        ordenes.forEach(orden -> assertNotNull(orden.getProducto().getNombre()));
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void findByIdGreaterThan_ShouldLoadClientesAndProductosInASingleStatement() {
+        List<Orden> ordenes = ordenRepository.findByIdGreaterThanOrderByIdAsc(0L, PageRequest.of(0, 5));
+
+        assertEquals(5, ordenes.size());
+        ordenes.forEach(orden -> {
+            assertNotNull(orden.getCliente().getNombre());
+            assertNotNull(orden.getProducto().getNombre());
+        });
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void findResumenConNombres_ShouldNotLoadEntities() {
+        List<OrdenResumenDTO> resumenes = ordenRepository.findResumenConNombresByIdGreaterThan(0L, PageRequest.of(0, 20));
+
+        assertEquals(12, resumenes.size());
+        assertNotNull(resumenes.get(0).getNombreCliente());
+        assertNotNull(resumenes.get(0).getNombreProducto());
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    void findResumenByClienteId_ShouldReturnIdsWithoutNames() {
+        List<OrdenResumenDTO> resumenes = ordenRepository.findResumenByClienteIdAndIdGreaterThan(clienteId, 0L, PageRequest.of(0, 20));
+
+        assertEquals(3, resumenes.size());
+        resumenes.forEach(resumen -> {
+            assertEquals(clienteId, resumen.getClienteId());
+            assertNotNull(resumen.getProductoId());
+            assertNull(resumen.getNombreCliente());
+        });
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    void findByClienteIdAndFechaOrden_ShouldPageByDateAndId() {
+        Cliente cliente = entityManager.find(Cliente.class, clienteId);
+        Producto producto = new Producto();
+        producto.setNombre("Producto fechas");
+        producto.setPrecio(BigDecimal.ONE);
+        entityManager.persist(producto);
+        Date[] fechas = {fecha(3), fecha(1), fecha(2), fecha(2), fecha(9)};
+        for (Date fechaOrden : fechas) {
+            Orden orden = new Orden();
+            orden.setCantidad(1);
+            orden.setTotal(BigDecimal.ONE);
+            orden.setFechaOrden(fechaOrden);
+            orden.setCliente(cliente);
+            orden.setProducto(producto);
+            entityManager.persist(orden);
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        List<Orden> primera = ordenRepository.findByClienteIdAndFechaOrden(clienteId, producto.getId(),
+                fecha(1), fecha(5), 0L, PageRequest.of(0, 2));
+        Orden ultima = primera.get(1);
+        List<Orden> segunda = ordenRepository.findByClienteIdAndFechaOrden(clienteId, producto.getId(),
+                ultima.getFechaOrden(), fecha(5), ultima.getId(), PageRequest.of(0, 2));
+
+        assertEquals(fecha(1).getTime(), primera.get(0).getFechaOrden().getTime());
+        assertEquals(fecha(2).getTime(), ultima.getFechaOrden().getTime());
+        assertEquals(2, segunda.size());
+        assertEquals(fecha(2).getTime(), segunda.get(0).getFechaOrden().getTime());
+        assertTrue(segunda.get(0).getId() > ultima.getId());
+        assertEquals(fecha(3).getTime(), segunda.get(1).getFechaOrden().getTime());
+        assertEquals(3, ordenRepository.findResumenByProductoIdAndFechaOrden(producto.getId(), fecha(2), fecha(9), 0L,
+                PageRequest.of(0, 10)).size());
+    }
+
+    private static Date fecha(int dia) {
+        return Date.from(LocalDate.of(2024, 3, dia).atStartOfDay(ZoneId.systemDefault()).toInstant());
+    }
+}
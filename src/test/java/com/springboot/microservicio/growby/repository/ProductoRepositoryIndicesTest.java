@@ -0,0 +1,113 @@
+package com.springboot.microservicio.growby.repository;
+
+import com.springboot.microservicio.growby.model.Producto;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Comprueba con {@code EXPLAIN} de H2 que el catálogo filtrado por estado recorre los índices de la
+ * migración {@code V6__indices_catalogo_productos}, con los datos confirmados fuera de la transacción
+ * de la prueba como en {@link OrdenRepositoryIndicesTest}.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "com.springboot.microservicio.growby.repository.ProductoRepositoryIndicesTest$PrimeraSentencia")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ProductoRepositoryIndicesTest {
+
+    @Autowired
+    private ProductoRepository productoRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("insert into productos (id, nombre, precio, fecha_creacion, estado, version) "
+                + "select x, 'Producto ' || x, mod(x, 1000), timestamp '2024-01-01 00:00:00' + x * interval '1' minute, "
+                + "case when mod(x, 4) = 0 then 'INACTIVO' else 'ACTIVO' end, 0 from system_range(1, 20000)");
+        PrimeraSentencia.sql = null;
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("delete from productos");
+    }
+
+    @Test
+    void findAll_ShouldRangeScanEstadoPrecioIndex() {
+        productoRepository.findAll(Specification.where(EspecificacionesProducto.conEstado(Producto.Estado.ACTIVO))
+                        .and(EspecificacionesProducto.precioDesde(BigDecimal.TEN))
+                        .and(EspecificacionesProducto.precioHasta(BigDecimal.valueOf(100))),
+                PageRequest.of(0, 20, Sort.by("estado", "precio", "id")));
+
+        assertRecorreIndice(explicar(PrimeraSentencia.sql), "IDX_PRODUCTOS_ESTADO_PRECIO", "PRECIO");
+    }
+
+    @Test
+    void findAll_ShouldRangeScanEstadoFechaIndex() {
+        productoRepository.findAll(Specification.where(EspecificacionesProducto.conEstado(Producto.Estado.ACTIVO))
+                        .and(EspecificacionesProducto.creadoDesde(new Date(0)))
+                        .and(EspecificacionesProducto.creadoAntesDe(new Date())),
+                PageRequest.of(0, 20, Sort.by("estado").and(Sort.by(Sort.Direction.DESC, "fechaCreacion", "id"))));
+
+        assertRecorreIndice(explicar(PrimeraSentencia.sql), "IDX_PRODUCTOS_ESTADO_FECHA", "FECHA_CREACION");
+    }
+
+    /**
+     * El índice debe acotar la igualdad del estado y el rango de la segunda columna, y la consulta
+     * no debe ordenar: las filas salen del índice en el orden pedido.
+     */
+    private static void assertRecorreIndice(String plan, String indice, String columna) {
+        String accesoIndice = plan.substring(plan.indexOf("/*"), plan.indexOf("*/"));
+        assertTrue(accesoIndice.contains(indice), plan);
+        assertTrue(accesoIndice.contains("ESTADO = ?"), plan);
+        assertTrue(accesoIndice.contains(columna + " >= ?"), plan);
+        assertTrue(plan.contains("/* index sorted */"), plan);
+    }
+
+    /**
+     * Plan de ejecución de H2 para una sentencia generada por Hibernate, sin valores en los parámetros.
+     */
+    private String explicar(String sql) {
+        return jdbcTemplate.query("explain " + sql, sentencia -> {
+            for (int i = 1; i <= sentencia.getParameterMetaData().getParameterCount(); i++) {
+                sentencia.setObject(i, null);
+            }
+        }, plan -> {
+            plan.next();
+            return plan.getString(1);
+        });
+    }
+
+    /**
+     * Guarda la primera sentencia SQL preparada por Hibernate, la de la página; la segunda es la
+     * que cuenta el total.
+     */
+    public static class PrimeraSentencia implements StatementInspector {
+
+        static volatile String sql;
+
+        @Override
+        public String inspect(String sql) {
+            if (PrimeraSentencia.sql == null) {
+                PrimeraSentencia.sql = sql;
+            }
+            return sql;
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.springboot.microservicio.growby.repository;
+
+import com.springboot.microservicio.growby.model.Producto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+class ProductoRepositoryTest {
+
+    @Autowired
+    private ProductoRepository productoRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 1; i <= 6; i++) {
+            Producto producto = new Producto();
+            producto.setNombre("Producto " + i);
+            producto.setPrecio(BigDecimal.valueOf(i * 10L));
+            producto.setFechaCreacion(fecha(i));
+            producto.setEstado(i % 3 == 0 ? Producto.Estado.INACTIVO : Producto.Estado.ACTIVO);
+            entityManager.persist(producto);
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void findAll_ShouldFilterByEstadoAndPriceRangeAndSort() {
+        Specification<Producto> filtro = Specification.where(EspecificacionesProducto.conEstado(Producto.Estado.ACTIVO))
+                .and(EspecificacionesProducto.precioDesde(new BigDecimal("20")))
+                .and(EspecificacionesProducto.precioHasta(new BigDecimal("50")))
+                .and(EspecificacionesProducto.creadoDesde(null));
+
+        Page<Producto> pagina = productoRepository.findAll(filtro,
+                PageRequest.of(0, 2, Sort.by(Sort.Direction.DESC, "precio").and(Sort.by("id"))));
+
+        assertEquals(List.of("Producto 5", "Producto 4"), nombres(pagina));
+        assertEquals(3, pagina.getTotalElements());
+        assertEquals(2, pagina.getTotalPages());
+    }
+
+    @Test
+    void findAll_ShouldFilterByCreationDateRange() {
+        Specification<Producto> filtro = Specification.where(EspecificacionesProducto.creadoDesde(fecha(2)))
+                .and(EspecificacionesProducto.creadoAntesDe(fecha(5)));
+
+        Page<Producto> pagina = productoRepository.findAll(filtro, PageRequest.of(1, 2, Sort.by("fechaCreacion")));
+
+        assertEquals(List.of("Producto 4"), nombres(pagina));
+        assertEquals(3, pagina.getTotalElements());
+    }
+
+    private static List<String> nombres(Page<Producto> pagina) {
+        return pagina.getContent().stream().map(Producto::getNombre).collect(Collectors.toList());
+    }
+
+    private static Date fecha(int dia) {
+        return Date.from(LocalDate.of(2024, 1, dia).atStartOfDay(ZoneId.systemDefault()).toInstant());
+    }
+}
@@ -0,0 +1,106 @@
+package com.springboot.microservicio.growby.repository;
+
+import com.springboot.microservicio.growby.model.Cliente;
+import com.springboot.microservicio.growby.model.Orden;
+import com.springboot.microservicio.growby.model.Producto;
+import com.springboot.microservicio.growby.model.ResumenCliente;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import java.math.BigDecimal;
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@Import(InsercionAcumulados.class)
+class ResumenClienteRepositoryTest {
+
+    @Autowired
+    private ResumenClienteRepository resumenClienteRepository;
+
+    @Autowired
+    private InsercionAcumulados insercionAcumulados;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private Cliente cliente;
+    private Producto producto;
+
+    @BeforeEach
+    void setUp() {
+        cliente = new Cliente();
+        cliente.setNombre("Juan");
+        cliente.setEmail("juan@example.com");
+        entityManager.persist(cliente);
+
+        producto = new Producto();
+        producto.setNombre("Producto A");
+        producto.setPrecio(BigDecimal.TEN);
+        producto.setEstado(Producto.Estado.ACTIVO);
+        entityManager.persist(producto);
+    }
+
+    @Test
+    void acumular_ShouldReturnZeroWhenSummaryDoesNotExist() {
+        assertEquals(0, resumenClienteRepository.acumular(cliente.getId(), 1, BigDecimal.TEN, new Date(), new Date()));
+    }
+
+    @Test
+    void acumular_ShouldAddOrdenesAndWidenDates() {
+        insercionAcumulados.insertarResumenCliente(cliente.getId(), 1, new BigDecimal("10.00"), new Date(2000), new Date(2000));
+
+        resumenClienteRepository.acumular(cliente.getId(), 2, new BigDecimal("15.00"), new Date(1000), new Date(1500));
+        resumenClienteRepository.acumular(cliente.getId(), 1, new BigDecimal("5.00"), new Date(3000), new Date(3000));
+
+        ResumenCliente resumen = leer();
+        assertEquals(4, resumen.getOrdenes());
+        assertEquals(0, new BigDecimal("30.00").compareTo(resumen.getTotal()));
+        assertEquals(1000, resumen.getPrimeraOrden().getTime());
+        assertEquals(3000, resumen.getUltimaOrden().getTime());
+    }
+
+    @Test
+    void descontar_ShouldRecomputeDatesFromRemainingOrdenes() {
+        nuevaOrden(new Date(1000));
+        nuevaOrden(new Date(2000));
+        insercionAcumulados.insertarResumenCliente(cliente.getId(), 3, new BigDecimal("30.00"), new Date(1000), new Date(3000));
+
+        resumenClienteRepository.descontar(cliente.getId(), 1, new BigDecimal("10.00"));
+
+        ResumenCliente resumen = leer();
+        assertEquals(2, resumen.getOrdenes());
+        assertEquals(0, new BigDecimal("20.00").compareTo(resumen.getTotal()));
+        assertEquals(1000, resumen.getPrimeraOrden().getTime());
+        assertEquals(2000, resumen.getUltimaOrden().getTime());
+    }
+
+    @Test
+    void insertarDesdeOrdenes_ShouldSummarizeEachCliente() {
+        nuevaOrden(new Date(1000));
+        nuevaOrden(new Date(2000));
+
+        assertEquals(1, resumenClienteRepository.insertarDesdeOrdenes());
+
+        ResumenCliente resumen = leer();
+        assertEquals(2, resumen.getOrdenes());
+        assertEquals(0, new BigDecimal("20.00").compareTo(resumen.getTotal()));
+        assertEquals(1000, resumen.getPrimeraOrden().getTime());
+        assertEquals(2000, resumen.getUltimaOrden().getTime());
+    }
+
+    private void nuevaOrden(Date fecha) {
+        entityManager.persist(new Orden(null, 1, new BigDecimal("10.00"), fecha, cliente, producto, null, 0));
+        entityManager.flush();
+    }
+
+    private ResumenCliente leer() {
+        entityManager.clear();
+        return resumenClienteRepository.findById(cliente.getId()).orElseThrow();
+    }
+}
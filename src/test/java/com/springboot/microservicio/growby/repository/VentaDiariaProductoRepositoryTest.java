@@ -0,0 +1,116 @@
+package com.springboot.microservicio.growby.repository;
+
+import com.springboot.microservicio.growby.dto.VentasAgrupadasDTO;
+import com.springboot.microservicio.growby.dto.VentasPeriodoDTO;
+import com.springboot.microservicio.growby.model.Producto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+class VentaDiariaProductoRepositoryTest {
+
+    private static final LocalDate HOY = LocalDate.of(2024, 3, 14);
+
+    @Autowired
+    private VentaDiariaProductoRepository ventaDiariaProductoRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private Long productoA;
+    private Long productoB;
+
+    @BeforeEach
+    void setUp() {
+        productoA = nuevoProducto("Producto A");
+        productoB = nuevoProducto("Producto B");
+    }
+
+    @Test
+    void acumular_ShouldReturnZeroWhenRowDoesNotExist() {
+        assertEquals(0, ventaDiariaProductoRepository.acumular(HOY, productoA, 1, BigDecimal.TEN, 1));
+    }
+
+    @Test
+    void acumular_ShouldAddToExistingRow() {
+        ventaDiariaProductoRepository.insertar(HOY, productoA, 2, new BigDecimal("20.00"), 1);
+
+        assertEquals(1, ventaDiariaProductoRepository.acumular(HOY, productoA, 3, new BigDecimal("30.00"), 1));
+        assertEquals(1, ventaDiariaProductoRepository.acumular(HOY, productoA, -1, new BigDecimal("-10.00"), -1));
+
+        List<VentasPeriodoDTO> dias = ventaDiariaProductoRepository.sumarPorDiaDeProducto(productoA, HOY, HOY);
+        assertEquals(1, dias.size());
+        assertEquals(4, dias.get(0).getCantidad());
+        assertEquals(0, new BigDecimal("40.00").compareTo(dias.get(0).getTotal()));
+        assertEquals(1, dias.get(0).getOrdenes());
+    }
+
+    @Test
+    void insertar_ShouldRejectDuplicateDayAndProducto() {
+        ventaDiariaProductoRepository.insertar(HOY, productoA, 1, BigDecimal.ONE, 1);
+
+        assertThrows(DataIntegrityViolationException.class,
+                () -> ventaDiariaProductoRepository.insertar(HOY, productoA, 1, BigDecimal.ONE, 1));
+    }
+
+    @Test
+    void sumarPorProducto_ShouldAddDaysInRangeAndSortByTotal() {
+        ventaDiariaProductoRepository.insertar(HOY, productoA, 1, new BigDecimal("10.00"), 1);
+        ventaDiariaProductoRepository.insertar(HOY.plusDays(1), productoA, 1, new BigDecimal("10.00"), 1);
+        ventaDiariaProductoRepository.insertar(HOY, productoB, 5, new BigDecimal("50.00"), 2);
+        ventaDiariaProductoRepository.insertar(HOY.plusDays(2), productoB, 5, new BigDecimal("50.00"), 2);
+
+        List<VentasAgrupadasDTO> ventas = ventaDiariaProductoRepository.sumarPorProducto(HOY, HOY.plusDays(1));
+
+        assertEquals(2, ventas.size());
+        assertEquals(productoB, ventas.get(0).getId());
+        assertEquals("Producto B", ventas.get(0).getNombre());
+        assertEquals(5, ventas.get(0).getCantidad());
+        assertEquals(productoA, ventas.get(1).getId());
+        assertEquals(0, new BigDecimal("20.00").compareTo(ventas.get(1).getTotal()));
+        assertEquals(2, ventas.get(1).getOrdenes());
+    }
+
+    @Test
+    void sumarPorDia_ShouldAddEveryProductoOfEachDay() {
+        ventaDiariaProductoRepository.insertar(HOY, productoA, 1, new BigDecimal("10.00"), 1);
+        ventaDiariaProductoRepository.insertar(HOY, productoB, 5, new BigDecimal("50.00"), 2);
+        ventaDiariaProductoRepository.insertar(HOY.plusDays(1), productoB, 1, new BigDecimal("10.00"), 1);
+
+        List<VentasPeriodoDTO> dias = ventaDiariaProductoRepository.sumarPorDia(HOY, HOY.plusDays(1));
+
+        assertEquals(2, dias.size());
+        assertEquals(HOY, dias.get(0).getInicio());
+        assertEquals(6, dias.get(0).getCantidad());
+        assertEquals(3, dias.get(0).getOrdenes());
+        assertEquals(HOY.plusDays(1), dias.get(1).getInicio());
+    }
+
+    @Test
+    void consultas_ShouldOmitRowsWhoseOrdenesWereRemoved() {
+        ventaDiariaProductoRepository.insertar(HOY, productoA, 1, new BigDecimal("10.00"), 1);
+        ventaDiariaProductoRepository.acumular(HOY, productoA, -1, new BigDecimal("-10.00"), -1);
+
+        assertTrue(ventaDiariaProductoRepository.sumarPorProducto(HOY, HOY).isEmpty());
+        assertTrue(ventaDiariaProductoRepository.sumarPorDia(HOY, HOY).isEmpty());
+        assertTrue(ventaDiariaProductoRepository.sumarPorDiaDeProducto(productoA, HOY, HOY).isEmpty());
+    }
+
+    private Long nuevoProducto(String nombre) {
+        Producto producto = new Producto();
+        producto.setNombre(nombre);
+        producto.setPrecio(BigDecimal.TEN);
+        producto.setEstado(Producto.Estado.ACTIVO);
+        return entityManager.persistAndFlush(producto).getId();
+    }
+}
@@ -0,0 +1,203 @@
+package com.springboot.microservicio.growby.service.impl;
+
+import com.springboot.microservicio.growby.dto.OrdenResumenDTO;
+import com.springboot.microservicio.growby.dto.VentasPeriodoDTO;
+import com.springboot.microservicio.growby.repository.InsercionAcumulados;
+import com.springboot.microservicio.growby.repository.OrdenRepository;
+import com.springboot.microservicio.growby.repository.ResumenClienteRepository;
+import com.springboot.microservicio.growby.repository.VentaDiariaClienteRepository;
+import com.springboot.microservicio.growby.repository.VentaDiariaProductoRepository;
+import com.springboot.microservicio.growby.service.AnaliticaService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+class AnaliticaServiceImplTest {
+
+    private static final LocalDate HOY = LocalDate.of(2024, 3, 14);
+
+    @Mock
+    private VentaDiariaProductoRepository ventaDiariaProductoRepository;
+
+    @Mock
+    private VentaDiariaClienteRepository ventaDiariaClienteRepository;
+
+    @Mock
+    private ResumenClienteRepository resumenClienteRepository;
+
+    @Mock
+    private OrdenRepository ordenRepository;
+
+    @Mock
+    private InsercionAcumulados insercionAcumulados;
+
+    @InjectMocks
+    private AnaliticaServiceImpl analiticaService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    @Test
+    void registrarVentas_ShouldWriteOneStatementPerDayAndKey() {
+        when(ventaDiariaProductoRepository.acumular(any(), anyLong(), anyLong(), any(), anyLong())).thenReturn(1);
+        when(ventaDiariaClienteRepository.acumular(any(), anyLong(), anyLong(), any(), anyLong())).thenReturn(1);
+
+        analiticaService.registrarVentas(List.of(
+                venta(2, "20.00", HOY, 1L, 10L),
+                venta(3, "30.00", HOY, 2L, 10L),
+                venta(1, "10.00", HOY, 1L, 11L)));
+
+        verify(ventaDiariaProductoRepository).acumular(HOY, 10L, 5, new BigDecimal("50.00"), 2);
+        verify(ventaDiariaProductoRepository).acumular(HOY, 11L, 1, new BigDecimal("10.00"), 1);
+        verify(ventaDiariaClienteRepository).acumular(HOY, 1L, 3, new BigDecimal("30.00"), 2);
+        verify(ventaDiariaClienteRepository).acumular(HOY, 2L, 3, new BigDecimal("30.00"), 1);
+        verify(insercionAcumulados, never()).insertarVentaProducto(any(), any(), anyLong(), any(), anyLong());
+        verify(insercionAcumulados, never()).insertarVentaCliente(any(), any(), anyLong(), any(), anyLong());
+    }
+
+    @Test
+    void registrarVentas_ShouldInsertWhenDayHasNoRow() {
+        when(insercionAcumulados.insertarVentaProducto(any(), any(), anyLong(), any(), anyLong())).thenReturn(true);
+        when(insercionAcumulados.insertarVentaCliente(any(), any(), anyLong(), any(), anyLong())).thenReturn(true);
+
+        analiticaService.registrarVentas(List.of(venta(2, "20.00", HOY, 1L, 10L)));
+
+        verify(insercionAcumulados).insertarVentaProducto(HOY, 10L, 2, new BigDecimal("20.00"), 1);
+        verify(insercionAcumulados).insertarVentaCliente(HOY, 1L, 2, new BigDecimal("20.00"), 1);
+        verify(ventaDiariaProductoRepository).acumular(HOY, 10L, 2, new BigDecimal("20.00"), 1);
+    }
+
+    @Test
+    void registrarVentas_ShouldRetryUpdateWhenAnotherOrderCreatedTheRow() {
+        when(ventaDiariaProductoRepository.acumular(HOY, 10L, 2, new BigDecimal("20.00"), 1)).thenReturn(0, 1);
+        when(insercionAcumulados.insertarVentaProducto(HOY, 10L, 2, new BigDecimal("20.00"), 1)).thenReturn(false);
+
+        analiticaService.registrarVentas(List.of(venta(2, "20.00", HOY, 1L, 10L)));
+
+        verify(ventaDiariaProductoRepository, times(2)).acumular(HOY, 10L, 2, new BigDecimal("20.00"), 1);
+    }
+
+    @Test
+    void anularVentas_ShouldSubtractTheOrden() {
+        when(ventaDiariaProductoRepository.acumular(any(), anyLong(), anyLong(), any(), anyLong())).thenReturn(1);
+        when(ventaDiariaClienteRepository.acumular(any(), anyLong(), anyLong(), any(), anyLong())).thenReturn(1);
+
+        analiticaService.anularVentas(List.of(venta(2, "20.00", HOY, 1L, 10L)));
+
+        verify(ventaDiariaProductoRepository).acumular(HOY, 10L, -2, new BigDecimal("-20.00"), -1);
+        verify(ventaDiariaClienteRepository).acumular(HOY, 1L, -2, new BigDecimal("-20.00"), -1);
+    }
+
+    @Test
+    void registrarVentas_ShouldAddOrdenesToClienteSummaryOncePerCliente() {
+        OrdenResumenDTO primera = venta(2, "20.00", HOY.minusDays(1), 1L, 10L);
+        OrdenResumenDTO ultima = venta(3, "30.00", HOY, 1L, 11L);
+        when(resumenClienteRepository.acumular(any(), anyLong(), any(), any(), any())).thenReturn(1);
+
+        analiticaService.registrarVentas(List.of(ultima, primera));
+
+        verify(resumenClienteRepository).acumular(1L, 2, new BigDecimal("50.00"), primera.getFechaOrden(), ultima.getFechaOrden());
+        verify(insercionAcumulados, never()).insertarResumenCliente(any(), anyLong(), any(), any(), any());
+    }
+
+    @Test
+    void registrarVentas_ShouldCreateClienteSummaryOnFirstOrden() {
+        OrdenResumenDTO venta = venta(2, "20.00", HOY, 1L, 10L);
+        when(insercionAcumulados.insertarResumenCliente(any(), anyLong(), any(), any(), any())).thenReturn(true);
+
+        analiticaService.registrarVentas(List.of(venta));
+
+        verify(insercionAcumulados).insertarResumenCliente(1L, 1, new BigDecimal("20.00"), venta.getFechaOrden(), venta.getFechaOrden());
+        verify(resumenClienteRepository).acumular(1L, 1, new BigDecimal("20.00"), venta.getFechaOrden(), venta.getFechaOrden());
+    }
+
+    @Test
+    void anularVentas_ShouldSubtractOrdenesFromClienteSummary() {
+        analiticaService.anularVentas(List.of(venta(2, "20.00", HOY, 1L, 10L), venta(1, "5.00", HOY, 1L, 10L)));
+
+        verify(resumenClienteRepository).descontar(1L, 2, new BigDecimal("25.00"));
+        verify(insercionAcumulados, never()).insertarResumenCliente(any(), anyLong(), any(), any(), any());
+    }
+
+    @Test
+    void ventasPorPeriodo_ShouldGroupDaysByWeekStartingOnMonday() {
+        LocalDate desde = LocalDate.of(2024, 3, 1);
+        LocalDate hasta = LocalDate.of(2024, 3, 31);
+        when(ventaDiariaProductoRepository.sumarPorDia(desde, hasta)).thenReturn(List.of(
+                new VentasPeriodoDTO(LocalDate.of(2024, 3, 11), 1, BigDecimal.ONE, 1),
+                new VentasPeriodoDTO(LocalDate.of(2024, 3, 14), 2, BigDecimal.TEN, 2),
+                new VentasPeriodoDTO(LocalDate.of(2024, 3, 18), 4, BigDecimal.TEN, 1)));
+
+        List<VentasPeriodoDTO> semanas = analiticaService.ventasPorPeriodo(desde, hasta, AnaliticaService.Periodo.SEMANA, null, null);
+
+        assertEquals(2, semanas.size());
+        assertEquals(LocalDate.of(2024, 3, 11), semanas.get(0).getInicio());
+        assertEquals(3, semanas.get(0).getCantidad());
+        assertEquals(new BigDecimal("11"), semanas.get(0).getTotal());
+        assertEquals(3, semanas.get(0).getOrdenes());
+        assertEquals(LocalDate.of(2024, 3, 18), semanas.get(1).getInicio());
+    }
+
+    @Test
+    void ventasPorPeriodo_ShouldGroupClienteDaysByMonth() {
+        LocalDate desde = LocalDate.of(2024, 1, 1);
+        LocalDate hasta = LocalDate.of(2024, 2, 29);
+        when(ventaDiariaClienteRepository.sumarPorDiaDeCliente(1L, desde, hasta)).thenReturn(List.of(
+                new VentasPeriodoDTO(LocalDate.of(2024, 1, 3), 1, BigDecimal.ONE, 1),
+                new VentasPeriodoDTO(LocalDate.of(2024, 1, 30), 1, BigDecimal.ONE, 1),
+                new VentasPeriodoDTO(LocalDate.of(2024, 2, 2), 1, BigDecimal.ONE, 1)));
+
+        List<VentasPeriodoDTO> meses = analiticaService.ventasPorPeriodo(desde, hasta, AnaliticaService.Periodo.MES, null, 1L);
+
+        assertEquals(2, meses.size());
+        assertEquals(LocalDate.of(2024, 1, 1), meses.get(0).getInicio());
+        assertEquals(2, meses.get(0).getOrdenes());
+        assertEquals(LocalDate.of(2024, 2, 1), meses.get(1).getInicio());
+    }
+
+    @Test
+    void ventasPorPeriodo_ShouldRejectProductoAndClienteTogether() {
+        assertThrows(IllegalArgumentException.class, () ->
+                analiticaService.ventasPorPeriodo(HOY, HOY, AnaliticaService.Periodo.DIA, 1L, 1L));
+    }
+
+    @Test
+    void reconstruir_ShouldReplaceRowsOfTheRangeWithTotalsFromOrdenes() {
+        when(ordenRepository.streamResumenByFechaOrden(any(), any())).thenReturn(Stream.of(
+                venta(2, "20.00", HOY, 1L, 10L),
+                venta(1, "10.00", HOY, 1L, 10L)));
+
+        analiticaService.reconstruir(HOY, HOY);
+
+        verify(ordenRepository).streamResumenByFechaOrden(inicioDelDia(HOY), inicioDelDia(HOY.plusDays(1)));
+        verify(ventaDiariaProductoRepository).deleteByFechaBetween(HOY, HOY);
+        verify(ventaDiariaClienteRepository).deleteByFechaBetween(HOY, HOY);
+        verify(ventaDiariaProductoRepository).insertar(HOY, 10L, 3, new BigDecimal("30.00"), 2);
+        verify(ventaDiariaClienteRepository).insertar(HOY, 1L, 3, new BigDecimal("30.00"), 2);
+    }
+
+    private static OrdenResumenDTO venta(int cantidad, String total, LocalDate dia, Long clienteId, Long productoId) {
+        Date fecha = Date.from(dia.atTime(12, 0).atZone(ZoneId.systemDefault()).toInstant());
+        return new OrdenResumenDTO(null, cantidad, new BigDecimal(total), fecha, clienteId, productoId);
+    }
+
+    private static Date inicioDelDia(LocalDate dia) {
+        return Date.from(dia.atStartOfDay(ZoneId.systemDefault()).toInstant());
+    }
+}
@@ -1,21 +1,45 @@
 package com.springboot.microservicio.growby.service.impl;
 
+import com.springboot.microservicio.growby.cache.IndiceEmailClientes;
+import com.springboot.microservicio.growby.contador.ContadorEntidades;
+import com.springboot.microservicio.growby.contador.VersionesColecciones;
 import com.springboot.microservicio.growby.dto.ClienteDTO;
+import com.springboot.microservicio.growby.dto.ErrorFilaDTO;
+import com.springboot.microservicio.growby.dto.ResultadoImportacionDTO;
 import com.springboot.microservicio.growby.exception.ClienteNotFoundException;
+import com.springboot.microservicio.growby.exception.EmailEnUsoException;
+import com.springboot.microservicio.growby.importacion.ImportadorCsv;
 import com.springboot.microservicio.growby.model.Cliente;
+import com.springboot.microservicio.growby.model.ResumenCliente;
 import com.springboot.microservicio.growby.repository.ClienteRepository;
+import com.springboot.microservicio.growby.repository.ResumenClienteRepository;
+import org.hibernate.exception.ConstraintViolationException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
-
+import org.mockito.Spy;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.validation.Validation;
+import java.io.ByteArrayInputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
 import java.util.Arrays;
+import java.util.Date;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.*;
 
 class ClienteServiceImplTest {
@@ -26,6 +50,21 @@ class ClienteServiceImplTest {
     @Mock
     private ClienteRepository clienteRepository;
 
+    @Mock
+    private ContadorEntidades contadorEntidades;
+
+    @Mock
+    private IndiceEmailClientes indiceEmailClientes;
+
+    @Mock
+    private ResumenClienteRepository resumenClienteRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Spy
+    private VersionesColecciones versionesColecciones = new VersionesColecciones();
+
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
@@ -78,13 +117,16 @@ class ClienteServiceImplTest {
 
         Cliente cliente = new Cliente();
         cliente.setId(1L);
-        when(clienteRepository.findByEmail(clienteDTO.getEmail())).thenReturn(Optional.empty());
-        when(clienteRepository.save(any(Cliente.class))).thenReturn(cliente);
+        cliente.setEmail(clienteDTO.getEmail());
+        when(clienteRepository.saveAndFlush(any(Cliente.class))).thenReturn(cliente);
 
         Cliente result = clienteService.save(clienteDTO);
 
         assertEquals(cliente, result);
-        verify(clienteRepository, times(1)).save(any(Cliente.class));
+        verify(clienteRepository, times(1)).saveAndFlush(any(Cliente.class));
+        verify(clienteRepository, never()).findByEmail(any());
+        verify(indiceEmailClientes).registrar("juan@example.com");
+        verify(contadorEntidades).incrementar(ContadorEntidades.Entidad.CLIENTES, 1);
     }
 
     @Test
@@ -94,10 +136,49 @@ class ClienteServiceImplTest {
 
         Cliente existingCliente = new Cliente();
         existingCliente.setId(1L);
+        when(indiceEmailClientes.posiblementeEnUso(clienteDTO.getEmail())).thenReturn(true);
         when(clienteRepository.findByEmail(clienteDTO.getEmail())).thenReturn(Optional.of(existingCliente));
 
-        RuntimeException exception = assertThrows(RuntimeException.class, () -> clienteService.save(clienteDTO));
+        RuntimeException exception = assertThrows(EmailEnUsoException.class, () -> clienteService.save(clienteDTO));
         assertEquals("El email ya está en uso", exception.getMessage());
+        verify(clienteRepository, never()).saveAndFlush(any());
+        verify(versionesColecciones, never()).incrementarCliente(any());
+    }
+
+    @Test
+    void save_ShouldSaveIfIndexedEmailNoLongerExists() {
+        ClienteDTO clienteDTO = new ClienteDTO("Juan", "juan@example.com", "123456789");
+        Cliente cliente = new Cliente();
+        cliente.setId(1L);
+        when(indiceEmailClientes.posiblementeEnUso(clienteDTO.getEmail())).thenReturn(true);
+        when(clienteRepository.findByEmail(clienteDTO.getEmail())).thenReturn(Optional.empty());
+        when(clienteRepository.saveAndFlush(any(Cliente.class))).thenReturn(cliente);
+
+        assertEquals(cliente, clienteService.save(clienteDTO));
+    }
+
+    @Test
+    void save_ShouldThrowEmailEnUsoWhenUniqueConstraintIsViolated() {
+        ClienteDTO clienteDTO = new ClienteDTO("Juan", "juan@example.com", "123456789");
+        when(clienteRepository.saveAndFlush(any(Cliente.class)))
+                .thenThrow(violacionRestriccion("\"PUBLIC.UK_CLIENTES_EMAIL_INDEX_2 ON PUBLIC.CLIENTES(EMAIL NULLS FIRST)\"; SQL statement:"));
+
+        EmailEnUsoException exception = assertThrows(EmailEnUsoException.class, () -> clienteService.save(clienteDTO));
+
+        assertEquals("El email ya está en uso", exception.getMessage());
+        verify(indiceEmailClientes, never()).registrar(any());
+        verify(contadorEntidades, never()).incrementar(any(), anyLong());
+    }
+
+    @Test
+    void save_ShouldRethrowViolationsOfOtherConstraints() {
+        ClienteDTO clienteDTO = new ClienteDTO("Juan", "juan@example.com", "123456789");
+        DataIntegrityViolationException violacion = new DataIntegrityViolationException("could not execute statement",
+                new SQLException("Value too long for column \"TELEFONO\""));
+        when(clienteRepository.saveAndFlush(any(Cliente.class))).thenThrow(violacion);
+
+        assertSame(violacion, assertThrows(DataIntegrityViolationException.class, () -> clienteService.save(clienteDTO)));
+        verify(contadorEntidades, never()).incrementar(any(), anyLong());
     }
 
     @Test
@@ -109,13 +190,32 @@ class ClienteServiceImplTest {
         Cliente existingCliente = new Cliente();
         existingCliente.setId(id);
         when(clienteRepository.findById(id)).thenReturn(Optional.of(existingCliente));
-        when(clienteRepository.findByEmail(clienteDTO.getEmail())).thenReturn(Optional.empty());
-        when(clienteRepository.save(any(Cliente.class))).thenReturn(existingCliente);
+        when(clienteRepository.saveAndFlush(any(Cliente.class))).thenReturn(existingCliente);
 
         Cliente result = clienteService.update(id, clienteDTO);
 
         assertEquals(existingCliente, result);
         assertEquals(clienteDTO.getNombre(), result.getNombre());
+        verify(indiceEmailClientes).registrar("juan_actualizado@example.com");
+        verify(versionesColecciones).incrementar(VersionesColecciones.Coleccion.CLIENTES);
+        verify(versionesColecciones).incrementarCliente(id);
+    }
+
+    @Test
+    void update_ShouldThrowExceptionIfEmailBelongsToAnotherCliente() {
+        Long id = 1L;
+        ClienteDTO clienteDTO = new ClienteDTO("Juan", "maria@example.com", null);
+        Cliente existingCliente = new Cliente();
+        existingCliente.setId(id);
+        existingCliente.setEmail("juan@example.com");
+        Cliente otroCliente = new Cliente();
+        otroCliente.setId(2L);
+        when(clienteRepository.findById(id)).thenReturn(Optional.of(existingCliente));
+        when(indiceEmailClientes.posiblementeEnUso("maria@example.com")).thenReturn(true);
+        when(clienteRepository.findByEmail("maria@example.com")).thenReturn(Optional.of(otroCliente));
+
+        assertThrows(EmailEnUsoException.class, () -> clienteService.update(id, clienteDTO));
+        verify(clienteRepository, never()).saveAndFlush(any());
     }
 
     @Test
@@ -136,5 +236,153 @@ class ClienteServiceImplTest {
         clienteService.delete(id);
 
         verify(clienteRepository, times(1)).deleteById(id);
+        verify(contadorEntidades).decrementar(ContadorEntidades.Entidad.CLIENTES);
+    }
+
+    @Test
+    void countAllClientes_ShouldUseInMemoryCounter() {
+        when(contadorEntidades.valor(ContadorEntidades.Entidad.CLIENTES)).thenReturn(42L);
+
+        assertEquals(42L, clienteService.countAllClientes());
+        verify(clienteRepository, never()).count();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void importarCsv_ShouldSkipDuplicatedAndRegisteredEmailsAndSaveTheRestInOneBatch() throws Exception {
+        ClienteServiceImpl servicio = servicioConImportador();
+        String csv = "nombre,email,telefono\n"
+                + "Juan,juan@example.com,555-1\n"
+                + "María,maria@example.com,555-2\n"
+                + "Juan Otra Vez,juan@example.com,555-3\n"
+                + "Carlos,carlos@example.com,555-4\n";
+        when(indiceEmailClientes.posiblementeEnUso("maria@example.com")).thenReturn(true);
+        when(clienteRepository.findEmailsIn(Set.of("maria@example.com"))).thenReturn(List.of("maria@example.com"));
+        when(clienteRepository.saveAll(any(List.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        ResultadoImportacionDTO resultado = servicio.importarCsv(flujo(csv));
+
+        assertEquals(4, resultado.getFilasLeidas());
+        assertEquals(2, resultado.getFilasImportadas());
+        assertEquals(2, resultado.getFilasRechazadas());
+        assertEquals(List.of(3L, 4L), resultado.getErrores().stream()
+                .map(ErrorFilaDTO::getLinea).sorted().collect(Collectors.toList()));
+
+        ArgumentCaptor<List<Cliente>> captor = ArgumentCaptor.forClass(List.class);
+        verify(clienteRepository, times(1)).saveAll(captor.capture());
+        assertEquals(List.of("juan@example.com", "carlos@example.com"),
+                captor.getValue().stream().map(Cliente::getEmail).collect(Collectors.toList()));
+        verify(clienteRepository, never()).findByEmail(any());
+        verify(indiceEmailClientes).registrar("carlos@example.com");
+        verify(contadorEntidades).incrementar(ContadorEntidades.Entidad.CLIENTES, 2);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void importarCsv_ShouldRetryRowByRowWhenBatchViolatesUniqueEmail() throws Exception {
+        ClienteServiceImpl servicio = servicioConImportador();
+        String csv = "nombre,email\nJuan,juan@example.com\nMaría,maria@example.com\n";
+        when(clienteRepository.saveAll(any(List.class))).thenThrow(new DataIntegrityViolationException("uk_email"));
+        when(clienteRepository.saveAndFlush(any(Cliente.class)))
+                .thenThrow(violacionRestriccion("\"PUBLIC.UK_CLIENTES_EMAIL_INDEX_2 ON PUBLIC.CLIENTES(EMAIL NULLS FIRST)\"; SQL statement:"))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+
+        ResultadoImportacionDTO resultado = servicio.importarCsv(flujo(csv));
+
+        assertEquals(1, resultado.getFilasImportadas());
+        assertEquals(1, resultado.getFilasRechazadas());
+        assertEquals(2, resultado.getErrores().get(0).getLinea());
+        assertEquals("El email ya está en uso", resultado.getErrores().get(0).getMensaje());
+        verify(clienteRepository, never()).findEmailsIn(anyCollection());
+        verify(indiceEmailClientes).registrar("maria@example.com");
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void importarCsv_ShouldReportTheViolatedConstraintWhenRetryingRowByRow() throws Exception {
+        ClienteServiceImpl servicio = servicioConImportador();
+        String csv = "nombre,email\nJuan,juan@example.com\nMaría,maria@example.com\n";
+        when(clienteRepository.saveAll(any(List.class))).thenThrow(new DataIntegrityViolationException("lote"));
+        when(clienteRepository.saveAndFlush(any(Cliente.class)))
+                .thenThrow(violacionRestriccion("\"PUBLIC.CK_CLIENTES_TELEFONO ON PUBLIC.CLIENTES(TELEFONO)\"; SQL statement:"))
+                .thenThrow(new DataIntegrityViolationException("lote", new SQLException("Value too long for column \"NOMBRE\"")));
+
+        ResultadoImportacionDTO resultado = servicio.importarCsv(flujo(csv));
+
+        assertEquals(0, resultado.getFilasImportadas());
+        assertEquals(List.of("Restricción no cumplida: PUBLIC.CK_CLIENTES_TELEFONO",
+                        "No se pudo guardar la fila: Value too long for column \"NOMBRE\""),
+                resultado.getErrores().stream().map(ErrorFilaDTO::getMensaje).collect(Collectors.toList()));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void importarCsv_ShouldRejectEmailsOfEarlierBlocksAsAlreadyRegistered() throws Exception {
+        ClienteServiceImpl servicio = servicioConImportador(2);
+        String csv = "nombre,email\n"
+                + "Juan,juan@example.com\n"
+                + "María,maria@example.com\n"
+                + "Juan Otra Vez,juan@example.com\n"
+                + "Carlos,carlos@example.com\n";
+        when(indiceEmailClientes.posiblementeEnUso("juan@example.com")).thenReturn(false, true);
+        when(clienteRepository.findEmailsIn(Set.of("juan@example.com"))).thenReturn(List.of("juan@example.com"));
+        when(clienteRepository.saveAll(any(List.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        ResultadoImportacionDTO resultado = servicio.importarCsv(flujo(csv));
+
+        assertEquals(3, resultado.getFilasImportadas());
+        assertEquals(1, resultado.getFilasRechazadas());
+        assertEquals(4, resultado.getErrores().get(0).getLinea());
+        assertEquals("El email ya está en uso", resultado.getErrores().get(0).getMensaje());
+        verify(indiceEmailClientes).registrar("juan@example.com");
+    }
+
+    @Test
+    void getResumen_ShouldReadSummaryByPrimaryKey() {
+        ResumenCliente resumen = new ResumenCliente(1L, 3, BigDecimal.TEN, new Date(0), new Date());
+        when(resumenClienteRepository.findById(1L)).thenReturn(Optional.of(resumen));
+
+        assertSame(resumen, clienteService.getResumen(1L).orElseThrow());
+        verifyNoInteractions(clienteRepository);
+    }
+
+    @Test
+    void getResumen_ShouldReturnEmptySummaryForClienteWithoutOrdenes() {
+        when(resumenClienteRepository.findById(1L)).thenReturn(Optional.empty());
+        when(clienteRepository.existsById(1L)).thenReturn(true);
+
+        ResumenCliente resumen = clienteService.getResumen(1L).orElseThrow();
+
+        assertEquals(0, resumen.getOrdenes());
+        assertEquals(BigDecimal.ZERO, resumen.getTotal());
+        assertNull(resumen.getUltimaOrden());
+    }
+
+    @Test
+    void getResumen_ShouldReturnEmptyWhenClienteDoesNotExist() {
+        when(resumenClienteRepository.findById(1L)).thenReturn(Optional.empty());
+        when(clienteRepository.existsById(1L)).thenReturn(false);
+
+        assertTrue(clienteService.getResumen(1L).isEmpty());
+    }
+
+    private ClienteServiceImpl servicioConImportador() {
+        return servicioConImportador(500);
+    }
+
+    private ClienteServiceImpl servicioConImportador(int tamanoBloque) {
+        ImportadorCsv importadorCsv = new ImportadorCsv(Validation.buildDefaultValidatorFactory().getValidator(),
+                tamanoBloque);
+        return new ClienteServiceImpl(clienteRepository, contadorEntidades, indiceEmailClientes, importadorCsv,
+                resumenClienteRepository, versionesColecciones, transactionManager);
+    }
+
+    private static DataIntegrityViolationException violacionRestriccion(String restriccion) {
+        return new DataIntegrityViolationException("could not execute statement",
+                new ConstraintViolationException("could not execute statement", new SQLException(), restriccion));
+    }
+
+    private static ByteArrayInputStream flujo(String csv) {
+        return new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8));
     }
 }
@@ -1,27 +1,51 @@
 package com.springboot.microservicio.growby.service.impl;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.springboot.microservicio.growby.cache.ProductoCache;
+import com.springboot.microservicio.growby.contador.ContadorEntidades;
+import com.springboot.microservicio.growby.contador.VersionesColecciones;
 import com.springboot.microservicio.growby.dto.OrdenDTO;
+import com.springboot.microservicio.growby.dto.OrdenResumenDTO;
+import com.springboot.microservicio.growby.dto.PaginaCursorDTO;
+import com.springboot.microservicio.growby.dto.ResultadoOrdenDTO;
 import com.springboot.microservicio.growby.exception.OrdenNotFoundException;
+import com.springboot.microservicio.growby.exception.StockInsuficienteException;
 import com.springboot.microservicio.growby.model.Cliente;
 import com.springboot.microservicio.growby.model.Orden;
 import com.springboot.microservicio.growby.model.Producto;
 import com.springboot.microservicio.growby.repository.ClienteRepository;
 import com.springboot.microservicio.growby.repository.OrdenRepository;
-import com.springboot.microservicio.growby.repository.ProductoRepository;
+import com.springboot.microservicio.growby.service.AnaliticaService;
+import com.springboot.microservicio.growby.stock.ReservasStock;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
-
+import org.mockito.Spy;
+import org.mockito.Spy;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.persistence.EntityManager;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 class OrdenServiceImplTest {
@@ -30,11 +54,32 @@ class OrdenServiceImplTest {
     private OrdenRepository ordenRepository;
 
     @Mock
-    private ProductoRepository productoRepository;
+    private ProductoCache productoCache;
 
     @Mock
     private ClienteRepository clienteRepository;
 
+    @Mock
+    private ContadorEntidades contadorEntidades;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private AnaliticaService analiticaService;
+
+    @Spy
+    private VersionesColecciones versionesColecciones = new VersionesColecciones();
+
+    @Mock
+    private ReservasStock reservasStock;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
     @InjectMocks
     private OrdenServiceImpl ordenService;
 
@@ -66,6 +111,152 @@ class OrdenServiceImplTest {
         assertEquals(expectedOrdenes, actualOrdenes);
     }
 
+    @Test
+    void findAllPaginado_ShouldReturnNextCursorWhenMoreRowsExist() {
+        List<Orden> filas = new ArrayList<>();
+        for (long id = 11; id <= 13; id++) {
+            Orden orden = new Orden();
+            orden.setId(id);
+            filas.add(orden);
+        }
+        when(ordenRepository.findByIdGreaterThanOrderByIdAsc(10L, PageRequest.of(0, 3))).thenReturn(filas);
+
+        PaginaCursorDTO<Orden> pagina = ordenService.findAll(10L, 2);
+
+        assertEquals(2, pagina.getContenido().size());
+        assertEquals(12L, pagina.getSiguienteCursor());
+    }
+
+    @Test
+    void findOrdenesByClienteIdPaginado_ShouldReturnNullCursorOnLastPage() {
+        Long clienteId = 1L;
+        Orden orden = new Orden();
+        orden.setId(1L);
+        List<Orden> filas = new ArrayList<>();
+        filas.add(orden);
+        when(ordenRepository.findByClienteIdAndIdGreaterThanOrderByIdAsc(clienteId, 0L, PageRequest.of(0, 51)))
+                .thenReturn(filas);
+
+        PaginaCursorDTO<Orden> pagina = ordenService.findOrdenesByClienteId(clienteId, null, 50);
+
+        assertEquals(filas, pagina.getContenido());
+        assertNull(pagina.getSiguienteCursor());
+    }
+
+    @Test
+    void findByFechaOrden_ShouldContinueFromTheDateOfTheCursor() {
+        Date desde = new Date(1_000);
+        Date hasta = new Date(9_000);
+        Date fechaCursor = new Date(5_000);
+        Orden orden = new Orden();
+        orden.setId(8L);
+        when(ordenRepository.findFechaOrdenById(7L)).thenReturn(Optional.of(fechaCursor));
+        when(ordenRepository.findByClienteIdAndFechaOrden(1L, 2L, fechaCursor, hasta, 7L, PageRequest.of(0, 11)))
+                .thenReturn(List.of(orden));
+
+        PaginaCursorDTO<Orden> pagina = ordenService.findByFechaOrden(1L, 2L, desde, hasta, 7L, 10);
+
+        assertEquals(List.of(orden), pagina.getContenido());
+        assertNull(pagina.getSiguienteCursor());
+    }
+
+    @Test
+    void findResumenByFechaOrden_ShouldUseProductoIndexWithoutCliente() {
+        Date desde = new Date(1_000);
+        when(ordenRepository.findResumenByProductoIdAndFechaOrden(eq(2L), eq(desde), any(), eq(0L), eq(PageRequest.of(0, 51))))
+                .thenReturn(List.of());
+
+        ordenService.findResumenByFechaOrden(null, 2L, desde, null, null, 50, false);
+
+        verify(ordenRepository).findResumenByProductoIdAndFechaOrden(eq(2L), eq(desde), any(), eq(0L), any());
+        verify(ordenRepository, never()).findFechaOrdenById(any());
+    }
+
+    @Test
+    void findByFechaOrden_ShouldFailWhenCursorOrdenDoesNotExist() {
+        when(ordenRepository.findFechaOrdenById(7L)).thenReturn(Optional.empty());
+
+        assertThrows(OrdenNotFoundException.class, () -> ordenService.findByFechaOrden(1L, null, null, null, 7L, 10));
+    }
+
+    @Test
+    void findResumen_ShouldUseNamedProjectionWhenRequested() {
+        List<OrdenResumenDTO> filas = new ArrayList<>();
+        filas.add(new OrdenResumenDTO(1L, 1, BigDecimal.ONE, new Date(), 2L, 3L, "Cliente", "Producto"));
+        filas.add(new OrdenResumenDTO(2L, 1, BigDecimal.ONE, new Date(), 2L, 3L, "Cliente", "Producto"));
+        when(ordenRepository.findResumenConNombresByIdGreaterThan(0L, PageRequest.of(0, 2))).thenReturn(filas);
+
+        PaginaCursorDTO<OrdenResumenDTO> pagina = ordenService.findResumen(null, 1, true);
+
+        assertEquals(1, pagina.getContenido().size());
+        assertEquals(1L, pagina.getSiguienteCursor());
+        verify(ordenRepository, never()).findResumenByIdGreaterThan(any(), any());
+    }
+
+    @Test
+    void findResumenByClienteId_ShouldUseIdOnlyProjectionByDefault() {
+        when(ordenRepository.findResumenByClienteIdAndIdGreaterThan(5L, 0L, PageRequest.of(0, 51))).thenReturn(new ArrayList<>());
+
+        PaginaCursorDTO<OrdenResumenDTO> pagina = ordenService.findResumenByClienteId(5L, null, 50, false);
+
+        assertTrue(pagina.getContenido().isEmpty());
+        assertNull(pagina.getSiguienteCursor());
+    }
+
+    @Test
+    void findAllPaginado_ShouldCapLimit() {
+        when(ordenRepository.findByIdGreaterThanOrderByIdAsc(0L, PageRequest.of(0, OrdenServiceImpl.LIMITE_MAXIMO + 1)))
+                .thenReturn(new ArrayList<>());
+
+        PaginaCursorDTO<Orden> pagina = ordenService.findAll(null, 100_000);
+
+        assertTrue(pagina.getContenido().isEmpty());
+        verify(ordenRepository).findByIdGreaterThanOrderByIdAsc(0L, PageRequest.of(0, OrdenServiceImpl.LIMITE_MAXIMO + 1));
+    }
+
+    @Test
+    void exportarNdjson_ShouldWriteOneLinePerOrdenAndClearPersistenceContext() throws IOException {
+        int totalOrdenes = OrdenServiceImpl.INTERVALO_LIMPIEZA_EXPORTACION * 2 + 1;
+        when(ordenRepository.streamAll()).thenReturn(IntStream.rangeClosed(1, totalOrdenes).mapToObj(i -> {
+            Orden orden = new Orden();
+            orden.setId((long) i);
+            orden.setCantidad(1);
+            return orden;
+        }));
+        ByteArrayOutputStream salida = new ByteArrayOutputStream();
+
+        ordenService.exportarNdjson(salida);
+
+        String[] lineas = salida.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(totalOrdenes, lineas.length);
+        assertTrue(lineas[0].startsWith("{\"id\":1,"));
+        assertTrue(lineas[1].startsWith("{\"id\":2,"));
+        verify(entityManager, times(2)).clear();
+    }
+
+    @Test
+    void exportarNdjson_ShouldFlushOncePerBlockNotPerOrden() throws IOException {
+        int totalOrdenes = OrdenServiceImpl.INTERVALO_LIMPIEZA_EXPORTACION * 2 + 1;
+        when(ordenRepository.streamAll()).thenReturn(IntStream.rangeClosed(1, totalOrdenes).mapToObj(i -> {
+            Orden orden = new Orden();
+            orden.setId((long) i);
+            orden.setCantidad(1);
+            return orden;
+        }));
+        AtomicInteger vaciados = new AtomicInteger();
+        OutputStream salida = new ByteArrayOutputStream() {
+            @Override
+            public void flush() {
+                vaciados.incrementAndGet();
+            }
+        };
+
+        ordenService.exportarNdjson(salida);
+
+        // Uno por cada bloque completo y otro al terminar.
+        assertEquals(3, vaciados.get());
+    }
+
     @Test
     void save_ShouldThrowExceptionIfClienteNotFound() {
         OrdenDTO ordenDTO = new OrdenDTO();
@@ -78,6 +269,113 @@ class OrdenServiceImplTest {
         assertEquals("Producto no encontrado", exception.getMessage());
     }
 
+    @Test
+    void save_ShouldRegisterPendingStockWhenProductoTracksStock() {
+        Producto producto = new Producto();
+        producto.setId(10L);
+        producto.setPrecio(BigDecimal.ONE);
+        producto.setStock(5);
+        Cliente cliente = new Cliente();
+        cliente.setId(20L);
+        when(productoCache.findById(10L)).thenReturn(Optional.of(producto));
+        when(clienteRepository.findById(20L)).thenReturn(Optional.of(cliente));
+        when(reservasStock.reservar(producto, 2)).thenReturn(true);
+        when(ordenRepository.save(any(Orden.class))).thenAnswer(invocation -> {
+            Orden orden = invocation.getArgument(0);
+            orden.setId(100L);
+            return orden;
+        });
+
+        Orden orden = ordenService.save(new OrdenDTO(2, null, 20L, 10L));
+
+        assertTrue(orden.getStockPendiente());
+        verify(reservasStock).registrarPendiente(100L);
+    }
+
+    @Test
+    void save_ShouldNotSaveOrdenWithoutStock() {
+        Producto producto = new Producto();
+        producto.setId(10L);
+        producto.setPrecio(BigDecimal.ONE);
+        producto.setStock(1);
+        when(productoCache.findById(10L)).thenReturn(Optional.of(producto));
+        when(clienteRepository.findById(20L)).thenReturn(Optional.of(new Cliente()));
+        when(reservasStock.reservar(producto, 2)).thenThrow(new StockInsuficienteException("Stock insuficiente"));
+
+        assertThrows(StockInsuficienteException.class, () -> ordenService.save(new OrdenDTO(2, null, 20L, 10L)));
+        verify(ordenRepository, never()).save(any());
+        verifyNoInteractions(contadorEntidades, analiticaService);
+    }
+
+    @Test
+    void saveAll_ShouldRejectOrdenesWithoutStock() {
+        Producto producto = new Producto();
+        producto.setId(10L);
+        producto.setPrecio(BigDecimal.ONE);
+        producto.setStock(3);
+        Cliente cliente = new Cliente();
+        cliente.setId(20L);
+        when(productoCache.findAllById(Set.of(10L))).thenReturn(Map.of(10L, producto));
+        when(clienteRepository.findAllById(Set.of(20L))).thenReturn(List.of(cliente));
+        when(reservasStock.reservar(producto, 2)).thenReturn(true)
+                .thenThrow(new StockInsuficienteException("Stock insuficiente"));
+        when(ordenRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<Orden> ordenes = invocation.getArgument(0);
+            ordenes.get(0).setId(100L);
+            return ordenes;
+        });
+
+        List<ResultadoOrdenDTO> resultados = ordenService.saveAll(List.of(
+                new OrdenDTO(2, null, 20L, 10L),
+                new OrdenDTO(2, null, 20L, 10L)));
+
+        assertEquals(ResultadoOrdenDTO.CREADA, resultados.get(0).getEstado());
+        assertEquals(ResultadoOrdenDTO.RECHAZADA, resultados.get(1).getEstado());
+        assertEquals("Stock insuficiente", resultados.get(1).getMensaje());
+        verify(ordenRepository).saveAll(argThat(ordenes -> ((List<Orden>) ordenes).size() == 1));
+        verify(reservasStock).registrarPendiente(100L);
+    }
+
+    @Test
+    void saveAll_ShouldResolveReferencesOnceAndReportEachOrden() {
+        Producto producto = new Producto();
+        producto.setId(10L);
+        producto.setPrecio(BigDecimal.valueOf(2.5));
+        Cliente cliente = new Cliente();
+        cliente.setId(20L);
+        when(productoCache.findAllById(Set.of(10L, 99L))).thenReturn(Map.of(10L, producto));
+        when(clienteRepository.findAllById(Set.of(20L))).thenReturn(List.of(cliente));
+        when(ordenRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<Orden> ordenes = invocation.getArgument(0);
+            long id = 100;
+            for (Orden orden : ordenes) {
+                orden.setId(id++);
+            }
+            return ordenes;
+        });
+
+        List<ResultadoOrdenDTO> resultados = ordenService.saveAll(List.of(
+                new OrdenDTO(4, null, 20L, 10L),
+                new OrdenDTO(1, null, 20L, 99L),
+                new OrdenDTO(0, null, 20L, 10L),
+                new OrdenDTO(2, null, 20L, 10L)));
+
+        assertEquals(4, resultados.size());
+        assertEquals(ResultadoOrdenDTO.CREADA, resultados.get(0).getEstado());
+        assertEquals(100L, resultados.get(0).getOrdenId());
+        assertEquals("Producto no encontrado", resultados.get(1).getMensaje());
+        assertEquals(ResultadoOrdenDTO.RECHAZADA, resultados.get(2).getEstado());
+        assertEquals(101L, resultados.get(3).getOrdenId());
+        assertEquals(3, resultados.get(3).getIndice());
+        verify(productoCache, times(1)).findAllById(any());
+        verify(clienteRepository, times(1)).findAllById(any());
+        verify(ordenRepository, times(1)).saveAll(anyList());
+        verify(contadorEntidades).incrementar(ContadorEntidades.Entidad.ORDENES, 2);
+        verify(analiticaService).registrarVentas(argThat(ventas -> ventas.size() == 2
+                && ventas.stream().allMatch(venta -> venta.getProductoId() == 10L && venta.getClienteId() == 20L)));
+        verify(versionesColecciones, times(1)).incrementarCliente(20L);
+    }
+
     @Test
     void update_ShouldThrowExceptionIfOrdenNotFound() {
         Long id = 1L;
@@ -106,6 +404,11 @@ class OrdenServiceImplTest {
         existingOrden.setId(id);
         existingOrden.setCantidad(1);
         existingOrden.setTotal(BigDecimal.valueOf(50.0));
+        existingOrden.setFechaOrden(new Date(0));
+
+        Cliente existingCliente = new Cliente();
+        existingCliente.setId(2L);
+        existingOrden.setCliente(existingCliente);
 
         Producto existingProducto = new Producto();
         existingProducto.setId(productoId);
@@ -117,7 +420,7 @@ class OrdenServiceImplTest {
         producto.setId(productoId);
         producto.setPrecio(BigDecimal.valueOf(30.0));
 
-        when(productoRepository.findById(productoId)).thenReturn(Optional.of(producto));
+        when(productoCache.findById(productoId)).thenReturn(Optional.of(producto));
 
         Cliente cliente = new Cliente();
         cliente.setId(clienteId);
@@ -132,16 +435,43 @@ class OrdenServiceImplTest {
 
         BigDecimal expectedTotal = producto.getPrecio().multiply(BigDecimal.valueOf(ordenDTO.getCantidad()));
         assertEquals(expectedTotal, actualOrden.getTotal());
+        verify(analiticaService).anularVentas(argThat(ventas -> {
+            OrdenResumenDTO anterior = ventas.iterator().next();
+            return anterior.getCantidad() == 1 && anterior.getClienteId() == 2L
+                    && BigDecimal.valueOf(50.0).equals(anterior.getTotal());
+        }));
+        verify(analiticaService).registrarVentas(argThat(ventas -> {
+            OrdenResumenDTO nueva = ventas.iterator().next();
+            return nueva.getCantidad() == 2 && nueva.getClienteId() == clienteId
+                    && expectedTotal.equals(nueva.getTotal());
+        }));
+        verify(versionesColecciones).incrementarCliente(2L);
+        verify(versionesColecciones).incrementarCliente(clienteId);
     }
 
-
-
     @Test
-    void delete_ShouldInvokeDeleteById() {
+    void delete_ShouldDeleteOrdenAndSubtractItFromAnalytics() {
         Long id = 1L;
+        Cliente cliente = new Cliente();
+        cliente.setId(5L);
+        Orden orden = new Orden(id, 3, BigDecimal.TEN, new Date(), cliente, new Producto(), null, 0);
+        when(ordenRepository.findById(id)).thenReturn(Optional.of(orden));
+        String etagCliente = versionesColecciones.etagCliente(5L);
 
         ordenService.delete(id);
 
-        verify(ordenRepository, times(1)).deleteById(id);
+        verify(ordenRepository, times(1)).delete(orden);
+        verify(contadorEntidades).decrementar(ContadorEntidades.Entidad.ORDENES);
+        verify(analiticaService).anularVentas(argThat(ventas -> ventas.iterator().next().getCantidad() == 3));
+        assertNotEquals(etagCliente, versionesColecciones.etagCliente(5L));
+    }
+
+    @Test
+    void delete_ShouldThrowExceptionIfOrdenNotFound() {
+        when(ordenRepository.findById(1L)).thenReturn(Optional.empty());
+
+        assertThrows(OrdenNotFoundException.class, () -> ordenService.delete(1L));
+        verify(ordenRepository, never()).delete(any());
+        verifyNoInteractions(contadorEntidades, analiticaService, versionesColecciones);
     }
 }
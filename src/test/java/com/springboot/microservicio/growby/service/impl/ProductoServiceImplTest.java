@@ -1,30 +1,65 @@
 package com.springboot.microservicio.growby.service.impl;
 
+import com.springboot.microservicio.growby.cache.IndiceBusquedaProductos;
+import com.springboot.microservicio.growby.cache.ProductoCache;
+import com.springboot.microservicio.growby.contador.ContadorEntidades;
+import com.springboot.microservicio.growby.contador.VersionesColecciones;
+import com.springboot.microservicio.growby.dto.ErrorFilaDTO;
+import com.springboot.microservicio.growby.dto.PaginaDTO;
 import com.springboot.microservicio.growby.dto.ProductoDTO;
+import com.springboot.microservicio.growby.dto.ResultadoImportacionDTO;
 import com.springboot.microservicio.growby.exception.ProductoNotFoundException;
+import com.springboot.microservicio.growby.importacion.ImportadorCsv;
 import com.springboot.microservicio.growby.model.Producto;
 import com.springboot.microservicio.growby.repository.ProductoRepository;
+import com.springboot.microservicio.growby.stock.ReservasStock;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.validation.Validation;
+import java.io.ByteArrayInputStream;
 
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.Date;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 class ProductoServiceImplTest {
 
     private ProductoServiceImpl productoService;
     private ProductoRepository productoRepository;
+    private ContadorEntidades contadorEntidades;
+    private VersionesColecciones versionesColecciones;
+    private ReservasStock reservasStock;
+    private IndiceBusquedaProductos indiceBusqueda;
 
     @BeforeEach
     void setUp() {
         productoRepository = mock(ProductoRepository.class);
-        productoService = new ProductoServiceImpl(productoRepository);
+        contadorEntidades = mock(ContadorEntidades.class);
+        versionesColecciones = new VersionesColecciones();
+        reservasStock = mock(ReservasStock.class);
+        indiceBusqueda = mock(IndiceBusquedaProductos.class);
+        productoService = new ProductoServiceImpl(productoRepository,
+                new ProductoCache(productoRepository, 100, Duration.ofMinutes(10)), contadorEntidades,
+                new ImportadorCsv(Validation.buildDefaultValidatorFactory().getValidator(), 2),
+                versionesColecciones, reservasStock, indiceBusqueda, mock(PlatformTransactionManager.class));
     }
 
     @Test
@@ -46,6 +81,38 @@ class ProductoServiceImplTest {
         assertEquals("Producto 2", productos.get(1).getNombre());
     }
 
+    @Test
+    @SuppressWarnings("unchecked")
+    void findAll_ShouldSortByEstadoFirstAndBreakTiesById() {
+        Producto producto = new Producto();
+        producto.setId(1L);
+        when(productoRepository.findAll(any(Specification.class), any(Pageable.class)))
+                .thenAnswer(invocacion -> new PageImpl<>(List.of(producto), invocacion.getArgument(1), 2001));
+
+        PaginaDTO<Producto> pagina = productoService.findAll(Producto.Estado.ACTIVO, BigDecimal.ONE, null, null, null,
+                Sort.by(Sort.Direction.DESC, "fechaCreacion"), 2, 10_000);
+
+        ArgumentCaptor<Pageable> captor = ArgumentCaptor.forClass(Pageable.class);
+        verify(productoRepository).findAll(any(Specification.class), captor.capture());
+        assertEquals(PageRequest.of(2, ProductoServiceImpl.TAMANO_PAGINA_MAXIMO,
+                Sort.by("estado").and(Sort.by(Sort.Direction.DESC, "fechaCreacion", "id"))), captor.getValue());
+        assertEquals(List.of(producto), pagina.getContenido());
+        assertEquals(2, pagina.getPagina());
+        assertEquals(2001, pagina.getTotalElementos());
+        assertEquals(21, pagina.getTotalPaginas());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void findAll_ShouldNotSortByEstadoWithoutEstadoFilter() {
+        when(productoRepository.findAll(any(Specification.class), any(Pageable.class)))
+                .thenAnswer(invocacion -> new PageImpl<>(List.of(), invocacion.getArgument(1), 0));
+
+        productoService.findAll(null, null, null, null, null, Sort.by("id"), -1, 0);
+
+        verify(productoRepository).findAll(any(Specification.class), eq(PageRequest.of(0, 1, Sort.by("id"))));
+    }
+
     @Test
     void getProductoById_ShouldReturnProduct_WhenExists() {
         Producto producto = new Producto();
@@ -60,6 +127,33 @@ class ProductoServiceImplTest {
         assertEquals("Producto 1", result.get().getNombre());
     }
 
+    @Test
+    void getProductoById_ShouldHitDatabaseOnlyOnce_WhenCached() {
+        Producto producto = new Producto();
+        producto.setId(1L);
+        when(productoRepository.findById(1L)).thenReturn(Optional.of(producto));
+
+        productoService.getProductoById(1L);
+        productoService.getProductoById(1L);
+
+        verify(productoRepository, times(1)).findById(1L);
+        assertEquals(1, productoService.getEstadisticasCache().getAciertos());
+        assertEquals(1, productoService.getEstadisticasCache().getFallos());
+    }
+
+    @Test
+    void delete_ShouldInvalidateCachedProduct() {
+        Producto producto = new Producto();
+        producto.setId(1L);
+        when(productoRepository.findById(1L)).thenReturn(Optional.of(producto), Optional.empty());
+        productoService.getProductoById(1L);
+
+        productoService.delete(1L);
+
+        assertFalse(productoService.getProductoById(1L).isPresent());
+        verify(productoRepository, times(2)).findById(1L);
+    }
+
     @Test
     void getProductoById_ShouldReturnEmpty_WhenDoesNotExist() {
         when(productoRepository.findById(1L)).thenReturn(Optional.empty());
@@ -88,6 +182,56 @@ class ProductoServiceImplTest {
 
         assertEquals("Nuevo Producto", result.getNombre());
         verify(productoRepository, times(1)).save(any(Producto.class));
+        verify(contadorEntidades).incrementar(ContadorEntidades.Entidad.PRODUCTOS, 1);
+        verify(indiceBusqueda).indexar(savedProducto);
+    }
+
+    @Test
+    void update_ShouldReindexProduct() {
+        Producto producto = new Producto();
+        producto.setId(1L);
+        producto.setNombre("Producto");
+        when(productoRepository.findById(1L)).thenReturn(Optional.of(producto));
+        when(productoRepository.save(producto)).thenReturn(producto);
+
+        productoService.update(1L, new ProductoDTO("Camión", "De juguete", BigDecimal.TEN, "ACTIVO", null));
+
+        verify(indiceBusqueda).indexar(producto);
+        assertEquals("Camión", producto.getNombre());
+    }
+
+    @Test
+    void update_ShouldNotSetStockWhenTheUpdateFails() {
+        Producto producto = new Producto();
+        producto.setId(1L);
+        when(productoRepository.findById(1L)).thenReturn(Optional.of(producto));
+
+        assertThrows(IllegalArgumentException.class, () ->
+                productoService.update(1L, new ProductoDTO("Camión", "De juguete", BigDecimal.TEN, "Activo", 5)));
+
+        verify(reservasStock, never()).fijar(any(), anyInt());
+    }
+
+    @Test
+    void update_ShouldSetStockAfterSaving() {
+        Producto producto = new Producto();
+        producto.setId(1L);
+        when(productoRepository.findById(1L)).thenReturn(Optional.of(producto));
+        when(productoRepository.save(producto)).thenReturn(producto);
+
+        Producto actualizado = productoService.update(1L, new ProductoDTO("Camión", "De juguete", BigDecimal.TEN, "ACTIVO", 5));
+
+        verify(reservasStock).fijar(1L, 5);
+        assertEquals(5, actualizado.getStock());
+    }
+
+    @Test
+    void buscar_ShouldBoundLimit() {
+        productoService.buscar("camion", Producto.Estado.ACTIVO, 10_000);
+        productoService.buscar("camion", null, 0);
+
+        verify(indiceBusqueda).buscar("camion", Producto.Estado.ACTIVO, ProductoServiceImpl.LIMITE_BUSQUEDA_MAXIMO);
+        verify(indiceBusqueda).buscar("camion", null, 1);
     }
 
     @Test
@@ -102,8 +246,41 @@ class ProductoServiceImplTest {
 
     @Test
     void delete_ShouldCallDeleteById() {
+        String etag = versionesColecciones.etag(VersionesColecciones.Coleccion.PRODUCTOS);
+
         productoService.delete(1L);
 
         verify(productoRepository, times(1)).deleteById(1L);
+        verify(indiceBusqueda).eliminar(1L);
+        assertNotEquals(etag, versionesColecciones.etag(VersionesColecciones.Coleccion.PRODUCTOS));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void importarCsv_ShouldSaveValidRowsInBlocksAndReportInvalidOnes() throws Exception {
+        String csv = "nombre,descripcion,precio,estado\n"
+                + "Producto A,Primero,10.00,ACTIVO\n"
+                + "Producto B,Segundo,abc,ACTIVO\n"
+                + "Producto C,Tercero,5.50,Agotado\n"
+                + "Producto D,Cuarto,-1,ACTIVO\n"
+                + "Producto E,Quinto,7.25,inactivo\n"
+                + "Producto F,Sexto,1,ACTIVO\n";
+
+        ResultadoImportacionDTO resultado = productoService.importarCsv(
+                new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals(6, resultado.getFilasLeidas());
+        assertEquals(3, resultado.getFilasImportadas());
+        assertEquals(3, resultado.getFilasRechazadas());
+        assertEquals(List.of(3L, 4L, 5L), resultado.getErrores().stream().map(ErrorFilaDTO::getLinea).sorted().collect(Collectors.toList()));
+
+        ArgumentCaptor<List<Producto>> captor = ArgumentCaptor.forClass(List.class);
+        verify(productoRepository, times(2)).saveAll(captor.capture());
+        assertEquals(1, captor.getAllValues().get(0).size());
+        assertEquals(2, captor.getAllValues().get(1).size());
+        assertEquals(Producto.Estado.INACTIVO, captor.getAllValues().get(1).get(0).getEstado());
+        verify(contadorEntidades).incrementar(ContadorEntidades.Entidad.PRODUCTOS, 2);
+        verify(contadorEntidades).incrementar(ContadorEntidades.Entidad.PRODUCTOS, 1);
+        verify(indiceBusqueda, times(3)).indexar(any(Producto.class));
     }
 }
@@ -0,0 +1,130 @@
+package com.springboot.microservicio.growby.service.impl;
+
+import com.springboot.microservicio.growby.dto.ClienteDTO;
+import com.springboot.microservicio.growby.dto.OrdenDTO;
+import com.springboot.microservicio.growby.dto.ProductoDTO;
+import com.springboot.microservicio.growby.model.Cliente;
+import com.springboot.microservicio.growby.model.Orden;
+import com.springboot.microservicio.growby.model.Producto;
+import com.springboot.microservicio.growby.service.ClienteService;
+import com.springboot.microservicio.growby.service.OrdenService;
+import com.springboot.microservicio.growby.service.ProductoService;
+import org.hibernate.FlushMode;
+import org.hibernate.SessionFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostLoadEventListener;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.web.server.LocalServerPort;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.persistence.EntityManagerFactory;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Transacciones y conexiones de cada operación a través de la API REST, contadas con las estadísticas
+ * de Hibernate. El volcado de stock está parado para que no abra transacciones durante la medición.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "growby.stock.intervalo-volcado-ms=3600000")
+class TransaccionesServiciosTest {
+
+    @Autowired
+    private ClienteService clienteService;
+
+    @Autowired
+    private ProductoService productoService;
+
+    @Autowired
+    private OrdenService ordenService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @LocalServerPort
+    private int puerto;
+
+    private WebTestClient cliente;
+    private Statistics estadisticas;
+    private Cliente comprador;
+    private Producto producto;
+    private final List<Long> ordenes = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        cliente = WebTestClient.bindToServer().baseUrl("http://localhost:" + puerto).build();
+        estadisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        comprador = clienteService.save(new ClienteDTO("Comprador", "transacciones@example.com", null));
+        producto = productoService.save(new ProductoDTO("Producto", "Descripción", new BigDecimal("10.00"), "Activo", null));
+        estadisticas.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        ordenes.forEach(ordenService::delete);
+        clienteService.delete(comprador.getId());
+        productoService.delete(producto.getId());
+    }
+
+    @Test
+    void postOrden_ShouldReadAndWriteTheOrdenInOneTransaction() {
+        Orden orden = cliente.post().uri("/api/ordenes")
+                .bodyValue(new OrdenDTO(2, null, comprador.getId(), producto.getId())).exchange()
+                .expectStatus().is2xxSuccessful()
+                .expectBody(Orden.class).returnResult().getResponseBody();
+        ordenes.add(orden.getId());
+
+        // La lectura del cliente, la orden y sus acumulados de ventas van en la misma transacción.
+        assertEquals(1, estadisticas.getTransactionCount());
+        assertEquals(1, estadisticas.getSuccessfulTransactionCount());
+        assertEquals(1, estadisticas.getConnectCount());
+    }
+
+    @Test
+    void putCliente_ShouldReadAndWriteTheClienteInOneTransaction() {
+        cliente.put().uri("/api/clientes/{id}", comprador.getId())
+                .bodyValue(new ClienteDTO("Comprador", "transacciones.nuevo@example.com", "555-0000")).exchange()
+                .expectStatus().is2xxSuccessful();
+
+        assertEquals(1, estadisticas.getTransactionCount());
+        assertEquals(1, estadisticas.getSuccessfulTransactionCount());
+        assertEquals(1, estadisticas.getConnectCount());
+    }
+
+    @Test
+    void getClientes_ShouldReadInOneReadOnlyTransactionWithoutFlushing() {
+        AtomicBoolean transaccionSoloLectura = new AtomicBoolean();
+        AtomicBoolean entidadSoloLectura = new AtomicBoolean();
+        AtomicReference<FlushMode> modoVaciado = new AtomicReference<>();
+        PostLoadEventListener alCargar = evento -> {
+            if (evento.getEntity() instanceof Cliente && ((Cliente) evento.getEntity()).getId().equals(comprador.getId())) {
+                transaccionSoloLectura.set(TransactionSynchronizationManager.isCurrentTransactionReadOnly());
+                entidadSoloLectura.set(evento.getSession().isReadOnly(evento.getEntity()));
+                modoVaciado.set(evento.getSession().getHibernateFlushMode());
+            }
+        };
+        entityManagerFactory.unwrap(SessionFactoryImplementor.class).getServiceRegistry()
+                .getService(EventListenerRegistry.class).appendListeners(EventType.POST_LOAD, alCargar);
+
+        cliente.get().uri("/api/clientes").exchange().expectStatus().isOk();
+
+        assertTrue(transaccionSoloLectura.get());
+        assertTrue(entidadSoloLectura.get());
+        assertEquals(FlushMode.MANUAL, modoVaciado.get());
+        assertEquals(1, estadisticas.getTransactionCount());
+        assertEquals(1, estadisticas.getConnectCount());
+    }
+}
@@ -0,0 +1,203 @@
+package com.springboot.microservicio.growby.stock;
+
+import com.springboot.microservicio.growby.exception.StockInsuficienteException;
+import com.springboot.microservicio.growby.model.Orden;
+import com.springboot.microservicio.growby.model.Producto;
+import com.springboot.microservicio.growby.repository.OrdenRepository;
+import com.springboot.microservicio.growby.repository.ProductoRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+class ReservasStockTest {
+
+    private ProductoRepository productoRepository;
+    private OrdenRepository ordenRepository;
+    private ReservasStock reservasStock;
+
+    @BeforeEach
+    void setUp() {
+        productoRepository = mock(ProductoRepository.class);
+        ordenRepository = mock(OrdenRepository.class);
+        reservasStock = new ReservasStock(productoRepository, ordenRepository, mock(PlatformTransactionManager.class), 2);
+    }
+
+    @Test
+    void reservar_ShouldIgnoreProductsWithoutStock() {
+        assertFalse(reservasStock.reservar(producto(1L, null), 5));
+        verifyNoInteractions(productoRepository);
+    }
+
+    @Test
+    void reservar_ShouldLoadAvailableUnitsOnceAndRejectWhenExhausted() {
+        when(productoRepository.findStockDisponible(1L)).thenReturn(Optional.of(3L));
+        Producto producto = producto(1L, 10);
+
+        assertTrue(reservasStock.reservar(producto, 2));
+        assertThrows(StockInsuficienteException.class, () -> reservasStock.reservar(producto, 2));
+        assertTrue(reservasStock.reservar(producto, 1));
+
+        assertEquals(Optional.of(0L), reservasStock.disponibles(producto));
+        verify(productoRepository, times(1)).findStockDisponible(1L);
+    }
+
+    @Test
+    void reservar_ShouldNeverOversellUnderConcurrency() throws Exception {
+        when(productoRepository.findStockDisponible(1L)).thenReturn(Optional.of(1000L));
+        Producto producto = producto(1L, 1000);
+        ExecutorService hilos = Executors.newFixedThreadPool(16);
+        List<Callable<Boolean>> reservas = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            reservas.add(() -> {
+                try {
+                    return reservasStock.reservar(producto, 1);
+                } catch (StockInsuficienteException e) {
+                    return false;
+                }
+            });
+        }
+
+        int aceptadas = 0;
+        for (Future<Boolean> reserva : hilos.invokeAll(reservas)) {
+            aceptadas += reserva.get() ? 1 : 0;
+        }
+        hilos.shutdown();
+
+        assertEquals(1000, aceptadas);
+        assertEquals(Optional.of(0L), reservasStock.disponibles(producto));
+    }
+
+    @Test
+    void reservar_ShouldCountUnitsAlreadyReservedByTheSameOrden() {
+        when(productoRepository.findStockDisponible(1L)).thenReturn(Optional.of(0L));
+        Producto producto = producto(1L, 5);
+
+        assertTrue(reservasStock.reservar(producto, 3, 4));
+
+        assertEquals(Optional.of(1L), reservasStock.disponibles(producto));
+    }
+
+    @Test
+    void volcar_ShouldSubtractPendingOrdersOncePerProductAndMarkThem() {
+        Orden primera = orden(10L, 1L, 2);
+        Orden segunda = orden(11L, 1L, 3);
+        Orden tercera = orden(12L, 2L, 1);
+        when(ordenRepository.findConStockPendienteByIdIn(List.of(10L, 11L))).thenReturn(List.of(primera, segunda));
+        when(ordenRepository.findConStockPendienteByIdIn(List.of(12L))).thenReturn(List.of(tercera));
+        reservasStock.registrarPendiente(10L);
+        reservasStock.registrarPendiente(11L);
+        reservasStock.registrarPendiente(12L);
+
+        reservasStock.volcar();
+
+        verify(productoRepository).ajustarStock(1L, -5L);
+        verify(productoRepository).ajustarStock(2L, -1L);
+        assertFalse(primera.getStockPendiente());
+        assertFalse(tercera.getStockPendiente());
+        assertEquals(0, reservasStock.pendientes());
+    }
+
+    @Test
+    void volcar_ShouldKeepOrdersPendingWhenTheBatchFails() {
+        when(ordenRepository.findConStockPendienteByIdIn(anyCollection())).thenThrow(new QueryTimeoutException("timeout"));
+        reservasStock.registrarPendiente(10L);
+
+        reservasStock.volcar();
+
+        assertEquals(1, reservasStock.pendientes());
+        verify(productoRepository, never()).ajustarStock(any(), anyLong());
+    }
+
+    @Test
+    void recuperar_ShouldSubtractOrdersLeftPendingBeforeRestart() {
+        when(ordenRepository.findIdsConStockPendiente()).thenReturn(List.of(10L));
+        when(ordenRepository.findConStockPendienteByIdIn(List.of(10L))).thenReturn(List.of(orden(10L, 1L, 4)));
+
+        reservasStock.recuperar();
+
+        verify(productoRepository).ajustarStock(1L, -4L);
+        assertEquals(0, reservasStock.pendientes());
+    }
+
+    @Test
+    void devolver_ShouldOnlyWriteToDatabaseForOrdersAlreadySubtracted() {
+        when(productoRepository.findStockDisponible(1L)).thenReturn(Optional.of(10L));
+        Producto producto = producto(1L, 10);
+        reservasStock.reservar(producto, 4);
+
+        reservasStock.devolver(1L, 2, Boolean.TRUE, 2);
+        verify(productoRepository, never()).ajustarStock(any(), anyLong());
+
+        reservasStock.devolver(1L, 2, Boolean.FALSE, 2);
+        verify(productoRepository).ajustarStock(1L, 2L);
+
+        reservasStock.devolver(1L, 2, null, 2);
+        assertEquals(Optional.of(10L), reservasStock.disponibles(producto));
+    }
+
+    @Test
+    void fijar_ShouldCorrectTheDatabaseStockByTheChangeInAvailableUnits() {
+        when(productoRepository.findStockDisponible(1L)).thenReturn(Optional.of(10L));
+        Producto producto = producto(1L, 10);
+        reservasStock.reservar(producto, 3);
+
+        reservasStock.fijar(1L, 20);
+
+        // Las 3 unidades reservadas se descontarán de la base de datos al volcar su orden.
+        verify(productoRepository).corregirStock(1L, 13L);
+        verify(productoRepository, never()).fijarStock(any(), anyInt());
+        assertEquals(Optional.of(20L), reservasStock.disponibles(producto));
+    }
+
+    @Test
+    void fijar_ShouldRestoreAvailableUnitsWhenTheDatabaseWriteFails() {
+        when(productoRepository.findStockDisponible(1L)).thenReturn(Optional.of(10L));
+        when(productoRepository.corregirStock(1L, 10L)).thenThrow(new QueryTimeoutException("timeout"));
+        Producto producto = producto(1L, 10);
+
+        assertThrows(QueryTimeoutException.class, () -> reservasStock.fijar(1L, 20));
+
+        assertEquals(Optional.of(10L), reservasStock.disponibles(producto));
+    }
+
+    @Test
+    void fijar_ShouldSetTheStockOfProductsWithoutStock() {
+        when(productoRepository.findStockDisponible(1L)).thenReturn(Optional.empty());
+
+        reservasStock.fijar(1L, 5);
+
+        verify(productoRepository).fijarStock(1L, 5);
+        assertEquals(Optional.of(5L), reservasStock.disponibles(producto(1L, 5)));
+    }
+
+    private static Producto producto(Long id, Integer stock) {
+        Producto producto = new Producto();
+        producto.setId(id);
+        producto.setStock(stock);
+        return producto;
+    }
+
+    private static Orden orden(Long id, Long productoId, int cantidad) {
+        Orden orden = new Orden();
+        orden.setId(id);
+        orden.setCantidad(cantidad);
+        orden.setProducto(producto(productoId, 100));
+        orden.setStockPendiente(true);
+        return orden;
+    }
+}